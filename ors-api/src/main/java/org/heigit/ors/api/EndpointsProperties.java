@@ -13,7 +13,7 @@ import static com.graphhopper.routing.weighting.Weighting.INFINITE_U_TURN_COSTS;
 @Configuration
 @ConfigurationProperties(prefix = "ors.endpoints")
 public class EndpointsProperties {
-    private EndpointDefaultProperties defaults;
+    private EndpointDefaultProperties defaults = new EndpointDefaultProperties();
     private EndpointRoutingProperties routing;
     private EndpointMatrixProperties matrix;
     private EndpointIsochroneProperties isochrone;
@@ -62,6 +62,7 @@ public class EndpointsProperties {
 
     public static class EndpointDefaultProperties {
         private String attribution;
+        private int geojsonCoordinatePrecision = 6;
 
         public String getAttribution() {
             return attribution;
@@ -70,6 +71,14 @@ public class EndpointsProperties {
         public void setAttribution(String attribution) {
             this.attribution = attribution;
         }
+
+        public int getGeojsonCoordinatePrecision() {
+            return geojsonCoordinatePrecision;
+        }
+
+        public void setGeojsonCoordinatePrecision(int geojsonCoordinatePrecision) {
+            this.geojsonCoordinatePrecision = geojsonCoordinatePrecision;
+        }
     }
 
     public static class EndpointRoutingProperties {
@@ -4,6 +4,7 @@ import com.graphhopper.util.Helper;
 import com.typesafe.config.ConfigFactory;
 import org.heigit.ors.routing.RoutingProfileType;
 import org.heigit.ors.routing.configuration.RouteProfileConfiguration;
+import org.heigit.ors.routing.graphhopper.extensions.reader.SharedOSMImport;
 import org.heigit.ors.util.FileUtility;
 import org.heigit.ors.util.ProfileTools;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -22,6 +23,7 @@ public class EngineProperties {
     private String sourceFile;
     private String graphsRootPath;
     private ElevationProperties elevation;
+    private OsmImportProperties osmImport = new OsmImportProperties();
     private ProfileProperties profileDefault;
     private Map<String, ProfileProperties> profiles;
 
@@ -65,6 +67,14 @@ public class EngineProperties {
         this.elevation = elevation;
     }
 
+    public OsmImportProperties getOsmImport() {
+        return osmImport;
+    }
+
+    public void setOsmImport(OsmImportProperties osmImport) {
+        this.osmImport = osmImport;
+    }
+
     public ProfileProperties getProfileDefault() {
         return profileDefault;
     }
@@ -99,6 +109,8 @@ public class EngineProperties {
                         graphPath = Paths.get(rootGraphsPath, graphPath).toString();
                 }
                 convertedProfile.setGraphPath(graphPath);
+                convertedProfile.setGraphDataAccess(profile.graphDataAccess != null ? profile.graphDataAccess : profileDefault.getGraphDataAccess());
+                convertedProfile.setGraphPreload(profile.graphPreload != null ? profile.graphPreload : profileDefault.getGraphPreload());
                 convertedProfile.setEncoderOptions(profile.getEncoderOptionsString());
                 convertedProfile.setOptimize(profile.optimize != null ? profile.optimize : profileDefault.getOptimize());
                 convertedProfile.setEncoderFlagsSize(profile.encoderFlagsSize != null ? profile.encoderFlagsSize : profileDefault.getEncoderFlagsSize());
@@ -196,6 +208,36 @@ public class EngineProperties {
         }
     }
 
+    public static class OsmImportProperties {
+        private int workerThreads = SharedOSMImport.DEFAULT_WORKER_THREADS;
+        private long joinTimeout = SharedOSMImport.DEFAULT_JOIN_TIMEOUT;
+        private int queueCapacity = SharedOSMImport.DEFAULT_QUEUE_CAPACITY;
+
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        public long getJoinTimeout() {
+            return joinTimeout;
+        }
+
+        public void setJoinTimeout(long joinTimeout) {
+            this.joinTimeout = joinTimeout;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
     public static class ProfileProperties {
         private String profile;
         private Boolean enabled;
@@ -206,6 +248,8 @@ public class EngineProperties {
         private Boolean instructions;
         private Boolean optimize;
         private String graphPath;
+        private String graphDataAccess;
+        private Integer graphPreload;
         private Map<String, String> encoderOptions;
         //        For later use when refactoring RoutingManagerConfiguration
 //        private PreparationProperties preparation;
@@ -300,6 +344,22 @@ public class EngineProperties {
             this.graphPath = graphPath;
         }
 
+        public String getGraphDataAccess() {
+            return graphDataAccess != null ? graphDataAccess : "RAM_STORE";
+        }
+
+        public void setGraphDataAccess(String graphDataAccess) {
+            this.graphDataAccess = graphDataAccess;
+        }
+
+        public int getGraphPreload() {
+            return graphPreload != null ? graphPreload : 0;
+        }
+
+        public void setGraphPreload(Integer graphPreload) {
+            this.graphPreload = graphPreload;
+        }
+
         public Map<String, String> getEncoderOptions() {
             return encoderOptions;
         }
@@ -0,0 +1,123 @@
+/*
+ * This file is part of Openrouteservice.
+ *
+ * Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ * GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this library;
+ * if not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.heigit.ors.api.controllers;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.apache.log4j.Logger;
+import org.heigit.ors.routing.RoutingProfile;
+import org.heigit.ors.routing.RoutingProfileManager;
+import org.heigit.ors.routing.RoutingProfileManagerStatus;
+import org.json.simple.JSONObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Hot swap of the graphs served by a running instance. Only available if {@code ors.endpoints.admin.enabled} is set.
+ */
+@RestController
+@Tag(name = "Admin service", description = "Replace the graphs of the running api")
+@RequestMapping("/v2/admin")
+@ConditionalOnProperty(prefix = "ors.endpoints.admin", name = "enabled", havingValue = "true")
+public class AdminAPI {
+    private static final Logger LOGGER = Logger.getLogger(AdminAPI.class.getName());
+
+    @PostMapping("/profiles/{profile}/reload")
+    public ResponseEntity<?> reloadProfile(@PathVariable String profile, @RequestParam("graph_path") String graphPath) {
+        return swap(profile, () -> RoutingProfileManager.getInstance().reloadProfile(profile, graphPath));
+    }
+
+    @PostMapping("/profiles/{profile}/rollback")
+    public ResponseEntity<?> rollbackProfile(@PathVariable String profile) {
+        return swap(profile, () -> RoutingProfileManager.getInstance().rollbackProfile(profile));
+    }
+
+    @GetMapping("/profiles/{profile}/reload")
+    public ResponseEntity<?> getReloadStatus(@PathVariable String profile) {
+        JSONObject jsonResponse = new JSONObject();
+        jsonResponse.put("profile", profile);
+        HttpStatus status = HttpStatus.OK;
+
+        Future<RoutingProfile> reload = RoutingProfileManagerStatus.isReady() ? RoutingProfileManager.getInstance().getReload(profile) : null;
+        if (reload == null) {
+            jsonResponse.put("error", "The graph of profile '%s' has not been replaced.".formatted(profile));
+            status = HttpStatus.NOT_FOUND;
+        } else if (!reload.isDone()) {
+            jsonResponse.put("status", "loading");
+        } else {
+            try {
+                RoutingProfile rp = reload.get();
+                jsonResponse.put("status", "ready");
+                jsonResponse.put("graph_path", rp.getConfiguration().getGraphPath());
+                jsonResponse.put("creation_date", rp.getGraphProperties().get("osmreader.import.date"));
+            } catch (ExecutionException e) {
+                jsonResponse.put("status", "failed");
+                jsonResponse.put("error", "Loading the new graph failed, the previous graph is still served: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                jsonResponse.put("error", e.getMessage());
+                status = HttpStatus.INTERNAL_SERVER_ERROR;
+            }
+        }
+
+        return createResponse(jsonResponse, status);
+    }
+
+    private interface Swap {
+        Future<RoutingProfile> submit() throws Exception;
+    }
+
+    private ResponseEntity<?> swap(String profile, Swap swap) {
+        JSONObject jsonResponse = new JSONObject();
+        jsonResponse.put("profile", profile);
+        HttpStatus status;
+
+        if (!RoutingProfileManagerStatus.isReady()) {
+            jsonResponse.put("error", "Graphs can only be replaced once all profiles have been loaded.");
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        } else {
+            try {
+                swap.submit();
+                jsonResponse.put("status", "loading");
+                status = HttpStatus.ACCEPTED;
+            } catch (IllegalArgumentException e) {
+                jsonResponse.put("error", e.getMessage());
+                status = HttpStatus.BAD_REQUEST;
+            } catch (IllegalStateException e) {
+                jsonResponse.put("error", e.getMessage());
+                status = HttpStatus.CONFLICT;
+            } catch (Exception e) {
+                LOGGER.error("Replacing the graph of profile '%s' failed.".formatted(profile), e);
+                jsonResponse.put("error", e.getMessage());
+                status = HttpStatus.INTERNAL_SERVER_ERROR;
+            }
+        }
+
+        return createResponse(jsonResponse, status);
+    }
+
+    private static ResponseEntity<?> createResponse(JSONObject jsonResponse, HttpStatus status) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<>(jsonResponse.toJSONString(), headers, status);
+    }
+}
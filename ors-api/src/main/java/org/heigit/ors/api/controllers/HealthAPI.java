@@ -26,6 +26,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @Tag(name = "Health service", description = "Get information on the health of the api")
 @RequestMapping("/v2/health")
@@ -37,14 +39,24 @@ public class HealthAPI {
         JSONObject jsonResponse = new JSONObject();
         HttpStatus status;
 
-        if (!RoutingProfileManagerStatus.isReady()) {
-            jsonResponse.put("status", "not ready");
-            status = HttpStatus.SERVICE_UNAVAILABLE;
-        } else {
+        if (RoutingProfileManagerStatus.isReady()) {
             jsonResponse.put("status", "ready");
             status = HttpStatus.OK;
+        } else if (RoutingProfileManagerStatus.isAnyProfileReady() && !RoutingProfileManagerStatus.hasFailed()) {
+            // loaded profiles are served while the others are still loading
+            jsonResponse.put("status", "partially ready");
+            status = HttpStatus.OK;
+        } else {
+            jsonResponse.put("status", "not ready");
+            status = HttpStatus.SERVICE_UNAVAILABLE;
         }
 
+        JSONObject jsonProfiles = new JSONObject();
+        for (Map.Entry<String, RoutingProfileManagerStatus.ProfileState> profile : RoutingProfileManagerStatus.getProfileStates().entrySet())
+            jsonProfiles.put(profile.getKey(), profile.getValue().name().toLowerCase());
+        if (!jsonProfiles.isEmpty())
+            jsonResponse.put("profiles", jsonProfiles);
+
         return new ResponseEntity<>(jsonResponse.toJSONString(), headers, status);
     }
 }
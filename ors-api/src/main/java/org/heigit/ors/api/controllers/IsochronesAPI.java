@@ -31,6 +31,8 @@ import org.heigit.ors.api.EndpointsProperties;
 import org.heigit.ors.api.SystemMessageProperties;
 import org.heigit.ors.api.errors.CommonResponseEntityExceptionHandler;
 import org.heigit.ors.api.requests.isochrones.IsochronesRequest;
+import org.heigit.ors.api.responses.common.binary.BinaryResponseWriter;
+import org.heigit.ors.api.responses.isochrones.binary.BinaryIsochronesResponse;
 import org.heigit.ors.api.responses.isochrones.geojson.GeoJSONIsochronesResponse;
 import org.heigit.ors.api.services.IsochronesService;
 import org.heigit.ors.api.util.AppConfigMigration;
@@ -39,6 +41,7 @@ import org.heigit.ors.isochrones.IsochroneMapCollection;
 import org.heigit.ors.isochrones.IsochronesErrorCodes;
 import org.heigit.ors.routing.APIEnums;
 import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -141,6 +144,29 @@ public class IsochronesAPI {
         return new GeoJSONIsochronesResponse(request, isoMaps, systemMessageProperties, endpointsProperties);
     }
 
+    @PostMapping(value = "/{profile}/binary", produces = {BinaryResponseWriter.MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(
+            description = "Returns the isochrones in the compact binary format described [here](https://GIScience.github.io/openrouteservice/documentation/Binary-Response.html)",
+            summary = "Isochrones Service Binary"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Standard response for successfully processed requests. Returns the binary isochrones representation.",
+            content = {@Content(
+                    mediaType = BinaryResponseWriter.MEDIA_TYPE,
+                    schema = @Schema(type = "string", format = "binary")
+            )
+            })
+    public byte[] getBinaryIsochrones(
+            @Parameter(description = "Specifies the route profile.", required = true, example = "driving-car") @PathVariable APIEnums.Profile profile,
+            @Parameter(description = "The request payload", required = true) @RequestBody IsochronesRequest request) throws Exception {
+        request.setProfile(profile);
+        request.setResponseType(APIEnums.RouteResponseType.GEOJSON);
+
+        isochronesService.generateIsochronesFromRequest(request);
+        return new BinaryIsochronesResponse(request.getIsoMaps()).getBytes();
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<Object> handleMissingParams(final MissingServletRequestParameterException e) {
         return errorHandler.handleStatusCodeException(new MissingParameterException(IsochronesErrorCodes.MISSING_PARAMETER, e.getParameterName()));
@@ -30,6 +30,8 @@ import org.heigit.ors.api.EndpointsProperties;
 import org.heigit.ors.api.SystemMessageProperties;
 import org.heigit.ors.api.errors.CommonResponseEntityExceptionHandler;
 import org.heigit.ors.api.requests.routing.RouteRequest;
+import org.heigit.ors.api.responses.common.binary.BinaryResponseWriter;
+import org.heigit.ors.api.responses.routing.binary.BinaryRouteResponse;
 import org.heigit.ors.api.responses.routing.geojson.GeoJSONRouteResponse;
 import org.heigit.ors.api.responses.routing.gpx.GPXRouteResponse;
 import org.heigit.ors.api.responses.routing.json.JSONRouteResponse;
@@ -41,6 +43,7 @@ import org.heigit.ors.routing.RouteResult;
 import org.heigit.ors.routing.RoutingErrorCodes;
 import org.locationtech.jts.geom.Coordinate;
 import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -136,6 +139,14 @@ public class RoutingAPI {
         return getJsonRoute(profile, request);
     }
 
+    // Selected instead of the JSON default when the binary format is requested in the Accept header
+    @PostMapping(value = "/{profile}", produces = {BinaryResponseWriter.MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(hidden = true)
+    public byte[] getDefaultBinary(@PathVariable APIEnums.Profile profile,
+                                   @RequestBody RouteRequest request) throws StatusCodeException {
+        return getBinaryRoute(profile, request);
+    }
+
     @PostMapping(value = "/{profile}/json", produces = {"application/json;charset=UTF-8"})
     @Operation(
             description = "Returns a route between two or more locations for a selected profile and its settings as JSON",
@@ -208,6 +219,31 @@ public class RoutingAPI {
         return new GeoJSONRouteResponse(result, request, systemMessageProperties, endpointsProperties);
     }
 
+    @PostMapping(value = "/{profile}/binary", produces = {BinaryResponseWriter.MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(
+            description = "Returns a route between two or more locations for a selected profile and its settings in the compact binary format described [here](https://GIScience.github.io/openrouteservice/documentation/Binary-Response.html)",
+            summary = "Directions Service Binary"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Standard response for successfully processed requests. Returns the binary route representation.",
+            content = {@Content(
+                    mediaType = BinaryResponseWriter.MEDIA_TYPE,
+                    schema = @Schema(type = "string", format = "binary")
+            )
+            })
+    public byte[] getBinaryRoute(
+            @Parameter(description = "Specifies the route profile.", required = true, example = "driving-car") @PathVariable APIEnums.Profile profile,
+            @Parameter(description = "The request payload", required = true) @RequestBody RouteRequest request) throws StatusCodeException {
+        request.setProfile(profile);
+        // the binary response carries the same content as JSON, so the request is processed as such
+        request.setResponseType(APIEnums.RouteResponseType.JSON);
+
+        RouteResult[] result = routingService.generateRouteFromRequest(request);
+
+        return new BinaryRouteResponse(result, request).getBytes();
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<Object> handleMissingParams(final MissingServletRequestParameterException e) {
         return errorHandler.handleStatusCodeException(new MissingParameterException(RoutingErrorCodes.MISSING_PARAMETER, e.getParameterName()));
@@ -59,7 +59,7 @@ public class StatusAPI {
 
         jInfo.put("engine", AppInfo.getEngineInfo());
 
-        if (RoutingProfileManagerStatus.isReady()) {
+        if (RoutingProfileManagerStatus.isAnyProfileReady()) {
             RoutingProfileManager profileManager = RoutingProfileManager.getInstance();
 
             if (!profileManager.getProfiles().getUniqueProfiles().isEmpty()) {
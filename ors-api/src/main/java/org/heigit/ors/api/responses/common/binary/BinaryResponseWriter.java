@@ -0,0 +1,136 @@
+/*
+ * This file is part of Openrouteservice.
+ *
+ * Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ * GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this library;
+ * if not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.heigit.ors.api.responses.common.binary;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writer for the binary response format. Numbers are big endian; counts, indices and the coordinate deltas are
+ * variable length integers (7 bits per byte, least significant group first), signed values are zigzag encoded.
+ * Strings are written as their length in bytes followed by the UTF-8 bytes.
+ * <p>
+ * Coordinates are stored as integers in units of {@link #COORDINATE_FACTOR} and elevations in units of
+ * {@link #ELEVATION_FACTOR}, each value as difference to the previous point of the same line or ring.
+ */
+public class BinaryResponseWriter {
+    public static final String MEDIA_TYPE = "application/vnd.openrouteservice.binary";
+    public static final double COORDINATE_FACTOR = 1e6;
+    public static final double ELEVATION_FACTOR = 1e2;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+    /**
+     * @param magic   four byte identifier of the response type
+     * @param version version of the layout following the header
+     */
+    public BinaryResponseWriter(int magic, int version) {
+        writeLong(magic, 4);
+        out.write(version);
+    }
+
+    public BinaryResponseWriter writeByte(int value) {
+        out.write(value);
+        return this;
+    }
+
+    public BinaryResponseWriter writeDouble(double value) {
+        writeLong(Double.doubleToLongBits(value), 8);
+        return this;
+    }
+
+    public BinaryResponseWriter writeVarInt(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+        return this;
+    }
+
+    public BinaryResponseWriter writeSignedVarInt(long value) {
+        return writeVarInt((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Write a string, null is written like an empty string.
+     */
+    public BinaryResponseWriter writeString(String value) {
+        if (value == null || value.isEmpty())
+            return writeVarInt(0);
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(utf8.length);
+        out.writeBytes(utf8);
+        return this;
+    }
+
+    /**
+     * Write the number of coordinates followed by their delta encoded values.
+     */
+    public BinaryResponseWriter writeCoordinates(Coordinate[] coordinates, boolean includeElevation) {
+        if (coordinates == null)
+            return writeVarInt(0);
+        writeVarInt(coordinates.length);
+        long prevX = 0;
+        long prevY = 0;
+        long prevZ = 0;
+        for (Coordinate c : coordinates) {
+            long x = Math.round(c.x * COORDINATE_FACTOR);
+            long y = Math.round(c.y * COORDINATE_FACTOR);
+            writeSignedVarInt(x - prevX);
+            writeSignedVarInt(y - prevY);
+            if (includeElevation) {
+                long z = Double.isNaN(c.z) ? 0 : Math.round(c.z * ELEVATION_FACTOR);
+                writeSignedVarInt(z - prevZ);
+                prevZ = z;
+            }
+            prevX = x;
+            prevY = y;
+        }
+        return this;
+    }
+
+    /**
+     * Write the number of points of a two dimensional sequence followed by their delta encoded values.
+     */
+    public BinaryResponseWriter writeCoordinates(CoordinateSequence sequence) {
+        int size = sequence.size();
+        writeVarInt(size);
+        long prevX = 0;
+        long prevY = 0;
+        for (int i = 0; i < size; i++) {
+            long x = Math.round(sequence.getX(i) * COORDINATE_FACTOR);
+            long y = Math.round(sequence.getY(i) * COORDINATE_FACTOR);
+            writeSignedVarInt(x - prevX);
+            writeSignedVarInt(y - prevY);
+            prevX = x;
+            prevY = y;
+        }
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    private void writeLong(long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8)
+            out.write((int) (value >>> shift));
+    }
+}
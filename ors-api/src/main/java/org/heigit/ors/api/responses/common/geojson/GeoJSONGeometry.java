@@ -0,0 +1,129 @@
+/*
+ * This file is part of Openrouteservice.
+ *
+ * Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ * GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this library;
+ * if not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.heigit.ors.api.responses.common.geojson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.geotools.geometry.jts.coordinatesequence.CoordinateSequences;
+import org.heigit.ors.util.FormatUtility;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+
+/**
+ * A GeoJSON LineString or Polygon geometry which is written by its serializer directly from the JTS coordinates,
+ * without building an intermediate JSON tree. Polygon shells are written counterclockwise and holes clockwise.
+ */
+@JsonSerialize(using = GeoJSONGeometry.Serializer.class)
+public class GeoJSONGeometry {
+    public static final int DEFAULT_COORDINATE_PRECISION = 6;
+    private static final int ELEVATION_PRECISION = 1;
+
+    private final String type;
+    private final Coordinate[] coordinates;
+    private final Polygon polygon;
+    private final boolean includeElevation;
+    private int coordinatePrecision = DEFAULT_COORDINATE_PRECISION;
+
+    private GeoJSONGeometry(String type, Coordinate[] coordinates, Polygon polygon, boolean includeElevation) {
+        this.type = type;
+        this.coordinates = coordinates;
+        this.polygon = polygon;
+        this.includeElevation = includeElevation;
+    }
+
+    public static GeoJSONGeometry lineString(Coordinate[] coordinates, boolean includeElevation) {
+        return new GeoJSONGeometry("LineString", coordinates, null, includeElevation);
+    }
+
+    public static GeoJSONGeometry polygon(Polygon polygon) {
+        return new GeoJSONGeometry("Polygon", null, polygon, false);
+    }
+
+    /**
+     * @param coordinatePrecision number of decimals of the longitudes and latitudes, elevations keep one decimal
+     */
+    public GeoJSONGeometry setCoordinatePrecision(int coordinatePrecision) {
+        this.coordinatePrecision = coordinatePrecision;
+        return this;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public static class Serializer extends StdSerializer<GeoJSONGeometry> {
+        public Serializer() {
+            super(GeoJSONGeometry.class);
+        }
+
+        @Override
+        public void serialize(GeoJSONGeometry geometry, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", geometry.type);
+            generator.writeFieldName("coordinates");
+            if (geometry.polygon != null)
+                writePolygon(generator, geometry.polygon, geometry.coordinatePrecision);
+            else
+                writeCoordinates(generator, geometry.coordinates, geometry.includeElevation, geometry.coordinatePrecision);
+            generator.writeEndObject();
+        }
+
+        private static void writeCoordinates(JsonGenerator generator, Coordinate[] coordinates, boolean includeElevation, int precision) throws IOException {
+            generator.writeStartArray();
+            for (Coordinate c : coordinates) {
+                generator.writeStartArray();
+                generator.writeNumber(FormatUtility.roundToDecimals(c.x, precision));
+                generator.writeNumber(FormatUtility.roundToDecimals(c.y, precision));
+                if (includeElevation)
+                    generator.writeNumber(FormatUtility.roundToDecimals(c.z, ELEVATION_PRECISION));
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+        }
+
+        private static void writePolygon(JsonGenerator generator, Polygon polygon, int precision) throws IOException {
+            generator.writeStartArray();
+            LineString shell = polygon.getExteriorRing();
+            writeRing(generator, shell, shell.getNumPoints() > 1 && !CoordinateSequences.isCCW(shell.getCoordinateSequence()), precision);
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                LineString ring = polygon.getInteriorRingN(i);
+                writeRing(generator, ring, ring.getNumPoints() > 1 && CoordinateSequences.isCCW(ring.getCoordinateSequence()), precision);
+            }
+            generator.writeEndArray();
+        }
+
+        private static void writeRing(JsonGenerator generator, LineString ring, boolean reverse, int precision) throws IOException {
+            CoordinateSequence sequence = ring.getCoordinateSequence();
+            int size = sequence.size();
+            generator.writeStartArray();
+            for (int i = 0; i < size; i++) {
+                int index = reverse ? size - i - 1 : i;
+                generator.writeStartArray();
+                generator.writeNumber(FormatUtility.roundToDecimals(sequence.getX(index), precision));
+                generator.writeNumber(FormatUtility.roundToDecimals(sequence.getY(index), precision));
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+        }
+
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Openrouteservice.
+ *
+ * Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ * GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this library;
+ * if not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.heigit.ors.api.responses.isochrones.binary;
+
+import org.heigit.ors.api.responses.common.binary.BinaryResponseWriter;
+import org.heigit.ors.common.AttributeValue;
+import org.heigit.ors.isochrones.Isochrone;
+import org.heigit.ors.isochrones.IsochroneMap;
+import org.heigit.ors.isochrones.IsochroneMapCollection;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Binary representation of isochrones, written directly from the {@link IsochroneMap}s of the engine. See
+ * {@link BinaryResponseWriter} for the encoding of the values. Layout:
+ * <pre>
+ * header:      magic "ORSI", version
+ * maps:        count, then per location
+ *   group index, center lon, center lat
+ *   isochrones count, then per isochrone
+ *     value, flags (bit 0 area, bit 1 reachfactor, bit 2 total population), the flagged values
+ *     polygons: count, then per polygon rings: count, then coordinates of the shell followed by the holes
+ * </pre>
+ * Intersections of isochrones are not included.
+ */
+public class BinaryIsochronesResponse {
+    public static final int MAGIC = 0x4F525349; // "ORSI"
+    public static final int VERSION = 1;
+
+    private static final int FLAG_AREA = 1;
+    private static final int FLAG_REACHFACTOR = 2;
+    private static final int FLAG_TOTAL_POP = 4;
+
+    private final byte[] bytes;
+
+    public BinaryIsochronesResponse(IsochroneMapCollection isoMaps) {
+        BinaryResponseWriter writer = new BinaryResponseWriter(MAGIC, VERSION);
+        writer.writeVarInt(isoMaps.size());
+        for (IsochroneMap isoMap : isoMaps.getIsochroneMaps()) {
+            writer.writeVarInt(isoMap.getTravellerId());
+            writer.writeDouble(isoMap.getCenter().x).writeDouble(isoMap.getCenter().y);
+            writer.writeVarInt(isoMap.getIsochronesCount());
+            for (Isochrone isochrone : isoMap.getIsochrones())
+                writeIsochrone(writer, isochrone);
+        }
+        bytes = writer.toByteArray();
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    private static void writeIsochrone(BinaryResponseWriter writer, Isochrone isochrone) {
+        Double totalPop = null;
+        if (isochrone.getAttributes() != null) {
+            for (AttributeValue attributeValue : isochrone.getAttributes()) {
+                if (attributeValue.getName().equalsIgnoreCase("total_pop"))
+                    totalPop = attributeValue.getValue();
+            }
+        }
+        int flags = (isochrone.hasArea() ? FLAG_AREA : 0) | (isochrone.hasReachfactor() ? FLAG_REACHFACTOR : 0) | (totalPop != null ? FLAG_TOTAL_POP : 0);
+
+        writer.writeDouble(isochrone.getValue()).writeByte(flags);
+        if (isochrone.hasArea())
+            writer.writeDouble(isochrone.getArea());
+        if (isochrone.hasReachfactor())
+            writer.writeDouble(isochrone.getReachfactor());
+        if (totalPop != null)
+            writer.writeDouble(totalPop);
+
+        Geometry geometry = isochrone.getGeometry();
+        writer.writeVarInt(geometry.getNumGeometries());
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            Polygon polygon = (Polygon) geometry.getGeometryN(i);
+            writer.writeVarInt(1 + polygon.getNumInteriorRing());
+            writer.writeCoordinates(polygon.getExteriorRing().getCoordinateSequence());
+            for (int j = 0; j < polygon.getNumInteriorRing(); j++)
+                writer.writeCoordinates(polygon.getInteriorRingN(j).getCoordinateSequence());
+        }
+    }
+}
@@ -18,7 +18,7 @@ package org.heigit.ors.api.responses.isochrones.geojson;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
-import org.heigit.ors.geojson.GeometryJSON;
+import org.heigit.ors.api.responses.common.geojson.GeoJSONGeometry;
 import org.json.simple.JSONObject;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Polygon;
@@ -27,16 +27,20 @@ public abstract class GeoJSONIsochroneBase {
     @JsonProperty("type")
     public final String type = "Feature";
 
+    @JsonIgnore
+    private int coordinatePrecision = GeoJSONGeometry.DEFAULT_COORDINATE_PRECISION;
+
     @JsonIgnore
     abstract Geometry getIsochroneGeometry();
 
     @Schema(implementation = JSONObject.class)
     @JsonProperty("geometry")
-    public JSONObject getGeometry() {
-        JSONObject geoJson = new JSONObject();
-        geoJson.put("type", "Polygon");
-        Polygon isoPoly = (Polygon) getIsochroneGeometry();
-        geoJson.put("coordinates", GeometryJSON.toJSON(isoPoly));
-        return geoJson;
+    public GeoJSONGeometry getGeometry() {
+        return GeoJSONGeometry.polygon((Polygon) getIsochroneGeometry()).setCoordinatePrecision(coordinatePrecision);
+    }
+
+    GeoJSONIsochroneBase setCoordinatePrecision(int coordinatePrecision) {
+        this.coordinatePrecision = coordinatePrecision;
+        return this;
     }
 }
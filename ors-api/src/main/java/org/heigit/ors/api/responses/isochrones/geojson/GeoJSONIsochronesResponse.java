@@ -51,8 +51,10 @@ public class GeoJSONIsochronesResponse extends IsochronesResponse {
     public GeoJSONIsochronesResponse(IsochronesRequest request, IsochroneMapCollection isoMaps, SystemMessageProperties systemMessageProperties, EndpointsProperties endpointsProperties) throws ParameterValueException, InternalServerException {
         super(request, systemMessageProperties, endpointsProperties);
         this.isochroneResults = new ArrayList<>();
+        int coordinatePrecision = endpointsProperties.getDefaults().getGeojsonCoordinatePrecision();
         for (IsochroneMap isoMap : isoMaps.getIsochroneMaps()) {
-            this.isochroneResults.addAll(new GeoJSONIsochronesMap(isoMap).buildGeoJSONIsochrones());
+            for (GeoJSONIsochrone isochrone : new GeoJSONIsochronesMap(isoMap).buildGeoJSONIsochrones())
+                this.isochroneResults.add(isochrone.setCoordinatePrecision(coordinatePrecision));
             responseInformation.setGraphDate(isoMap.getGraphDate());
         }
 
@@ -60,7 +62,7 @@ public class GeoJSONIsochronesResponse extends IsochronesResponse {
             List<IsochronesIntersection> isoIntersections = IsochroneUtility.computeIntersections(isoMaps);
             if (isoIntersections != null && !isoIntersections.isEmpty()) {
                 for (IsochronesIntersection isoIntersection : isoIntersections) {
-                    this.isochroneResults.add(new GeoJSONIsochronesIntersection(isoIntersection, request));
+                    this.isochroneResults.add(new GeoJSONIsochronesIntersection(isoIntersection, request).setCoordinatePrecision(coordinatePrecision));
                 }
             }
         }
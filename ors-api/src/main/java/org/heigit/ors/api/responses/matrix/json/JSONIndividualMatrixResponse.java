@@ -15,26 +15,26 @@
 
 package org.heigit.ors.api.responses.matrix.json;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.heigit.ors.api.requests.matrix.MatrixRequest;
 import org.heigit.ors.matrix.MatrixMetricsType;
 import org.heigit.ors.matrix.MatrixResult;
-import org.heigit.ors.util.FormatUtility;
 
 import java.util.List;
 
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
 @Schema(name = "JSONIndividualMatrixResponse", description = "An individual JSON based route created by the service")
 public class JSONIndividualMatrixResponse extends JSONBasedIndividualMatrixResponse {
-    @Schema(description = "The durations of the matrix calculations.", example = "[[0,25],[25,0]]")
+    @Schema(description = "The durations of the matrix calculations.", example = "[[0,25],[25,0]]", implementation = Double[][].class)
     @JsonProperty("durations")
-    private Double[][] durations;
+    private JSONMatrixTable durations;
 
-    @Schema(description = "The distances of the matrix calculations.", example = "[[0,0.25],[0.25,0]]")
+    @Schema(description = "The distances of the matrix calculations.", example = "[[0,0.25],[0.25,0]]", implementation = Double[][].class)
     @JsonProperty("distances")
-    private Double[][] distances;
+    private JSONMatrixTable distances;
 
     @Schema(description = "The individual destinations of the matrix calculations.")
     @JsonProperty("destinations")
@@ -62,27 +62,14 @@ public class JSONIndividualMatrixResponse extends JSONBasedIndividualMatrixRespo
         }
     }
 
-    private Double[][] constructMetric(float[] table, MatrixResult result) {
-        int sourceCount = result.getSources().length;
-        int destinationCount = result.getDestinations().length;
-
-        Double[][] constructedTable = new Double[sourceCount][destinationCount];
-
-        for (int i = 0; i < sourceCount; i++) {
-            for (int j = 0; j < destinationCount; j++) {
-                double value = table[(i * destinationCount) + j];
-                if (value == -1)
-                    constructedTable[i][j] = null;
-                else
-                    constructedTable[i][j] = FormatUtility.roundToDecimals(value, 2);
-            }
-        }
-
-        return constructedTable;
+    private JSONMatrixTable constructMetric(float[] table, MatrixResult result) {
+        // the table is serialized from the engine array, rounding is applied while writing
+        return new JSONMatrixTable(table, result.getSources().length, result.getDestinations().length);
     }
 
+    @JsonIgnore
     public Double[][] getDurations() {
-        return durations;
+        return durations == null ? null : durations.toArray();
     }
 
     public List<JSON2DDestinations> getDestinations() {
@@ -93,16 +80,19 @@ public class JSONIndividualMatrixResponse extends JSONBasedIndividualMatrixRespo
         return sources;
     }
 
+    @JsonIgnore
     public Double[][] getDistances() {
-        return distances;
+        return distances == null ? null : distances.toArray();
     }
 
+    @JsonIgnore
     public void setDistances(Double[][] distances) {
-        this.distances = distances;
+        this.distances = distances == null ? null : JSONMatrixTable.fromArray(distances);
     }
 
+    @JsonIgnore
     public void setDurations(Double[][] durations) {
-        this.durations = durations;
+        this.durations = durations == null ? null : JSONMatrixTable.fromArray(durations);
     }
 
     public void setDestinations(List<JSON2DDestinations> destinations) {
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Openrouteservice.
+ *
+ * Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ * GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this library;
+ * if not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.heigit.ors.api.responses.matrix.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.heigit.ors.util.FormatUtility;
+
+import java.io.IOException;
+
+/**
+ * A metric table of a matrix result, serialized as nested JSON arrays directly from the row-major float array of the
+ * engine. Values are rounded to two decimals, unreachable pairs (-1) are written as null.
+ */
+@JsonSerialize(using = JSONMatrixTable.Serializer.class)
+public class JSONMatrixTable {
+    private static final float UNREACHABLE = -1;
+
+    private final float[] values;
+    private final int rows;
+    private final int columns;
+
+    public JSONMatrixTable(float[] values, int rows, int columns) {
+        if (values.length < rows * columns)
+            throw new IllegalArgumentException("Table of %d values cannot hold %d x %d entries".formatted(values.length, rows, columns));
+        this.values = values;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public static JSONMatrixTable fromArray(Double[][] table) {
+        int rows = table.length;
+        int columns = rows == 0 ? 0 : table[0].length;
+        float[] values = new float[rows * columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                Double value = table[i][j];
+                values[i * columns + j] = value == null ? UNREACHABLE : value.floatValue();
+            }
+        }
+        return new JSONMatrixTable(values, rows, columns);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the rounded value of the cell, or null if the destination is unreachable from the source
+     */
+    public Double get(int row, int column) {
+        double value = values[row * columns + column];
+        if (value == UNREACHABLE)
+            return null;
+        return FormatUtility.roundToDecimals(value, 2);
+    }
+
+    public Double[][] toArray() {
+        Double[][] table = new Double[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++)
+                table[i][j] = get(i, j);
+        }
+        return table;
+    }
+
+    public static class Serializer extends StdSerializer<JSONMatrixTable> {
+        public Serializer() {
+            super(JSONMatrixTable.class);
+        }
+
+        @Override
+        public void serialize(JSONMatrixTable table, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            float[] values = table.values;
+            int columns = table.columns;
+            generator.writeStartArray();
+            for (int i = 0; i < table.rows; i++) {
+                generator.writeStartArray();
+                int offset = i * columns;
+                for (int j = 0; j < columns; j++) {
+                    double value = values[offset + j];
+                    if (value == UNREACHABLE)
+                        generator.writeNull();
+                    else
+                        generator.writeNumber(FormatUtility.roundToDecimals(value, 2));
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Openrouteservice.
+ *
+ * Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ * GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this library;
+ * if not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.heigit.ors.api.responses.routing.binary;
+
+import com.graphhopper.util.shapes.BBox;
+import org.heigit.ors.api.requests.routing.RouteRequest;
+import org.heigit.ors.api.responses.common.binary.BinaryResponseWriter;
+import org.heigit.ors.routing.*;
+
+import java.util.List;
+
+/**
+ * Binary representation of route results, written directly from the {@link RouteResult}s of the engine. See
+ * {@link BinaryResponseWriter} for the encoding of the values. Layout:
+ * <pre>
+ * header:   magic "ORSR", version
+ * routes:   count, then per route
+ *   flags         bit 0 elevation, bit 1 departure and arrival
+ *   summary       distance, duration [, ascent, descent]
+ *   bbox          min lon, min lat, max lon, max lat
+ *   departure     [departure, arrival as epoch seconds and zone id]
+ *   geometry      coordinates
+ *   way points    count, indices
+ *   segments      count, then distance, duration [, ascent, descent], detour factor and steps: count, then
+ *                 distance, duration, type, instruction, name, first and last way point, exit number
+ *   extras        count, then name and items: count, then from, to, value, distance
+ *   warnings      count, then code and message
+ * </pre>
+ * Distances and durations are doubles in the units of the request. Public transport legs are not included.
+ */
+public class BinaryRouteResponse {
+    public static final int MAGIC = 0x4F525352; // "ORSR"
+    public static final int VERSION = 1;
+
+    private static final int FLAG_ELEVATION = 1;
+    private static final int FLAG_DEPARTURE_ARRIVAL = 2;
+
+    private final byte[] bytes;
+
+    public BinaryRouteResponse(RouteResult[] routeResults, RouteRequest request) {
+        boolean includeElevation = request.hasUseElevation() && request.getUseElevation();
+        BinaryResponseWriter writer = new BinaryResponseWriter(MAGIC, VERSION);
+        writer.writeVarInt(routeResults.length);
+        for (RouteResult result : routeResults)
+            writeRoute(writer, result, includeElevation);
+        bytes = writer.toByteArray();
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    private static void writeRoute(BinaryResponseWriter writer, RouteResult result, boolean includeElevation) {
+        int flags = (includeElevation ? FLAG_ELEVATION : 0) | (result.hasDepartureAndArrival() ? FLAG_DEPARTURE_ARRIVAL : 0);
+        writer.writeByte(flags);
+
+        RouteSummary summary = result.getSummary();
+        writer.writeDouble(summary.getDistance()).writeDouble(summary.getDuration());
+        if (includeElevation)
+            writer.writeDouble(summary.getAscent()).writeDouble(summary.getDescent());
+        BBox bbox = summary.getBBox();
+        if (bbox == null)
+            writer.writeDouble(0).writeDouble(0).writeDouble(0).writeDouble(0);
+        else
+            writer.writeDouble(bbox.minLon).writeDouble(bbox.minLat).writeDouble(bbox.maxLon).writeDouble(bbox.maxLat);
+
+        if (result.hasDepartureAndArrival()) {
+            writer.writeSignedVarInt(result.getDeparture().toEpochSecond()).writeString(result.getDeparture().getZone().getId());
+            writer.writeSignedVarInt(result.getArrival().toEpochSecond()).writeString(result.getArrival().getZone().getId());
+        }
+
+        writer.writeCoordinates(result.getGeometry(), includeElevation);
+
+        List<Integer> wayPoints = result.getWayPointsIndices();
+        writer.writeVarInt(wayPoints.size());
+        for (int wayPoint : wayPoints)
+            writer.writeVarInt(wayPoint);
+
+        writer.writeVarInt(result.getSegments().size());
+        for (RouteSegment segment : result.getSegments())
+            writeSegment(writer, segment, includeElevation);
+
+        List<RouteExtraInfo> extras = result.getExtraInfo();
+        writer.writeVarInt(extras == null ? 0 : extras.size());
+        if (extras != null) {
+            for (RouteExtraInfo extra : extras) {
+                writer.writeString(extra.getName());
+                writer.writeVarInt(extra.getSegments().size());
+                for (RouteSegmentItem item : extra.getSegments()) {
+                    writer.writeVarInt(item.getFrom()).writeVarInt(item.getTo());
+                    writer.writeSignedVarInt(item.getValue()).writeDouble(item.getDistance());
+                }
+            }
+        }
+
+        List<RouteWarning> warnings = result.getWarnings();
+        writer.writeVarInt(warnings == null ? 0 : warnings.size());
+        if (warnings != null) {
+            for (RouteWarning warning : warnings)
+                writer.writeVarInt(warning.getWarningCode()).writeString(warning.getWarningMessage());
+        }
+    }
+
+    private static void writeSegment(BinaryResponseWriter writer, RouteSegment segment, boolean includeElevation) {
+        writer.writeDouble(segment.getDistance()).writeDouble(segment.getDuration());
+        if (includeElevation)
+            writer.writeDouble(segment.getAscentRounded()).writeDouble(segment.getDescentRounded());
+        writer.writeDouble(segment.getDetourFactor());
+
+        List<RouteStep> steps = segment.getSteps();
+        writer.writeVarInt(steps.size());
+        for (RouteStep step : steps) {
+            writer.writeDouble(step.getDistance()).writeDouble(step.getDuration());
+            writer.writeSignedVarInt(step.getType());
+            writer.writeString(step.getInstruction()).writeString(step.getName());
+            int[] wayPoints = step.getWayPoints();
+            if (wayPoints == null || wayPoints.length == 0)
+                writer.writeVarInt(0).writeVarInt(0);
+            else
+                writer.writeVarInt(wayPoints[0]).writeVarInt(wayPoints[wayPoints.length - 1]);
+            writer.writeSignedVarInt(step.getExitNumber());
+        }
+    }
+}
@@ -15,14 +15,15 @@
 
 package org.heigit.ors.api.responses.routing.geojson;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.heigit.ors.api.requests.routing.RouteRequest;
+import org.heigit.ors.api.responses.common.geojson.GeoJSONGeometry;
 import org.heigit.ors.api.responses.routing.json.JSONBasedIndividualRouteResponse;
 import org.heigit.ors.api.responses.routing.json.JSONSegment;
 import org.heigit.ors.exceptions.StatusCodeException;
-import org.heigit.ors.geojson.GeometryJSON;
 import org.heigit.ors.routing.RouteResult;
 import org.json.simple.JSONObject;
 
@@ -36,8 +37,12 @@ public class GeoJSONIndividualRouteResponse extends JSONBasedIndividualRouteResp
     @JsonProperty("properties")
     private final GeoJSONSummary properties;
 
-    public GeoJSONIndividualRouteResponse(RouteResult routeResult, RouteRequest request) throws StatusCodeException {
+    @JsonIgnore
+    private final int coordinatePrecision;
+
+    public GeoJSONIndividualRouteResponse(RouteResult routeResult, RouteRequest request, int coordinatePrecision) throws StatusCodeException {
         super(routeResult, request);
+        this.coordinatePrecision = coordinatePrecision;
         List<JSONSegment> segments = constructSegments(routeResult, request);
 
         Map extras = constructExtras(request, routeResult);
@@ -47,12 +52,8 @@ public class GeoJSONIndividualRouteResponse extends JSONBasedIndividualRouteResp
 
     @Schema(implementation = JSONObject.class, description = "The geometry of the route. For GeoJSON route responses this is a JSON LineString.")
     @JsonProperty("geometry")
-    public JSONObject getGeometry() {
-        JSONObject geoJson = new JSONObject();
-        geoJson.put("type", "LineString");
-        geoJson.put("coordinates", GeometryJSON.toJSON(this.routeCoordinates, includeElevation));
-
-        return geoJson;
+    public GeoJSONGeometry getGeometry() {
+        return GeoJSONGeometry.lineString(this.routeCoordinates, includeElevation).setCoordinatePrecision(coordinatePrecision);
     }
 
     public GeoJSONSummary getProperties() {
@@ -49,8 +49,9 @@ public class GeoJSONRouteResponse extends RouteResponse {
 
         this.routeResults = new ArrayList<>();
 
+        int coordinatePrecision = endpointsProperties.getDefaults().getGeojsonCoordinatePrecision();
         for (RouteResult result : routeResults) {
-            this.routeResults.add(new GeoJSONIndividualRouteResponse(result, request));
+            this.routeResults.add(new GeoJSONIndividualRouteResponse(result, request, coordinatePrecision));
             responseInformation.setGraphDate(result.getGraphDate());
         }
 
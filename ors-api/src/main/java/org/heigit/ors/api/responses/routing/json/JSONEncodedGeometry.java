@@ -0,0 +1,68 @@
+/*
+ * This file is part of Openrouteservice.
+ *
+ * Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ * GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this library;
+ * if not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.heigit.ors.api.responses.routing.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.heigit.ors.util.PolylineEncoder;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.IOException;
+
+/**
+ * A route or leg geometry which is written as encoded polyline string. The polyline is encoded into a single char
+ * array while serializing, instead of being kept as String in the response.
+ */
+@JsonSerialize(using = JSONEncodedGeometry.Serializer.class)
+public class JSONEncodedGeometry {
+    private final Coordinate[] coordinates;
+    private final boolean includeElevation;
+
+    private JSONEncodedGeometry(Coordinate[] coordinates, boolean includeElevation) {
+        this.coordinates = coordinates;
+        this.includeElevation = includeElevation;
+    }
+
+    /**
+     * @return the geometry, or null if there are no coordinates so that the empty geometry is left out of the response
+     */
+    public static JSONEncodedGeometry of(Coordinate[] coordinates, boolean includeElevation) {
+        if (coordinates == null || coordinates.length == 0)
+            return null;
+        return new JSONEncodedGeometry(coordinates, includeElevation);
+    }
+
+    @Override
+    public String toString() {
+        return PolylineEncoder.encode(coordinates, includeElevation, new StringBuilder());
+    }
+
+    public static class Serializer extends StdSerializer<JSONEncodedGeometry> {
+        public Serializer() {
+            super(JSONEncodedGeometry.class);
+        }
+
+        @Override
+        public void serialize(JSONEncodedGeometry geometry, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            char[] encoded = new char[PolylineEncoder.encodedLength(geometry.coordinates, geometry.includeElevation)];
+            PolylineEncoder.encode(geometry.coordinates, geometry.includeElevation, encoded, 0);
+            // the polyline alphabet may contain a backslash, so the chars are written as escaped string, not raw
+            generator.writeString(encoded, 0, encoded.length);
+        }
+    }
+}
@@ -15,6 +15,7 @@
 
 package org.heigit.ors.api.responses.routing.json;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
@@ -29,8 +30,6 @@ import org.heigit.ors.routing.RouteExtraInfo;
 import org.heigit.ors.routing.RouteResult;
 import org.heigit.ors.routing.RouteWarning;
 import org.heigit.ors.util.DistanceUnitUtil;
-import org.heigit.ors.util.PolylineEncoder;
-import org.locationtech.jts.geom.Coordinate;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -41,10 +40,10 @@ import java.util.Map;
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
 @Schema(name = "JSONIndividualRouteResponse", description = "An individual JSON based route created by the service")
 public class JSONIndividualRouteResponse extends JSONBasedIndividualRouteResponse {
-    @Schema(description = "The geometry of the route. For JSON route responses this is an encoded polyline.", example = "yuqlH{i~s@gaUe@VgEQFcBRbB_C")
+    @Schema(description = "The geometry of the route. For JSON route responses this is an encoded polyline.", example = "yuqlH{i~s@gaUe@VgEQFcBRbB_C", implementation = String.class)
     @JsonProperty("geometry")
     @JsonUnwrapped
-    private final String geomResponse;
+    private final JSONEncodedGeometry geomResponse;
 
     @Schema(description = "Summary information about the route")
     private final JSONSummary summary;
@@ -84,7 +83,7 @@ public class JSONIndividualRouteResponse extends JSONBasedIndividualRouteRespons
     public JSONIndividualRouteResponse(RouteResult routeResult, RouteRequest request) throws StatusCodeException {
         super(routeResult, request);
 
-        geomResponse = constructEncodedGeometry(this.routeCoordinates);
+        geomResponse = JSONEncodedGeometry.of(this.routeCoordinates, includeElevation);
 
         if (this.includeElevation)
             summary = new JSONSummary(routeResult.getSummary().getDistance(), routeResult.getSummary().getDuration(), routeResult.getSummary().getAscent(), routeResult.getSummary().getDescent());
@@ -129,21 +128,15 @@ public class JSONIndividualRouteResponse extends JSONBasedIndividualRouteRespons
         legs = constructLegs(routeResult);
     }
 
-    private String constructEncodedGeometry(final Coordinate[] coordinates) {
-        if (coordinates != null)
-            return PolylineEncoder.encode(coordinates, includeElevation, new StringBuilder());
-        else
-            return "";
-    }
-
     @Schema(description = "A bounding box which contains the entire route", example = "[49.414057, 8.680894, 49.420514, 8.690123]")
     @JsonProperty("bbox")
     public double[] getBbox() {
         return bbox.getAsArray();
     }
 
+    @JsonIgnore
     public String getGeomResponse() {
-        return geomResponse;
+        return geomResponse == null ? "" : geomResponse.toString();
     }
 
     @Schema(description = "List of extra info objects representing the extra info items that were requested for the route.")
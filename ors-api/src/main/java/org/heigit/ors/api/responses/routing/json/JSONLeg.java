@@ -26,8 +26,6 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import org.heigit.ors.routing.RouteLeg;
 import org.heigit.ors.routing.RoutePtStop;
 import org.heigit.ors.routing.RouteStep;
-import org.heigit.ors.util.PolylineEncoder;
-import org.locationtech.jts.geom.Coordinate;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -90,10 +88,10 @@ public class JSONLeg {
     @Schema(description = "Whether the legs continues in the same vehicle as the previous one.", example = "false")
     @JsonProperty("is_in_same_vehicle_as_previous")
     private Boolean isInSameVehicleAsPrevious;
-    @Schema(description = "The geometry of the leg. This is an encoded polyline.", example = "yuqlH{i~s@gaUe@VgEQFcBRbB_C")
+    @Schema(description = "The geometry of the leg. This is an encoded polyline.", example = "yuqlH{i~s@gaUe@VgEQFcBRbB_C", implementation = String.class)
     @JsonProperty("geometry")
     @JsonUnwrapped
-    private final String geomResponse;
+    private final JSONEncodedGeometry geomResponse;
     @Schema(description = "List containing the specific steps the segment consists of.")
     @JsonProperty("instructions")
     private final List<JSONStep> instructions;
@@ -133,13 +131,6 @@ public class JSONLeg {
         } else {
             stops = null;
         }
-        geomResponse = constructEncodedGeometry(leg.getGeometry(), leg.getIncludeElevation());
-    }
-
-    private String constructEncodedGeometry(final Coordinate[] coordinates, boolean includeElevation) {
-        if (coordinates != null)
-            return PolylineEncoder.encode(coordinates, includeElevation, new StringBuilder());
-        else
-            return "";
+        geomResponse = JSONEncodedGeometry.of(leg.getGeometry(), leg.getIncludeElevation());
     }
 }
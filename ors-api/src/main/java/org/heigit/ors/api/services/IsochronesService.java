@@ -17,6 +17,7 @@ import org.heigit.ors.isochrones.*;
 import org.heigit.ors.isochrones.statistics.StatisticsProviderConfiguration;
 import org.heigit.ors.routing.APIEnums;
 import org.heigit.ors.routing.RouteSearchParameters;
+import org.heigit.ors.routing.RoutingProfile;
 import org.heigit.ors.routing.RoutingProfileManager;
 import org.heigit.ors.routing.RoutingProfileType;
 import org.heigit.ors.util.DistanceUnitUtil;
@@ -290,14 +291,24 @@ public class IsochronesService extends ApiService {
 
     }
 
-    private static int getMaximumRange(TravellerInfo traveller, IsochroneRequest isochroneRequest) {
+    private static int getMaximumRange(TravellerInfo traveller, IsochroneRequest isochroneRequest) throws StatusCodeException {
         int profileType = traveller.getRouteSearchParameters().getProfileType();
         TravelRangeType range = traveller.getRangeType();
         String calcMethod = isochroneRequest.getCalcMethod();
         Integer res;
 
         RoutingProfileManager rpm = RoutingProfileManager.getInstance();
-        FastIsochroneFactory fastIsochroneFactory = rpm.getProfiles().getRouteProfile(profileType).getGraphhopper().getFastIsochroneFactory();
+        RoutingProfile rp = rpm.getProfiles().acquireRouteProfile(profileType);
+        if (rp == null) {
+            rpm.checkProfileReady(profileType, IsochronesErrorCodes.UNKNOWN);
+            throw new InternalServerException(IsochronesErrorCodes.UNKNOWN, "Unable to find an appropriate routing profile.");
+        }
+        FastIsochroneFactory fastIsochroneFactory;
+        try {
+            fastIsochroneFactory = rp.getGraphhopper().getFastIsochroneFactory();
+        } finally {
+            rp.release();
+        }
         if (fastIsochroneFactory.isEnabled() && calcMethod.equalsIgnoreCase("fastisochrone"))
             return getMaximumRangeFastIsochrone(traveller, isochroneRequest);
 
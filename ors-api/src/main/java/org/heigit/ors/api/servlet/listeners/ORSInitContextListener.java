@@ -28,7 +28,6 @@ import org.heigit.ors.api.EngineProperties;
 import org.heigit.ors.config.EngineConfig;
 import org.heigit.ors.isochrones.statistics.StatisticsProviderFactory;
 import org.heigit.ors.routing.RoutingProfileManager;
-import org.heigit.ors.routing.RoutingProfileManagerStatus;
 import org.heigit.ors.util.FormatUtility;
 import org.heigit.ors.util.StringUtility;
 
@@ -59,6 +58,9 @@ public class ORSInitContextListener implements ServletContextListener {
             .setElevationPreprocessed(engineProperties.getElevation().isPreprocessed())
             .setSourceFile(engineProperties.getSourceFile())
             .setGraphsRootPath(engineProperties.getGraphsRootPath())
+            .setOsmImportWorkerThreads(engineProperties.getOsmImport().getWorkerThreads())
+            .setOsmImportJoinTimeout(engineProperties.getOsmImport().getJoinTimeout())
+            .setOsmImportQueueCapacity(engineProperties.getOsmImport().getQueueCapacity())
             .setProfiles(engineProperties.getConvertedProfiles())
             .buildWithAppConfigOverride();
         Runnable runnable = () -> {
@@ -79,7 +81,8 @@ public class ORSInitContextListener implements ServletContextListener {
         try {
             LOGGER.info("Shutting down ORS and releasing resources.");
             FormatUtility.unload();
-            if (RoutingProfileManagerStatus.isReady())
+            // profiles are served while others are still loading, so they have to be closed in any case
+            if (RoutingProfileManager.hasInstance())
                 RoutingProfileManager.getInstance().destroy();
             StatisticsProviderFactory.releaseProviders();
             LogFactory.release(Thread.currentThread().getContextClassLoader());
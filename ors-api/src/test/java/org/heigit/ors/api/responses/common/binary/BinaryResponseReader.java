@@ -0,0 +1,77 @@
+package org.heigit.ors.api.responses.common.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Decodes the binary response format as described in docs/documentation/Binary-Response.md, for the tests of the
+ * binary responses.
+ */
+public class BinaryResponseReader {
+    private final ByteBuffer buffer;
+
+    public BinaryResponseReader(byte[] bytes, int magic, int version) {
+        buffer = ByteBuffer.wrap(bytes);
+        assertEquals(magic, buffer.getInt());
+        assertEquals(version, readByte());
+    }
+
+    public int readByte() {
+        return buffer.get() & 0xFF;
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    public long readVarInt() {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    public long readSignedVarInt() {
+        long value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public String readString() {
+        byte[] utf8 = new byte[(int) readVarInt()];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return longitude, latitude [and elevation] of the points in degrees and meters
+     */
+    public double[][] readCoordinates(boolean includeElevation) {
+        double[][] points = new double[(int) readVarInt()][];
+        long x = 0;
+        long y = 0;
+        long z = 0;
+        for (int i = 0; i < points.length; i++) {
+            x += readSignedVarInt();
+            y += readSignedVarInt();
+            if (includeElevation) {
+                z += readSignedVarInt();
+                points[i] = new double[]{x / BinaryResponseWriter.COORDINATE_FACTOR, y / BinaryResponseWriter.COORDINATE_FACTOR, z / BinaryResponseWriter.ELEVATION_FACTOR};
+            } else {
+                points[i] = new double[]{x / BinaryResponseWriter.COORDINATE_FACTOR, y / BinaryResponseWriter.COORDINATE_FACTOR};
+            }
+        }
+        return points;
+    }
+
+    public void assertFullyRead() {
+        assertFalse(buffer.hasRemaining(), buffer.remaining() + " bytes left");
+    }
+}
@@ -0,0 +1,44 @@
+package org.heigit.ors.api.responses.common.binary;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class BinaryResponseWriterTest {
+    private static final byte[] HEADER = {0x4F, 0x52, 0x53, 0x54, 1};
+
+    @Test
+    void writesHeaderAndVarInts() {
+        byte[] bytes = new BinaryResponseWriter(0x4F525354, 1)
+                .writeVarInt(1).writeVarInt(300)
+                .writeSignedVarInt(-1).writeSignedVarInt(1).writeSignedVarInt(-65)
+                .toByteArray();
+
+        assertArrayEquals(concat(HEADER, new byte[]{1, (byte) 0xAC, 0x02, 1, 2, (byte) 0x81, 0x01}), bytes);
+    }
+
+    @Test
+    void writesStrings() {
+        byte[] bytes = new BinaryResponseWriter(0x4F525354, 1).writeString(null).writeString("\u00fc").toByteArray();
+
+        assertArrayEquals(concat(HEADER, new byte[]{0, 2, (byte) 0xC3, (byte) 0xBC}), bytes);
+    }
+
+    @Test
+    void writesCoordinatesAsDeltas() {
+        Coordinate[] coordinates = {new Coordinate(0.000001, -0.000002, 1.5), new Coordinate(0.000002, -0.000002, 1.0)};
+
+        assertArrayEquals(concat(HEADER, new byte[]{2, 2, 3, 2, 0}),
+                new BinaryResponseWriter(0x4F525354, 1).writeCoordinates(coordinates, false).toByteArray());
+        assertArrayEquals(concat(HEADER, new byte[]{2, 2, 3, (byte) 0xAC, 0x02, 2, 0, 99}),
+                new BinaryResponseWriter(0x4F525354, 1).writeCoordinates(coordinates, true).toByteArray());
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = new byte[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
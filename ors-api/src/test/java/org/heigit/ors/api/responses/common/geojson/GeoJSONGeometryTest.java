@@ -0,0 +1,40 @@
+package org.heigit.ors.api.responses.common.geojson;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeoJSONGeometryTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final GeometryFactory factory = new GeometryFactory();
+
+    @Test
+    void writesLineStringWithElevation() throws JsonProcessingException {
+        Coordinate[] coordinates = {new Coordinate(8.6814951234, 49.414612345, 107.26), new Coordinate(8.686507, 49.41943, 111.0)};
+
+        assertEquals("{\"type\":\"LineString\",\"coordinates\":[[8.681495,49.414612,107.3],[8.686507,49.41943,111.0]]}",
+                mapper.writeValueAsString(GeoJSONGeometry.lineString(coordinates, true)));
+        assertEquals("{\"type\":\"LineString\",\"coordinates\":[[8.68,49.41],[8.69,49.42]]}",
+                mapper.writeValueAsString(GeoJSONGeometry.lineString(coordinates, false).setCoordinatePrecision(2)));
+    }
+
+    @Test
+    void writesPolygonShellCounterclockwiseAndHolesClockwise() throws JsonProcessingException {
+        LinearRing clockwiseShell = factory.createLinearRing(new Coordinate[]{
+                new Coordinate(0, 0), new Coordinate(0, 4), new Coordinate(4, 4), new Coordinate(4, 0), new Coordinate(0, 0)});
+        LinearRing counterclockwiseHole = factory.createLinearRing(new Coordinate[]{
+                new Coordinate(1, 1), new Coordinate(2, 1), new Coordinate(2, 2), new Coordinate(1, 2), new Coordinate(1, 1)});
+        Polygon polygon = factory.createPolygon(clockwiseShell, new LinearRing[]{counterclockwiseHole});
+
+        assertEquals("{\"type\":\"Polygon\",\"coordinates\":["
+                        + "[[0.0,0.0],[4.0,0.0],[4.0,4.0],[0.0,4.0],[0.0,0.0]],"
+                        + "[[1.0,1.0],[1.0,2.0],[2.0,2.0],[2.0,1.0],[1.0,1.0]]]}",
+                mapper.writeValueAsString(GeoJSONGeometry.polygon(polygon)));
+    }
+}
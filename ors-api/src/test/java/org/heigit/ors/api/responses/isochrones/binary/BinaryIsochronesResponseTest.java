@@ -0,0 +1,81 @@
+package org.heigit.ors.api.responses.isochrones.binary;
+
+import org.heigit.ors.api.responses.common.binary.BinaryResponseReader;
+import org.heigit.ors.isochrones.Isochrone;
+import org.heigit.ors.isochrones.IsochroneMap;
+import org.heigit.ors.isochrones.IsochroneMapCollection;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryIsochronesResponseTest {
+    private static final int FLAG_AREA = 1;
+    private static final int FLAG_REACHFACTOR = 2;
+    private static final int FLAG_TOTAL_POP = 4;
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    @Test
+    void isochronesWithAttributesAndHoles() {
+        LinearRing shell = factory.createLinearRing(new Coordinate[]{
+                new Coordinate(8.68, 49.41), new Coordinate(8.69, 49.41), new Coordinate(8.69, 49.42), new Coordinate(8.68, 49.41)});
+        LinearRing hole = factory.createLinearRing(new Coordinate[]{
+                new Coordinate(8.685, 49.412), new Coordinate(8.688, 49.415), new Coordinate(8.686, 49.413), new Coordinate(8.685, 49.412)});
+        Isochrone withAttributes = new Isochrone(factory.createPolygon(shell, new LinearRing[]{hole}), 300, 100);
+        withAttributes.setArea(1234.5);
+        withAttributes.setReachfactor(0.25);
+        withAttributes.setAttributes(List.of("total_pop"), new double[]{42}, "ghsl");
+        Polygon small = factory.createPolygon(new Coordinate[]{
+                new Coordinate(-0.5, -0.5), new Coordinate(0.5, -0.5), new Coordinate(0, 0.5), new Coordinate(-0.5, -0.5)});
+        Isochrone plain = new Isochrone(small, 120, 10);
+
+        IsochroneMap first = new IsochroneMap(0, new Coordinate(8.684, 49.413));
+        first.addIsochrone(withAttributes);
+        IsochroneMap second = new IsochroneMap(1, new Coordinate(0, 0));
+        second.addIsochrone(plain);
+        IsochroneMapCollection isoMaps = new IsochroneMapCollection();
+        isoMaps.add(first);
+        isoMaps.add(second);
+
+        BinaryResponseReader reader = new BinaryResponseReader(new BinaryIsochronesResponse(isoMaps).getBytes(), 0x4F525349, 1);
+        assertEquals(2, reader.readVarInt());
+
+        assertEquals(0, reader.readVarInt());
+        assertEquals(8.684, reader.readDouble());
+        assertEquals(49.413, reader.readDouble());
+        assertEquals(1, reader.readVarInt());
+        assertEquals(300, reader.readDouble());
+        assertEquals(FLAG_AREA | FLAG_REACHFACTOR | FLAG_TOTAL_POP, reader.readByte());
+        assertEquals(1234.5, reader.readDouble());
+        assertEquals(0.25, reader.readDouble());
+        assertEquals(42, reader.readDouble());
+        assertEquals(1, reader.readVarInt());
+        assertEquals(2, reader.readVarInt());
+        assertRing(shell, reader.readCoordinates(false));
+        assertRing(hole, reader.readCoordinates(false));
+
+        assertEquals(1, reader.readVarInt());
+        assertEquals(0, reader.readDouble());
+        assertEquals(0, reader.readDouble());
+        assertEquals(1, reader.readVarInt());
+        assertEquals(120, reader.readDouble());
+        assertEquals(0, reader.readByte());
+        assertEquals(1, reader.readVarInt());
+        assertEquals(1, reader.readVarInt());
+        assertRing(small.getExteriorRing(), reader.readCoordinates(false));
+        reader.assertFullyRead();
+    }
+
+    private static void assertRing(LineString expected, double[][] points) {
+        assertEquals(expected.getNumPoints(), points.length);
+        for (int i = 0; i < points.length; i++)
+            assertArrayEquals(new double[]{expected.getCoordinateN(i).x, expected.getCoordinateN(i).y}, points[i], 1e-9);
+    }
+}
@@ -1,19 +1,36 @@
 package org.heigit.ors.api.responses.isochrones.geojson;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.heigit.ors.isochrones.Isochrone;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class GeoJSONIsochroneTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private GeoJSONIsochrone geoJSONIsochrone;
 
     @BeforeEach
     void setUp() throws Exception {
+        Coordinate[] shell = {new Coordinate(8.6814951234, 49.414612345), new Coordinate(8.686507, 49.41943),
+                new Coordinate(8.68, 49.42), new Coordinate(8.6814951234, 49.414612345)};
+        Isochrone isochrone = new Isochrone(new GeometryFactory().createPolygon(shell), 300, 100);
+        geoJSONIsochrone = new GeoJSONIsochrone(isochrone, new Coordinate(8.68, 49.41), 0);
     }
 
     @Test
-    void getGeometry() {
+    void getGeometry() throws Exception {
+        assertEquals("{\"type\":\"Polygon\",\"coordinates\":[[[8.681495,49.414612],[8.686507,49.41943],[8.68,49.42],[8.681495,49.414612]]]}",
+                mapper.writeValueAsString(geoJSONIsochrone.getGeometry()));
+        geoJSONIsochrone.setCoordinatePrecision(2);
+        assertEquals("{\"type\":\"Polygon\",\"coordinates\":[[[8.68,49.41],[8.69,49.42],[8.68,49.42],[8.68,49.41]]]}",
+                mapper.writeValueAsString(geoJSONIsochrone.getGeometry()));
     }
 
     @Test
     void getProperties() {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package org.heigit.ors.api.responses.matrix.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JSONMatrixTableTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JSONMatrixTable table = new JSONMatrixTable(new float[]{0, 1.234f, -1, 2.5f, 3.456f, 4}, 2, 3);
+
+    @Test
+    void serializesRoundedValuesAndUnreachablePairs() throws JsonProcessingException {
+        assertEquals("[[0.0,1.23,null],[2.5,3.46,4.0]]", mapper.writeValueAsString(table));
+    }
+
+    @Test
+    void serializesLikeBoxedArray() throws JsonProcessingException {
+        assertEquals(mapper.writeValueAsString(table.toArray()), mapper.writeValueAsString(table));
+    }
+
+    @Test
+    void convertsFromBoxedArray() {
+        Double[][] values = {{0.0, null}, {1.5, 2.25}};
+        JSONMatrixTable converted = JSONMatrixTable.fromArray(values);
+        assertEquals(2, converted.getRows());
+        assertEquals(2, converted.getColumns());
+        assertNull(converted.get(0, 1));
+        assertArrayEquals(values[1], converted.toArray()[1]);
+    }
+}
@@ -0,0 +1,123 @@
+package org.heigit.ors.api.responses.routing.binary;
+
+import com.graphhopper.util.PointList;
+import com.graphhopper.util.shapes.BBox;
+import org.heigit.ors.api.requests.routing.RouteRequest;
+import org.heigit.ors.api.responses.common.binary.BinaryResponseReader;
+import org.heigit.ors.routing.RouteExtraInfo;
+import org.heigit.ors.routing.RouteResult;
+import org.heigit.ors.routing.RouteSegmentItem;
+import org.heigit.ors.routing.RouteWarning;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryRouteResponseTest {
+    private static final int FLAG_ELEVATION = 1;
+    private static final int FLAG_DEPARTURE_ARRIVAL = 2;
+
+    @Test
+    void routeWithElevationDepartureAndExtras() throws Exception {
+        RouteResult result = new RouteResult(1);
+        result.getSummary().setDistance(1234.5);
+        result.getSummary().setDuration(321.0);
+        result.getSummary().setAscent(12.0);
+        result.getSummary().setDescent(3.5);
+        result.getSummary().setBBox(new BBox(8.681495, 8.686507, 49.41461, 49.420318));
+        result.setDeparture(ZonedDateTime.of(2020, 1, 1, 12, 0, 0, 0, ZoneId.of("Europe/Berlin")));
+        result.setArrival(ZonedDateTime.of(2020, 1, 1, 12, 5, 21, 0, ZoneId.of("Europe/Berlin")));
+        PointList points = new PointList(3, true);
+        points.add(49.41461, 8.681495, 107.2);
+        points.add(49.420318, 8.686507, 111.0);
+        points.add(49.41943, 8.686507, 110.5);
+        result.addPointsToGeometry(points, false, true);
+        result.addWayPointIndex(0);
+        result.addWayPointIndex(2);
+        RouteExtraInfo extra = new RouteExtraInfo("surface");
+        extra.add(new RouteSegmentItem(0, 2, -3, 1234.5));
+        result.getExtraInfo().add(extra);
+        result.addWarning(new RouteWarning(RouteWarning.TOLLWAYS, ""));
+
+        RouteRequest request = new RouteRequest(new Double[][]{{8.681495, 49.41461}, {8.686507, 49.41943}});
+        request.setUseElevation(true);
+        BinaryResponseReader reader = new BinaryResponseReader(new BinaryRouteResponse(new RouteResult[]{result}, request).getBytes(),
+                0x4F525352, 1);
+
+        assertEquals(1, reader.readVarInt());
+        assertEquals(FLAG_ELEVATION | FLAG_DEPARTURE_ARRIVAL, reader.readByte());
+        assertEquals(1234.5, reader.readDouble());
+        assertEquals(321.0, reader.readDouble());
+        assertEquals(12.0, reader.readDouble());
+        assertEquals(3.5, reader.readDouble());
+        assertArrayEquals(new double[]{8.681495, 49.41461, 8.686507, 49.420318},
+                new double[]{reader.readDouble(), reader.readDouble(), reader.readDouble(), reader.readDouble()});
+        assertEquals(result.getDeparture().toEpochSecond(), reader.readSignedVarInt());
+        assertEquals("Europe/Berlin", reader.readString());
+        assertEquals(result.getArrival().toEpochSecond(), reader.readSignedVarInt());
+        assertEquals("Europe/Berlin", reader.readString());
+
+        double[][] geometry = reader.readCoordinates(true);
+        assertEquals(3, geometry.length);
+        assertArrayEquals(new double[]{8.681495, 49.41461, 107.2}, geometry[0], 1e-9);
+        assertArrayEquals(new double[]{8.686507, 49.420318, 111.0}, geometry[1], 1e-9);
+        assertArrayEquals(new double[]{8.686507, 49.41943, 110.5}, geometry[2], 1e-9);
+
+        assertEquals(2, reader.readVarInt());
+        assertEquals(0, reader.readVarInt());
+        assertEquals(2, reader.readVarInt());
+        assertEquals(0, reader.readVarInt()); // segments
+
+        assertEquals(1, reader.readVarInt());
+        assertEquals("surface", reader.readString());
+        assertEquals(1, reader.readVarInt());
+        assertEquals(0, reader.readVarInt());
+        assertEquals(2, reader.readVarInt());
+        assertEquals(-3, reader.readSignedVarInt());
+        assertEquals(1234.5, reader.readDouble());
+
+        assertEquals(1, reader.readVarInt());
+        assertEquals(RouteWarning.TOLLWAYS, reader.readVarInt());
+        assertEquals("There are tollways along the route", reader.readString());
+        reader.assertFullyRead();
+    }
+
+    @Test
+    void routesWithoutElevation() throws Exception {
+        RouteResult first = new RouteResult(0);
+        first.getSummary().setDistance(10.0);
+        first.getSummary().setDuration(2.0);
+        PointList points = new PointList(2, false);
+        points.add(-33.9, 151.2);
+        points.add(-33.8, 151.3);
+        first.addPointsToGeometry(points, false, false);
+        RouteResult second = new RouteResult(0);
+
+        RouteRequest request = new RouteRequest(new Double[][]{{151.2, -33.9}, {151.3, -33.8}});
+        BinaryResponseReader reader = new BinaryResponseReader(new BinaryRouteResponse(new RouteResult[]{first, second}, request).getBytes(),
+                0x4F525352, 1);
+
+        assertEquals(2, reader.readVarInt());
+
+        assertEquals(0, reader.readByte());
+        assertEquals(10.0, reader.readDouble());
+        assertEquals(2.0, reader.readDouble());
+        for (int i = 0; i < 4; i++)
+            assertEquals(0.0, reader.readDouble()); // no bbox
+        double[][] geometry = reader.readCoordinates(false);
+        assertArrayEquals(new double[]{151.2, -33.9}, geometry[0], 1e-9);
+        assertArrayEquals(new double[]{151.3, -33.8}, geometry[1], 1e-9);
+        for (int i = 0; i < 4; i++)
+            assertEquals(0, reader.readVarInt()); // way points, segments, extras and warnings
+
+        assertEquals(0, reader.readByte());
+        for (int i = 0; i < 6; i++)
+            assertEquals(0.0, reader.readDouble());
+        assertEquals(0, reader.readCoordinates(false).length);
+        for (int i = 0; i < 4; i++)
+            assertEquals(0, reader.readVarInt());
+        reader.assertFullyRead();
+    }
+}
@@ -0,0 +1,48 @@
+package org.heigit.ors.api.responses.routing.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JSONEncodedGeometryTest {
+    private static final Coordinate[] COORDINATES = {
+            new Coordinate(-120.2, 38.5, 110),
+            new Coordinate(-120.95, 40.7, 120),
+            new Coordinate(-126.453, 43.252, 100)};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void writeValueAsString() throws Exception {
+        assertEquals("\"_p~iF~ps|UonT_ulLnnqCo}@_mqNvxq`@~{B\"", mapper.writeValueAsString(JSONEncodedGeometry.of(COORDINATES, true)));
+        assertEquals("\"_p~iF~ps|U_ulLnnqC_mqNvxq`@\"", mapper.writeValueAsString(JSONEncodedGeometry.of(COORDINATES, false)));
+    }
+
+    @Test
+    void escapesBackslash() throws Exception {
+        // a latitude difference of -0.00015 is encoded as backslash
+        JSONEncodedGeometry geometry = JSONEncodedGeometry.of(new Coordinate[]{new Coordinate(0, -0.00015)}, false);
+        assertEquals("\"\\\\?\"", mapper.writeValueAsString(geometry));
+        assertEquals("\\?", mapper.readValue(mapper.writeValueAsString(geometry), String.class));
+    }
+
+    @Test
+    void writeToTokenBuffer() throws Exception {
+        TokenBuffer buffer = new TokenBuffer(mapper, false);
+        mapper.writeValue(buffer, JSONEncodedGeometry.of(COORDINATES, true));
+        JsonParser parser = buffer.asParser();
+        assertEquals(JsonToken.VALUE_STRING, parser.nextToken());
+        assertEquals("_p~iF~ps|UonT_ulLnnqCo}@_mqNvxq`@~{B", parser.getText());
+    }
+
+    @Test
+    void emptyGeometryIsLeftOut() {
+        assertNull(JSONEncodedGeometry.of(new Coordinate[0], false));
+        assertNull(JSONEncodedGeometry.of(null, false));
+    }
+}
@@ -13,6 +13,7 @@
  */
 package org.heigit.ors.apitests.isochrones;
 
+import io.restassured.http.ContentType;
 import org.hamcrest.Matchers;
 import org.heigit.ors.apitests.common.EndPointAnnotation;
 import org.heigit.ors.apitests.common.ServiceTest;
@@ -27,6 +28,7 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.is;
 import static org.heigit.ors.apitests.utils.CommonHeaders.geoJsonContent;
 import static org.heigit.ors.apitests.utils.CommonHeaders.jsonContent;
+import static org.heigit.ors.apitests.utils.CommonHeaders.octetStreamContent;
 
 @EndPointAnnotation(name = "isochrones")
 @VersionAnnotation(version = "v2")
@@ -760,6 +762,24 @@ class ParamsTest extends ServiceTest {
 
     }
 
+    @Test
+    void testJsonErrorForBinaryRequest() {
+        JSONObject body = new JSONObject();
+        body.put("locations", getParameter("locations_1"));
+        body.put("range", getParameter("ranges_2"));
+
+        given()
+                .headers(octetStreamContent)
+                .pathParam("profile", "wrongProfile")
+                .body(body.toString())
+                .when()
+                .post(getEndPointPath() + "/{profile}/binary")
+                .then()
+                .contentType(ContentType.JSON)
+                .statusCode(400)
+                .body("error.code", Matchers.is(IsochronesErrorCodes.INVALID_PARAMETER_VALUE));
+    }
+
     @Test
     void testAcceptsTimeParameter() {
         JSONArray ranges = new JSONArray();
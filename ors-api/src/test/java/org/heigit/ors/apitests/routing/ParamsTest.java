@@ -13,6 +13,7 @@
  */
 package org.heigit.ors.apitests.routing;
 
+import io.restassured.http.ContentType;
 import org.heigit.ors.api.EndpointsProperties;
 import org.heigit.ors.apitests.common.EndPointAnnotation;
 import org.heigit.ors.apitests.common.ServiceTest;
@@ -31,6 +32,7 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 import static org.heigit.ors.apitests.utils.CommonHeaders.geoJsonContent;
 import static org.heigit.ors.apitests.utils.CommonHeaders.jsonContent;
+import static org.heigit.ors.apitests.utils.CommonHeaders.octetStreamContent;
 
 @EndPointAnnotation(name = "directions")
 @VersionAnnotation(version = "v2")
@@ -436,6 +438,27 @@ class ParamsTest extends ServiceTest {
                 .statusCode(400);
     }
 
+    @Test
+    void expectJsonErrorsForBinaryRequests() {
+        JSONObject body = new JSONObject();
+        body.put("coordinates", getParameter("coordinatesShort"));
+        body.put("preference", getParameter("preference"));
+
+        for (String path : new String[]{"/{profile}", "/{profile}/binary"}) {
+            given()
+                    .headers(octetStreamContent)
+                    .pathParam("profile", "driving-car-123")
+                    .body(body.toString())
+                    .when()
+                    .post(getEndPointPath() + path)
+                    .then().log().ifValidationFails()
+                    .assertThat()
+                    .contentType(ContentType.JSON)
+                    .body("error.code", is(RoutingErrorCodes.INVALID_PARAMETER_VALUE))
+                    .statusCode(400);
+        }
+    }
+
     @Test
     void expectInvalidCoordinatesInGet() {
         given()
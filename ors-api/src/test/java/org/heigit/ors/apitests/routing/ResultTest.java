@@ -17,6 +17,7 @@ import io.restassured.RestAssured;
 import io.restassured.config.RestAssuredConfig;
 import io.restassured.path.json.config.JsonPathConfig;
 import io.restassured.response.Response;
+import org.heigit.ors.api.responses.routing.binary.BinaryRouteResponse;
 import org.heigit.ors.apitests.common.EndPointAnnotation;
 import org.heigit.ors.apitests.common.ServiceTest;
 import org.heigit.ors.apitests.common.VersionAnnotation;
@@ -46,6 +47,7 @@ import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -174,6 +176,32 @@ class ResultTest extends ServiceTest {
                 .statusCode(200);
     }
 
+    @Test
+    void testBinaryResponse() {
+        JSONObject body = new JSONObject();
+        body.put("coordinates", getParameter("coordinatesShort"));
+        body.put("preference", getParameter("preference"));
+
+        for (String path : new String[]{"/{profile}", "/{profile}/binary"}) {
+            Response response = given()
+                    .headers(CommonHeaders.octetStreamContent)
+                    .pathParam("profile", getParameter("carProfile"))
+                    .body(body.toString())
+                    .when()
+                    .log().ifValidationFails()
+                    .post(getEndPointPath() + path);
+
+            response.then().log().ifValidationFails()
+                    .assertThat()
+                    .contentType("application/octet-stream")
+                    .statusCode(200);
+            ByteBuffer bytes = ByteBuffer.wrap(response.asByteArray());
+            assertEquals(BinaryRouteResponse.MAGIC, bytes.getInt());
+            assertEquals(BinaryRouteResponse.VERSION, bytes.get());
+            assertEquals(1, bytes.get());
+        }
+    }
+
     @Test
     void testGpxExport() throws IOException, SAXException, ParserConfigurationException { // xml serialization fails, java version / jackson / spring problem? Sascha /Johannes are looking at it
         JSONObject body = new JSONObject();
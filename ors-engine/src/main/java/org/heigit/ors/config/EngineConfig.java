@@ -1,6 +1,7 @@
 package org.heigit.ors.config;
 
 import org.heigit.ors.routing.configuration.RouteProfileConfiguration;
+import org.heigit.ors.routing.graphhopper.extensions.reader.SharedOSMImport;
 import org.heigit.ors.util.StringUtility;
 
 import java.util.List;
@@ -13,6 +14,9 @@ public class EngineConfig {
     private final String sourceFile;
     private final String graphsRootPath;
     private final boolean elevationPreprocessed;
+    private final int osmImportWorkerThreads;
+    private final long osmImportJoinTimeout;
+    private final int osmImportQueueCapacity;
     private final RouteProfileConfiguration[] profiles;
 
     public int getInitializationThreads() {
@@ -35,6 +39,18 @@ public class EngineConfig {
         return elevationPreprocessed;
     }
 
+    public int getOsmImportWorkerThreads() {
+        return osmImportWorkerThreads;
+    }
+
+    public long getOsmImportJoinTimeout() {
+        return osmImportJoinTimeout;
+    }
+
+    public int getOsmImportQueueCapacity() {
+        return osmImportQueueCapacity;
+    }
+
     public RouteProfileConfiguration[] getProfiles() {
         return profiles;
     }
@@ -45,6 +61,9 @@ public class EngineConfig {
         this.sourceFile = builder.sourceFile;
         this.elevationPreprocessed = builder.elevationPreprocessed;
         this.graphsRootPath = builder.graphsRootPath;
+        this.osmImportWorkerThreads = builder.osmImportWorkerThreads;
+        this.osmImportJoinTimeout = builder.osmImportJoinTimeout;
+        this.osmImportQueueCapacity = builder.osmImportQueueCapacity;
         this.profiles = builder.profiles;
     }
 
@@ -56,6 +75,9 @@ public class EngineConfig {
         private String sourceFile;
         private String graphsRootPath;
         private boolean elevationPreprocessed;
+        private int osmImportWorkerThreads = SharedOSMImport.DEFAULT_WORKER_THREADS;
+        private long osmImportJoinTimeout = SharedOSMImport.DEFAULT_JOIN_TIMEOUT;
+        private int osmImportQueueCapacity = SharedOSMImport.DEFAULT_QUEUE_CAPACITY;
         private RouteProfileConfiguration[] profiles;
 
         public static EngineConfigBuilder init() {
@@ -88,6 +110,21 @@ public class EngineConfig {
             return this;
         }
 
+        public EngineConfigBuilder setOsmImportWorkerThreads(int osmImportWorkerThreads) {
+            this.osmImportWorkerThreads = osmImportWorkerThreads;
+            return this;
+        }
+
+        public EngineConfigBuilder setOsmImportJoinTimeout(long osmImportJoinTimeout) {
+            this.osmImportJoinTimeout = osmImportJoinTimeout;
+            return this;
+        }
+
+        public EngineConfigBuilder setOsmImportQueueCapacity(int osmImportQueueCapacity) {
+            this.osmImportQueueCapacity = osmImportQueueCapacity;
+            return this;
+        }
+
         public EngineConfigBuilder setProfiles(RouteProfileConfiguration[] profiles) {
             this.profiles = profiles;
             return this;
@@ -22,9 +22,14 @@ import org.locationtech.jts.index.quadtree.Quadtree;
 import org.opensphere.geometry.algorithm.ConcaveHullOpenSphere;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.getMaxCellNodesNumber;
+import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.getMaxThreadCount;
 import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.isSupercellsEnabled;
 
 /**
@@ -48,6 +53,8 @@ public class Contour {
     private static final int SUPER_SUPER_CELL_HIERARCHY_LEVEL = 2; // level above super cell level
     private static final double CONCAVE_HULL_THRESHOLD = 0.006;
     private static final double BUFFER_SIZE = 0.0003;
+    //Number of cells whose contours are calculated concurrently before they are written to the storage
+    private static final int CONTOUR_BATCH_SIZE = 1024;
     protected NodeAccess nodeAccess;
     protected GraphHopperStorage ghStorage;
     private final IsochroneNodeStorage isochroneNodeStorage;
@@ -87,10 +94,10 @@ public class Contour {
     public void calculateContour() {
         handleBaseCells();
         cellStorage.flush();
-        IntObjectMap<IntHashSet> superCells = handleSuperCells();
+        List<IntObjectMap<IntHashSet>> superCellLevels = handleSuperCells();
         cellStorage.storeContourPointerMap();
         if (isSupercellsEnabled())
-            cellStorage.storeSuperCells(superCells);
+            cellStorage.storeCellHierarchy(superCellLevels);
         cellStorage.setContourPrepared(true);
         cellStorage.flush();
     }
@@ -99,15 +106,11 @@ public class Contour {
      * Create contour for each base cell and store it
      */
     private void handleBaseCells() {
-        for (IntCursor cellId : isochroneNodeStorage.getCellIds()) {
-            List<Coordinate> coordinates = createCoordinates(cellId.value);
-            LineString ring = createContour(coordinates, cellStorage.getNodesOfCell(cellId.value).size() < 1000);
-            if (ring == null || ring.getNumPoints() < 2) {
-                cellStorage.setCellContourOrder(cellId.value, new ArrayList<>(), new ArrayList<>());
-                continue;
-            }
-            expandAndSaveContour(cellId.value, ring);
-        }
+        int[] cellIds = new int[isochroneNodeStorage.getCellIds().size()];
+        int i = 0;
+        for (IntCursor cellId : isochroneNodeStorage.getCellIds())
+            cellIds[i++] = cellId.value;
+        calculateContours(cellIds, cellId -> createContour(createCoordinates(cellId), cellStorage.getNodeCountOfCell(cellId) < 1000));
     }
 
     /**
@@ -117,30 +120,27 @@ public class Contour {
      * For each super(super)cell, we need to know the corresponding basecells (to get the contour from storage)
      * and the corresponding subcells (these are supercells for supersupercells)
      *
-     * @return Mapping of supercell Id -> Set of subcell ids
+     * @return Mapping of supercell Id -> Set of subcell ids per hierarchy level, starting with the supercells of base cells
      */
-    private IntObjectMap<IntHashSet> handleSuperCells() {
-        IntObjectMap<IntHashSet> superCells = new IntObjectHashMap<>();
+    private List<IntObjectMap<IntHashSet>> handleSuperCells() {
+        List<IntObjectMap<IntHashSet>> superCellLevels = new ArrayList<>();
         if (isSupercellsEnabled()) {
-            superCells = identifySuperCells(isochroneNodeStorage.getCellIds(), SUPER_CELL_HIERARCHY_LEVEL, true);
+            IntObjectMap<IntHashSet> superCells = identifySuperCells(isochroneNodeStorage.getCellIds(), SUPER_CELL_HIERARCHY_LEVEL, true);
             IntObjectMap<IntHashSet> superSuperCells = identifySuperCells(new IntHashSet(superCells.keys()), SUPER_SUPER_CELL_HIERARCHY_LEVEL, false);
+            superCellLevels.add(superCells);
+            superCellLevels.add(superSuperCells);
 
             IntObjectMap<IntHashSet> superCellsToBaseCells = getBaseCellsOfSuperSuperCells(superSuperCells, superCells);
             superCellsToBaseCells.putAll(superCells);
-            superCells.putAll(superSuperCells);
 
             //Calculate the concave hull for all super cells and super super cells
-            for (IntObjectCursor<IntHashSet> superCell : superCellsToBaseCells) {
-                List<Coordinate> superCellCoordinates = createSuperCellCoordinates(superCell.value);
-                LineString ring = createContour(superCellCoordinates, false);
-                if (ring == null || ring.getNumPoints() < 2) {
-                    cellStorage.setCellContourOrder(superCell.key, new ArrayList<>(), new ArrayList<>());
-                    continue;
-                }
-                expandAndSaveContour(superCell.key, ring);
-            }
+            int[] superCellIds = new int[superCellsToBaseCells.size()];
+            int i = 0;
+            for (IntObjectCursor<IntHashSet> superCell : superCellsToBaseCells)
+                superCellIds[i++] = superCell.key;
+            calculateContours(superCellIds, superCellId -> createContour(createSuperCellCoordinates(superCellsToBaseCells.get(superCellId)), false));
         }
-        return superCells;
+        return superCellLevels;
     }
 
     /**
@@ -170,16 +170,14 @@ public class Contour {
      */
     private List<Coordinate> createSuperCellCoordinates(IntHashSet superCell) {
         List<Coordinate> superCellCoordinates = new ArrayList<>(superCell.size() * 10);
+        double[] subCellContour = new double[0];
         for (IntCursor subcell : superCell) {
-            List<Double> subCellContour = cellStorage.getCellContourOrder(subcell.value);
-            int j = 0;
-            while (j < subCellContour.size()) {
-                double lat = subCellContour.get(j);
-                j++;
-                double lon = subCellContour.get(j);
-                j++;
-                superCellCoordinates.add(new Coordinate(lon, lat));
-            }
+            int pointCount = cellStorage.getContourPointCount(subcell.value);
+            if (subCellContour.length < 2 * pointCount)
+                subCellContour = new double[2 * pointCount];
+            cellStorage.fillCellContour(subcell.value, subCellContour);
+            for (int j = 0; j < pointCount; j++)
+                superCellCoordinates.add(new Coordinate(subCellContour[2 * j + 1], subCellContour[2 * j]));
         }
         //Need to sort the coordinates, because they will be added to a search tree
         //The order of insertion changes the search tree coordinates and we want consistency between runs
@@ -321,8 +319,8 @@ public class Contour {
 
     private boolean isDisconnectedCell(IntSet cellIds, int cellId) {
         //If it has sister, check if their combined size is smaller than minimum cell size -> disconnected
-        return (cellIds.contains(cellId ^ 1) && cellStorage.getNodesOfCell(cellId).size()
-                + cellStorage.getNodesOfCell(cellId ^ 1).size()
+        return (cellIds.contains(cellId ^ 1) && cellStorage.getNodeCountOfCell(cellId)
+                + cellStorage.getNodeCountOfCell(cellId ^ 1)
                 < getMaxCellNodesNumber());
     }
 
@@ -411,14 +409,49 @@ public class Contour {
         }
     }
 
+    /**
+     * Calculate the contours of the given cells on a thread pool and store them in the order of the given ids.
+     * The cells are processed in batches. A batch is written to the storage only after all of its contours are
+     * calculated, so the calculations only ever read from the storage while nothing is written to it.
+     *
+     * @param cellIds           ids of the cells in the order in which their contours are stored
+     * @param contourCalculator calculates the contour ring of a cell id, may return null if there is none
+     */
+    private void calculateContours(int[] cellIds, IntFunction<LineString> contourCalculator) {
+        ExecutorService threadPool = java.util.concurrent.Executors.newFixedThreadPool(Math.min(getMaxThreadCount(), Runtime.getRuntime().availableProcessors()));
+        try {
+            for (int from = 0; from < cellIds.length; from += CONTOUR_BATCH_SIZE) {
+                int to = Math.min(from + CONTOUR_BATCH_SIZE, cellIds.length);
+                List<Future<List<List<Double>>>> contours = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    final int cellId = cellIds[i];
+                    contours.add(threadPool.submit(() -> expandContour(contourCalculator.apply(cellId))));
+                }
+                for (int i = from; i < to; i++) {
+                    List<List<Double>> contour = contours.get(i - from).get();
+                    cellStorage.setCellContourOrder(cellIds[i], contour.get(0), contour.get(1));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating cell contours", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Calculating cell contours failed", e.getCause());
+        } finally {
+            threadPool.shutdownNow();
+        }
+    }
+
     /**
      * Fill the edges of the polygon representing the contour so that even long straights are represented by regular points.
      * If these long edges were not split, it would lead to "holes" in the edge that can be misinterpreted when building the overall isochrone from multiple contours
      *
-     * @param cellId cellId of the contour
-     * @param ring   LineString representing the contour in order
+     * @param ring LineString representing the contour in order
+     * @return latitudes and longitudes of the expanded contour, both empty if there is no valid ring
      */
-    private void expandAndSaveContour(int cellId, LineString ring) {
+    private List<List<Double>> expandContour(LineString ring) {
+        if (ring == null || ring.getNumPoints() < 2)
+            return List.of(new ArrayList<>(), new ArrayList<>());
         List<Double> hullLatitudes = new ArrayList<>(ring.getNumPoints());
         List<Double> hullLongitudes = new ArrayList<>(ring.getNumPoints());
         for (int i = 0; i < ring.getNumPoints(); i++) {
@@ -435,7 +468,7 @@ public class Contour {
                         MAX_EDGE_LENGTH);
             }
         }
-        cellStorage.setCellContourOrder(cellId, hullLatitudes, hullLongitudes);
+        return List.of(hullLatitudes, hullLongitudes);
     }
 
     public Contour setGhStorage(GraphHopperStorage ghStorage) {
@@ -24,7 +24,6 @@ import com.graphhopper.storage.Graph;
 import com.graphhopper.util.EdgeExplorer;
 import com.graphhopper.util.EdgeIterator;
 import org.heigit.ors.fastisochrones.partitioning.storage.IsochroneNodeStorage;
-import org.heigit.ors.fastisochrones.storage.BorderNodeDistanceSet;
 import org.heigit.ors.fastisochrones.storage.BorderNodeDistanceStorage;
 
 import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.CORERANGEDIJKSTRA;
@@ -38,12 +37,14 @@ import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters
 public class CoreRangeDijkstra extends AbstractIsochroneDijkstra {
     protected IsochroneNodeStorage isochroneNodeStorage;
     protected BorderNodeDistanceStorage borderNodeDistanceStorage;
+    private final BorderNodeDistanceStorage.BorderNodeDistanceIterator borderNodeDistanceIterator;
     private double isochroneLimit = 0;
 
     public CoreRangeDijkstra(Graph graph, Weighting weighting, IsochroneNodeStorage isochroneNodeStorage, BorderNodeDistanceStorage borderNodeDistanceStorage) {
         super(graph, weighting);
         this.isochroneNodeStorage = isochroneNodeStorage;
         this.borderNodeDistanceStorage = borderNodeDistanceStorage;
+        this.borderNodeDistanceIterator = borderNodeDistanceStorage.createBorderNodeDistanceIterator();
     }
 
     protected void initFrom(int from) {
@@ -95,10 +96,10 @@ public class CoreRangeDijkstra extends AbstractIsochroneDijkstra {
 
     private void handleAdjacentBorderNodes(int baseNode) {
         if (isochroneNodeStorage.getBorderness(baseNode)) {
-            BorderNodeDistanceSet bnds = borderNodeDistanceStorage.getBorderNodeDistanceSet(baseNode);
-            for (int i = 0; i < bnds.getAdjBorderNodeIds().length; i++) {
-                int id = bnds.getAdjBorderNodeIds()[i];
-                double weight = bnds.getAdjBorderNodeDistances()[i] + currEdge.weight;
+            BorderNodeDistanceStorage.BorderNodeDistanceIterator iter = borderNodeDistanceIterator.setBaseNode(baseNode);
+            while (iter.next()) {
+                int id = iter.getAdjBorderNode();
+                double weight = iter.getDistance() + currEdge.weight;
                 if (weight > isochroneLimit || Double.isInfinite(weight))
                     continue;
 
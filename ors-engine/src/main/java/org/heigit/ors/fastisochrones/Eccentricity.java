@@ -1,7 +1,6 @@
 package org.heigit.ors.fastisochrones;
 
 import com.carrotsearch.hppc.IntHashSet;
-import com.carrotsearch.hppc.IntObjectHashMap;
 import com.carrotsearch.hppc.cursors.IntCursor;
 import com.graphhopper.routing.SPTEntry;
 import com.graphhopper.routing.util.AccessFilter;
@@ -21,7 +20,7 @@ import org.heigit.ors.routing.algorithms.DijkstraOneToManyAlgorithm;
 import org.heigit.ors.routing.graphhopper.extensions.edgefilters.EdgeFilterSequence;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.PrimitiveIterator;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 
@@ -65,57 +64,21 @@ public class Eccentricity extends AbstractEccentricity {
         ExecutorCompletionService<String> completionService = new ExecutorCompletionService<>(threadPool);
 
         EdgeFilter defaultEdgeFilter = AccessFilter.outEdges(flagEncoder.getAccessEnc());
+        //One workspace per thread, reset for every border node instead of allocating a new Dijkstra each time
+        ThreadLocal<RangeDijkstra> rangeDijkstras = ThreadLocal.withInitial(() -> new RangeDijkstra(graph, weighting));
 
-        IntObjectHashMap<IntHashSet> relevantNodesSets = new IntObjectHashMap<>(isochroneNodeStorage.getCellIds().size());
+        //Calculate the eccentricity via RangeDijkstra, one task per cell so that the cell data is only loaded once
+        int cellCount = 0;
         for (IntCursor cellId : isochroneNodeStorage.getCellIds()) {
-            relevantNodesSets.put(cellId.value, getRelevantContourNodes(cellId.value, cellStorage, isochroneNodeStorage));
-        }
-
-        //Calculate the eccentricity via RangeDijkstra
-        int borderNodeCount = 0;
-        for (int borderNode = 0; borderNode < graph.getNodes(); borderNode++) {
-            if (!isochroneNodeStorage.getBorderness(borderNode))
-                continue;
-            final int node = borderNode;
-            borderNodeCount++;
-            completionService.submit(() -> {
-                //First run dijkstra only in cell and try to find _all_ nodes in the cell
-                EdgeFilterSequence edgeFilterSequence = new EdgeFilterSequence();
-                FixedCellEdgeFilter fixedCellEdgeFilter = new FixedCellEdgeFilter(isochroneNodeStorage, isochroneNodeStorage.getCellId(node), graph.getNodes());
-                edgeFilterSequence.add(defaultEdgeFilter);
-                edgeFilterSequence.add(fixedCellEdgeFilter);
-                edgeFilterSequence.add(additionalEdgeFilter);
-                RangeDijkstra rangeDijkstra = new RangeDijkstra(graph, weighting);
-                rangeDijkstra.setMaxVisitedNodes(getMaxCellNodesNumber() * ECCENTRICITY_DIJKSTRA_LIMIT_FACTOR);
-                rangeDijkstra.setEdgeFilter(edgeFilterSequence);
-                rangeDijkstra.setCellNodes(cellStorage.getNodesOfCell(isochroneNodeStorage.getCellId(node)));
-                double eccentricity = rangeDijkstra.calcMaxWeight(node, relevantNodesSets.get(isochroneNodeStorage.getCellId(node)));
-                int cellNodeCount = cellStorage.getNodesOfCell(isochroneNodeStorage.getCellId(node)).size();
-                //Rerun outside of cell if not enough nodes were found in first run, but try to find almost all
-                //Sometimes nodes in a cell cannot be found, but we do not want to search the entire graph each time, so we limit the Dijkstra
-                if (((double) rangeDijkstra.getFoundCellNodeSize()) / cellNodeCount < ACCEPTED_FULLY_REACHABLE_PERCENTAGE) {
-                    rangeDijkstra = new RangeDijkstra(graph, weighting);
-                    rangeDijkstra.setMaxVisitedNodes(getMaxCellNodesNumber() * ECCENTRICITY_DIJKSTRA_LIMIT_FACTOR);
-                    rangeDijkstra.setEdgeFilter(edgeFilterSequence);
-                    rangeDijkstra.setCellNodes(cellStorage.getNodesOfCell(isochroneNodeStorage.getCellId(node)));
-                    edgeFilterSequence = new EdgeFilterSequence();
-                    edgeFilterSequence.add(defaultEdgeFilter);
-                    rangeDijkstra.setEdgeFilter(edgeFilterSequence);
-                    eccentricity = rangeDijkstra.calcMaxWeight(node, relevantNodesSets.get(isochroneNodeStorage.getCellId(node)));
-                }
-
-                //TODO Maybe implement a logic smarter than having some high percentage for acceptedFullyReachable
-                boolean isFullyReachable = ((double) rangeDijkstra.getFoundCellNodeSize()) / cellNodeCount >= ACCEPTED_FULLY_REACHABLE_PERCENTAGE;
-                eccentricityStorage.setFullyReachable(node, isFullyReachable);
-
-                eccentricityStorage.setEccentricity(node, eccentricity);
-            }, String.valueOf(node));
+            final int currentCellId = cellId.value;
+            cellCount++;
+            completionService.submit(() -> calculateCellEccentricities(eccentricityStorage, rangeDijkstras.get(), defaultEdgeFilter, additionalEdgeFilter, currentCellId, graph), String.valueOf(currentCellId));
         }
 
         threadPool.shutdown();
 
         try {
-            for (int i = 0; i < borderNodeCount; i++) {
+            for (int i = 0; i < cellCount; i++) {
                 completionService.take().get();
             }
         } catch (Exception e) {
@@ -159,6 +122,45 @@ public class Eccentricity extends AbstractEccentricity {
         borderNodeDistanceStorage.flush();
     }
 
+    private void calculateCellEccentricities(EccentricityStorage eccentricityStorage, RangeDijkstra rangeDijkstra, EdgeFilter defaultEdgeFilter, EdgeFilter additionalEdgeFilter, int cellId, Graph graph) {
+        IntHashSet cellNodes = cellStorage.getNodesOfCell(cellId);
+        IntHashSet relevantNodes = getRelevantContourNodes(cellId, cellNodes, cellStorage, isochroneNodeStorage);
+        int cellNodeCount = cellNodes.size();
+
+        EdgeFilterSequence cellEdgeFilterSequence = new EdgeFilterSequence();
+        cellEdgeFilterSequence.add(defaultEdgeFilter);
+        cellEdgeFilterSequence.add(new FixedCellEdgeFilter(isochroneNodeStorage, cellId, graph.getNodes()));
+        cellEdgeFilterSequence.add(additionalEdgeFilter);
+        EdgeFilterSequence outsideEdgeFilterSequence = new EdgeFilterSequence();
+        outsideEdgeFilterSequence.add(defaultEdgeFilter);
+
+        for (IntCursor cellNode : cellNodes) {
+            int node = cellNode.value;
+            if (!isochroneNodeStorage.getBorderness(node))
+                continue;
+            //First run dijkstra only in cell and try to find _all_ nodes in the cell
+            double eccentricity = calcMaxWeight(rangeDijkstra, cellEdgeFilterSequence, cellNodes, node, relevantNodes);
+            //Rerun outside of cell if not enough nodes were found in first run, but try to find almost all
+            //Sometimes nodes in a cell cannot be found, but we do not want to search the entire graph each time, so we limit the Dijkstra
+            if (((double) rangeDijkstra.getFoundCellNodeSize()) / cellNodeCount < ACCEPTED_FULLY_REACHABLE_PERCENTAGE)
+                eccentricity = calcMaxWeight(rangeDijkstra, outsideEdgeFilterSequence, cellNodes, node, relevantNodes);
+
+            //TODO Maybe implement a logic smarter than having some high percentage for acceptedFullyReachable
+            boolean isFullyReachable = ((double) rangeDijkstra.getFoundCellNodeSize()) / cellNodeCount >= ACCEPTED_FULLY_REACHABLE_PERCENTAGE;
+            eccentricityStorage.setFullyReachable(node, isFullyReachable);
+
+            eccentricityStorage.setEccentricity(node, eccentricity);
+        }
+    }
+
+    private double calcMaxWeight(RangeDijkstra rangeDijkstra, EdgeFilter edgeFilter, IntHashSet cellNodes, int node, IntHashSet relevantNodes) {
+        rangeDijkstra.reset();
+        rangeDijkstra.setMaxVisitedNodes(getMaxCellNodesNumber() * ECCENTRICITY_DIJKSTRA_LIMIT_FACTOR);
+        rangeDijkstra.setEdgeFilter(edgeFilter);
+        rangeDijkstra.setCellNodes(cellNodes);
+        return rangeDijkstra.calcMaxWeight(node, relevantNodes);
+    }
+
     private void calculateBorderNodeDistances(BorderNodeDistanceStorage borderNodeDistanceStorage, EdgeFilter additionalEdgeFilter, int cellId, Weighting weighting, FlagEncoder flagEncoder) {
         int[] cellBorderNodes = getBorderNodesOfCell(cellId, cellStorage, isochroneNodeStorage).toArray();
         EdgeFilterSequence edgeFilterSequence = new EdgeFilterSequence();
@@ -194,26 +196,24 @@ public class Eccentricity extends AbstractEccentricity {
 
     private IntHashSet getBorderNodesOfCell(int cellId, CellStorage cellStorage, IsochroneNodeStorage isochroneNodeStorage) {
         IntHashSet borderNodes = new IntHashSet();
-        for (IntCursor node : cellStorage.getNodesOfCell(cellId)) {
-            if (isochroneNodeStorage.getBorderness(node.value))
-                borderNodes.add(node.value);
+        PrimitiveIterator.OfInt nodes = cellStorage.getNodesOfCellIterator(cellId);
+        while (nodes.hasNext()) {
+            int node = nodes.nextInt();
+            if (isochroneNodeStorage.getBorderness(node))
+                borderNodes.add(node);
         }
         return borderNodes;
     }
 
-    private IntHashSet getRelevantContourNodes(int cellId, CellStorage cellStorage, IsochroneNodeStorage isochroneNodeStorage) {
+    private IntHashSet getRelevantContourNodes(int cellId, IntHashSet cellNodes, CellStorage cellStorage, IsochroneNodeStorage isochroneNodeStorage) {
         if (this.locationIndex == null)
-            return cellStorage.getNodesOfCell(cellId);
-        List<Double> contourCoordinates = cellStorage.getCellContourOrder(cellId);
+            return cellNodes;
+        double[] contourCoordinates = new double[2 * cellStorage.getContourPointCount(cellId)];
+        cellStorage.fillCellContour(cellId, contourCoordinates);
         FixedCellEdgeFilter fixedCellEdgeFilter = new FixedCellEdgeFilter(isochroneNodeStorage, cellId, Integer.MAX_VALUE);
-        int j = 0;
         IntHashSet contourNodes = new IntHashSet();
-        while (j < contourCoordinates.size()) {
-            double latitude = contourCoordinates.get(j);
-            j++;
-            double longitude = contourCoordinates.get(j);
-            j++;
-            int nodeId = locationIndex.findClosest(latitude, longitude, fixedCellEdgeFilter).getClosestNode();
+        for (int j = 0; j < contourCoordinates.length; j += 2) {
+            int nodeId = locationIndex.findClosest(contourCoordinates[j], contourCoordinates[j + 1], fixedCellEdgeFilter).getClosestNode();
             contourNodes.add(nodeId);
         }
         return contourNodes;
@@ -179,7 +179,7 @@ public class FastIsochroneAlgorithm extends AbstractIsochroneAlgorithm {
         Iterator<Map.Entry<Integer, IntObjectMap<SPTEntry>>> activeCellIterator = getActiveCellMaps().entrySet().iterator();
         while (activeCellIterator.hasNext()) {
             Map.Entry<Integer, IntObjectMap<SPTEntry>> activeCell = activeCellIterator.next();
-            if (activeCell.getValue().size() / (double) cellStorage.getNodesOfCell(activeCell.getKey()).size() > approximation) {
+            if (activeCell.getValue().size() / (double) cellStorage.getNodeCountOfCell(activeCell.getKey()) > approximation) {
                 activeCellIterator.remove();
                 getFullyReachableCells().add(activeCell.getKey());
             }
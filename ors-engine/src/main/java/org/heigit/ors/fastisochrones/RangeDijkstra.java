@@ -25,13 +25,11 @@ import com.graphhopper.storage.Graph;
 import com.graphhopper.util.EdgeExplorer;
 import com.graphhopper.util.EdgeIterator;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.RANGEDIJKSTRA;
 
 /**
  * calculates maximum range (eccentricity) within a cell.
+ * An instance can be reused for several start nodes by calling {@link #reset()} between the calculations.
  * <p>
  *
  * @author Hendrik Leuschner
@@ -40,15 +38,33 @@ public class RangeDijkstra extends AbstractIsochroneDijkstra {
     private static final boolean USERELEVANTONLY = true;
     private double maximumWeight = 0;
     private IntHashSet cellNodes;
-    private final Set<Integer> visitedIds = new HashSet<>();
+    private final IntHashSet visitedIds = new IntHashSet();
     private IntHashSet relevantNodes = new IntHashSet();
+    private final EdgeExplorer explorer;
+    private boolean alreadyRun;
 
     public RangeDijkstra(Graph graph, Weighting weighting) {
         super(graph, weighting);
+        explorer = graph.createEdgeExplorer();
+    }
+
+    /**
+     * Clear the state of the previous calculation, keeping the allocated collections.
+     */
+    public void reset() {
+        fromMap.clear();
+        fromHeap.clear();
+        visitedIds.clear();
+        currEdge = null;
+        visitedNodes = 0;
+        maximumWeight = 0;
+        alreadyRun = false;
     }
 
     public double calcMaxWeight(int from, IntHashSet relevantNodes) {
-        checkAlreadyRun();
+        if (alreadyRun)
+            throw new IllegalStateException("Call reset() before calculating the max weight of another node");
+        alreadyRun = true;
         currEdge = new SPTEntry(EdgeIterator.NO_EDGE, from, 0);
         this.relevantNodes = relevantNodes;
         if (!traversalMode.isEdgeBased()) {
@@ -74,7 +90,6 @@ public class RangeDijkstra extends AbstractIsochroneDijkstra {
     }
 
     protected void runAlgo() {
-        EdgeExplorer explorer = graph.createEdgeExplorer();
         while (true) {
             visitedNodes++;
             if (isMaxVisitedNodesExceeded() || finished())
@@ -0,0 +1,166 @@
+package org.heigit.ors.fastisochrones.partitioning;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntHashSet;
+
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.getSplitValue;
+
+/**
+ * Array based Edmonds-Karp max flow with A* ordered search for one projection of a cell.
+ * The search order, the augmenting paths and therefore the resulting cut are the same as with the graph-wide
+ * EdmondsKarpAStar the tests compare it to, but all state is kept in arrays indexed by the local node ids of a
+ * {@link FlowGraph}.
+ * This way the projections of a cell can be evaluated concurrently on the same flow graph.
+ */
+public class ArrayEdmondsKarpAStar {
+    private final FlowGraph flowGraph;
+    private final int nodes;
+    private final int srcLimit;
+    private final int snkLimit;
+    private final int maxCalls;
+    // projection order: local node id by rank and rank by local node id
+    private final int[] rankedNodes;
+    private final int[] ranks;
+    private final boolean[] flow;
+    private final int[] visited;
+    private final int[] prevEntry;
+    private final int[] prevNode;
+    private final int[] candidates;
+    private int[] stack;
+    private int visitedToken = 1;
+
+    public ArrayEdmondsKarpAStar(FlowGraph flowGraph, IntArrayList orderedNodes) {
+        this.flowGraph = flowGraph;
+        this.nodes = orderedNodes.size();
+        this.srcLimit = (int) (getSplitValue() * nodes);
+        this.snkLimit = (int) ((1 - getSplitValue()) * nodes);
+        this.maxCalls = flowGraph.getMaxCalls();
+        rankedNodes = new int[nodes];
+        ranks = new int[flowGraph.getNodes()];
+        for (int rank = 0; rank < nodes; rank++) {
+            int localId = flowGraph.getLocalId(orderedNodes.get(rank));
+            rankedNodes[rank] = localId;
+            ranks[localId] = rank;
+        }
+        flow = new boolean[flowGraph.getFlowSlots()];
+        visited = new int[flowGraph.getNodes()];
+        prevEntry = new int[flowGraph.getNodes()];
+        Arrays.fill(prevEntry, -1);
+        prevNode = new int[flowGraph.getNodes()];
+        candidates = new int[flowGraph.getMaxDegree()];
+        stack = new int[Math.max(nodes, 16)];
+    }
+
+    /**
+     * Iterate the search until no more connections can be found.
+     *
+     * @param maxFlowLimit current limit, the computation is aborted as soon as the flow exceeds it
+     * @return the max flow or Integer.MAX_VALUE if the limit was exceeded
+     */
+    public int getMaxFlow(IntSupplier maxFlowLimit) {
+        int currentFlow;
+        int maxFlow = 0;
+        do {
+            ++visitedToken;
+            currentFlow = search();
+            maxFlow += currentFlow;
+
+            if (maxFlow > maxFlowLimit.getAsInt()) {
+                maxFlow = Integer.MAX_VALUE;
+                break;
+            }
+        } while (currentFlow > 0);
+        return maxFlow;
+    }
+
+    /**
+     * Determine source and sink sets from the nodes reached by the last search.
+     *
+     * @return the bi partition
+     */
+    public BiPartition calcNodePartition() {
+        IntHashSet srcSet = new IntHashSet();
+        IntHashSet snkSet = new IntHashSet();
+        for (int localId = 0; localId < flowGraph.getNodes(); localId++) {
+            if (visited[localId] == visitedToken)
+                srcSet.add(flowGraph.getNodeId(localId));
+            else
+                snkSet.add(flowGraph.getNodeId(localId));
+        }
+        return new BiPartition(srcSet, snkSet);
+    }
+
+    /**
+     * Search for a connection between source and sink set. Order of node expansion given by distance to sink set.
+     *
+     * @return 1 while connection found. 0 otherwise.
+     */
+    private int search() {
+        int stackSize = 0;
+        for (int rank = 0; rank <= srcLimit; rank++) {
+            stack[stackSize++] = rankedNodes[rank];
+            visited[rankedNodes[rank]] = visitedToken;
+        }
+        int calls = srcLimit;
+        int sinkNode = -1;
+
+        while (stackSize > 0) {
+            if (calls > maxCalls)
+                return 0;
+            int node = stack[--stackSize];
+
+            if (snkLimit <= ranks[node]) {
+                //Early stop
+                sinkNode = node;
+                break;
+            }
+            visited[node] = visitedToken;
+            int candidateCount = 0;
+            for (int entry = flowGraph.getAdjStart(node); entry < flowGraph.getAdjEnd(node); entry++) {
+                int adj = flowGraph.getAdjNode(entry);
+                if (flow[entry] || visited[adj] == visitedToken)
+                    continue;
+                prevEntry[adj] = entry;
+                prevNode[adj] = node;
+                candidates[candidateCount++] = ranks[adj];
+            }
+            // every edge of the node counts as call, including the ones not part of the flow graph
+            calls += flowGraph.getDegree(node) + 1;
+
+            //Push in ascending rank so that the node closest to the sink set is expanded next
+            Arrays.sort(candidates, 0, candidateCount);
+            if (stackSize + candidateCount > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, stackSize + candidateCount));
+            for (int i = 0; i < candidateCount; i++) {
+                if (i > 0 && candidates[i] == candidates[i - 1])
+                    continue;
+                stack[stackSize++] = rankedNodes[candidates[i]];
+            }
+        }
+
+        if (sinkNode < 0)
+            return 0;
+        return augment(sinkNode);
+    }
+
+    private int augment(int sinkNode) {
+        int bottleNeck = Integer.MAX_VALUE;
+        int node = sinkNode;
+        int entry = prevEntry[node];
+        while (entry != -1) {
+            if (flow[entry])
+                return 0;
+            bottleNeck = 1;
+            flow[entry] = true;
+            flow[flowGraph.getReverseSlot(entry)] = false;
+            node = prevNode[node];
+            if (ranks[node] <= srcLimit)
+                break;
+            entry = prevEntry[node];
+        }
+        return bottleNeck;
+    }
+}
@@ -0,0 +1,133 @@
+package org.heigit.ors.fastisochrones.partitioning;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.cursors.IntIntCursor;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.storage.Graph;
+import com.graphhopper.util.EdgeExplorer;
+import com.graphhopper.util.EdgeIterator;
+
+/**
+ * Adjacency arrays of the nodes of a cell for the max flow computation.
+ * Only edges between two nodes of the cell that pass the edge filter are kept, in the order of the edge explorer.
+ * Nodes are addressed by their local index, which is their position in the node list the graph was built from.
+ * Every kept edge entry has a flow slot; its reverse slot is the entry of the same edge at the adjacent node.
+ * The graph is immutable and shared by the max flow computations of all projections of the cell.
+ */
+public class FlowGraph {
+    private final int[] nodeIds;
+    private final IntIntHashMap localIds;
+    private final int[] adjStart;
+    private final int[] adjNodes;
+    private final int[] reverseSlots;
+    // number of all edges at a node, including the ones not kept, as they count towards the call limit of the search
+    private final int[] degrees;
+    private final int flowSlots;
+    private final int maxDegree;
+    private final int maxCalls;
+
+    public FlowGraph(Graph graph, EdgeFilter edgeFilter, IntArrayList nodes) {
+        int nodeCount = nodes.size();
+        nodeIds = nodes.toArray();
+        localIds = new IntIntHashMap(nodeCount);
+        for (int i = 0; i < nodeCount; i++)
+            localIds.put(nodeIds[i], i);
+
+        adjStart = new int[nodeCount + 1];
+        degrees = new int[nodeCount];
+        IntArrayList targets = new IntArrayList(nodeCount * 3);
+        IntArrayList edges = new IntArrayList(nodeCount * 3);
+        EdgeExplorer edgeExplorer = graph.createEdgeExplorer();
+        int degree = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            EdgeIterator edgeIterator = edgeExplorer.setBaseNode(nodeIds[i]);
+            while (edgeIterator.next()) {
+                degrees[i]++;
+                int adj = edgeIterator.getAdjNode();
+                if ((edgeFilter != null && !edgeFilter.accept(edgeIterator)) || adj == nodeIds[i])
+                    continue;
+                int localAdj = localIds.getOrDefault(adj, -1);
+                if (localAdj < 0)
+                    continue;
+                targets.add(localAdj);
+                edges.add(edgeIterator.getEdge());
+            }
+            adjStart[i + 1] = targets.size();
+            degree = Math.max(degree, adjStart[i + 1] - adjStart[i]);
+        }
+        adjNodes = targets.toArray();
+        maxDegree = degree;
+
+        //Pair the two directions of each edge. A direction rejected by the edge filter still gets its own slot.
+        int entries = adjNodes.length;
+        reverseSlots = new int[entries];
+        IntIntHashMap unpaired = new IntIntHashMap();
+        for (int entry = 0; entry < entries; entry++) {
+            int edge = edges.get(entry);
+            int partner = unpaired.getOrDefault(edge, -1);
+            if (partner < 0) {
+                unpaired.put(edge, entry);
+            } else {
+                reverseSlots[entry] = partner;
+                reverseSlots[partner] = entry;
+                unpaired.remove(edge);
+            }
+        }
+        int slots = entries;
+        for (IntIntCursor cursor : unpaired)
+            reverseSlots[cursor.value] = slots++;
+        flowSlots = slots;
+
+        int maxBFSCalls = graph.getBaseGraph().getAllEdges().length() * 2;
+        double sizeFactor = ((double) nodeCount) / graph.getBaseGraph().getNodes();
+        maxCalls = (int) Math.ceil(maxBFSCalls * sizeFactor) + nodeCount * 2;
+    }
+
+    public int getNodes() {
+        return nodeIds.length;
+    }
+
+    public int getNodeId(int localId) {
+        return nodeIds[localId];
+    }
+
+    /**
+     * @return local index of the node or -1 if it is not part of the graph
+     */
+    public int getLocalId(int nodeId) {
+        return localIds.getOrDefault(nodeId, -1);
+    }
+
+    public int getAdjStart(int localId) {
+        return adjStart[localId];
+    }
+
+    public int getAdjEnd(int localId) {
+        return adjStart[localId + 1];
+    }
+
+    public int getAdjNode(int entry) {
+        return adjNodes[entry];
+    }
+
+    public int getReverseSlot(int entry) {
+        return reverseSlots[entry];
+    }
+
+    public int getDegree(int localId) {
+        return degrees[localId];
+    }
+
+    public int getFlowSlots() {
+        return flowSlots;
+    }
+
+    public int getMaxDegree() {
+        return maxDegree;
+    }
+
+    public int getMaxCalls() {
+        return maxCalls;
+    }
+}
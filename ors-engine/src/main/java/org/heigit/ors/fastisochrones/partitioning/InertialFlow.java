@@ -16,7 +16,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.getMaxCellNodesNumber;
 import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.getMinCellNodesNumber;
@@ -44,7 +47,6 @@ public class InertialFlow implements Runnable {
     private Graph ghGraph;
     private GraphHopperStorage ghStorage;
     private EdgeFilter edgeFilter;
-    private PartitioningData pData;
     private int[] nodeToCellArr;
     private ExecutorService executorService;
     private InverseSemaphore inverseSemaphore;
@@ -60,10 +62,6 @@ public class InertialFlow implements Runnable {
         setInverseSemaphore(inverseSemaphore);
         setFlagEncoder(ghStorage.getEncodingManager().fetchEdgeEncoders().get(0));
 
-        PartitioningData partitioningData = new PartitioningData();
-        PartitioningDataBuilder partitioningDataBuilder = new PartitioningDataBuilder(ghStorage.getBaseGraph(), partitioningData);
-        partitioningDataBuilder.run();
-        setPartitioningData(partitioningData);
         projector.setGHStorage(ghStorage);
         setProjections(projector.calculateProjections());
 
@@ -90,6 +88,9 @@ public class InertialFlow implements Runnable {
 
     /**
      * Splits a set of nodes into two sets of nodes according to the maxflowmincut algorithm.
+     * The best projections are evaluated on a common flow graph of the cell. For large cells they run concurrently on
+     * the executor, the current thread runs every projection that has not been picked up yet itself.
+     * The cut of the first projection with the smallest flow is chosen, as in a sequential evaluation.
      *
      * @param projections projections of the nodes to be split.
      * @return
@@ -100,25 +101,43 @@ public class InertialFlow implements Runnable {
         double sizeFactor = ((double) projections.get(Projection.LINE_M00).size()) / ghGraph.getBaseGraph().getNodes();
         mincutScore = Math.max((int) Math.ceil(mincutScore * sizeFactor), 5);
         BiPartition biPartition = new BiPartition();
-        MaxFlowMinCut maxFlowMinCut = createEdmondsKarp();
         List<Projection> projOrder = projector.calculateProjectionOrder(projections);
-        //>> Loop through Projections and project each Node
-        int i = 0;
-        for (Projection proj : projOrder) {
-            //Try only best projections
-            if (i == CONSIDERED_PROJECTIONS)
-                break;
-            //>> sort projected Nodes
-            maxFlowMinCut.setOrderedNodes(projections.get(proj));
-            maxFlowMinCut.setNodeOrder();
-            maxFlowMinCut.setMaxFlowLimit(mincutScore);
-            maxFlowMinCut.reset();
-            int cutScore = maxFlowMinCut.getMaxFlow();
-            if (cutScore < mincutScore) {
-                mincutScore = cutScore;
-                biPartition = maxFlowMinCut.calcNodePartition();
+        //Try only best projections
+        int consideredProjections = Math.min(CONSIDERED_PROJECTIONS, projOrder.size());
+        FlowGraph flowGraph = new FlowGraph(ghGraph, edgeFilter, projections.get(Projection.LINE_M00));
+        boolean concurrent = flowGraph.getNodes() > getMaxCellNodesNumber() * 4;
+        //A projection whose flow exceeds the smallest flow found so far cannot be chosen anymore and is aborted
+        AtomicInteger maxFlowLimit = new AtomicInteger(mincutScore);
+        List<ArrayEdmondsKarpAStar> maxFlowMinCuts = new ArrayList<>(consideredProjections);
+        List<FutureTask<Integer>> cutScores = new ArrayList<>(consideredProjections);
+        for (int i = 0; i < consideredProjections; i++) {
+            ArrayEdmondsKarpAStar maxFlowMinCut = new ArrayEdmondsKarpAStar(flowGraph, projections.get(projOrder.get(i)));
+            FutureTask<Integer> cutScore = new FutureTask<>(() -> {
+                int maxFlow = maxFlowMinCut.getMaxFlow(maxFlowLimit::get);
+                maxFlowLimit.accumulateAndGet(maxFlow, Math::min);
+                return maxFlow;
+            });
+            maxFlowMinCuts.add(maxFlowMinCut);
+            cutScores.add(cutScore);
+            if (concurrent)
+                executorService.execute(cutScore);
+        }
+        try {
+            for (int i = 0; i < consideredProjections; i++) {
+                FutureTask<Integer> cutScoreTask = cutScores.get(i);
+                //No-op if the task has already been started by the executor
+                cutScoreTask.run();
+                int cutScore = cutScoreTask.get();
+                if (cutScore < mincutScore) {
+                    mincutScore = cutScore;
+                    biPartition = maxFlowMinCuts.get(i).calcNodePartition();
+                }
             }
-            i++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating max flow of cell " + cellId, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Calculating max flow of cell " + cellId + " failed", e.getCause());
         }
         return biPartition;
     }
@@ -192,7 +211,6 @@ public class InertialFlow implements Runnable {
         inertialFlow.setNodeToCellArr(nodeToCellArr);
         inertialFlow.setGraph(ghGraph);
         inertialFlow.setGraphHopperStorage(ghStorage);
-        inertialFlow.setPartitioningData(pData);
         inertialFlow.setProjections(biPartitionProjection.getProjection(partitionNumber));
         inertialFlow.setEdgeFilter(edgeFilter);
         inertialFlow.setExecutorService(executorService);
@@ -282,15 +300,6 @@ public class InertialFlow implements Runnable {
         return disconnectedCells;
     }
 
-    /**
-     * Init algo max flow min cut.
-     *
-     * @return the max flow min cut
-     */
-    public MaxFlowMinCut createEdmondsKarp() {
-        return new EdmondsKarpAStar(ghGraph, pData, edgeFilter);
-    }
-
     public void setCellId(int cellId) {
         this.cellId = cellId;
     }
@@ -307,10 +316,6 @@ public class InertialFlow implements Runnable {
         this.edgeFilter = edgeFilter;
     }
 
-    public void setPartitioningData(PartitioningData pData) {
-        this.pData = pData;
-    }
-
     public void setNodeToCellArr(int[] nodeToCellArr) {
         this.nodeToCellArr = nodeToCellArr;
     }
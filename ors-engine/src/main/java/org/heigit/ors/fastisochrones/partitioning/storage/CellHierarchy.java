@@ -0,0 +1,224 @@
+package org.heigit.ors.fastisochrones.partitioning.storage;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hierarchy of base cells, super cells and super super cells as flat arrays.
+ * Every cell of the hierarchy has a slot. The slots are ordered by level, starting with the base cells, so the parent
+ * of a slot always has a higher slot. Per slot the cell id, the slot of the parent and the range of the child slots are stored.
+ * Base cells that are not part of any super cell have no slot.
+ */
+public class CellHierarchy {
+    private final int[] levelStarts;
+    private final int[] cellIds;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final IntIntHashMap baseCellSlots;
+    private final IntIntHashMap superCellSlots;
+
+    /**
+     * Create the hierarchy from its arrays.
+     *
+     * @param levelStarts  first slot of each level, followed by the number of slots
+     * @param cellIds      cell id by slot
+     * @param parents      slot of the parent by slot, -1 for none
+     * @param childOffsets first child index by slot, followed by the number of children
+     * @param children     child slots
+     */
+    public CellHierarchy(int[] levelStarts, int[] cellIds, int[] parents, int[] childOffsets, int[] children) {
+        this.levelStarts = levelStarts;
+        this.cellIds = cellIds;
+        this.parents = parents;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        baseCellSlots = new IntIntHashMap(getLevelEnd(0));
+        for (int slot = 0; slot < getLevelEnd(0); slot++)
+            baseCellSlots.put(cellIds[slot], slot);
+        //Super cells of a higher level take precedence if ids are used on more than one level
+        superCellSlots = new IntIntHashMap(cellIds.length - getLevelEnd(0));
+        for (int slot = getLevelEnd(0); slot < cellIds.length; slot++)
+            superCellSlots.put(cellIds[slot], slot);
+    }
+
+    /**
+     * Create an empty hierarchy without super cells.
+     */
+    public CellHierarchy() {
+        this(new int[]{0, 0}, new int[0], new int[0], new int[]{0}, new int[0]);
+    }
+
+    /**
+     * Create the hierarchy from the mappings of super cell id -> ids of the cells one level below.
+     *
+     * @param superCellLevels one mapping per level, starting with the super cells of base cells
+     * @return the hierarchy
+     */
+    public static CellHierarchy create(List<IntObjectMap<IntHashSet>> superCellLevels) {
+        int levelCount = superCellLevels.size() + 1;
+        //Collect the cells of each level. A level consists of the super cells of the level and the cells one level above refers to.
+        int[][] levelCellIds = new int[levelCount][];
+        for (int level = 0; level < levelCount; level++) {
+            IntHashSet cells = new IntHashSet();
+            if (level > 0)
+                cells.addAll(superCellLevels.get(level - 1).keys());
+            if (level < levelCount - 1) {
+                for (IntObjectCursor<IntHashSet> superCell : superCellLevels.get(level))
+                    cells.addAll(superCell.value);
+            }
+            levelCellIds[level] = cells.toArray();
+            Arrays.sort(levelCellIds[level]);
+        }
+
+        int[] levelStarts = new int[levelCount + 1];
+        IntIntHashMap[] levelSlots = new IntIntHashMap[levelCount];
+        int slotCount = 0;
+        for (int level = 0; level < levelCount; level++) {
+            levelStarts[level] = slotCount;
+            levelSlots[level] = new IntIntHashMap(levelCellIds[level].length);
+            for (int cellId : levelCellIds[level])
+                levelSlots[level].put(cellId, slotCount++);
+        }
+        levelStarts[levelCount] = slotCount;
+
+        int[] cellIds = new int[slotCount];
+        int[] parents = new int[slotCount];
+        Arrays.fill(parents, -1);
+        int[] childOffsets = new int[slotCount + 1];
+        IntArrayList children = new IntArrayList();
+        for (int level = 0; level < levelCount; level++) {
+            for (int cellId : levelCellIds[level]) {
+                int slot = levelSlots[level].get(cellId);
+                cellIds[slot] = cellId;
+                childOffsets[slot] = children.size();
+                IntHashSet subCells = level > 0 ? superCellLevels.get(level - 1).get(cellId) : null;
+                if (subCells == null)
+                    continue;
+                int[] childSlots = new int[subCells.size()];
+                int i = 0;
+                for (IntCursor subCell : subCells) {
+                    childSlots[i] = levelSlots[level - 1].get(subCell.value);
+                    parents[childSlots[i++]] = slot;
+                }
+                Arrays.sort(childSlots);
+                children.add(childSlots, 0, childSlots.length);
+            }
+        }
+        childOffsets[slotCount] = children.size();
+        return new CellHierarchy(levelStarts, cellIds, parents, childOffsets, children.toArray());
+    }
+
+    public boolean isEmpty() {
+        return cellIds.length == 0;
+    }
+
+    /**
+     * Get the super cell of a base cell or the super super cell of a super cell.
+     *
+     * @param cellId the cell id
+     * @return the id of the super cell or -1 if there is none
+     */
+    public int getSuperCellOfCell(int cellId) {
+        int slot = baseCellSlots.getOrDefault(cellId, -1);
+        if (slot < 0)
+            slot = superCellSlots.getOrDefault(cellId, -1);
+        if (slot < 0 || parents[slot] < 0)
+            return -1;
+        return cellIds[parents[slot]];
+    }
+
+    /**
+     * Get the cells one level below a super cell.
+     *
+     * @param superCellId the super cell id
+     * @return the cell ids or null if the super cell does not exist
+     */
+    public int[] getCellsOfSuperCell(int superCellId) {
+        int slot = superCellSlots.getOrDefault(superCellId, -1);
+        if (slot < 0)
+            return null;
+        int[] cells = new int[childOffsets[slot + 1] - childOffsets[slot]];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = cellIds[children[childOffsets[slot] + i]];
+        return cells;
+    }
+
+    /**
+     * Replace fully reachable cells by their super cells where all cells of a super cell are fully reachable, level by level.
+     *
+     * @param fullyReachableCells ids of the fully reachable base cells
+     * @return ids of the cells and super cells covering exactly the fully reachable base cells
+     */
+    public IntArrayList aggregateFullyReachableCells(Collection<Integer> fullyReachableCells) {
+        IntArrayList aggregatedCells = new IntArrayList(fullyReachableCells.size());
+        BitSet reachable = new BitSet(cellIds.length);
+        for (int cellId : fullyReachableCells) {
+            int slot = baseCellSlots.getOrDefault(cellId, -1);
+            if (slot < 0)
+                aggregatedCells.add(cellId);
+            else
+                reachable.set(slot);
+        }
+        //Parents are in higher levels, so a level is complete before its parents are visited
+        BitSet checkedParents = new BitSet(cellIds.length);
+        for (int level = 0; level < getLevelCount(); level++) {
+            for (int slot = reachable.nextSetBit(levelStarts[level]); slot >= 0 && slot < getLevelEnd(level); slot = reachable.nextSetBit(slot + 1)) {
+                int parent = parents[slot];
+                if (parent >= 0 && !checkedParents.get(parent)) {
+                    checkedParents.set(parent);
+                    if (areAllChildrenReachable(reachable, parent))
+                        reachable.set(parent);
+                }
+                if (parent < 0 || !reachable.get(parent))
+                    aggregatedCells.add(cellIds[slot]);
+            }
+        }
+        return aggregatedCells;
+    }
+
+    private boolean areAllChildrenReachable(BitSet reachable, int slot) {
+        for (int i = childOffsets[slot]; i < childOffsets[slot + 1]; i++) {
+            if (!reachable.get(children[i]))
+                return false;
+        }
+        return true;
+    }
+
+    private int getLevelEnd(int level) {
+        return levelStarts[level + 1];
+    }
+
+    public int getLevelCount() {
+        return levelStarts.length - 1;
+    }
+
+    int[] getLevelStarts() {
+        return levelStarts;
+    }
+
+    int[] getCellIds() {
+        return cellIds;
+    }
+
+    int[] getParents() {
+        return parents;
+    }
+
+    int[] getChildOffsets() {
+        return childOffsets;
+    }
+
+    int[] getChildren() {
+        return children;
+    }
+}
@@ -18,7 +18,7 @@
 package org.heigit.ors.fastisochrones.partitioning.storage;
 
 import com.carrotsearch.hppc.*;
-import com.carrotsearch.hppc.cursors.IntCursor;
+import com.carrotsearch.hppc.cursors.IntIntCursor;
 import com.carrotsearch.hppc.cursors.IntObjectCursor;
 import com.graphhopper.storage.DataAccess;
 import com.graphhopper.storage.Directory;
@@ -26,9 +26,9 @@ import com.graphhopper.storage.Storable;
 import com.graphhopper.util.Helper;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.isSupercellsEnabled;
 import static org.heigit.ors.fastisochrones.storage.ByteConversion.byteArrayToLong;
@@ -36,21 +36,39 @@ import static org.heigit.ors.fastisochrones.storage.ByteConversion.longToByteArr
 
 /**
  * Stores nodes ordered by cell and contours of cells.
+ * <p>
+ * Nodes, contours and super cells are stored in compressed sparse row layout: the entries of all cells are stored
+ * consecutively and an index of [cellId (4B), pointer (8B)] holds where the entries of each cell start.
+ * The index has a trailing entry pointing to the end of the last cell, so the entries of a cell end where the next
+ * one starts. The index is loaded into an array of offsets, so the size of a cell is known without scanning its entries.
+ * Layout:
+ * <pre>
+ * node index       (cellCount + 1) * [cellId, pointer to nodes]
+ * contour index    (contourCount + 1) * [cellId, pointer to contour], space for 2 * cellCount contours
+ * nodes            node ids of all cells
+ * contours         [latitude, longitude] of all contours as ints
+ * cell hierarchy   levelCount, (levelCount + 1) * first slot of level, then per slot the cell id, the parent slot,
+ *                  (slotCount + 1) * index of first child, child slots, see {@link CellHierarchy}
+ * </pre>
  *
  * @author Hendrik Leuschner
  */
 public class CellStorage implements Storable<CellStorage> {
+    private static final int LAYOUT_VERSION = 2;
+    private static final int INDEX_ENTRY_BYTES = 12;
     private final DataAccess cells;
     private final int byteCount;
-    private int nodeIndexOffset;
-    private int contourIndexOffset;
+    private long nodeIndexOffset;
+    private long contourIndexOffset;
+    private int maxContourCount;
     private final int nodeCount;
     private long cellContourPointer;
     private final IsochroneNodeStorage isochroneNodeStorage;
-    private IntLongMap cellIdToNodesPointerMap;
-    private IntLongMap cellIdToContourPointerMap;
-    private IntIntMap cellIdToSuperCellMap = new IntIntHashMap();
-    private IntObjectMap<IntHashSet> superCellIdToCellsMap = new IntObjectHashMap<>();
+    private IntIntHashMap cellIdToNodesSlot;
+    private long[] nodeOffsets;
+    private IntIntHashMap cellIdToContourSlot;
+    private LongArrayList contourOffsets;
+    private CellHierarchy cellHierarchy = new CellHierarchy();
 
     /**
      * Instantiates a new Cell storage.
@@ -67,17 +85,16 @@ public class CellStorage implements Storable<CellStorage> {
 
     public boolean loadExisting() {
         if (cells.loadExisting()) {
+            if (cells.getHeader(20) != LAYOUT_VERSION)
+                throw new IllegalStateException("Cells were stored with an incompatible layout, the graph needs to be rebuilt");
             int cellCount = cells.getHeader(0);
-            nodeIndexOffset = cellCount * 12;
-            contourIndexOffset = 2 * cellCount * 18;
-            cellIdToNodesPointerMap = new IntLongHashMap(cellCount);
-            cellIdToContourPointerMap = new IntLongHashMap(cellCount);
-            fillCellIdToNodesPointerMap();
-            fillCellIdToContourPointerMap();
-            if (isSupercellsEnabled()) {
-                fillSuperCellMap();
-                fillCellIdToSuperCellMap();
-            }
+            setIndexOffsets(cellCount);
+            cellIdToNodesSlot = new IntIntHashMap(cellCount);
+            cellIdToContourSlot = new IntIntHashMap(cellCount);
+            fillNodeIndex(cellCount);
+            fillContourIndex();
+            if (isSupercellsEnabled())
+                fillCellHierarchy();
             return true;
         }
         return false;
@@ -88,60 +105,60 @@ public class CellStorage implements Storable<CellStorage> {
      */
     public void init() {
         cells.create(1000);
+        cells.setHeader(20, LAYOUT_VERSION);
         int cellCount = isochroneNodeStorage.getCellIds().size();
-        cellIdToNodesPointerMap = new IntLongHashMap(cellCount);
-        cellIdToContourPointerMap = new IntLongHashMap(cellCount);
-        cellIdToSuperCellMap = new IntIntHashMap(cellCount);
+        cellIdToNodesSlot = new IntIntHashMap(cellCount);
+        cellIdToContourSlot = new IntIntHashMap(cellCount);
+    }
+
+    private void setIndexOffsets(int cellCount) {
+        nodeIndexOffset = (long) (cellCount + 1) * INDEX_ENTRY_BYTES;
+        //There are more contours than cells because of supercell contours
+        maxContourCount = 2 * cellCount;
+        contourIndexOffset = nodeIndexOffset + (long) (maxContourCount + 1) * INDEX_ENTRY_BYTES;
     }
 
     /**
      * Iterate over all nodes in graph and create a mapping of cells -> nodeIds.
-     * Create a mapping of cellId -> pointer, as the NodeId count per cell is different and the storage irregular.
-     * Store both maps in the storage.
+     * Store the nodes of each cell consecutively, together with the index of cellId -> pointer to the nodes of the cell.
      */
     public void calcCellNodesMap() {
-        IntObjectMap<IntHashSet> cellIdToNodesMap = new IntObjectHashMap<>(isochroneNodeStorage.getCellIds().size());
+        IntObjectMap<IntArrayList> cellIdToNodesMap = new IntObjectHashMap<>(isochroneNodeStorage.getCellIds().size());
         //Calc a hashmap of the cells
         for (int node = 0; node < nodeCount; node++) {
             int cellId = isochroneNodeStorage.getCellId(node);
             if (!cellIdToNodesMap.containsKey(cellId))
-                cellIdToNodesMap.put(cellId, new IntHashSet());
+                cellIdToNodesMap.put(cellId, new IntArrayList());
             cellIdToNodesMap.get(cellId).add(node);
         }
         int cellCount = cellIdToNodesMap.size();
         cells.setHeader(0, cellCount);
-        // 2 12-byte pointer sets for each cellId
-        // Store pointers in front that point to where the nodes for each cell start
-        nodeIndexOffset = cellCount * 12;
-        //There are more contours than cells because of supercell contours
-        contourIndexOffset = 2 * cellCount * 18;
+        setIndexOffsets(cellCount);
         long nodePointer = contourIndexOffset;
+        cells.ensureCapacity(nodePointer + (long) nodeCount * byteCount);
 
         //Put all the cell nodes in the storage
-        for (IntCursor cellId : cellIdToNodesMap.keys()) {
-            cells.ensureCapacity(nodePointer + (long) (cellIdToNodesMap.get(cellId.value).size() + 1) * byteCount);
-            cellIdToNodesPointerMap.put(cellId.value, nodePointer);
-            for (IntCursor nodeId : cellIdToNodesMap.get(cellId.value)) {
-                cells.setInt(nodePointer, nodeId.value);
+        nodeOffsets = new long[cellCount + 1];
+        long listPointer = 0;
+        int slot = 0;
+        for (IntObjectCursor<IntArrayList> cell : cellIdToNodesMap) {
+            cellIdToNodesSlot.put(cell.key, slot);
+            nodeOffsets[slot] = nodePointer;
+            //Layout of the index: [cellId (4B), pointer to nodes (8B)]
+            listPointer = setIndexEntry(listPointer, cell.key, nodePointer);
+            for (int i = 0; i < cell.value.size(); i++) {
+                cells.setInt(nodePointer, cell.value.get(i));
                 nodePointer = nodePointer + (long) byteCount;
             }
-            //Add a trailing -1 so we know when to stop
-            cells.setInt(nodePointer, -1);
-            nodePointer = nodePointer + (long) byteCount;
+            slot++;
         }
+        //Trailing entry with the end of the last cell
+        nodeOffsets[cellCount] = nodePointer;
+        setIndexEntry(listPointer, -1, nodePointer);
         //Set the contour node pointer to the end of the nodes part
         cellContourPointer = nodePointer;
-
-        //Put the cellId to pointer map into the storage
-        //Layout: [cellId (4B), pointer to nodes (8B)]
-        long listPointer = 0;
-        for (IntCursor cellId : cellIdToNodesPointerMap.keys()) {
-            cells.setInt(listPointer, cellId.value);
-            listPointer = listPointer + (long) byteCount;
-            nodePointer = cellIdToNodesPointerMap.get(cellId.value);
-            cells.setBytes(listPointer, longToByteArray(nodePointer), 8);
-            listPointer = listPointer + (long) byteCount + (long) byteCount;
-        }
+        contourOffsets = new LongArrayList();
+        contourOffsets.add(cellContourPointer);
     }
 
     /**
@@ -151,19 +168,44 @@ public class CellStorage implements Storable<CellStorage> {
      * @return the int hash set
      */
     public IntHashSet getNodesOfCell(int cellId) {
-        if (cellIdToNodesPointerMap.isEmpty())
-            throw new IllegalStateException("CellStorage not filled yet. Was calcCellNodesMap run?");
-        long nodePointer = cellIdToNodesPointerMap.get(cellId);
-        int currentNode = cells.getInt(nodePointer);
-        IntHashSet nodeIds = new IntHashSet();
-        while (currentNode != -1) {
-            nodeIds.add(currentNode);
-            nodePointer = nodePointer + (long) byteCount;
-            currentNode = cells.getInt(nodePointer);
-        }
+        IntHashSet nodeIds = new IntHashSet(getNodeCountOfCell(cellId));
+        PrimitiveIterator.OfInt nodes = getNodesOfCellIterator(cellId);
+        while (nodes.hasNext())
+            nodeIds.add(nodes.nextInt());
         return nodeIds;
     }
 
+    /**
+     * Get the number of nodes of a cell without reading the nodes.
+     *
+     * @param cellId the cell id
+     * @return the number of nodes
+     */
+    public int getNodeCountOfCell(int cellId) {
+        int slot = getNodesSlot(cellId);
+        return (int) ((nodeOffsets[slot + 1] - nodeOffsets[slot]) / byteCount);
+    }
+
+    /**
+     * Iterate over the nodes of a cell directly in the storage.
+     *
+     * @param cellId the cell id
+     * @return iterator over the node ids
+     */
+    public PrimitiveIterator.OfInt getNodesOfCellIterator(int cellId) {
+        int slot = getNodesSlot(cellId);
+        return new StorageIntIterator(nodeOffsets[slot], nodeOffsets[slot + 1]);
+    }
+
+    private int getNodesSlot(int cellId) {
+        if (cellIdToNodesSlot.isEmpty())
+            throw new IllegalStateException("CellStorage not filled yet. Was calcCellNodesMap run?");
+        int slot = cellIdToNodesSlot.getOrDefault(cellId, -1);
+        if (slot < 0)
+            throw new IllegalArgumentException("Cell " + cellId + " is not stored");
+        return slot;
+    }
+
     /**
      * Sets cell contour order.
      *
@@ -174,19 +216,17 @@ public class CellStorage implements Storable<CellStorage> {
     public void setCellContourOrder(int cellId, List<Double> latitudes, List<Double> longitudes) {
         if (latitudes.size() != longitudes.size())
             throw new IllegalStateException("lat and lon must be same size");
-        cellIdToContourPointerMap.put(cellId, cellContourPointer);
-        cells.ensureCapacity(cellContourPointer + (long) 8 * (latitudes.size() + 1));
+        if (contourOffsets.size() > maxContourCount)
+            throw new IllegalStateException("Number of contours exceeds the reserved index size of " + maxContourCount);
+        cellIdToContourSlot.put(cellId, contourOffsets.size() - 1);
+        cells.ensureCapacity(cellContourPointer + (long) 8 * latitudes.size());
         for (int i = 0; i < latitudes.size(); i++) {
             cells.setInt(cellContourPointer, Helper.degreeToInt(latitudes.get(i)));
             cellContourPointer = cellContourPointer + (long) byteCount;
             cells.setInt(cellContourPointer, Helper.degreeToInt(longitudes.get(i)));
             cellContourPointer = cellContourPointer + (long) byteCount;
         }
-        //Add a trailing int max value so we know when to stop
-        cells.setInt(cellContourPointer, Integer.MAX_VALUE);
-        cellContourPointer = cellContourPointer + (long) byteCount;
-        cells.setInt(cellContourPointer, Integer.MAX_VALUE);
-        cellContourPointer = cellContourPointer + (long) byteCount;
+        contourOffsets.add(cellContourPointer);
     }
 
     /**
@@ -196,25 +236,52 @@ public class CellStorage implements Storable<CellStorage> {
      * @return the list
      */
     public List<Double> getCellContourOrder(int cellId) {
-        if (cellIdToContourPointerMap.isEmpty())
-            throw new IllegalStateException("Cell contours not stored yet.");
-        List<Double> order = new ArrayList<>();
-        long nodePointer = cellIdToContourPointerMap.get(cellId);
-
-        double lat = Helper.intToDegree(cells.getInt(nodePointer));
-        nodePointer = nodePointer + (long) (byteCount);
-        double lon = Helper.intToDegree(cells.getInt(nodePointer));
-        while (cells.getInt(nodePointer) != Integer.MAX_VALUE) {
-            order.add(lat);
-            order.add(lon);
-            nodePointer = nodePointer + (long) (byteCount);
-            lat = Helper.intToDegree(cells.getInt(nodePointer));
-            nodePointer = nodePointer + (long) (byteCount);
-            lon = Helper.intToDegree(cells.getInt(nodePointer));
-        }
+        double[] latLons = new double[2 * getContourPointCount(cellId)];
+        fillCellContour(cellId, latLons);
+        List<Double> order = new ArrayList<>(latLons.length);
+        for (double latLon : latLons)
+            order.add(latLon);
         return order;
     }
 
+    /**
+     * Get the number of points of the contour of a cell.
+     *
+     * @param cellId the cell id
+     * @return the number of points
+     */
+    public int getContourPointCount(int cellId) {
+        int slot = getContourSlot(cellId);
+        return (int) ((contourOffsets.get(slot + 1) - contourOffsets.get(slot)) / (2 * byteCount));
+    }
+
+    /**
+     * Fill the contour of a cell into the given array in the order lat0, lon0, lat1, lon1, ...
+     *
+     * @param cellId  the cell id
+     * @param latLons array of at least twice the size of the point count of the contour
+     */
+    public void fillCellContour(int cellId, double[] latLons) {
+        int slot = getContourSlot(cellId);
+        long pointer = contourOffsets.get(slot);
+        int size = (int) ((contourOffsets.get(slot + 1) - pointer) / byteCount);
+        if (latLons.length < size)
+            throw new IllegalArgumentException("Array of size " + latLons.length + " is too small for contour of size " + size);
+        for (int i = 0; i < size; i++) {
+            latLons[i] = Helper.intToDegree(cells.getInt(pointer));
+            pointer = pointer + (long) byteCount;
+        }
+    }
+
+    private int getContourSlot(int cellId) {
+        if (cellIdToContourSlot.isEmpty())
+            throw new IllegalStateException("Cell contours not stored yet.");
+        int slot = cellIdToContourSlot.getOrDefault(cellId, -1);
+        if (slot < 0)
+            throw new IllegalArgumentException("Contour of cell " + cellId + " is not stored");
+        return slot;
+    }
+
     /**
      * Get cells of super cell int hash set.
      *
@@ -222,7 +289,12 @@ public class CellStorage implements Storable<CellStorage> {
      * @return the int hash set
      */
     public IntHashSet getCellsOfSuperCell(int superCell) {
-        return superCellIdToCellsMap.get(superCell);
+        int[] cells = cellHierarchy.getCellsOfSuperCell(superCell);
+        if (cells == null)
+            return null;
+        IntHashSet cellIds = new IntHashSet(cells.length);
+        cellIds.addAll(cells);
+        return cellIds;
     }
 
     /**
@@ -232,9 +304,15 @@ public class CellStorage implements Storable<CellStorage> {
      * @return the list
      */
     public List<Integer> getCellsOfSuperCellAsList(int superCell) {
-        if (superCellIdToCellsMap.isEmpty())
+        if (cellHierarchy.isEmpty())
             throw new IllegalStateException("Supercells not calculated yet.");
-        return Arrays.stream(superCellIdToCellsMap.get(superCell).toArray()).boxed().collect(Collectors.toList());
+        int[] cells = cellHierarchy.getCellsOfSuperCell(superCell);
+        if (cells == null)
+            throw new IllegalArgumentException("Super cell " + superCell + " is not stored");
+        List<Integer> cellIds = new ArrayList<>(cells.length);
+        for (int cellId : cells)
+            cellIds.add(cellId);
+        return cellIds;
     }
 
     /**
@@ -244,7 +322,16 @@ public class CellStorage implements Storable<CellStorage> {
      * @return the int
      */
     public int getSuperCellOfCell(int cell) {
-        return cellIdToSuperCellMap.getOrDefault(cell, -1);
+        return cellHierarchy.getSuperCellOfCell(cell);
+    }
+
+    /**
+     * Get the hierarchy of cells, super cells and super super cells.
+     *
+     * @return the cell hierarchy, empty if no super cells are stored
+     */
+    public CellHierarchy getCellHierarchy() {
+        return cellHierarchy;
     }
 
     /**
@@ -252,97 +339,118 @@ public class CellStorage implements Storable<CellStorage> {
      */
     public void storeContourPointerMap() {
         long listPointer = nodeIndexOffset;
-        long nodePointer;
         //Store the number of contours (= num cells + num supercells)
-        cells.setHeader(4, cellIdToContourPointerMap.keys().size());
-        for (IntCursor cellId : cellIdToContourPointerMap.keys()) {
-            cells.setInt(listPointer, cellId.value);
-            listPointer = listPointer + (long) byteCount;
-            nodePointer = cellIdToContourPointerMap.get(cellId.value);
-            cells.setBytes(listPointer, longToByteArray(nodePointer), 8);
-            listPointer = listPointer + (long) byteCount + (long) byteCount;
-        }
+        int contourCount = contourOffsets.size() - 1;
+        cells.setHeader(4, contourCount);
+        int[] contourCellIds = new int[contourCount];
+        for (IntIntCursor cell : cellIdToContourSlot)
+            contourCellIds[cell.value] = cell.key;
+        for (int slot = 0; slot < contourCount; slot++)
+            listPointer = setIndexEntry(listPointer, contourCellIds[slot], contourOffsets.get(slot));
+        //Trailing entry with the end of the last contour
+        setIndexEntry(listPointer, -1, contourOffsets.get(contourCount));
     }
 
     /**
-     * Store super cells. It's a block at the end of all other data that stores [superCellId0, subcell0, subcell1, ..., -1, superCellId1, subcell0, subcell1, ..., -1, ..., -1]
-     * End denomination is by -1 for each supercell block and for the whole block we add another trailing -1.
+     * Store the hierarchy of super cells. It's a block at the end of all other data, see {@link CellHierarchy} for the arrays:
+     * [levelCount, levelStarts, cellIds, parents, childOffsets, children]
      *
-     * @param superCells the super cells
+     * @param superCellLevels mappings of super cell id -> ids of the cells one level below, starting with the super cells of base cells
      */
-    public void storeSuperCells(IntObjectMap<IntHashSet> superCells) {
-        //Store the beginning of the supercells information
-        superCellIdToCellsMap = superCells;
+    public void storeCellHierarchy(List<IntObjectMap<IntHashSet>> superCellLevels) {
+        cellHierarchy = CellHierarchy.create(superCellLevels);
+        int[] levelStarts = cellHierarchy.getLevelStarts();
+        int slotCount = cellHierarchy.getCellIds().length;
+        //Store the beginning of the hierarchy information
         cells.setHeader(8, (int) (cellContourPointer >> 32));
         cells.setHeader(12, (int) cellContourPointer);
-        for (IntObjectCursor<IntHashSet> superCell : superCells) {
-            // + 1 for supercellId and + 1 for trailing -1
-            cells.ensureCapacity(cellContourPointer + (long) (superCell.value.size() + 2) * byteCount);
-            cells.setInt(cellContourPointer, superCell.key);
-            cellContourPointer = cellContourPointer + (long) byteCount;
-            for (IntCursor cellId : superCell.value) {
-                cells.setInt(cellContourPointer, cellId.value);
-                cellIdToSuperCellMap.put(cellId.value, superCell.key);
-                cellContourPointer = cellContourPointer + (long) byteCount;
-            }
-            //Add trailing -1 to signal next entry
-            cells.setInt(cellContourPointer, -1);
-            cellContourPointer = cellContourPointer + (long) byteCount;
-        }
-        //Add second trailing -1 to mark end of superCell block
-        cells.ensureCapacity(cellContourPointer + (long) byteCount);
-        cells.setInt(cellContourPointer, -1);
-        cellContourPointer = cellContourPointer + (long) byteCount;
+        cells.ensureCapacity(cellContourPointer + (long) (1 + levelStarts.length + 3 * slotCount + 1 + cellHierarchy.getChildren().length) * byteCount);
+        cellContourPointer = setInt(cellContourPointer, cellHierarchy.getLevelCount());
+        cellContourPointer = setInts(cellContourPointer, levelStarts);
+        cellContourPointer = setInts(cellContourPointer, cellHierarchy.getCellIds());
+        cellContourPointer = setInts(cellContourPointer, cellHierarchy.getParents());
+        cellContourPointer = setInts(cellContourPointer, cellHierarchy.getChildOffsets());
+        cellContourPointer = setInts(cellContourPointer, cellHierarchy.getChildren());
     }
 
-    private void fillCellIdToNodesPointerMap() {
-        int cellCount = cells.getHeader(0);
-        byte[] buffer = new byte[8];
+    private long setInts(long pointer, int[] values) {
+        for (int value : values)
+            pointer = setInt(pointer, value);
+        return pointer;
+    }
+
+    private int[] getInts(long pointer, int length) {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++)
+            values[i] = cells.getInt(pointer + (long) i * byteCount);
+        return values;
+    }
 
-        for (int i = 0; i < cellCount; i++) {
-            int cellId = cells.getInt((long) i * 12);
-            cells.getBytes((long) i * 12 + 4, buffer, 8);
-            long nodePointer = byteArrayToLong(buffer);
-            cellIdToNodesPointerMap.put(cellId, nodePointer);
+    private long setInt(long pointer, int value) {
+        cells.setInt(pointer, value);
+        return pointer + byteCount;
+    }
+
+    private long setIndexEntry(long listPointer, int cellId, long pointer) {
+        cells.setInt(listPointer, cellId);
+        cells.setBytes(listPointer + byteCount, longToByteArray(pointer), 8);
+        return listPointer + INDEX_ENTRY_BYTES;
+    }
+
+    private long getIndexPointer(long listPointer, byte[] buffer) {
+        cells.getBytes(listPointer + byteCount, buffer, 8);
+        return byteArrayToLong(buffer);
+    }
+
+    private void fillNodeIndex(int cellCount) {
+        byte[] buffer = new byte[8];
+        nodeOffsets = new long[cellCount + 1];
+        long listPointer = 0;
+        for (int slot = 0; slot <= cellCount; slot++) {
+            if (slot < cellCount)
+                cellIdToNodesSlot.put(cells.getInt(listPointer), slot);
+            nodeOffsets[slot] = getIndexPointer(listPointer, buffer);
+            listPointer = listPointer + INDEX_ENTRY_BYTES;
         }
+        cellContourPointer = nodeOffsets[cellCount];
     }
 
-    private void fillCellIdToContourPointerMap() {
+    private void fillContourIndex() {
         int contourCount = cells.getHeader(4);
+        contourOffsets = new LongArrayList(contourCount + 1);
+        if (contourCount == 0) {
+            contourOffsets.add(cellContourPointer);
+            return;
+        }
         byte[] buffer = new byte[8];
         long listPointer = nodeIndexOffset;
-        for (int i = 0; i < contourCount; i++) {
-            int cellId = cells.getInt(listPointer);
-            listPointer = listPointer + (long) byteCount;
-
-            cells.getBytes(listPointer, buffer, 8);
-            long nodePointer = byteArrayToLong(buffer);
-            listPointer = listPointer + (long) 8;
-            cellIdToContourPointerMap.put(cellId, nodePointer);
+        for (int slot = 0; slot <= contourCount; slot++) {
+            if (slot < contourCount)
+                cellIdToContourSlot.put(cells.getInt(listPointer), slot);
+            contourOffsets.add(getIndexPointer(listPointer, buffer));
+            listPointer = listPointer + INDEX_ENTRY_BYTES;
         }
+        cellContourPointer = contourOffsets.get(contourCount);
     }
 
-    private void fillSuperCellMap() {
+    private void fillCellHierarchy() {
         long bytePos = (long) cells.getHeader(8) << 32 | cells.getHeader(12) & 0xFFFFFFFFL;
-        while (cells.getInt(bytePos) != -1) {
-            int superCellId = cells.getInt(bytePos);
-            IntHashSet cellIds = new IntHashSet();
-            bytePos += byteCount;
-            while (cells.getInt(bytePos) != -1) {
-                cellIds.add(cells.getInt(bytePos));
-                bytePos += byteCount;
-            }
-            superCellIdToCellsMap.put(superCellId, cellIds);
-            bytePos += byteCount;
-        }
-    }
-
-    private void fillCellIdToSuperCellMap() {
-        for (IntObjectCursor<IntHashSet> superCell : superCellIdToCellsMap) {
-            for (IntCursor cellId : superCell.value) {
-                cellIdToSuperCellMap.put(cellId.value, superCell.key);
-            }
-        }
+        //The hierarchy is stored together with the contours, nothing to load if these are not prepared yet
+        if (bytePos == 0)
+            return;
+        int levelCount = cells.getInt(bytePos);
+        bytePos += byteCount;
+        int[] levelStarts = getInts(bytePos, levelCount + 1);
+        bytePos += (long) levelStarts.length * byteCount;
+        int slotCount = levelStarts[levelCount];
+        int[] cellIds = getInts(bytePos, slotCount);
+        bytePos += (long) slotCount * byteCount;
+        int[] parents = getInts(bytePos, slotCount);
+        bytePos += (long) slotCount * byteCount;
+        int[] childOffsets = getInts(bytePos, slotCount + 1);
+        bytePos += (long) childOffsets.length * byteCount;
+        int[] children = getInts(bytePos, childOffsets[slotCount]);
+        cellHierarchy = new CellHierarchy(levelStarts, cellIds, parents, childOffsets, children);
     }
 
     /**
@@ -384,4 +492,31 @@ public class CellStorage implements Storable<CellStorage> {
     public long getCapacity() {
         return cells.getCapacity();
     }
+
+    /**
+     * Iterates over consecutive ints of the storage between two pointers.
+     */
+    private class StorageIntIterator implements PrimitiveIterator.OfInt {
+        private long pointer;
+        private final long end;
+
+        StorageIntIterator(long start, long end) {
+            this.pointer = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pointer < end;
+        }
+
+        @Override
+        public int nextInt() {
+            if (pointer >= end)
+                throw new NoSuchElementException();
+            int value = cells.getInt(pointer);
+            pointer += byteCount;
+            return value;
+        }
+    }
 }
@@ -17,8 +17,6 @@
  */
 package org.heigit.ors.fastisochrones.storage;
 
-import com.carrotsearch.hppc.DoubleArrayList;
-import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.IntIntHashMap;
 import com.carrotsearch.hppc.IntLongHashMap;
 import com.carrotsearch.hppc.cursors.IntIntCursor;
@@ -34,10 +32,13 @@ import static org.heigit.ors.fastisochrones.storage.ByteConversion.*;
 
 /**
  * Stores distances of bordernodes in a cell.
+ * The entries of a bordernode are its number of adjacent bordernodes followed by pairs of adjacent bordernode id and
+ * distance. Distances are stored as raw double bits in two ints, so that they can be read without intermediate buffers.
  *
  * @author Hendrik Leuschner
  */
 public class BorderNodeDistanceStorage implements Storable<BorderNodeDistanceStorage> {
+    private static final int LAYOUT_VERSION = 1;
     private final DataAccess borderNodes;
     private final int byteCount;
     private int borderNodeIndexOffset;
@@ -60,6 +61,8 @@ public class BorderNodeDistanceStorage implements Storable<BorderNodeDistanceSto
 
     public boolean loadExisting() {
         if (borderNodes.loadExisting()) {
+            if (borderNodes.getHeader(4) != LAYOUT_VERSION)
+                throw new IllegalStateException("Border node distances were stored with an incompatible layout, the graph needs to be rebuilt");
             borderNodeCount = borderNodes.getHeader(0);
             borderNodeIndexOffset = borderNodeCount * byteCount;
             borderNodePointer = borderNodeIndexOffset;
@@ -75,6 +78,7 @@ public class BorderNodeDistanceStorage implements Storable<BorderNodeDistanceSto
         getNumBorderNodes();
         borderNodes.ensureCapacity((long) borderNodeCount * byteCount + (long) necessaryCapacity * byteCount + borderNodeCount * 4L);
         borderNodes.setHeader(0, borderNodeCount);
+        borderNodes.setHeader(4, LAYOUT_VERSION);
         borderNodeIndexOffset = borderNodeCount * byteCount;
         borderNodePointer = borderNodeIndexOffset;
         borderNodeToPointerMap = new IntLongHashMap();
@@ -101,32 +105,47 @@ public class BorderNodeDistanceStorage implements Storable<BorderNodeDistanceSto
             throw new IllegalArgumentException("Corrupted distance set");
         borderNodeToPointerMap.put(nodeId, borderNodePointer);
 
+        borderNodes.setInt(borderNodePointer, bnds.getAdjBorderNodeIds().length);
+        borderNodePointer += 4;
         for (int i = 0; i < bnds.getAdjBorderNodeIds().length; i++) {
             borderNodes.setInt(borderNodePointer, bnds.adjBorderNodeIds[i]);
             borderNodePointer += 4;
-            borderNodes.setBytes(borderNodePointer, doubleToByteArray(bnds.adjBorderNodeDistances[i]), 8);
+            setDouble(borderNodePointer, bnds.adjBorderNodeDistances[i]);
             borderNodePointer += 8;
         }
-        //Add trailing -1
-        borderNodes.setInt(borderNodePointer, -1);
-        borderNodePointer += 4;
     }
 
     public BorderNodeDistanceSet getBorderNodeDistanceSet(int nodeId) {
         long pointer = borderNodeToPointerMap.get(nodeId);
-        int currentNode = borderNodes.getInt(pointer);
-        IntArrayList ids = new IntArrayList(5);
-        DoubleArrayList distances = new DoubleArrayList(5);
-        while (currentNode != -1) {
-            byte[] buffer = new byte[8];
-            ids.add(currentNode);
-            pointer += 4;
-            borderNodes.getBytes(pointer, buffer, 8);
-            distances.add(byteArrayToDouble(buffer));
-            pointer += 8;
-            currentNode = borderNodes.getInt(pointer);
+        int count = borderNodes.getInt(pointer);
+        pointer += 4;
+        int[] ids = new int[count];
+        double[] distances = new double[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = borderNodes.getInt(pointer);
+            distances[i] = getDouble(pointer + 4);
+            pointer += byteCount;
         }
-        return new BorderNodeDistanceSet(ids.toArray(), distances.toArray());
+        return new BorderNodeDistanceSet(ids, distances);
+    }
+
+    /**
+     * Creates an iterator over the adjacent bordernodes that reads directly from the storage.
+     * The iterator can be reused for any number of bordernodes, but must not be shared between threads.
+     */
+    public BorderNodeDistanceIterator createBorderNodeDistanceIterator() {
+        return new BorderNodeDistanceIterator();
+    }
+
+    private void setDouble(long pointer, double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        borderNodes.setInt(pointer, (int) bits);
+        borderNodes.setInt(pointer + 4, (int) (bits >>> 32));
+    }
+
+    private double getDouble(long pointer) {
+        long bits = ((long) borderNodes.getInt(pointer + 4) << 32) | (borderNodes.getInt(pointer) & 0xFFFFFFFFL);
+        return Double.longBitsToDouble(bits);
     }
 
     public void storeBorderNodeToPointerMap() {
@@ -156,6 +175,40 @@ public class BorderNodeDistanceStorage implements Storable<BorderNodeDistanceSto
         }
     }
 
+    /**
+     * Flyweight iterator over the adjacent bordernodes of a bordernode, analogous to an edge iterator.
+     */
+    public class BorderNodeDistanceIterator {
+        private long pointer;
+        private int remaining;
+
+        private BorderNodeDistanceIterator() {
+        }
+
+        public BorderNodeDistanceIterator setBaseNode(int nodeId) {
+            pointer = borderNodeToPointerMap.get(nodeId);
+            remaining = borderNodes.getInt(pointer);
+            pointer -= byteCount - 4;
+            return this;
+        }
+
+        public boolean next() {
+            if (remaining == 0)
+                return false;
+            remaining--;
+            pointer += byteCount;
+            return true;
+        }
+
+        public int getAdjBorderNode() {
+            return borderNodes.getInt(pointer);
+        }
+
+        public double getDistance() {
+            return getDouble(pointer + 4);
+        }
+    }
+
     public BorderNodeDistanceStorage create(long byteCount) {
         throw new IllegalStateException("Do not call BorderNodeDistanceStorage.create directly");
     }
@@ -13,83 +13,17 @@
  */
 package org.heigit.ors.geojson;
 
-import org.geotools.geometry.jts.coordinatesequence.CoordinateSequences;
-import org.heigit.ors.util.FormatUtility;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.locationtech.jts.geom.*;
 
-@SuppressWarnings("unchecked")
 public class GeometryJSON {
 
-    private static final int COORDINATE_PRECISION = 6;
     private static final GeometryFactory factory = new GeometryFactory();
 
     private GeometryJSON() {
     }
 
-    public static org.json.simple.JSONArray toJSON(Polygon poly) {
-        org.json.simple.JSONArray coords = new org.json.simple.JSONArray();
-
-        LineString shell = poly.getExteriorRing();
-
-        boolean inverse = shell.getNumPoints() > 1 && !CoordinateSequences.isCCW(shell.getCoordinateSequence());
-        coords.add(toJSON(shell, inverse));
-
-        if (poly.getNumInteriorRing() > 0) {
-            int nRings = poly.getNumInteriorRing();
-
-            for (int j = 0; j < nRings; ++j) {
-                LineString ring = poly.getInteriorRingN(j);
-                inverse = ring.getNumPoints() > 1 && CoordinateSequences.isCCW(ring.getCoordinateSequence());
-                coords.add(toJSON(ring, inverse));
-            }
-        }
-
-        return coords;
-    }
-
-    private static org.json.simple.JSONArray toJSON(LineString line, boolean inverseSeq) {
-        // "coordinates": [ [100.0, 0.0], [101.0, 1.0] ]
-        int size = line.getNumPoints();
-
-        org.json.simple.JSONArray arrCoords = new org.json.simple.JSONArray();
-
-        CoordinateSequence seq = line.getCoordinateSequence();
-
-        for (int i = 0; i < size; ++i) {
-            Coordinate coord = seq.getCoordinate(inverseSeq ? size - i - 1 : i);
-            arrCoords.add(toJSON(coord));
-        }
-
-        return arrCoords;
-    }
-
-    private static org.json.simple.JSONArray toJSON(Point point) {
-        return toJSON(point.getCoordinate());
-    }
-
-    public static org.json.simple.JSONArray toJSON(Coordinate c) {
-        org.json.simple.JSONArray arrCoords = new org.json.simple.JSONArray();
-        arrCoords.add(FormatUtility.roundToDecimals(c.x, COORDINATE_PRECISION));
-        arrCoords.add(FormatUtility.roundToDecimals(c.y, COORDINATE_PRECISION));
-
-        return arrCoords;
-    }
-
-    public static org.json.simple.JSONArray toJSON(Coordinate[] coords, boolean includeElevation) {
-        org.json.simple.JSONArray arrCoords = new org.json.simple.JSONArray();
-        for (Coordinate c : coords) {
-            org.json.simple.JSONArray coord = new org.json.simple.JSONArray();
-            coord.add(FormatUtility.roundToDecimals(c.x, COORDINATE_PRECISION));
-            coord.add(FormatUtility.roundToDecimals(c.y, COORDINATE_PRECISION));
-            if (includeElevation)
-                coord.add(FormatUtility.roundToDecimals(c.z, 1));
-            arrCoords.add(coord);
-        }
-        return arrCoords;
-    }
-
     public static Geometry parse(JSONObject json) throws Exception {
         if (!json.has("type"))
             throw new Exception("type element is missing.");
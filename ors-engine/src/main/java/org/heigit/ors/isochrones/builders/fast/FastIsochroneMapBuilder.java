@@ -13,8 +13,10 @@
  */
 package org.heigit.ors.isochrones.builders.fast;
 
+import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.IntHashSet;
 import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
 import com.carrotsearch.hppc.cursors.IntObjectCursor;
 import com.graphhopper.coll.GHIntObjectHashMap;
 import com.graphhopper.routing.SPTEntry;
@@ -670,12 +672,13 @@ public class FastIsochroneMapBuilder implements IsochroneMapBuilder {
 //                    "  \"features\": [");
 //            cellsPrintStatement.append(System.lineSeparator());
 //        }
-        Set<Integer> reachableCellsAndSuperCells = isSupercellsEnabled() ? handleSuperCells(fullyReachableCells) : fullyReachableCells;
+        //Without supercells the hierarchy is empty and the cells are returned as they are
+        IntArrayList reachableCellsAndSuperCells = cellStorage.getCellHierarchy().aggregateFullyReachableCells(fullyReachableCells);
 
-        for (int cellId : reachableCellsAndSuperCells) {
-            addCellPolygon(cellId, isochroneGeometries);
+        for (IntCursor cellId : reachableCellsAndSuperCells) {
+            addCellPolygon(cellId.value, isochroneGeometries);
 //            if (DebugUtility.isDebug())
-//                cellsPrintStatement.append(printCell(cellStorage.getCellContourOrder(cellId), cellId));
+//                cellsPrintStatement.append(printCell(cellStorage.getCellContourOrder(cellId.value), cellId.value));
         }
 //        if (DebugUtility.isDebug()) {
 //            cellsPrintStatement.deleteCharAt(cellsPrintStatement.length() - 2);
@@ -685,36 +688,14 @@ public class FastIsochroneMapBuilder implements IsochroneMapBuilder {
 //        LOGGER.debug(cellsPrintStatement.toString());
     }
 
-    private Set<Integer> handleSuperCells(Set<Integer> fullyReachableCells) {
-        Set<Integer> reachableCellsAndSuperCells = new HashSet<>();
-        Set<Integer> reachableSuperCells = new HashSet<>();
-        for (int cellId : fullyReachableCells) {
-            int superCell = cellStorage.getSuperCellOfCell(cellId);
-            if (superCell != -1 && fullyReachableCells.containsAll(cellStorage.getCellsOfSuperCellAsList(superCell)))
-                reachableSuperCells.add(superCell);
-            else {
-                reachableCellsAndSuperCells.add(cellId);
-            }
-        }
-        for (int cellId : reachableSuperCells) {
-            int superCell = cellStorage.getSuperCellOfCell(cellId);
-            if (superCell != -1 && reachableSuperCells.containsAll(cellStorage.getCellsOfSuperCellAsList(superCell))) {
-                reachableCellsAndSuperCells.add(superCell);
-            } else {
-                reachableCellsAndSuperCells.add(cellId);
-            }
-        }
-        return reachableCellsAndSuperCells;
-    }
-
     private void addCellPolygon(int cellId, Set<Geometry> isochronePolygons) {
-        List<Double> coordinates = cellStorage.getCellContourOrder(cellId);
-        if (coordinates.size() % 2 != 0)
-            throw new IllegalArgumentException("Coordinate list must contain equal number of lats and lons but has odd numbered size.");
-        Coordinate[] cArray = new Coordinate[coordinates.size() / 2];
-        //Convert list of doubles (lat0,lon0,lat1,lon1,...) to array of coordinates
+        int pointCount = cellStorage.getContourPointCount(cellId);
+        double[] coordinates = new double[2 * pointCount];
+        cellStorage.fillCellContour(cellId, coordinates);
+        Coordinate[] cArray = new Coordinate[pointCount];
+        //Convert array of doubles (lat0,lon0,lat1,lon1,...) to array of coordinates
         for (int n = cArray.length - 1; n >= 0; n--) {
-            cArray[cArray.length - 1 - n] = new Coordinate(coordinates.get(2 * n + 1).floatValue(), coordinates.get(2 * n).floatValue());
+            cArray[cArray.length - 1 - n] = new Coordinate((float) coordinates[2 * n + 1], (float) coordinates[2 * n]);
         }
         Polygon polygon = geomFactory.createPolygon(cArray);
         if (polygon.isValid() && !polygon.isEmpty()) {
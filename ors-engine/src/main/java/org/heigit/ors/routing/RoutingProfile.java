@@ -57,6 +57,7 @@ import org.heigit.ors.routing.graphhopper.extensions.storages.OsmIdGraphStorage;
 import org.heigit.ors.routing.graphhopper.extensions.storages.WheelchairAttributesGraphStorage;
 import org.heigit.ors.routing.graphhopper.extensions.storages.builders.BordersGraphStorageBuilder;
 import org.heigit.ors.routing.graphhopper.extensions.storages.builders.GraphStorageBuilder;
+import org.heigit.ors.routing.graphhopper.extensions.util.GraphPreloader;
 import org.heigit.ors.routing.graphhopper.extensions.util.ORSParameters;
 import org.heigit.ors.routing.parameters.ProfileParameters;
 import org.heigit.ors.routing.pathprocessors.ORSPathProcessorFactory;
@@ -90,6 +91,8 @@ public class RoutingProfile {
     private final RouteProfileConfiguration config;
     private final ORSGraphHopper mGraphHopper;
     private Integer mUseCounter;
+    private boolean mRetired;
+    private boolean mClosed;
     private String astarApproximation;
     private Double astarEpsilon;
 
@@ -150,8 +153,15 @@ public class RoutingProfile {
             loadCntx.setElevationProvider(gh.getElevationProvider());
         }
         gh.setGraphStorageFactory(new ORSGraphStorageFactory(gpc.getStorageBuilders()));
+        gh.setSharedOSMImport(loadCntx.getSharedOSMImport());
 
         gh.importOrLoad();
+        if (config.getGraphPreload() > 0 && config.getGraphDataAccess().startsWith("MMAP")) {
+            long preloadStart = System.currentTimeMillis();
+            long bytes = GraphPreloader.preload(new File(config.getGraphPath()), config.getGraphPreload());
+            if (LOGGER.isInfoEnabled())
+                LOGGER.info("[%d] Preloaded %d MB of graph files in %s.".formatted(profileId, bytes >> 20, TimeUtility.getElapsedTime(preloadStart, true)));
+        }
         // store CountryBordersReader for later use
         for (GraphStorageBuilder builder : gpc.getStorageBuilders()) {
             if (builder.getName().equals(BordersGraphStorageBuilder.BUILDER_NAME)) {
@@ -178,7 +188,9 @@ public class RoutingProfile {
 
     private static ORSGraphHopperConfig createGHSettings(String sourceFile, RouteProfileConfiguration config) {
         ORSGraphHopperConfig ghConfig = new ORSGraphHopperConfig();
-        ghConfig.putObject("graph.dataaccess", "RAM_STORE");
+        // the extended storages, the core and landmark preparations and the fast isochrone storages are all kept in the
+        // directory of the graph and use the same kind of data access
+        ghConfig.putObject("graph.dataaccess", config.getGraphDataAccess());
         ghConfig.putObject("datareader.file", sourceFile);
         ghConfig.putObject("graph.location", config.getGraphPath());
         ghConfig.putObject("graph.bytes_for_flags", config.getEncoderFlagsSize());
@@ -338,6 +350,8 @@ public class RoutingProfile {
                             ghConfig.putObject("prepare.core.threads", threadsCH);
                             ghConfig.putObject("prepare.corelm.threads", threadsLM);
                         }
+                        if (coreOpts.hasPath(ProfileTools.KEY_LANDMARK_THREADS))
+                            ghConfig.putObject("prepare.corelm.landmark_threads", coreOpts.getInt(ProfileTools.KEY_LANDMARK_THREADS));
                         if (coreOpts.hasPath(ProfileTools.KEY_WEIGHTINGS)) {
                             List<CHProfile> coreProfiles = new ArrayList<>();
                             List<LMProfile> coreLMProfiles = new ArrayList<>();
@@ -383,6 +397,15 @@ public class RoutingProfile {
                 if (lmOpts.hasPath(ProfileTools.KEY_ACTIVE_LANDMARKS))
                     ghConfig.putObject("routing.lm.active_landmarks", lmOpts.getInt(ProfileTools.KEY_ACTIVE_LANDMARKS));
             }
+            if (opts.hasPath(ProfileTools.KEY_METHODS_FLEX)) {
+                Config flexOpts = opts.getConfig(ProfileTools.KEY_METHODS_FLEX);
+                if (flexOpts.hasPath(ProfileTools.KEY_EDGE_WEIGHT_COLUMNS))
+                    ghConfig.putObject(ORSParameters.Flex.INIT_MAX_EDGE_WEIGHT_COLUMNS, flexOpts.getInt(ProfileTools.KEY_EDGE_WEIGHT_COLUMNS));
+                if (flexOpts.hasPath(ProfileTools.KEY_ENVIRONMENTAL_FACTORS))
+                    ghConfig.putObject(ORSParameters.Flex.INIT_ENVIRONMENTAL_FACTORS, flexOpts.getBoolean(ProfileTools.KEY_ENVIRONMENTAL_FACTORS));
+                if (flexOpts.hasPath(ProfileTools.KEY_BIDIRECTIONAL_ALT))
+                    ghConfig.putObject(ORSParameters.Flex.INIT_BIDIRECTIONAL_ALT, flexOpts.getBoolean(ProfileTools.KEY_BIDIRECTIONAL_ALT));
+            }
         }
 
         if (config.getOptimize() && !prepareCH)
@@ -461,20 +484,60 @@ public class RoutingProfile {
         return mGraphHopper != null && mGraphHopper.getCHPreparationHandler().isEnabled();
     }
 
-    public void close() {
+    public synchronized void close() {
+        if (mClosed)
+            return;
+        mClosed = true;
         mGraphHopper.close();
     }
 
+    /**
+     * Close the graph as soon as no more requests are using it, e.g. after it has been replaced by a new generation.
+     * Requests still running on the graph finish first, the last one of them closes it on {@link #release()}.
+     */
+    public synchronized void retire() {
+        mRetired = true;
+        if (mUseCounter == 0)
+            close();
+    }
+
+    /**
+     * Keep the graph open for a request until it calls {@link #release()}, however long the request takes.
+     *
+     * @return false if the graph has been retired or closed, the request has to look up the profile again then
+     */
+    public synchronized boolean acquire() {
+        if (mRetired || mClosed)
+            return false;
+        mUseCounter++;
+        return true;
+    }
+
+    /**
+     * Let go of the graph acquired by a request; the graph is closed if it has been retired meanwhile.
+     */
+    public void release() {
+        endUseGH();
+    }
+
+    public synchronized boolean isClosed() {
+        return mClosed;
+    }
+
     private synchronized boolean isGHUsed() {
         return mUseCounter > 0;
     }
 
     private synchronized void beginUseGH() {
+        if (mClosed)
+            throw new IllegalStateException("The graph at '%s' has been replaced and closed.".formatted(config.getGraphPath()));
         mUseCounter++;
     }
 
     private synchronized void endUseGH() {
         mUseCounter--;
+        if (mRetired && mUseCounter == 0)
+            close();
     }
 
     /**
@@ -592,6 +655,7 @@ public class RoutingProfile {
         String CoreProfileName = ProfileTools.makeProfileName(encoderName, hintsMap.getString("weighting", ""), true);
 
         //TODO Refactoring : probably remove MatrixAlgorithmFactory alltogether as the checks for algorithm choice have to be performed here again. Or combine in a single check nicely
+        beginUseGH();
         try {
             // RPHAST
             if (!req.getFlexibleMode() && gh.getCHPreparationHandler().isEnabled() && hasCHProfile(CHProfileName)) {
@@ -612,6 +676,8 @@ public class RoutingProfile {
             throw new InternalServerException(MatrixErrorCodes.MAX_VISITED_NODES_EXCEEDED, "Unable to compute a distance/duration matrix: " + e.getMessage());
         } catch (Exception ex) {
             throw new InternalServerException(MatrixErrorCodes.UNKNOWN, "Unable to compute a distance/duration matrix: " + ex.getMessage());
+        } finally {
+            endUseGH();
         }
     }
 
@@ -678,6 +744,15 @@ public class RoutingProfile {
     }
 
     public ExportResult computeExport(ExportRequest req) throws Exception {
+        beginUseGH();
+        try {
+            return exportGraph(req);
+        } finally {
+            endUseGH();
+        }
+    }
+
+    private ExportResult exportGraph(ExportRequest req) {
         ExportResult res = new ExportResult();
 
         GraphHopper gh = getGraphhopper();
@@ -741,8 +816,7 @@ public class RoutingProfile {
                         WheelchairAttributesGraphStorage storage = GraphStorageUtils.getGraphExtension(gh.getGraphHopperStorage(), WheelchairAttributesGraphStorage.class);
                         if (storage != null) {
                             WheelchairAttributes attributes = new WheelchairAttributes();
-                            byte[] buffer = new byte[WheelchairAttributesGraphStorage.BYTE_COUNT];
-                            storage.getEdgeValues(iter.getEdge(), attributes, buffer);
+                            storage.getEdgeValues(iter.getEdge(), attributes);
                             if (attributes.hasValues()) {
                                 extra.put("incline", attributes.getIncline());
                                 extra.put("surface_quality_known", attributes.isSurfaceQualityKnown());
@@ -927,6 +1001,7 @@ public class RoutingProfile {
                 Request ptRequest = createPTRequest(lat0, lon0, lat1, lon1, searchParams);
                 GHResponse res = ptRouter.route(ptRequest);
                 res.addDebugInfo("Request total:" + stopWatch.stop().getSeconds() + "s");
+                endUseGH();
                 return res;
             }
             int weightingMethod = searchParams.getWeightingMethod();
@@ -975,8 +1050,11 @@ public class RoutingProfile {
             }
 
             //cannot use CH or CoreALT with requests where the weighting of non-predefined edges might change
-            if (flexibleMode == ProfileTools.KEY_FLEX_FULLY)
+            if (flexibleMode == ProfileTools.KEY_FLEX_FULLY) {
                 setSpeedups(req, false, false, true, searchCntx.profileNameCH());
+                req.getHints().putObject(ORSParameters.Flex.BIDIRECTIONAL_ALT, !searchParams.isTimeDependent());
+                req.getHints().putObject(ORSParameters.Flex.EDGE_WEIGHT_COLUMN, !searchParams.isTimeDependent());
+            }
 
             if (searchParams.isTimeDependent()) {
                 req.setAlgorithm(Parameters.Algorithms.TD_ASTAR);
@@ -14,6 +14,7 @@
 package org.heigit.ors.routing;
 
 import com.graphhopper.reader.dem.ElevationProvider;
+import org.heigit.ors.routing.graphhopper.extensions.reader.SharedOSMImport;
 
 /**
  * Holds resources shared between instances of {@link RoutingProfile}.
@@ -22,6 +23,15 @@ import com.graphhopper.reader.dem.ElevationProvider;
 public class RoutingProfileLoadContext {
     // add here any other shared resources
     private ElevationProvider elevationProvider = null;
+    private final SharedOSMImport sharedOSMImport;
+
+    public RoutingProfileLoadContext() {
+        this(new SharedOSMImport());
+    }
+
+    public RoutingProfileLoadContext(SharedOSMImport sharedOSMImport) {
+        this.sharedOSMImport = sharedOSMImport;
+    }
 
     public ElevationProvider getElevationProvider() {
         return elevationProvider;
@@ -33,6 +43,10 @@ public class RoutingProfileLoadContext {
         }
     }
 
+    public SharedOSMImport getSharedOSMImport() {
+        return sharedOSMImport;
+    }
+
     public void releaseElevationProviderCacheAfterAllVehicleProfilesHaveBeenProcessed() {
         if (elevationProvider != null) {
             elevationProvider.release();
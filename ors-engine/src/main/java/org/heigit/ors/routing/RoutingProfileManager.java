@@ -14,10 +14,13 @@
 package org.heigit.ors.routing;
 
 import com.graphhopper.GHResponse;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.storage.index.LocationIndex;
 import com.graphhopper.util.AngleCalc;
 import com.graphhopper.util.DistanceCalc;
 import com.graphhopper.util.DistanceCalcEarth;
 import com.graphhopper.util.PointList;
+import com.graphhopper.util.shapes.BBox;
 import com.graphhopper.util.exceptions.ConnectionNotFoundException;
 import com.graphhopper.util.exceptions.MaximumNodesExceededException;
 import org.apache.log4j.Logger;
@@ -27,6 +30,7 @@ import org.heigit.ors.export.ExportErrorCodes;
 import org.heigit.ors.export.ExportRequest;
 import org.heigit.ors.export.ExportResult;
 import org.heigit.ors.isochrones.IsochroneMap;
+import org.heigit.ors.isochrones.IsochronesErrorCodes;
 import org.heigit.ors.isochrones.IsochroneSearchParameters;
 import org.heigit.ors.mapmatching.MapMatchingRequest;
 import org.heigit.ors.matrix.MatrixErrorCodes;
@@ -34,6 +38,7 @@ import org.heigit.ors.matrix.MatrixRequest;
 import org.heigit.ors.matrix.MatrixResult;
 import org.heigit.ors.routing.configuration.RouteProfileConfiguration;
 import org.heigit.ors.routing.configuration.RoutingManagerConfiguration;
+import org.heigit.ors.routing.graphhopper.extensions.reader.SharedOSMImport;
 import org.heigit.ors.routing.pathprocessors.ExtraInfoProcessor;
 import org.heigit.ors.util.FormatUtility;
 import org.heigit.ors.util.RuntimeUtility;
@@ -41,7 +46,10 @@ import org.heigit.ors.util.StringUtility;
 import org.heigit.ors.util.TimeUtility;
 import org.locationtech.jts.geom.Coordinate;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -50,8 +58,18 @@ import java.util.stream.Collectors;
 public class RoutingProfileManager {
     private static final Logger LOGGER = Logger.getLogger(RoutingProfileManager.class.getName());
     public static final String KEY_SKIPPED_EXTRA_INFO = "skipped_extra_info";
-    private RoutingProfilesCollection routingProfiles;
+    private RoutingProfilesCollection routingProfiles = new RoutingProfilesCollection();
     private static RoutingProfileManager instance;
+    private EngineConfig engineConfig;
+    private ExecutorService initExecutor;
+    private boolean destroyed = false;
+    private final Map<String, String> previousGraphPaths = new HashMap<>();
+    private final Map<String, Future<RoutingProfile>> reloads = new HashMap<>();
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ORS-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public RoutingProfileManager(EngineConfig config) {
         if (instance == null) {
@@ -60,6 +78,21 @@ public class RoutingProfileManager {
         }
     }
 
+    /**
+     * Serve already loaded profiles without registering the instance, e.g. in tests.
+     */
+    RoutingProfileManager(EngineConfig config, RoutingProfilesCollection profiles) {
+        engineConfig = config;
+        routingProfiles = profiles;
+    }
+
+    /**
+     * @return whether the instance has been created; it may still be loading its profiles
+     */
+    public static synchronized boolean hasInstance() {
+        return instance != null;
+    }
+
     public static synchronized RoutingProfileManager getInstance() {
         if (instance == null) {
             throw new UnsupportedOperationException("RoutingProfileManager has not been initialized!");
@@ -70,6 +103,7 @@ public class RoutingProfileManager {
     public void initialize(EngineConfig config) {
         RuntimeUtility.printRAMInfo("", LOGGER);
         long startTime = System.currentTimeMillis();
+        engineConfig = config;
         try {
             // RoutingManagerConfiguration can be thrown away entirely after config migration
             RoutingManagerConfiguration rmc = RoutingManagerConfiguration.loadFromFile(config.getGraphsRootPath());
@@ -85,12 +119,19 @@ public class RoutingProfileManager {
             LOGGER.info("====> Initializing profiles from '%s' (%d threads) ...".formatted(
                     config.getSourceFile(), initializationThreads));
 
-            routingProfiles = new RoutingProfilesCollection();
             int nRouteInstances = routeProfileConfigurations.length;
 
-            RoutingProfileLoadContext loadCntx = new RoutingProfileLoadContext();
-            ExecutorService executor = Executors.newFixedThreadPool(initializationThreads);
+            RoutingProfileLoadContext loadCntx = new RoutingProfileLoadContext(new SharedOSMImport(config.getOsmImportWorkerThreads(),
+                    config.getOsmImportJoinTimeout(), config.getOsmImportQueueCapacity()));
+            ExecutorService executor;
+            synchronized (this) {
+                if (destroyed)
+                    return;
+                executor = Executors.newFixedThreadPool(initializationThreads);
+                initExecutor = executor;
+            }
             ExecutorCompletionService<RoutingProfile> compService = new ExecutorCompletionService<>(executor);
+            Map<Future<RoutingProfile>, RouteProfileConfiguration> tasks = new HashMap<>();
 
             int nTotalTasks = 0;
 
@@ -101,7 +142,8 @@ public class RoutingProfileManager {
 
                 if (rpc.getProfilesTypes() != null) {
                     Callable<RoutingProfile> task = new RoutingProfileLoader(config, rpc, loadCntx);
-                    compService.submit(task);
+                    setProfileState(rpc, RoutingProfileManagerStatus.ProfileState.LOADING);
+                    tasks.put(compService.submit(task), rpc);
                     nTotalTasks++;
                 }
             }
@@ -115,9 +157,17 @@ public class RoutingProfileManager {
                 try {
                     RoutingProfile rp = future.get();
                     nCompletedTasks++;
-                    if (!routingProfiles.add(rp))
-                        LOGGER.warn("Routing profile has already been added.");
+                    if (!addLoadedProfile(rp))
+                        continue;
+                    setProfileState(tasks.get(future), RoutingProfileManagerStatus.ProfileState.READY);
+                    LOGGER.info("Profiles '%s' ready (%d of %d).".formatted(rp.getConfiguration().getProfiles(), nCompletedTasks, nTotalTasks));
                 } catch (ExecutionException e) {
+                    setProfileState(tasks.get(future), RoutingProfileManagerStatus.ProfileState.FAILED);
+                    if (isDestroyed()) {
+                        // loading has been interrupted by the shutdown
+                        nCompletedTasks++;
+                        continue;
+                    }
                     LOGGER.error(e);
                     throw e;
                 } catch (InterruptedException e) {
@@ -128,6 +178,8 @@ public class RoutingProfileManager {
 
             executor.shutdown();
             loadCntx.releaseElevationProviderCacheAfterAllVehicleProfilesHaveBeenProcessed();
+            if (isDestroyed())
+                return;
 
             LOGGER.info("Total time: " + TimeUtility.getElapsedTime(startTime, true) + ".");
             LOGGER.info("========================================================================");
@@ -147,10 +199,163 @@ public class RoutingProfileManager {
             routingProfiles.printStatistics(LOGGER);
     }
 
-    public void destroy() {
+    /**
+     * Close all loaded profiles and stop loading the remaining ones. Profiles whose loading cannot be stopped are closed
+     * as soon as they are loaded.
+     */
+    public synchronized void destroy() {
+        destroyed = true;
+        if (initExecutor != null)
+            initExecutor.shutdownNow();
+        reloadExecutor.shutdownNow();
         routingProfiles.destroy();
     }
 
+    private synchronized boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Serve a loaded profile right away instead of waiting for the remaining ones. If the manager has been destroyed
+     * meanwhile, the profile is closed instead.
+     *
+     * @return whether the profile is served
+     */
+    private synchronized boolean addLoadedProfile(RoutingProfile rp) {
+        if (destroyed) {
+            rp.close();
+            return false;
+        }
+        if (!routingProfiles.add(rp))
+            LOGGER.warn("Routing profile has already been added.");
+        return true;
+    }
+
+    /**
+     * Replace the graph of a profile by a new generation without interrupting the service. The new graph is loaded in
+     * the background from {@code graphPath}, which has to be a prepared graph within the graphs root path, and checked
+     * while the current graph keeps serving requests. Only if this succeeds, the new graph takes over; the previous one
+     * is closed as soon as the requests still running on it have finished.
+     *
+     * @param profile   name of one of the profiles served by the graph, e.g. {@code driving-car}
+     * @param graphPath location of the new graph, absolute or relative to the graphs root path
+     * @return the pending reload, completing with the profile serving the new graph
+     */
+    public synchronized Future<RoutingProfile> reloadProfile(String profile, String graphPath) throws IOException {
+        RoutingProfile current = getReloadableProfile(profile);
+        File root = new File(engineConfig.getGraphsRootPath()).getCanonicalFile();
+        File graphDir = new File(graphPath);
+        if (!graphDir.isAbsolute())
+            graphDir = new File(root, graphPath);
+        graphDir = graphDir.getCanonicalFile();
+        if (!graphDir.toPath().startsWith(root.toPath()))
+            throw new IllegalArgumentException("Graph path '%s' is not within the graphs root path.".formatted(graphPath));
+        if (!new File(graphDir, "properties").isFile())
+            throw new IllegalArgumentException("Graph path '%s' does not contain a prepared graph.".formatted(graphPath));
+        if (graphDir.equals(new File(current.getConfiguration().getGraphPath()).getCanonicalFile()))
+            throw new IllegalArgumentException("Profile '%s' is already served from '%s'.".formatted(profile, graphPath));
+        return submitReload(current, graphDir.getPath());
+    }
+
+    /**
+     * Switch a profile back to the graph it was served from before its last reload.
+     *
+     * @see #reloadProfile(String, String)
+     */
+    public synchronized Future<RoutingProfile> rollbackProfile(String profile) {
+        RoutingProfile current = getReloadableProfile(profile);
+        String previousGraphPath = previousGraphPaths.get(current.getConfiguration().getName());
+        if (previousGraphPath == null)
+            throw new IllegalStateException("Profile '%s' has not been reloaded, there is no previous graph.".formatted(profile));
+        return submitReload(current, previousGraphPath);
+    }
+
+    /**
+     * @return the last reload or rollback of a profile, or {@code null} if there has been none
+     */
+    public synchronized Future<RoutingProfile> getReload(String profile) {
+        RoutingProfile current = routingProfiles.getRouteProfile(RoutingProfileType.getFromString(profile));
+        return current == null ? null : reloads.get(current.getConfiguration().getName());
+    }
+
+    private RoutingProfile getReloadableProfile(String profile) {
+        RoutingProfile current = routingProfiles.getRouteProfile(RoutingProfileType.getFromString(profile));
+        if (current == null)
+            throw new IllegalArgumentException("Profile '%s' is not loaded.".formatted(profile));
+        Future<RoutingProfile> pending = reloads.get(current.getConfiguration().getName());
+        if (pending != null && !pending.isDone())
+            throw new IllegalStateException("The graph of profile '%s' is already being replaced.".formatted(profile));
+        return current;
+    }
+
+    private Future<RoutingProfile> submitReload(RoutingProfile current, String graphPath) {
+        RouteProfileConfiguration rpc = current.getConfiguration();
+        Future<RoutingProfile> reload = reloadExecutor.submit(() -> replaceProfile(current, rpc.withGraphPath(graphPath)));
+        reloads.put(rpc.getName(), reload);
+        return reload;
+    }
+
+    private RoutingProfile replaceProfile(RoutingProfile current, RouteProfileConfiguration rpc) throws Exception {
+        LOGGER.info("Loading new graph of profiles '%s' from '%s' ...".formatted(rpc.getProfiles(), rpc.getGraphPath()));
+        long startTime = System.currentTimeMillis();
+        RoutingProfileLoadContext loadCntx = new RoutingProfileLoadContext();
+        RoutingProfile replacement = new RoutingProfile(engineConfig, rpc, loadCntx);
+        loadCntx.releaseElevationProviderCacheAfterAllVehicleProfilesHaveBeenProcessed();
+        try {
+            warmUp(replacement);
+        } catch (Exception e) {
+            LOGGER.error("New graph of profiles '%s' at '%s' is not usable, the previous graph is still served.".formatted(rpc.getProfiles(), rpc.getGraphPath()), e);
+            replacement.close();
+            throw e;
+        }
+
+        synchronized (this) {
+            routingProfiles.replace(current, replacement);
+            previousGraphPaths.put(rpc.getName(), current.getConfiguration().getGraphPath());
+        }
+        LOGGER.info("Profiles '%s' are served from '%s' (loaded in %s).".formatted(rpc.getProfiles(), rpc.getGraphPath(), TimeUtility.getElapsedTime(startTime, true)));
+        // requests which have acquired the previous profile before the swap keep it open until they have finished
+        current.retire();
+        return replacement;
+    }
+
+    /**
+     * Make sure a freshly loaded graph is usable and touch its location index before it serves requests.
+     */
+    private static void warmUp(RoutingProfile rp) {
+        if (rp.getGraphhopper().getGraphHopperStorage().getNodes() == 0)
+            throw new IllegalStateException("The new graph is empty.");
+        BBox bounds = rp.getBounds();
+        LocationIndex index = rp.getGraphhopper().getLocationIndex();
+        int snapped = 0;
+        for (int i = 1; i < 4; i++) {
+            for (int j = 1; j < 4; j++) {
+                double lat = bounds.minLat + (bounds.maxLat - bounds.minLat) * i / 4;
+                double lon = bounds.minLon + (bounds.maxLon - bounds.minLon) * j / 4;
+                if (index.findClosest(lat, lon, EdgeFilter.ALL_EDGES).isValid())
+                    snapped++;
+            }
+        }
+        if (snapped == 0)
+            throw new IllegalStateException("No location could be snapped to the new graph.");
+    }
+
+    private static void setProfileState(RouteProfileConfiguration rpc, RoutingProfileManagerStatus.ProfileState state) {
+        for (Integer profileType : rpc.getProfilesTypes())
+            RoutingProfileManagerStatus.setProfileState(RoutingProfileType.getName(profileType), state);
+    }
+
+    /**
+     * Fail fast with a {@link ProfileNotReadyException} if the profile is configured but has not been loaded yet.
+     *
+     * @param errorCode the error code of the service the profile is requested for
+     */
+    public void checkProfileReady(int profileType, int errorCode) throws ProfileNotReadyException {
+        String profile = RoutingProfileType.getName(profileType);
+        if (RoutingProfileManagerStatus.getProfileState(profile) == RoutingProfileManagerStatus.ProfileState.LOADING)
+            throw new ProfileNotReadyException(errorCode, profile);
+    }
+
     private void fail(String message) {
         LOGGER.error("");
         LOGGER.error(message);
@@ -168,9 +373,16 @@ public class RoutingProfileManager {
     }
 
     public RouteResult[] computeRoundTripRoute(RoutingRequest req) throws Exception {
-        List<GHResponse> routes = new ArrayList<>();
-
         RoutingProfile rp = getRouteProfile(req, false);
+        try {
+            return computeRoundTripRoute(req, rp);
+        } finally {
+            rp.release();
+        }
+    }
+
+    private RouteResult[] computeRoundTripRoute(RoutingRequest req, RoutingProfile rp) throws Exception {
+        List<GHResponse> routes = new ArrayList<>();
         RouteSearchParameters searchParams = req.getSearchParameters();
         RouteProfileConfiguration config = rp.getConfiguration();
 
@@ -254,10 +466,19 @@ public class RoutingProfileManager {
     }
 
     public RouteResult[] computeLinearRoute(RoutingRequest req) throws Exception {
+        // the profile is kept for all legs, so that the graph cannot be replaced in between
+        RoutingProfile rp = getRouteProfile(req, false);
+        try {
+            return computeLinearRoute(req, rp);
+        } finally {
+            rp.release();
+        }
+    }
+
+    private RouteResult[] computeLinearRoute(RoutingRequest req, RoutingProfile rp) throws Exception {
         List<Integer> skipSegments = req.getSkipSegments();
         List<GHResponse> routes = new ArrayList<>();
 
-        RoutingProfile rp = getRouteProfile(req, false);
         RouteSearchParameters searchParams = req.getSearchParameters();
 
         Coordinate[] coords = req.getCoordinates();
@@ -507,22 +728,39 @@ public class RoutingProfileManager {
             return 0;
     }
 
+    /**
+     * Get the profile to compute the route with and check the request against its limits. The profile is acquired for
+     * the request and has to be released with {@link RoutingProfile#release()} once the request has finished.
+     */
     public RoutingProfile getRouteProfile(RoutingRequest req, boolean oneToMany) throws Exception {
         RouteSearchParameters searchParams = req.getSearchParameters();
         int profileType = searchParams.getProfileType();
-
-        boolean fallbackAlgorithm = searchParams.requiresFullyDynamicWeights();
         boolean dynamicWeights = searchParams.requiresDynamicPreprocessedWeights();
-        boolean useAlternativeRoutes = searchParams.getAlternativeRoutesCount() > 1;
 
-        RoutingProfile rp = routingProfiles.getRouteProfile(profileType, !dynamicWeights);
+        RoutingProfile rp = routingProfiles.acquireRouteProfile(profileType, !dynamicWeights);
 
         if (rp == null && !dynamicWeights)
-            rp = routingProfiles.getRouteProfile(profileType, false);
+            rp = routingProfiles.acquireRouteProfile(profileType, false);
 
-        if (rp == null)
+        if (rp == null) {
+            checkProfileReady(profileType, RoutingErrorCodes.UNKNOWN);
             throw new InternalServerException(RoutingErrorCodes.UNKNOWN, "Unable to get an appropriate route profile for RoutePreference = " + RoutingProfileType.getName(req.getSearchParameters().getProfileType()));
+        }
 
+        try {
+            checkRouteLimits(req, rp, oneToMany);
+        } catch (Exception e) {
+            rp.release();
+            throw e;
+        }
+        return rp;
+    }
+
+    private void checkRouteLimits(RoutingRequest req, RoutingProfile rp, boolean oneToMany) throws Exception {
+        RouteSearchParameters searchParams = req.getSearchParameters();
+        boolean fallbackAlgorithm = searchParams.requiresFullyDynamicWeights();
+        boolean dynamicWeights = searchParams.requiresDynamicPreprocessedWeights();
+        boolean useAlternativeRoutes = searchParams.getAlternativeRoutesCount() > 1;
         RouteProfileConfiguration config = rp.getConfiguration();
 
         if (config.getMaximumDistance() > 0
@@ -579,8 +817,6 @@ public class RoutingProfileManager {
                 throw new ParameterValueException(RoutingErrorCodes.INCOMPATIBLE_PARAMETERS, "The maximum speed feature can only be used with cars and heavy vehicles.");
             }
         }
-
-        return rp;
     }
 
     /**
@@ -593,25 +829,45 @@ public class RoutingProfileManager {
     public IsochroneMap buildIsochrone(IsochroneSearchParameters parameters) throws Exception {
 
         int profileType = parameters.getRouteParameters().getProfileType();
-        RoutingProfile rp = routingProfiles.getRouteProfile(profileType, false);
+        RoutingProfile rp = routingProfiles.acquireRouteProfile(profileType, false);
+        if (rp == null) {
+            checkProfileReady(profileType, IsochronesErrorCodes.UNKNOWN);
+            throw new InternalServerException(IsochronesErrorCodes.UNKNOWN, "Unable to find an appropriate routing profile.");
+        }
 
-        return rp.buildIsochrone(parameters);
+        try {
+            return rp.buildIsochrone(parameters);
+        } finally {
+            rp.release();
+        }
     }
 
     public MatrixResult computeMatrix(MatrixRequest req) throws Exception {
-        RoutingProfile rp = routingProfiles.getRouteProfile(req.getProfileType(), !req.getFlexibleMode());
+        RoutingProfile rp = routingProfiles.acquireRouteProfile(req.getProfileType(), !req.getFlexibleMode());
 
-        if (rp == null)
+        if (rp == null) {
+            checkProfileReady(req.getProfileType(), MatrixErrorCodes.UNKNOWN);
             throw new InternalServerException(MatrixErrorCodes.UNKNOWN, "Unable to find an appropriate routing profile.");
+        }
 
-        return rp.computeMatrix(req);
+        try {
+            return rp.computeMatrix(req);
+        } finally {
+            rp.release();
+        }
     }
 
     public ExportResult computeExport(ExportRequest req) throws Exception {
-        RoutingProfile rp = routingProfiles.getRouteProfile((req.getProfileType()));
+        RoutingProfile rp = routingProfiles.acquireRouteProfile(req.getProfileType());
 
-        if (rp == null)
+        if (rp == null) {
+            checkProfileReady(req.getProfileType(), ExportErrorCodes.UNKNOWN);
             throw new InternalServerException(ExportErrorCodes.UNKNOWN, "Unable to find an appropriate routing profile.");
-        return rp.computeExport(req);
+        }
+        try {
+            return rp.computeExport(req);
+        } finally {
+            rp.release();
+        }
     }
 }
@@ -13,9 +13,18 @@
  */
 package org.heigit.ors.routing;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class RoutingProfileManagerStatus {
-    private static boolean ready = false;
-    private static boolean failed = false;
+    public enum ProfileState {
+        LOADING, READY, FAILED
+    }
+
+    private static volatile boolean ready = false;
+    private static volatile boolean failed = false;
+    private static final Map<String, ProfileState> profileStates = Collections.synchronizedMap(new LinkedHashMap<>());
 
     private RoutingProfileManagerStatus() {
     }
@@ -35,4 +44,31 @@ public class RoutingProfileManagerStatus {
     public static void setFailed(boolean failed) {
         RoutingProfileManagerStatus.failed = failed;
     }
+
+    /**
+     * @return the state of the profile with the given name, or null if no such profile is configured
+     */
+    public static ProfileState getProfileState(String profile) {
+        return profileStates.get(profile);
+    }
+
+    public static void setProfileState(String profile, ProfileState state) {
+        profileStates.put(profile, state);
+    }
+
+    /**
+     * @return the states of all configured profiles in the order they have been configured
+     */
+    public static Map<String, ProfileState> getProfileStates() {
+        synchronized (profileStates) {
+            return new LinkedHashMap<>(profileStates);
+        }
+    }
+
+    /**
+     * @return true as soon as at least one profile is able to serve requests, while others may still be loading
+     */
+    public static boolean isAnyProfileReady() {
+        return profileStates.containsValue(ProfileState.READY);
+    }
 }
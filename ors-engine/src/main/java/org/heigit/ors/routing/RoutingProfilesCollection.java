@@ -17,16 +17,22 @@ import org.apache.log4j.Logger;
 import org.heigit.ors.util.RuntimeUtility;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Profiles are added while others are still being loaded and requests are already served, therefore the collection
+ * can be read concurrently to additions.
+ */
 public class RoutingProfilesCollection {
-    private final HashMap<Integer, RoutingProfile> routeProfiles;
-    private final ArrayList<RoutingProfile> uniqueProfiles;
+    private final Map<Integer, RoutingProfile> routeProfiles;
+    private final List<RoutingProfile> uniqueProfiles;
 
     public RoutingProfilesCollection() {
-        routeProfiles = new HashMap<>();
-        uniqueProfiles = new ArrayList<>();
+        routeProfiles = new ConcurrentHashMap<>();
+        uniqueProfiles = new CopyOnWriteArrayList<>();
     }
 
     public void destroy() {
@@ -95,6 +101,21 @@ public class RoutingProfilesCollection {
         return res;
     }
 
+    /**
+     * Atomically serve all route preferences of a profile from another instance, e.g. a new generation of its graph.
+     */
+    public void replace(RoutingProfile current, RoutingProfile replacement) {
+        synchronized (uniqueProfiles) {
+            int index = uniqueProfiles.indexOf(current);
+            if (index < 0)
+                throw new IllegalArgumentException("Routing profile is not part of the collection.");
+            synchronized (routeProfiles) {
+                routeProfiles.replaceAll((key, rp) -> rp == current ? replacement : rp);
+            }
+            uniqueProfiles.set(index, replacement);
+        }
+    }
+
     public List<RoutingProfile> getCarProfiles() {
         ArrayList<RoutingProfile> result = new ArrayList<>();
         for (RoutingProfile rp : routeProfiles.values()) {
@@ -115,6 +136,26 @@ public class RoutingProfilesCollection {
         return routeProfiles.get(routePrefKey);
     }
 
+    /**
+     * Get the profile like {@link #getRouteProfile(int, boolean)} and keep its graph open for the request until it
+     * calls {@link RoutingProfile#release()}. If the profile has just been replaced, its replacement is returned.
+     *
+     * @return the acquired profile, or null if there is none to serve the route preference
+     */
+    public RoutingProfile acquireRouteProfile(int routePref, boolean chEnabled) {
+        RoutingProfile rp = getRouteProfile(routePref, chEnabled);
+        while (rp != null && !rp.acquire()) {
+            RoutingProfile replacement = getRouteProfile(routePref, chEnabled);
+            // a closed profile which has not been replaced is only left behind while shutting down
+            rp = replacement == rp ? null : replacement;
+        }
+        return rp;
+    }
+
+    public RoutingProfile acquireRouteProfile(int routePref) {
+        return acquireRouteProfile(routePref, false);
+    }
+
     /**
      * Check if the CH graph of the specified profile has been built.
      *
@@ -0,0 +1,241 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.algorithms;
+
+import com.graphhopper.routing.AbstractRoutingAlgorithm;
+import com.graphhopper.routing.DefaultBidirPathExtractor;
+import com.graphhopper.routing.Path;
+import com.graphhopper.routing.util.AccessFilter;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.util.TraversalMode;
+import com.graphhopper.routing.weighting.BalancedWeightApproximator;
+import com.graphhopper.routing.weighting.BeelineWeightApproximator;
+import com.graphhopper.routing.weighting.WeightApproximator;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.Graph;
+import com.graphhopper.util.DistancePlaneProjection;
+import com.graphhopper.util.EdgeExplorer;
+import com.graphhopper.util.EdgeIterator;
+import com.graphhopper.util.Parameters;
+
+/**
+ * Node-based bidirectional A* (ALT when used with a landmark approximator) for flexible routing requests.
+ * <p>
+ * In contrast to GraphHopper's AStarBidirection no {@link com.graphhopper.routing.SPTEntry} objects are created
+ * during the search: labels are kept in primitive arrays ({@link SearchLabels}) and the queues are indexed binary
+ * heaps with decrease-key ({@link IndexedMinHeap}). The arrays can be reused between requests through a
+ * {@link SearchLabelsPool} of the graph, and are reset through generation stamps so that a new search does not have
+ * to clear them.
+ */
+public class BidirectionalALT extends AbstractRoutingAlgorithm {
+    private final EdgeExplorer outEdgeExplorer;
+    private final EdgeExplorer inEdgeExplorer;
+    private EdgeFilter additionalEdgeFilter;
+    private SearchLabelsPool workspacePool;
+    private BalancedWeightApproximator weightApprox;
+    private double approximatorOffset;
+
+    private SearchLabels forward;
+    private SearchLabels backward;
+    private double currFromWeight;
+    private double currToWeight;
+    private boolean finishedFrom;
+    private boolean finishedTo;
+    private int visitedCountFrom;
+    private int visitedCountTo;
+
+    private int bestNode = -1;
+    private double bestWeight = Double.MAX_VALUE;
+
+    public BidirectionalALT(Graph graph, Weighting weighting) {
+        super(graph, weighting, TraversalMode.NODE_BASED);
+        outEdgeExplorer = graph.createEdgeExplorer(AccessFilter.outEdges(weighting.getFlagEncoder().getAccessEnc()));
+        inEdgeExplorer = graph.createEdgeExplorer(AccessFilter.inEdges(weighting.getFlagEncoder().getAccessEnc()));
+        BeelineWeightApproximator defaultApprox = new BeelineWeightApproximator(nodeAccess, weighting);
+        defaultApprox.setDistanceCalc(DistancePlaneProjection.DIST_PLANE);
+        setApproximation(defaultApprox);
+    }
+
+    public BidirectionalALT setApproximation(WeightApproximator approx) {
+        weightApprox = new BalancedWeightApproximator(approx);
+        return this;
+    }
+
+    public BidirectionalALT setEdgeFilter(EdgeFilter additionalEdgeFilter) {
+        this.additionalEdgeFilter = additionalEdgeFilter;
+        return this;
+    }
+
+    /**
+     * Reuse the labels of earlier searches on the same graph. Without a pool the labels are allocated per search.
+     */
+    public BidirectionalALT setWorkspacePool(SearchLabelsPool workspacePool) {
+        this.workspacePool = workspacePool;
+        return this;
+    }
+
+    @Override
+    public Path calcPath(int from, int to, long at) {
+        checkAlreadyRun();
+        acquireWorkspace(graph.getNodes());
+        try {
+            init(from, to);
+            runAlgo();
+            return extractPath();
+        } finally {
+            releaseWorkspace();
+        }
+    }
+
+    @Override
+    public Path calcPath(int from, int to) {
+        return calcPath(from, to, 0);
+    }
+
+    private void init(int from, int to) {
+        weightApprox.setFromTo(from, to);
+        // the sum of the forward and backward potentials is constant, so the stopping criterion has to account for it
+        approximatorOffset = weightApprox.approximate(to, false) + weightApprox.approximate(to, true) + weightApprox.getSlack();
+
+        currFromWeight = reachRoot(forward, from, false);
+        currToWeight = reachRoot(backward, to, true);
+
+        if (from == to) {
+            bestNode = from;
+            bestWeight = 0;
+        }
+    }
+
+    private double reachRoot(SearchLabels labels, int node, boolean reverse) {
+        double potential = weightApprox.approximate(node, reverse);
+        labels.reach(node, 0, EdgeIterator.NO_EDGE, node, potential);
+        labels.getHeap().update(node, potential);
+        return potential;
+    }
+
+    protected void runAlgo() {
+        while (!finished() && !isMaxVisitedNodesExceeded()) {
+            if (!finishedFrom)
+                finishedFrom = !fillEdgesFrom();
+
+            if (!finishedTo)
+                finishedTo = !fillEdgesTo();
+        }
+    }
+
+    boolean fillEdgesFrom() {
+        if (forward.getHeap().isEmpty())
+            return false;
+        currFromWeight = forward.getHeap().peekKey();
+        fillEdges(forward, backward, outEdgeExplorer, false);
+        visitedCountFrom++;
+        return true;
+    }
+
+    boolean fillEdgesTo() {
+        if (backward.getHeap().isEmpty())
+            return false;
+        currToWeight = backward.getHeap().peekKey();
+        fillEdges(backward, forward, inEdgeExplorer, true);
+        visitedCountTo++;
+        return true;
+    }
+
+    private void fillEdges(SearchLabels labels, SearchLabels otherLabels, EdgeExplorer explorer, boolean reverse) {
+        IndexedMinHeap heap = labels.getHeap();
+        int baseNode = heap.poll();
+        double baseWeight = labels.getWeight(baseNode);
+        int baseEdge = labels.getParentEdge(baseNode);
+
+        EdgeIterator iter = explorer.setBaseNode(baseNode);
+        while (iter.next()) {
+            if (!accept(iter, baseEdge))
+                continue;
+
+            int adjNode = iter.getAdjNode();
+            double tmpWeight = weighting.calcEdgeWeight(iter, reverse) + baseWeight;
+            if (Double.isInfinite(tmpWeight))
+                continue;
+
+            if (!labels.isReached(adjNode)) {
+                labels.reach(adjNode, tmpWeight, iter.getEdge(), baseNode, weightApprox.approximate(adjNode, reverse));
+            } else if (labels.getWeight(adjNode) > tmpWeight) {
+                labels.update(adjNode, tmpWeight, iter.getEdge(), baseNode);
+            } else {
+                continue;
+            }
+            heap.update(adjNode, tmpWeight + labels.getPotential(adjNode));
+
+            if (otherLabels.isReached(adjNode)) {
+                double newWeight = tmpWeight + otherLabels.getWeight(adjNode);
+                if (newWeight < bestWeight) {
+                    bestNode = adjNode;
+                    bestWeight = newWeight;
+                }
+            }
+        }
+    }
+
+    private boolean accept(EdgeIterator iter, int prevOrNextEdgeId) {
+        // node-based traversal does not support u-turns
+        if (iter.getEdge() == prevOrNextEdgeId)
+            return false;
+        return additionalEdgeFilter == null || additionalEdgeFilter.accept(iter);
+    }
+
+    @Override
+    protected boolean finished() {
+        if (finishedFrom || finishedTo)
+            return true;
+        return currFromWeight + currToWeight >= bestWeight + approximatorOffset;
+    }
+
+    @Override
+    protected Path extractPath() {
+        if (bestNode < 0)
+            return createEmptyPath();
+        return DefaultBidirPathExtractor.extractPath(graph, weighting, forward.toSPTEntry(bestNode), backward.toSPTEntry(bestNode), bestWeight);
+    }
+
+    protected Path createEmptyPath() {
+        return new Path(graph.getBaseGraph());
+    }
+
+    @Override
+    public int getVisitedNodes() {
+        return visitedCountFrom + visitedCountTo;
+    }
+
+    @Override
+    public String getName() {
+        return Parameters.Algorithms.ASTAR_BI + "|" + weightApprox;
+    }
+
+    private void acquireWorkspace(int nodes) {
+        SearchLabels[] workspace = workspacePool == null
+                ? new SearchLabels[]{new SearchLabels(nodes), new SearchLabels(nodes)}
+                : workspacePool.acquire(nodes);
+        forward = workspace[0];
+        backward = workspace[1];
+        forward.reset(nodes);
+        backward.reset(nodes);
+    }
+
+    private void releaseWorkspace() {
+        if (workspacePool != null)
+            workspacePool.release(new SearchLabels[]{forward, backward});
+        forward = null;
+        backward = null;
+    }
+}
@@ -0,0 +1,56 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.algorithms;
+
+import com.graphhopper.routing.AlgorithmOptions;
+import com.graphhopper.routing.RoutingAlgorithm;
+import com.graphhopper.routing.RoutingAlgorithmFactory;
+import com.graphhopper.routing.lm.LMApproximator;
+import com.graphhopper.routing.lm.LandmarkStorage;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.Graph;
+import com.graphhopper.util.Parameters;
+import org.heigit.ors.routing.graphhopper.extensions.util.GraphUtils;
+
+/**
+ * Creates {@link BidirectionalALT} instances, using landmarks for the approximation if they are available and the
+ * beeline approximation otherwise. The instances share the label pool of the graph.
+ */
+public class BidirectionalALTAlgorithmFactory implements RoutingAlgorithmFactory {
+    private final LandmarkStorage lms;
+    private final int defaultActiveLandmarks;
+    private final SearchLabelsPool workspacePool;
+
+    public BidirectionalALTAlgorithmFactory(LandmarkStorage lms, int defaultActiveLandmarks, SearchLabelsPool workspacePool) {
+        this.lms = lms;
+        this.defaultActiveLandmarks = defaultActiveLandmarks;
+        this.workspacePool = workspacePool;
+    }
+
+    public BidirectionalALTAlgorithmFactory(SearchLabelsPool workspacePool) {
+        this(null, 0, workspacePool);
+    }
+
+    @Override
+    public RoutingAlgorithm createAlgo(Graph graph, Weighting weighting, AlgorithmOptions opts) {
+        BidirectionalALT algo = new BidirectionalALT(graph, weighting).setWorkspacePool(workspacePool);
+        if (lms != null) {
+            int activeLM = Math.max(1, Math.min(lms.getLandmarkCount(), opts.getHints().getInt(Parameters.Landmark.ACTIVE_COUNT, defaultActiveLandmarks)));
+            algo.setApproximation(new LMApproximator(graph, lms.getWeighting(), GraphUtils.getBaseGraph(graph).getNodes(), lms, activeLM, lms.getFactor(), false));
+        }
+        algo.setEdgeFilter(opts.getEdgeFilter());
+        algo.setMaxVisitedNodes(opts.getMaxVisitedNodes());
+        return algo;
+    }
+}
@@ -0,0 +1,170 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over int elements in the range [0, capacity) with double keys and decrease-key support.
+ * <p>
+ * Positions of the elements are tracked in a primitive array so that no entry objects are allocated per
+ * insertion. The heap can be cleared in O(size) and reused for subsequent searches.
+ */
+public class IndexedMinHeap {
+    private static final int NOT_PRESENT = -1;
+
+    private int[] elements;
+    private double[] keys;
+    private int[] positions;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        elements = new int[capacity];
+        keys = new double[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, NOT_PRESENT);
+    }
+
+    /**
+     * Make sure that elements up to (but excluding) the given capacity can be stored. Existing content is kept.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= positions.length)
+            return;
+        int newCapacity = Math.max(capacity, positions.length + (positions.length >> 1));
+        elements = Arrays.copyOf(elements, newCapacity);
+        keys = Arrays.copyOf(keys, newCapacity);
+        int oldCapacity = positions.length;
+        positions = Arrays.copyOf(positions, newCapacity);
+        Arrays.fill(positions, oldCapacity, newCapacity, NOT_PRESENT);
+    }
+
+    public int capacity() {
+        return positions.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int element) {
+        return positions[element] != NOT_PRESENT;
+    }
+
+    /**
+     * Insert the element with the given key or update its key if it is already present. The key may be
+     * increased or decreased.
+     */
+    public void update(int element, double key) {
+        int pos = positions[element];
+        if (pos == NOT_PRESENT) {
+            pos = size++;
+            elements[pos] = element;
+            keys[pos] = key;
+            positions[element] = pos;
+            siftUp(pos);
+        } else if (key < keys[pos]) {
+            keys[pos] = key;
+            siftUp(pos);
+        } else {
+            keys[pos] = key;
+            siftDown(pos);
+        }
+    }
+
+    public int peekElement() {
+        if (size == 0)
+            throw new IllegalStateException("Cannot peek into an empty heap");
+        return elements[0];
+    }
+
+    public double peekKey() {
+        if (size == 0)
+            throw new IllegalStateException("Cannot peek into an empty heap");
+        return keys[0];
+    }
+
+    /**
+     * Remove the element with the smallest key from the heap and return it.
+     */
+    public int poll() {
+        if (size == 0)
+            throw new IllegalStateException("Cannot poll an empty heap");
+        int min = elements[0];
+        positions[min] = NOT_PRESENT;
+        size--;
+        if (size > 0) {
+            elements[0] = elements[size];
+            keys[0] = keys[size];
+            positions[elements[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Remove all elements. Runs in O(size) so that the heap can be reused cheaply.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            positions[elements[i]] = NOT_PRESENT;
+        size = 0;
+    }
+
+    private void siftUp(int pos) {
+        int element = elements[pos];
+        double key = keys[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >> 1;
+            if (keys[parent] <= key)
+                break;
+            move(parent, pos);
+            pos = parent;
+        }
+        place(element, key, pos);
+    }
+
+    private void siftDown(int pos) {
+        int element = elements[pos];
+        double key = keys[pos];
+        int half = size >> 1;
+        while (pos < half) {
+            int child = (pos << 1) + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child])
+                child = right;
+            if (key <= keys[child])
+                break;
+            move(child, pos);
+            pos = child;
+        }
+        place(element, key, pos);
+    }
+
+    private void move(int from, int to) {
+        elements[to] = elements[from];
+        keys[to] = keys[from];
+        positions[elements[to]] = to;
+    }
+
+    private void place(int element, double key, int pos) {
+        elements[pos] = element;
+        keys[pos] = key;
+        positions[element] = pos;
+    }
+}
@@ -0,0 +1,129 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.algorithms;
+
+import com.graphhopper.routing.SPTEntry;
+import com.graphhopper.util.EdgeIterator;
+
+import java.util.Arrays;
+
+/**
+ * Array-backed shortest path tree labels of one search direction together with its priority queue.
+ * <p>
+ * Labels are valid only if their stamp equals the current generation, so resetting the labels between two
+ * searches is a single increment instead of clearing all arrays.
+ */
+public class SearchLabels {
+    private double[] weights;
+    private double[] potentials;
+    private int[] parentEdges;
+    private int[] parentNodes;
+    private int[] reachedStamps;
+    private int generation;
+    private final IndexedMinHeap heap;
+
+    public SearchLabels(int capacity) {
+        allocate(capacity);
+        heap = new IndexedMinHeap(capacity);
+    }
+
+    private void allocate(int capacity) {
+        weights = new double[capacity];
+        potentials = new double[capacity];
+        parentEdges = new int[capacity];
+        parentNodes = new int[capacity];
+        reachedStamps = new int[capacity];
+        generation = 0;
+    }
+
+    /**
+     * Invalidate all labels and make room for the given number of nodes.
+     */
+    public void reset(int nodes) {
+        heap.clear();
+        if (nodes > weights.length) {
+            allocate(Math.max(nodes, weights.length + (weights.length >> 1)));
+            heap.ensureCapacity(weights.length);
+        }
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(reachedStamps, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    public int capacity() {
+        return weights.length;
+    }
+
+    public IndexedMinHeap getHeap() {
+        return heap;
+    }
+
+    public boolean isReached(int node) {
+        return reachedStamps[node] == generation;
+    }
+
+    /**
+     * @return weight of the best known path to the node or infinity if the node has not been reached yet
+     */
+    public double getWeight(int node) {
+        return isReached(node) ? weights[node] : Double.POSITIVE_INFINITY;
+    }
+
+    public int getParentEdge(int node) {
+        return parentEdges[node];
+    }
+
+    public int getParentNode(int node) {
+        return parentNodes[node];
+    }
+
+    /**
+     * Potential of a reached node as computed by the weight approximator when the node was first reached.
+     */
+    public double getPotential(int node) {
+        return potentials[node];
+    }
+
+    public void reach(int node, double weight, int parentEdge, int parentNode, double potential) {
+        reachedStamps[node] = generation;
+        potentials[node] = potential;
+        update(node, weight, parentEdge, parentNode);
+    }
+
+    public void update(int node, double weight, int parentEdge, int parentNode) {
+        weights[node] = weight;
+        parentEdges[node] = parentEdge;
+        parentNodes[node] = parentNode;
+    }
+
+    /**
+     * Materialize the branch of the shortest path tree leading to the given node as a chain of {@link SPTEntry}
+     * objects, which is the representation expected by GraphHopper's path extraction.
+     */
+    public SPTEntry toSPTEntry(int node) {
+        SPTEntry entry = new SPTEntry(parentEdges[node], node, weights[node]);
+        SPTEntry current = entry;
+        int currentNode = node;
+        while (parentEdges[currentNode] != EdgeIterator.NO_EDGE) {
+            int parentNode = parentNodes[currentNode];
+            SPTEntry parent = new SPTEntry(parentEdges[parentNode], parentNode, weights[parentNode]);
+            current.parent = parent;
+            current = parent;
+            currentNode = parentNode;
+        }
+        return entry;
+    }
+}
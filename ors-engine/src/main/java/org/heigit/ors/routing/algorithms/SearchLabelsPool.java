@@ -0,0 +1,55 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.algorithms;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Idle {@link SearchLabels} of {@link BidirectionalALT} searches on one graph, kept for reuse by the next requests.
+ * <p>
+ * A pool belongs to the graph it is created for, so that its graph-sized arrays are released together with the graph
+ * and are not shared between graphs of different sizes.
+ */
+public class SearchLabelsPool {
+    private final int maxPooled;
+    private final Deque<SearchLabels[]> workspaces = new ConcurrentLinkedDeque<>();
+
+    /**
+     * @param maxPooled maximum number of idle workspaces, each holding the labels of both search directions
+     */
+    public SearchLabelsPool(int maxPooled) {
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return forward and backward labels with room for the given number of nodes
+     */
+    SearchLabels[] acquire(int nodes) {
+        SearchLabels[] workspace = workspaces.pollFirst();
+        if (workspace == null)
+            workspace = new SearchLabels[]{new SearchLabels(nodes), new SearchLabels(nodes)};
+        return workspace;
+    }
+
+    void release(SearchLabels[] workspace) {
+        // the number of idle workspaces is bounded so that the memory held by the pool stays bounded
+        if (workspaces.size() < maxPooled)
+            workspaces.offerFirst(workspace);
+    }
+
+    public int size() {
+        return workspaces.size();
+    }
+}
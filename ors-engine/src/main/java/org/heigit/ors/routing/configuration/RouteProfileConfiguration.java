@@ -21,11 +21,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
-public class RouteProfileConfiguration {
+public class RouteProfileConfiguration implements Cloneable {
     private String name = "";
     private boolean enabled = true;
     private String profiles = ""; // comma separated
     private String graphPath;
+    private String graphDataAccess = "RAM_STORE";
+    private int graphPreload = 0;
     private Map<String, Map<String, String>> extStorages;
     private Map<String, Map<String, String>> graphBuilders;
     private Double maximumDistance = 0.0;
@@ -130,6 +132,35 @@ public class RouteProfileConfiguration {
         return graphPath;
     }
 
+    public String getGraphDataAccess() {
+        return graphDataAccess;
+    }
+
+    public void setGraphDataAccess(String value) {
+        graphDataAccess = value;
+    }
+
+    public int getGraphPreload() {
+        return graphPreload;
+    }
+
+    public void setGraphPreload(int value) {
+        graphPreload = value;
+    }
+
+    /**
+     * @return a copy of this configuration reading the graph from another location, e.g. to load a rebuilt graph
+     */
+    public RouteProfileConfiguration withGraphPath(String value) {
+        try {
+            RouteProfileConfiguration copy = (RouteProfileConfiguration) clone();
+            copy.graphPath = value;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public void setExtStorages(Map<String, Map<String, String>> value) {
         extStorages = value;
     }
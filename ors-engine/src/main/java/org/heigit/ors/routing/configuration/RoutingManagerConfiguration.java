@@ -209,6 +209,12 @@ public class RoutingManagerConfiguration {
                         case "maximum_snapping_radius":
                             profile.setMaximumSnappingRadius(Integer.parseInt(paramItem.getValue().toString()));
                             break;
+                        case "graph_data_access":
+                            profile.setGraphDataAccess(StringUtility.trimQuotes(paramItem.getValue().toString()));
+                            break;
+                        case "graph_preload":
+                            profile.setGraphPreload(Integer.parseInt(paramItem.getValue().toString()));
+                            break;
                         case "location_index_resolution":
                             profile.setLocationIndexResolution(Integer.parseInt(paramItem.getValue().toString()));
                             break;
@@ -48,19 +48,23 @@ import org.heigit.ors.fastisochrones.partitioning.storage.IsochroneNodeStorage;
 import org.heigit.ors.routing.AvoidFeatureFlags;
 import org.heigit.ors.routing.RouteSearchContext;
 import org.heigit.ors.routing.RouteSearchParameters;
+import org.heigit.ors.routing.algorithms.SearchLabelsPool;
 import org.heigit.ors.routing.graphhopper.extensions.core.*;
 import org.heigit.ors.routing.graphhopper.extensions.edgefilters.AvoidFeaturesEdgeFilter;
 import org.heigit.ors.routing.graphhopper.extensions.edgefilters.EdgeFilterSequence;
 import org.heigit.ors.routing.graphhopper.extensions.edgefilters.HeavyVehicleEdgeFilter;
 import org.heigit.ors.routing.graphhopper.extensions.edgefilters.core.LMEdgeFilterSequence;
 import org.heigit.ors.routing.graphhopper.extensions.flagencoders.FlagEncoderNames;
+import org.heigit.ors.routing.graphhopper.extensions.reader.SharedOSMImport;
 import org.heigit.ors.routing.graphhopper.extensions.storages.BordersGraphStorage;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GraphStorageUtils;
 import org.heigit.ors.routing.graphhopper.extensions.storages.HeavyVehicleAttributesGraphStorage;
+import org.heigit.ors.routing.graphhopper.extensions.storages.PackedEnvironmentalFactors;
 import org.heigit.ors.routing.graphhopper.extensions.storages.TrafficGraphStorage;
 import org.heigit.ors.routing.graphhopper.extensions.storages.builders.GraphStorageBuilder;
 import org.heigit.ors.routing.graphhopper.extensions.storages.builders.HereTrafficGraphStorageBuilder;
 import org.heigit.ors.routing.graphhopper.extensions.util.ORSParameters;
+import org.heigit.ors.routing.graphhopper.extensions.weighting.EdgeWeightColumns;
 import org.heigit.ors.routing.graphhopper.extensions.weighting.HgvAccessWeighting;
 import org.heigit.ors.routing.pathprocessors.BordersExtractor;
 import org.heigit.ors.util.CoordTools;
@@ -71,7 +75,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -84,8 +87,6 @@ public class ORSGraphHopper extends GraphHopperGtfs {
     public static final String KEY_ARRIVAL = "arrival";
 
     private GraphProcessContext processContext;
-    private HashMap<Long, ArrayList<Integer>> osmId2EdgeIds; // one osm id can correspond to multiple edges
-    private HashMap<Integer, Long> tmcEdges;
     private Eccentricity eccentricity;
 
     private int minNetworkSize = 200;
@@ -101,6 +102,11 @@ public class ORSGraphHopper extends GraphHopperGtfs {
     }
 
     private GraphHopperConfig config;
+    private EdgeWeightColumns edgeWeightColumns;
+    private PackedEnvironmentalFactors environmentalFactors;
+    private SearchLabelsPool bidirectionalALTWorkspaces;
+    private SharedOSMImport sharedOSMImport;
+    private SharedOSMImport.Participant sharedImportParticipant;
 
     public ORSGraphHopper(GraphProcessContext procCntx) {
         processContext = procCntx;
@@ -125,6 +131,13 @@ public class ORSGraphHopper extends GraphHopperGtfs {
 
         minNetworkSize = ghConfig.getInt("prepare.min_network_size", minNetworkSize);
         minOneWayNetworkSize = ghConfig.getInt("prepare.min_one_way_network_size", minOneWayNetworkSize);
+        int maxEdgeWeightColumns = ghConfig.getInt(ORSParameters.Flex.INIT_MAX_EDGE_WEIGHT_COLUMNS, 0);
+        if (maxEdgeWeightColumns > 0)
+            edgeWeightColumns = new EdgeWeightColumns(maxEdgeWeightColumns);
+        if (ghConfig.getBool(ORSParameters.Flex.INIT_ENVIRONMENTAL_FACTORS, false))
+            environmentalFactors = new PackedEnvironmentalFactors();
+        if (ghConfig.getBool(ORSParameters.Flex.INIT_BIDIRECTIONAL_ALT, false))
+            bidirectionalALTWorkspaces = new SearchLabelsPool(Runtime.getRuntime().availableProcessors());
         config = ghConfig;
         return ret;
     }
@@ -150,45 +163,44 @@ public class ORSGraphHopper extends GraphHopperGtfs {
         super.cleanUp();
     }
 
+    @Override
+    public void close() {
+        if (edgeWeightColumns != null)
+            edgeWeightColumns.close();
+        super.close();
+    }
+
     @Override
     protected OSMReader createOSMReader() {
-        return new ORSOSMReader(getGraphHopperStorage(), processContext);
+        return new ORSOSMReader(getGraphHopperStorage(), processContext, sharedImportParticipant);
+    }
+
+    /**
+     * Share reading the OSM file with the other profiles imported at the same time.
+     */
+    public void setSharedOSMImport(SharedOSMImport sharedOSMImport) {
+        this.sharedOSMImport = sharedOSMImport;
+    }
+
+    /**
+     * Whether {@link #importOrLoad()} is going to read the OSM file, i.e. there is one and no prepared graph to load.
+     * Only such profiles take part in the shared OSM import, so that the others do not hold back its passes.
+     */
+    private boolean isImportingOSMFile() {
+        return !Helper.isEmpty(getOSMFile()) && !new File(getGraphHopperLocation(), "properties").isFile();
     }
 
     @Override
     public GraphHopper importOrLoad() {
-        GraphHopper gh = super.importOrLoad();
-
-        if ((tmcEdges != null) && (osmId2EdgeIds != null)) {
-            java.nio.file.Path path = Paths.get(gh.getGraphHopperLocation(), "edges_ors_traffic");
-
-            if ((tmcEdges.size() == 0) || (osmId2EdgeIds.size() == 0)) {
-                // try to load TMC edges from file.
-
-                File file = path.toFile();
-                if (file.exists()) {
-                    try (FileInputStream fis = new FileInputStream(path.toString());
-                         ObjectInputStream ois = new ObjectInputStream(fis)) {
-                        tmcEdges = (HashMap<Integer, Long>) ois.readObject();
-                        osmId2EdgeIds = (HashMap<Long, ArrayList<Integer>>) ois.readObject();
-                        LOGGER.info("Serialized HashMap data is saved in trafficEdges");
-                    } catch (IOException ioe) {
-                        LOGGER.error(Arrays.toString(ioe.getStackTrace()));
-                    } catch (ClassNotFoundException c) {
-                        LOGGER.error("Class not found");
-                        LOGGER.error(Arrays.toString(c.getStackTrace()));
-                    }
-                }
-            } else {
-                // save TMC edges if needed.
-                try (FileOutputStream fos = new FileOutputStream(path.toString());
-                     ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-                    oos.writeObject(tmcEdges);
-                    oos.writeObject(osmId2EdgeIds);
-                    LOGGER.info("Serialized HashMap data is saved in trafficEdges");
-                } catch (IOException ioe) {
-                    LOGGER.error(Arrays.toString(ioe.getStackTrace()));
-                }
+        GraphHopper gh;
+        if (sharedOSMImport != null && isImportingOSMFile())
+            sharedImportParticipant = sharedOSMImport.register();
+        try {
+            gh = super.importOrLoad();
+        } finally {
+            if (sharedImportParticipant != null) {
+                sharedImportParticipant.leave();
+                sharedImportParticipant = null;
             }
         }
 
@@ -202,6 +214,7 @@ public class ORSGraphHopper extends GraphHopperGtfs {
         ORSRouter r = new ORSRouter(ghStorage, locationIndex, profilesByName, pathBuilderFactory, trMap, routerConfig, weightingFactory, chGraphs, landmarks);
         r.setEdgeFilterFactory(new ORSEdgeFilterFactory());
         r.setPathProcessorFactory(pathProcessorFactory);
+        r.setBidirectionalALTWorkspaces(bidirectionalALTWorkspaces);
 
         if (!(ghStorage instanceof ORSGraphHopperStorage))
             throw new IllegalStateException("Expected an instance of ORSGraphHopperStorage");
@@ -224,7 +237,7 @@ public class ORSGraphHopper extends GraphHopperGtfs {
 
     @Override
     protected WeightingFactory createWeightingFactory() {
-        return new ORSWeightingFactory(getGraphHopperStorage(), getEncodingManager());
+        return new ORSWeightingFactory(getGraphHopperStorage(), getEncodingManager(), edgeWeightColumns, environmentalFactors);
     }
 
     /**
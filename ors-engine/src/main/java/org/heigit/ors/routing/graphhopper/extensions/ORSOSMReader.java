@@ -16,17 +16,23 @@ package org.heigit.ors.routing.graphhopper.extensions;
 import com.carrotsearch.hppc.LongArrayList;
 import com.graphhopper.reader.ReaderNode;
 import com.graphhopper.reader.ReaderWay;
+import com.graphhopper.reader.osm.OSMInput;
 import com.graphhopper.reader.osm.OSMReader;
 import com.graphhopper.storage.GraphHopperStorage;
 import com.graphhopper.storage.IntsRef;
 import com.graphhopper.util.EdgeIteratorState;
 import com.graphhopper.util.shapes.GHPoint;
 import org.apache.log4j.Logger;
+import org.heigit.ors.routing.graphhopper.extensions.reader.NodeTagStore;
+import org.heigit.ors.routing.graphhopper.extensions.reader.SharedOSMImport;
 import org.heigit.ors.routing.graphhopper.extensions.reader.osmfeatureprocessors.OSMFeatureFilter;
 import org.heigit.ors.routing.graphhopper.extensions.reader.osmfeatureprocessors.WheelchairWayFilter;
 import org.heigit.ors.routing.graphhopper.extensions.storages.builders.*;
 import org.locationtech.jts.geom.Coordinate;
 
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.util.*;
 import java.util.Map.Entry;
@@ -39,7 +45,7 @@ public class ORSOSMReader extends OSMReader {
     private boolean processNodeTags;
     private final OSMDataReaderContext readerCntx;
 
-    private final HashMap<Long, HashMap<String, String>> nodeTags = new HashMap<>();
+    private final NodeTagStore nodeTags = new NodeTagStore();
 
     private boolean processGeom = false;
     private boolean processSimpleGeom = false;
@@ -53,12 +59,19 @@ public class ORSOSMReader extends OSMReader {
 
     private final HashSet<String> extraTagKeys;
 
+    private final SharedOSMImport.Participant sharedImport;
+
     public ORSOSMReader(GraphHopperStorage storage, GraphProcessContext procCntx) {
+        this(storage, procCntx, null);
+    }
+
+    public ORSOSMReader(GraphHopperStorage storage, GraphProcessContext procCntx, SharedOSMImport.Participant sharedImport) {
         super(storage);
 
         enforce2D();
         this.procCntx = procCntx;
         this.procCntx.initArrays();
+        this.sharedImport = sharedImport;
         this.readerCntx = new OSMDataReaderContext(this);
         getElevationFromPreprocessedData = procCntx.getElevationFromPreprocessedData();
 
@@ -103,6 +116,13 @@ public class ORSOSMReader extends OSMReader {
         }
     }
 
+    @Override
+    protected OSMInput openOsmInputFile(File osmFile) throws XMLStreamException, IOException {
+        if (sharedImport != null)
+            return sharedImport.open(osmFile);
+        return super.openOsmInputFile(osmFile);
+    }
+
     @Override
     public ReaderNode onProcessNode(ReaderNode node) {
         // On OSM, nodes are seperate entities which are used to make up ways. So basically, a node is read before a
@@ -110,18 +130,16 @@ public class ORSOSMReader extends OSMReader {
         // can be accessed when it comes to using ways
         if (processNodeTags && node.hasTags()) {
             // Check each node and store the tags that are required
-            HashMap<String, String> tagValues = new HashMap<>();
+            nodeTags.beginNode();
             Set<String> nodeKeys = node.getTags().keySet();
             for (String key : nodeKeys) {
                 if (extraTagKeys.contains(key)) {
-                    tagValues.put(key, node.getTag(key));
+                    nodeTags.addTag(key, node.getTag(key));
                 }
             }
 
-            // Now if we have tag data, we need to store it
-            if (tagValues.size() > 0) {
-                nodeTags.put(node.getId(), tagValues);
-            }
+            // Now if we have tag data, it is stored
+            nodeTags.endNode(node.getId());
         }
         return node;
     }
@@ -170,7 +188,7 @@ public class ORSOSMReader extends OSMReader {
     @Override
     public void onProcessWay(ReaderWay way) {
 
-        Map<Integer, Map<String, String>> tags = new HashMap<>();
+        Map<Integer, Map<String, String>> tags = Collections.emptyMap();
         ArrayList<Coordinate> coords = new ArrayList<>();
         ArrayList<Coordinate> allCoordinates = new ArrayList<>();
 
@@ -185,12 +203,13 @@ public class ORSOSMReader extends OSMReader {
             for (int i = 0; i < size; i++) {
                 // find the node
                 long id = osmNodeIds.get(i);
-                // replace the osm id with the internal id
-                int internalId = getNodeMap().get(id);
-                HashMap<String, String> tagsForNode = nodeTags.get(id);
+                Map<String, String> tagsForNode = nodeTags.getTags(id);
 
                 if (tagsForNode != null) {
-                    tags.put(internalId, nodeTags.get(id));
+                    if (tags.isEmpty())
+                        tags = new HashMap<>();
+                    // replace the osm id with the internal id
+                    tags.put(getNodeMap().get(id), tagsForNode);
                 }
             }
         }
@@ -408,6 +427,8 @@ public class ORSOSMReader extends OSMReader {
 
     @Override
     protected void finishedReading() {
+        if (sharedImport != null)
+            sharedImport.leave();
         super.finishedReading();
         procCntx.finish();
     }
@@ -26,10 +26,14 @@ import com.graphhopper.storage.GraphHopperStorage;
 import com.graphhopper.storage.RoutingCHGraph;
 import com.graphhopper.storage.index.LocationIndex;
 import com.graphhopper.util.PMap;
+import com.graphhopper.util.Parameters;
 import com.graphhopper.util.TranslationMap;
 import com.graphhopper.util.details.PathDetailsBuilderFactory;
+import org.heigit.ors.routing.algorithms.BidirectionalALTAlgorithmFactory;
+import org.heigit.ors.routing.algorithms.SearchLabelsPool;
 import org.heigit.ors.routing.graphhopper.extensions.core.CoreRoutingAlgorithmFactory;
 import org.heigit.ors.routing.graphhopper.extensions.core.PrepareCoreLandmarks;
+import org.heigit.ors.routing.graphhopper.extensions.util.ORSParameters;
 
 import java.util.Map;
 
@@ -39,8 +43,10 @@ public class ORSRouter extends Router {
     private final Map<String, Profile> profilesByName;
     private final RouterConfig routerConfig;
     private final WeightingFactory weightingFactory;
+    private final Map<String, LandmarkStorage> landmarks;
     private Map<String, RoutingCHGraph> coreGraphs;
     private Map<String, PrepareCoreLandmarks> coreLandmarks;
+    private SearchLabelsPool bidirectionalALTWorkspaces;
 
     public ORSRouter(GraphHopperStorage ghStorage, LocationIndex locationIndex, Map<String, Profile> profilesByName, PathDetailsBuilderFactory pathDetailsBuilderFactory, TranslationMap translationMap, RouterConfig routerConfig, WeightingFactory weightingFactory, Map<String, RoutingCHGraph> chGraphs, Map<String, LandmarkStorage> landmarks) {
         super(ghStorage, locationIndex, profilesByName, pathDetailsBuilderFactory, translationMap, routerConfig, weightingFactory, chGraphs, landmarks);
@@ -49,6 +55,7 @@ public class ORSRouter extends Router {
         this.profilesByName = profilesByName;
         this.routerConfig = routerConfig;
         this.weightingFactory = weightingFactory;
+        this.landmarks = landmarks;
     }
 
     public void setCoreGraphs(Map<String, RoutingCHGraph> coreGraphs) {
@@ -59,15 +66,39 @@ public class ORSRouter extends Router {
         this.coreLandmarks = coreLandmarks;
     }
 
+    /**
+     * Enable the array-based bidirectional ALT for fully flexible requests, reusing the labels in the given pool.
+     */
+    public void setBidirectionalALTWorkspaces(SearchLabelsPool bidirectionalALTWorkspaces) {
+        this.bidirectionalALTWorkspaces = bidirectionalALTWorkspaces;
+    }
+
     private static boolean getDisableCore(PMap hints) {
         return hints.getBool("core.disable", true);
     }
 
+    private static boolean getDisableLM(PMap hints) {
+        return hints.getBool("lm.disable", false);
+    }
+
+    private boolean useBidirectionalALT(GHRequest request) {
+        if (bidirectionalALTWorkspaces == null || !request.getHints().getBool(ORSParameters.Flex.BIDIRECTIONAL_ALT, false))
+            return false;
+        if (!Parameters.Algorithms.ASTAR_BI.equals(request.getAlgorithm()))
+            return false;
+        // the array-based labels are node-based, so requests with turn costs stay with the default solver
+        Profile profile = profilesByName.get(request.getProfile());
+        return profile != null && !profile.isTurnCosts();
+    }
+
     @Override
     protected Router.Solver createSolver(GHRequest request, EdgeFilterFactory edgeFilterFactory) {
         boolean disableCore = getDisableCore(request.getHints());
         if (!disableCore) {
             return new ORSRouter.CoreSolver(request, this.profilesByName, this.routerConfig, this.encodingManager, this.weightingFactory, this.ghStorage, this.coreGraphs, this.coreLandmarks).setEdgeFilterFactory(edgeFilterFactory);
+        } else if (useBidirectionalALT(request)) {
+            LandmarkStorage lms = getDisableLM(request.getHints()) || landmarks == null ? null : landmarks.get(request.getProfile());
+            return new ORSRouter.BidirectionalALTSolver(request, this.profilesByName, this.routerConfig, this.encodingManager, this.weightingFactory, this.ghStorage, lms, this.routerConfig.getActiveLandmarkCount(), this.bidirectionalALTWorkspaces).setEdgeFilterFactory(edgeFilterFactory);
         } else {
             return super.createSolver(request, edgeFilterFactory);
         }
@@ -151,4 +182,53 @@ public class ORSRouter extends Router {
             }
         }
     }
+
+    private static class BidirectionalALTSolver extends Router.Solver {
+        private final GraphHopperStorage ghStorage;
+        private final WeightingFactory weightingFactory;
+        private final LandmarkStorage landmarks;
+        private final int activeLandmarks;
+        private final SearchLabelsPool workspaces;
+
+        BidirectionalALTSolver(GHRequest request, Map<String, Profile> profilesByName, RouterConfig routerConfig, EncodedValueLookup lookup, WeightingFactory weightingFactory, GraphHopperStorage ghStorage, LandmarkStorage landmarks, int activeLandmarks, SearchLabelsPool workspaces) {
+            super(request, profilesByName, routerConfig, lookup);
+            this.weightingFactory = weightingFactory;
+            this.ghStorage = ghStorage;
+            this.landmarks = landmarks;
+            this.activeLandmarks = activeLandmarks;
+            this.workspaces = workspaces;
+        }
+
+        protected Weighting createWeighting() {
+            return weightingFactory.createWeighting(profile, request.getHints(), false);
+        }
+
+        protected PathCalculator createPathCalculator(QueryGraph queryGraph) {
+            RoutingAlgorithmFactory algorithmFactory = landmarks == null
+                    ? new BidirectionalALTAlgorithmFactory(workspaces)
+                    : new BidirectionalALTAlgorithmFactory(landmarks, activeLandmarks, workspaces);
+            return new CorePathCalculator(queryGraph, algorithmFactory, weighting, getAlgoOpts());
+        }
+
+        AlgorithmOptions getAlgoOpts() {
+            AlgorithmOptions algoOpts = new AlgorithmOptions().
+                    setAlgorithm(request.getAlgorithm()).
+                    setTraversalMode(TraversalMode.NODE_BASED).
+                    setMaxVisitedNodes(getMaxVisitedNodes(request.getHints())).
+                    setHints(request.getHints());
+
+            if (edgeFilterFactory != null)
+                algoOpts.setEdgeFilter(edgeFilterFactory.createEdgeFilter(request.getAdditionalHints(), weighting.getFlagEncoder(), ghStorage));
+
+            return algoOpts;
+        }
+
+        @Override
+        protected EdgeFilter getSnapFilter() {
+            EdgeFilter defaultSnapFilter = new DefaultSnapFilter(weighting, lookup.getBooleanEncodedValue(Subnetwork.key(profile.getName())));
+            if (edgeFilterFactory != null)
+                return edgeFilterFactory.createEdgeFilter(request.getAdditionalHints(), weighting.getFlagEncoder(), ghStorage, defaultSnapFilter);
+            return defaultSnapFilter;
+        }
+    }
 }
@@ -16,8 +16,10 @@ import org.heigit.ors.routing.ProfileWeighting;
 import org.heigit.ors.routing.RouteRequestParameterNames;
 import org.heigit.ors.routing.RouteSearchContext;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GraphStorageUtils;
+import org.heigit.ors.routing.graphhopper.extensions.storages.PackedEnvironmentalFactors;
 import org.heigit.ors.routing.graphhopper.extensions.storages.TrafficGraphStorage;
 import org.heigit.ors.routing.graphhopper.extensions.util.MaximumSpeedCalculator;
+import org.heigit.ors.routing.graphhopper.extensions.util.ORSParameters;
 import org.heigit.ors.routing.graphhopper.extensions.weighting.*;
 import org.heigit.ors.routing.traffic.RoutingTrafficSpeedCalculator;
 
@@ -27,6 +29,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static com.graphhopper.routing.weighting.TurnCostProvider.NO_TURN_COST_PROVIDER;
 import static com.graphhopper.routing.weighting.Weighting.INFINITE_U_TURN_COSTS;
@@ -45,10 +48,18 @@ import static com.graphhopper.util.Helper.toLowerCase;
 public class ORSWeightingFactory implements WeightingFactory {
     protected final GraphHopperStorage ghStorage;
     protected final EncodingManager encodingManager;
+    private final EdgeWeightColumns edgeWeightColumns;
+    private final PackedEnvironmentalFactors environmentalFactors;
 
     public ORSWeightingFactory(GraphHopperStorage ghStorage, EncodingManager encodingManager) {
+        this(ghStorage, encodingManager, null, null);
+    }
+
+    public ORSWeightingFactory(GraphHopperStorage ghStorage, EncodingManager encodingManager, EdgeWeightColumns edgeWeightColumns, PackedEnvironmentalFactors environmentalFactors) {
         this.ghStorage = ghStorage;
         this.encodingManager = encodingManager;
+        this.edgeWeightColumns = edgeWeightColumns;
+        this.environmentalFactors = environmentalFactors;
     }
 
     @Override
@@ -107,10 +118,32 @@ public class ORSWeightingFactory implements WeightingFactory {
 
         weighting = new LimitedAccessWeighting(weighting, requestHints);
 
+        if (edgeWeightColumns != null && requestHints.getBool(ORSParameters.Flex.EDGE_WEIGHT_COLUMN, false) && !isRequestTimeDependent(hints)) {
+            PMap columnHints = new PMap();
+            columnHints.putAll(requestHints);
+            columnHints.putObject(ORSParameters.Flex.EDGE_WEIGHT_COLUMN, false);
+            weighting = edgeWeightColumns.createWeighting(getEdgeWeightColumnKey(profile, weightingStr, hints), weighting,
+                    () -> createWeighting(profile, columnHints, disableTurnCosts), ghStorage.getBaseGraph());
+        }
+
         return weighting;
 
     }
 
+    /**
+     * Identifies the edge weights of a weighting built from the given hints: besides profile and weighting method these
+     * depend on the soft weightings, the maximum speed and the road access factors only.
+     */
+    private String getEdgeWeightColumnKey(Profile profile, String weightingStr, PMap hints) {
+        Map<String, Object> relevantHints = new TreeMap<>();
+        for (Map.Entry<String, Object> kv : hints.toMap().entrySet()) {
+            String name = kv.getKey();
+            if (name.startsWith("weighting_#") || name.startsWith("maximum_speed") || name.startsWith("road_access_") || name.equals("custom_weightings"))
+                relevantHints.put(name, kv.getValue());
+        }
+        return profile.getName() + "|" + weightingStr + "|" + relevantHints;
+    }
+
     /**
      * Potentially wraps the specified weighting into a TimeDependentAccessWeighting.
      */
@@ -208,6 +241,9 @@ public class ORSWeightingFactory implements WeightingFactory {
                 }
             }
 
+            if (environmentalFactors != null)
+                softWeightings = EnvironmentalFactorsWeighting.combine(softWeightings, encoder, environmentalFactors, ghStorage);
+
             if (!softWeightings.isEmpty()) {
                 weighting = new AdditionWeighting(softWeightings, weighting);
             }
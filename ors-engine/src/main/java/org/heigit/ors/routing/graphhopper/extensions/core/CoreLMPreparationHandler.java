@@ -43,6 +43,7 @@ public class CoreLMPreparationHandler extends LMPreparationHandler {
     private static final Logger logger = Logger.getLogger(CoreLandmarkStorage.class);
 
     private final CoreLMOptions coreLMOptions = new CoreLMOptions();
+    private int landmarkThreads = 1;
 
     public CoreLMPreparationHandler() {
         super();
@@ -61,6 +62,7 @@ public class CoreLMPreparationHandler extends LMPreparationHandler {
             List<String> tmpCoreLMSets = Arrays.asList(coreLMSets.split(";"));
             coreLMOptions.setRestrictionFilters(tmpCoreLMSets);
         }
+        landmarkThreads = Math.max(1, ghConfig.getInt(CoreLandmark.LANDMARK_THREADS, landmarkThreads));
     }
 
     @Override
@@ -84,8 +86,10 @@ public class CoreLMPreparationHandler extends LMPreparationHandler {
                         Couldn't find \
                         """ + lmConfigName + " in " + getMaximumWeights());
 
-            PrepareLandmarks tmpPrepareLM = new PrepareCoreLandmarks(ghStorage.getDirectory(), ghStorage,
-                    coreLMConfig, getLandmarks(), coreNodeIdMap).
+            PrepareCoreLandmarks prepareCoreLandmarks = new PrepareCoreLandmarks(ghStorage.getDirectory(), ghStorage,
+                    coreLMConfig, getLandmarks(), coreNodeIdMap);
+            prepareCoreLandmarks.setLandmarkThreads(landmarkThreads);
+            PrepareLandmarks tmpPrepareLM = prepareCoreLandmarks.
                     setLandmarkSuggestions(lmSuggestions).
                     setMaximumWeight(maximumWeight).
                     setLogDetails(getLogDetails());
@@ -15,6 +15,7 @@ package org.heigit.ors.routing.graphhopper.extensions.core;
 
 import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntObjectHashMap;
 import com.carrotsearch.hppc.IntObjectMap;
 import com.carrotsearch.hppc.predicates.IntObjectPredicate;
 import com.carrotsearch.hppc.procedures.IntObjectProcedure;
@@ -38,9 +39,13 @@ import org.heigit.ors.routing.graphhopper.extensions.ORSGraphHopperStorage;
 import org.heigit.ors.routing.graphhopper.extensions.edgefilters.core.LMEdgeFilterSequence;
 import org.heigit.ors.routing.graphhopper.extensions.util.GraphUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -61,6 +66,11 @@ public class CoreLandmarkStorage extends LandmarkStorage {
     private final ORSGraphHopperStorage graph;
     private final CoreLMConfig lmConfig;
     private IntHashSet subnetworkNodes;
+    private int landmarkThreads = 1;
+    private ExecutorService landmarkExecutor;
+    private final List<CompletableFuture<Void>> pendingLandmarkWeights = new ArrayList<>();
+    // last pending weight write per landmark index
+    private final IntObjectMap<CompletableFuture<Void>> landmarkWeightWrites = new IntObjectHashMap<>();
 
     public CoreLandmarkStorage(Directory dir, ORSGraphHopperStorage graph, final CoreLMConfig lmConfig, int landmarks) {
         this(dir, graph, graph.getCoreGraph(lmConfig.getSuperName()), lmConfig, landmarks);
@@ -80,6 +90,14 @@ public class CoreLandmarkStorage extends LandmarkStorage {
         this.coreNodeIdMap = coreNodeIdMap;
     }
 
+    /**
+     * Set the number of threads computing the landmark distances. The searches from and to the landmarks of a
+     * subnetwork run concurrently, each writing its own column of the landmark weights.
+     */
+    public void setLandmarkThreads(int landmarkThreads) {
+        this.landmarkThreads = Math.max(1, landmarkThreads);
+    }
+
     @Override
     public String getLandmarksFileName() {
         return "landmarks_core_";
@@ -166,30 +184,40 @@ public class CoreLandmarkStorage extends LandmarkStorage {
             logger.debug(configName() + "init landmarks for subnetworks with node count greater than " + minimumNodes + " with factor:" + factor + additionalInfo);
 
         int nodes = 0;
-        for (IntArrayList subnetworkIds : graphComponents) {
-            nodes += subnetworkIds.size();
-            if (subnetworkIds.size() < minimumNodes)
-                continue;
-            if (factor <= 0)
-                throw new IllegalStateException("factor wasn't initialized " + factor + ", subnetworks:"
-                        + graphComponents.size() + ", minimumNodes:" + minimumNodes + ", current size:" + subnetworkIds.size());
-
-            subnetworkNodes = new IntHashSet(subnetworkIds);
-            int index = subnetworkIds.size() - 1;
-            for (; index >= 0; index--) {
-                int nextStartNode = subnetworkIds.get(index);
-                if (subnetworks[getIndex(nextStartNode)] == UNSET_SUBNETWORK) {
-                    if (logDetails) {
-                        GHPoint p = createPoint(graph, nextStartNode);
-                        logger.debug(configName() + "start node: " + nextStartNode + " (" + p + ") subnetwork " + index + ", subnetwork size: " + subnetworkIds.size()
-                                + ", " + Helper.getMemInfo() + ((areaIndex == null) ? "" : " area:" + areaIndex.query(p.lat, p.lon)));
+        if (landmarkThreads > 1)
+            landmarkExecutor = Executors.newFixedThreadPool(landmarkThreads);
+        try {
+            for (IntArrayList subnetworkIds : graphComponents) {
+                nodes += subnetworkIds.size();
+                if (subnetworkIds.size() < minimumNodes)
+                    continue;
+                if (factor <= 0)
+                    throw new IllegalStateException("factor wasn't initialized " + factor + ", subnetworks:"
+                            + graphComponents.size() + ", minimumNodes:" + minimumNodes + ", current size:" + subnetworkIds.size());
+
+                subnetworkNodes = new IntHashSet(subnetworkIds);
+                int index = subnetworkIds.size() - 1;
+                for (; index >= 0; index--) {
+                    int nextStartNode = subnetworkIds.get(index);
+                    if (subnetworks[getIndex(nextStartNode)] == UNSET_SUBNETWORK) {
+                        if (logDetails) {
+                            GHPoint p = createPoint(graph, nextStartNode);
+                            logger.debug(configName() + "start node: " + nextStartNode + " (" + p + ") subnetwork " + index + ", subnetwork size: " + subnetworkIds.size()
+                                    + ", " + Helper.getMemInfo() + ((areaIndex == null) ? "" : " area:" + areaIndex.query(p.lat, p.lon)));
+                        }
+                        if (createLandmarksForSubnetwork(nextStartNode, subnetworks, accessFilter))
+                            break;
                     }
-                    if (createLandmarksForSubnetwork(nextStartNode, subnetworks, accessFilter))
-                        break;
                 }
+                if (index < 0)
+                    logger.warn("next start node not found in big enough network of size " + subnetworkIds.size() + ", first element is " + subnetworkIds.get(0) + ", " + createPoint(graph, subnetworkIds.get(0)));
+            }
+            awaitLandmarkWeights();
+        } finally {
+            if (landmarkExecutor != null) {
+                landmarkExecutor.shutdownNow();
+                landmarkExecutor = null;
             }
-            if (index < 0)
-                logger.warn("next start node not found in big enough network of size " + subnetworkIds.size() + ", first element is " + subnetworkIds.get(0) + ", " + createPoint(graph, subnetworkIds.get(0)));
         }
 
         int subnetworkCount = landmarkIDs.size();
@@ -223,6 +251,15 @@ public class CoreLandmarkStorage extends LandmarkStorage {
         setInitialized(true);
     }
 
+    private void awaitLandmarkWeights() {
+        try {
+            CompletableFuture.allOf(pendingLandmarkWeights.toArray(new CompletableFuture[0])).join();
+        } finally {
+            pendingLandmarkWeights.clear();
+            landmarkWeightWrites.clear();
+        }
+    }
+
     private String configName() {
         return "[" + lmConfig.getName() + "] ";
     }
@@ -275,6 +312,8 @@ public class CoreLandmarkStorage extends LandmarkStorage {
 
     @Override
     public LandmarkExplorer getLandmarkExplorer(EdgeFilter accessFilter, Weighting weighting, boolean reverse) {
+        if (landmarkExecutor != null)
+            return new ConcurrentLandmarkExplorer(accessFilter, reverse, this.subnetworkNodes);
         return new CoreLandmarkExplorer(core, accessFilter, reverse, this.subnetworkNodes);
     }
 
@@ -402,6 +441,83 @@ public class CoreLandmarkStorage extends LandmarkStorage {
         }
     }
 
+    /**
+     * Runs the search of a {@link CoreLandmarkExplorer} on the landmark executor. The weights are written as soon as
+     * the search and any pending weight write of the same landmark are done; the caller only waits for the search if it
+     * asks for its result, as it does to assign the subnetwork from the first landmark.
+     */
+    private class ConcurrentLandmarkExplorer implements LandmarkExplorer {
+        private final EdgeFilter accessFilter;
+        private final boolean reverse;
+        private final IntHashSet subnetworkNodes;
+        private final IntArrayList startNodes = new IntArrayList();
+        private CoreLandmarkExplorer explorer;
+        private CompletableFuture<Void> task;
+
+        public ConcurrentLandmarkExplorer(EdgeFilter accessFilter, boolean reverse, IntHashSet subnetworkNodes) {
+            this.accessFilter = accessFilter;
+            this.reverse = reverse;
+            // the field changes with the next subnetwork while the search may still be pending
+            this.subnetworkNodes = subnetworkNodes;
+        }
+
+        @Override
+        public void setStartNode(int startNode) {
+            startNodes.add(startNode);
+        }
+
+        @Override
+        public void runAlgo() {
+            task = CompletableFuture.runAsync(() -> {
+                // created by the worker so that only the searches currently running hold their maps
+                CoreLandmarkExplorer search = new CoreLandmarkExplorer(core, accessFilter, reverse, subnetworkNodes);
+                for (int i = 0; i < startNodes.size(); i++)
+                    search.setStartNode(startNodes.get(i));
+                search.runAlgo();
+                explorer = search;
+            }, landmarkExecutor);
+        }
+
+        @Override
+        public int getFromCount() {
+            return completed().getFromCount();
+        }
+
+        @Override
+        public SPTEntry getLastEntry() {
+            return completed().getLastEntry();
+        }
+
+        public boolean finished() {
+            return completed().finished();
+        }
+
+        @Override
+        public boolean setSubnetworks(byte[] subnetworks, int subnetworkId) {
+            return completed().setSubnetworks(subnetworks, subnetworkId);
+        }
+
+        @Override
+        public void initLandmarkWeights(int lmIdx, int lmNodeId, long rowSize, int offset) {
+            if (task == null)
+                throw new IllegalStateException("Landmark search was not started");
+            // The weights from and to a landmark share one 4 byte slot per node. With int based storages writing a short
+            // rewrites the whole int, so the writes of both directions must not overlap, only their searches may.
+            CompletableFuture<Void> previousWrite = landmarkWeightWrites.get(lmIdx);
+            CompletableFuture<Void> ready = previousWrite == null ? task : CompletableFuture.allOf(task, previousWrite);
+            task = ready.thenRun(() -> explorer.initLandmarkWeights(lmIdx, lmNodeId, rowSize, offset));
+            landmarkWeightWrites.put(lmIdx, task);
+            pendingLandmarkWeights.add(task);
+        }
+
+        private CoreLandmarkExplorer completed() {
+            if (task == null)
+                throw new IllegalStateException("Landmark search was not started");
+            task.join();
+            return explorer;
+        }
+    }
+
     private class CoreLandmarkSelector extends CoreLandmarkExplorer {
 
         public CoreLandmarkSelector(RoutingCHGraph g, EdgeFilter accessFilter, boolean reverse, IntHashSet subnetworkNodes) {
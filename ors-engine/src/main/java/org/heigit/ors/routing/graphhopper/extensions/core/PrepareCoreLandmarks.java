@@ -54,6 +54,10 @@ public class PrepareCoreLandmarks extends PrepareLandmarks {
         return new CoreLandmarkStorage(dir, (ORSGraphHopperStorage) graph, (CoreLMConfig) lmConfig, landmarks);
     }
 
+    public void setLandmarkThreads(int landmarkThreads) {
+        ((CoreLandmarkStorage) getLandmarkStorage()).setLandmarkThreads(landmarkThreads);
+    }
+
     public boolean matchesFilter(PMap pmap) {
         //Returns true if the landmarkset is for the avoidables.
         //Also returns true if the query has no avoidables and the set has no avoidables
@@ -24,16 +24,19 @@ import org.heigit.ors.routing.graphhopper.extensions.storages.TollwaysGraphStora
 import org.heigit.ors.routing.graphhopper.extensions.storages.WayCategoryGraphStorage;
 import org.heigit.ors.routing.pathprocessors.TollwayExtractor;
 
+import java.util.BitSet;
+
 public class AvoidFeaturesEdgeFilter implements EdgeFilter {
-    private final byte[] buffer;
     private final WayCategoryGraphStorage storage;
     private TollwayExtractor tollwayExtractor;
     private final int avoidFeatureType;
+    private BitSet avoidedEdges;
+    private BitSet tollwayEdges;
+    private volatile int coveredEdges = -1;
 
     private static final int NOT_TOLLWAYS = ~AvoidFeatureFlags.TOLLWAYS;
 
     public AvoidFeaturesEdgeFilter(int profileType, RouteSearchParameters searchParams, GraphHopperStorage graphStorage) throws Exception {
-        this.buffer = new byte[10];
 
         int profileCategory = RoutingProfileCategory.getFromRouteProfile(profileType);
         this.avoidFeatureType = searchParams.getAvoidFeatureTypes() & AvoidFeatureFlags.getProfileFlags(profileCategory);
@@ -50,7 +53,6 @@ public class AvoidFeaturesEdgeFilter implements EdgeFilter {
     public AvoidFeaturesEdgeFilter(int avoidFeatureType, GraphHopperStorage graphStorage) throws Exception {
         if (avoidFeatureType == AvoidFeatureFlags.TOLLWAYS)
             throw new IllegalArgumentException("Invalid constructor for use with feature type: " + AvoidFeatureFlags.TOLLWAYS);
-        this.buffer = new byte[10];
 
         this.avoidFeatureType = avoidFeatureType;
 
@@ -59,11 +61,33 @@ public class AvoidFeaturesEdgeFilter implements EdgeFilter {
             throw new IllegalStateException("ExtendedGraphStorage for avoid features was not found.");
     }
 
+    /**
+     * Resolve the precomputed edge bit sets on first use, as filters may be created before the graph is built.
+     */
+    private void initBitSets() {
+        if ((avoidFeatureType & NOT_TOLLWAYS) != 0)
+            avoidedEdges = storage.getEdgesWithWayCategories(avoidFeatureType & NOT_TOLLWAYS);
+        if ((avoidFeatureType & AvoidFeatureFlags.TOLLWAYS) != 0)
+            tollwayEdges = storage.getEdgesWithWayCategories(AvoidFeatureFlags.TOLLWAYS);
+        coveredEdges = storage.getCoveredEdges();
+    }
+
     @Override
     public final boolean accept(EdgeIteratorState iter) {
         if (avoidFeatureType != 0) {
+            if (coveredEdges < 0)
+                initBitSets();
+
             int edge = iter.getEdge();
-            int edgeFeatType = storage.getEdgeValue(edge, buffer);
+            if (edge < coveredEdges) {
+                if (avoidedEdges != null && avoidedEdges.get(edge))
+                    return false;
+                if (tollwayEdges != null && tollwayEdges.get(edge) && tollwayExtractor != null)
+                    return tollwayExtractor.getValue(edge) == 0;
+                return true;
+            }
+
+            int edgeFeatType = storage.getEdgeValue(edge);
 
             if (edgeFeatType != 0) {
                 int avoidEdgeFeatureType = avoidFeatureType & edgeFeatType;
@@ -60,7 +60,6 @@ public class HeavyVehicleEdgeFilter implements DestinationDependentEdgeFilter {
     private final int restCount;
     private int mode = MODE_CLOSEST_EDGE;
     private List<Integer> destinationEdges;
-    private final byte[] buffer;
 
     private static final int MODE_DESTINATION_EDGES = -1;
     private static final int MODE_CLOSEST_EDGE = -2;
@@ -104,7 +103,6 @@ public class HeavyVehicleEdgeFilter implements DestinationDependentEdgeFilter {
         this.restCount = indexValues.length;
 
         this.vehicleType = vehicleType;
-        this.buffer = new byte[2];
 
         this.gsHeavyVehicles = hgvStorage;
     }
@@ -129,8 +127,8 @@ public class HeavyVehicleEdgeFilter implements DestinationDependentEdgeFilter {
                 }
 
                 if (!destinationEdges.contains(EdgeIteratorStateHelper.getOriginalEdge(edge))) {
-                    int vt = gsHeavyVehicles.getEdgeVehicleType(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer);
-                    boolean dstFlag = buffer[1] != 0; // ((buffer[1] >> (vehicleType >> 1)) & 1) == 1
+                    int vt = gsHeavyVehicles.getEdgeVehicleType(EdgeIteratorStateHelper.getOriginalEdge(edge));
+                    boolean dstFlag = gsHeavyVehicles.getEdgeVehicleDestination(EdgeIteratorStateHelper.getOriginalEdge(edge)) != 0; // ((destination >> (vehicleType >> 1)) & 1) == 1
 
                     if (((vt & vehicleType) == vehicleType) && (dstFlag))
                         destinationEdges.add(EdgeIteratorStateHelper.getOriginalEdge(edge));
@@ -147,15 +145,16 @@ public class HeavyVehicleEdgeFilter implements DestinationDependentEdgeFilter {
     public boolean accept(EdgeIteratorState iter) {
         int edgeId = EdgeIteratorStateHelper.getOriginalEdge(iter);
 
-        int vt = gsHeavyVehicles.getEdgeVehicleType(edgeId, buffer);
-        boolean dstFlag = buffer[1] != 0; // ((buffer[1] >> (vehicleType >> 1)) & 1) == 1
+        int vt = gsHeavyVehicles.getEdgeVehicleType(edgeId);
+        int destination = gsHeavyVehicles.getEdgeVehicleDestination(edgeId);
+        boolean dstFlag = destination != 0; // ((destination >> (vehicleType >> 1)) & 1) == 1
 
         // if edge has some restrictions
         if (vt != HeavyVehicleAttributes.UNKNOWN) {
             if (mode == MODE_CLOSEST_EDGE) {
                 // current vehicle type is not forbidden
                 boolean edgeRestricted = ((vt & vehicleType) == vehicleType);
-                if ((edgeRestricted || dstFlag) && buffer[1] != vehicleType)
+                if ((edgeRestricted || dstFlag) && destination != vehicleType)
                     return false;
             } else if (mode == MODE_DESTINATION_EDGES) {
                 // Here we are looking for all edges that have destination
@@ -24,7 +24,6 @@ import org.heigit.ors.routing.parameters.WheelchairParameters;
 
 public class WheelchairEdgeFilter implements EdgeFilter {
     private static final Logger LOGGER = Logger.getLogger(WheelchairEdgeFilter.class.getName());
-    private final byte[] buffer;
     private final WheelchairAttributesGraphStorage storage;
     private final WheelchairAttributes attributes;
     private WheelchairParameters params;
@@ -38,12 +37,11 @@ public class WheelchairEdgeFilter implements EdgeFilter {
             this.params = new WheelchairParameters();
         }
         attributes = new WheelchairAttributes();
-        buffer = new byte[WheelchairAttributesGraphStorage.BYTE_COUNT];
     }
 
     @Override
     public boolean accept(EdgeIteratorState iter) {
-        storage.getEdgeValues(iter.getEdge(), attributes, buffer);
+        storage.getEdgeValues(iter.getEdge(), attributes);
         LOGGER.debug("edge: " + iter + (attributes.hasValues() ? " suitable: " + attributes.isSuitable() + " surfaceQualityKnown: " + attributes.isSurfaceQualityKnown() : " no wheelchair attributes"));
         return !attributes.hasValues() || !(
                 checkSurfaceType()
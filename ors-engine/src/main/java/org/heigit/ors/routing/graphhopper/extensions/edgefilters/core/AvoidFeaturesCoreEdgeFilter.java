@@ -21,14 +21,16 @@ import org.heigit.ors.routing.AvoidFeatureFlags;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GraphStorageUtils;
 import org.heigit.ors.routing.graphhopper.extensions.storages.WayCategoryGraphStorage;
 
+import java.util.BitSet;
+
 public class AvoidFeaturesCoreEdgeFilter implements EdgeFilter {
-    private final byte[] buffer;
     private final WayCategoryGraphStorage storage;
     private int avoidFeatures;
+    private BitSet avoidedEdges;
+    private volatile int coveredEdges = -1;
     private static final String TYPE = "avoid_features";
 
     public AvoidFeaturesCoreEdgeFilter(GraphHopperStorage graphStorage, int profileCategory) {
-        buffer = new byte[10];
         avoidFeatures = AvoidFeatureFlags.getProfileFlags(profileCategory);
         storage = GraphStorageUtils.getGraphExtension(graphStorage, WayCategoryGraphStorage.class);
     }
@@ -42,7 +44,15 @@ public class AvoidFeaturesCoreEdgeFilter implements EdgeFilter {
     public final boolean accept(EdgeIteratorState iter) {
         if (iter instanceof RoutingCHEdgeIterator iterator && iterator.isShortcut())
             return true;
-        return (storage.getEdgeValue(iter.getEdge(), buffer) & avoidFeatures) == 0;
+        if (coveredEdges < 0) {
+            // resolved on first use, as the filter may be created before the graph is built
+            avoidedEdges = storage.getEdgesWithWayCategories(avoidFeatures);
+            coveredEdges = storage.getCoveredEdges();
+        }
+        int edge = iter.getEdge();
+        if (edge < coveredEdges)
+            return !avoidedEdges.get(edge);
+        return (storage.getEdgeValue(edge) & avoidFeatures) == 0;
     }
 
     public String getType() {
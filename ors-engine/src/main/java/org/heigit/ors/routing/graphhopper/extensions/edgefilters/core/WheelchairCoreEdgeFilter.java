@@ -21,12 +21,10 @@ import org.heigit.ors.routing.graphhopper.extensions.storages.GraphStorageUtils;
 import org.heigit.ors.routing.graphhopper.extensions.storages.WheelchairAttributesGraphStorage;
 
 public final class WheelchairCoreEdgeFilter implements EdgeFilter {
-    private final byte[] buffer;
     private final WheelchairAttributesGraphStorage storage;
     private final WheelchairAttributes attributes;
 
     public WheelchairCoreEdgeFilter(GraphHopperStorage graphStorage) {
-        buffer = new byte[WheelchairAttributesGraphStorage.BYTE_COUNT];
         attributes = new WheelchairAttributes();
         storage = GraphStorageUtils.getGraphExtension(graphStorage, WheelchairAttributesGraphStorage.class);
     }
@@ -34,7 +32,7 @@ public final class WheelchairCoreEdgeFilter implements EdgeFilter {
     @Override
     public boolean accept(EdgeIteratorState iter) {
 
-        storage.getEdgeValues(iter.getEdge(), attributes, buffer);
+        storage.getEdgeValues(iter.getEdge(), attributes);
 
         return !attributes.hasValues();
 
@@ -0,0 +1,97 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.reader;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact store for the tags of OSM nodes which are needed while processing the ways.
+ * <p>
+ * Keys and values are dictionary encoded, as only a few distinct keys and values are stored for a large number of
+ * nodes. The tags of all nodes are kept in one flat int array: the number of tags of a node followed by the ids of
+ * their keys and values. A primitive map holds the position of every node in that array.
+ */
+public class NodeTagStore {
+    private final LongIntHashMap positions = new LongIntHashMap();
+    private final IntArrayList tags = new IntArrayList();
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private int nodeStart = -1;
+
+    /**
+     * Start collecting the tags of a node. The tags are added with {@link #addTag(String, String)} and stored by
+     * {@link #endNode(long)}.
+     */
+    public void beginNode() {
+        nodeStart = tags.size();
+        tags.add(0);
+    }
+
+    public void addTag(String key, String value) {
+        tags.add(encode(key), encode(value));
+        tags.set(nodeStart, tags.get(nodeStart) + 1);
+    }
+
+    /**
+     * Store the tags added since {@link #beginNode()} for the node. Nothing is stored if no tags were added.
+     */
+    public void endNode(long nodeId) {
+        if (tags.get(nodeStart) == 0)
+            tags.removeRange(nodeStart, tags.size());
+        else
+            positions.put(nodeId, nodeStart);
+        nodeStart = -1;
+    }
+
+    public boolean hasTags(long nodeId) {
+        return positions.containsKey(nodeId);
+    }
+
+    /**
+     * @return the stored tags of the node, or null if none are stored
+     */
+    public Map<String, String> getTags(long nodeId) {
+        int index = positions.indexOf(nodeId);
+        if (!positions.indexExists(index))
+            return null;
+        int position = positions.indexGet(index);
+        int count = tags.get(position);
+        Map<String, String> nodeTags = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int entry = position + 1 + i * 2;
+            nodeTags.put(strings.get(tags.get(entry)), strings.get(tags.get(entry + 1)));
+        }
+        return nodeTags;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    private int encode(String value) {
+        Integer id = dictionary.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            dictionary.put(value, id);
+        }
+        return id;
+    }
+}
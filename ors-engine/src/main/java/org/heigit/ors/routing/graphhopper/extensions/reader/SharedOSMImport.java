@@ -0,0 +1,253 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.reader;
+
+import com.graphhopper.reader.ReaderElement;
+import com.graphhopper.reader.ReaderNode;
+import com.graphhopper.reader.ReaderRelation;
+import com.graphhopper.reader.ReaderWay;
+import com.graphhopper.reader.osm.OSMInput;
+import com.graphhopper.reader.osm.OSMInputFile;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the OSM file once for all profiles whose graphs are imported at the same time and fans the elements out to
+ * their readers.
+ * <p>
+ * Every pass of a reader over the file (the preprocessing of the ways and the actual import) is shared with the
+ * readers of the other participants which open the same pass. The pass starts as soon as all registered participants
+ * have joined it, or when the join timeout has elapsed; a reader arriving later reads the file on its own. Each reader
+ * receives its own copy of every element, as readers modify the tags of the ways they process.
+ */
+public class SharedOSMImport {
+    private static final Logger LOGGER = Logger.getLogger(SharedOSMImport.class.getName());
+    public static final int DEFAULT_WORKER_THREADS = 2;
+    public static final long DEFAULT_JOIN_TIMEOUT = 30_000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final ReaderElement END = new ReaderWay(-1);
+
+    private final int workerThreads;
+    private final long joinTimeout;
+    private final int queueCapacity;
+    private final Map<String, Pass> pendingPasses = new HashMap<>();
+    private int participants;
+
+    public SharedOSMImport() {
+        this(DEFAULT_WORKER_THREADS, DEFAULT_JOIN_TIMEOUT, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param workerThreads number of threads decoding the OSM file
+     * @param joinTimeout   time in milliseconds a pass waits for the other participants to join
+     * @param queueCapacity number of elements buffered for each reader before the pass waits for it
+     */
+    public SharedOSMImport(int workerThreads, long joinTimeout, int queueCapacity) {
+        if (workerThreads < 1 || joinTimeout < 0 || queueCapacity < 1)
+            throw new IllegalArgumentException("Invalid shared OSM import settings: worker_threads=%d, join_timeout=%d, queue_capacity=%d".formatted(workerThreads, joinTimeout, queueCapacity));
+        this.workerThreads = workerThreads;
+        this.joinTimeout = joinTimeout;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Register a profile which is about to be imported or loaded. Passes are held back until the participant has
+     * either joined them or left.
+     */
+    public synchronized Participant register() {
+        participants++;
+        return new Participant();
+    }
+
+    private synchronized OSMInput open(File osmFile, int passIndex) {
+        String key = osmFile.getAbsolutePath() + "#" + passIndex;
+        Pass pass = pendingPasses.get(key);
+        if (pass == null) {
+            pass = new Pass(key, osmFile);
+            pendingPasses.put(key, pass);
+            Thread thread = new Thread(pass::run, "ORS-osm-pass-" + passIndex);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        SharedInput input = new SharedInput(pass, queueCapacity);
+        pass.inputs.add(input);
+        notifyAll();
+        return input;
+    }
+
+    public class Participant {
+        private int passes = 0;
+        private boolean left = false;
+
+        /**
+         * Open the next pass over the given OSM file.
+         */
+        public OSMInput open(File osmFile) {
+            return SharedOSMImport.this.open(osmFile, passes++);
+        }
+
+        /**
+         * Stop taking part in shared passes, e.g. because reading the file has finished or the graph was loaded from
+         * disk. Calling this more than once has no effect.
+         */
+        public void leave() {
+            synchronized (SharedOSMImport.this) {
+                if (!left) {
+                    left = true;
+                    participants--;
+                    SharedOSMImport.this.notifyAll();
+                }
+            }
+        }
+    }
+
+    private class Pass {
+        private final String key;
+        private final File osmFile;
+        private final List<SharedInput> inputs = new ArrayList<>();
+        private volatile Exception failure;
+
+        Pass(String key, File osmFile) {
+            this.key = key;
+            this.osmFile = osmFile;
+        }
+
+        void run() {
+            List<SharedInput> readers;
+            synchronized (SharedOSMImport.this) {
+                long deadline = System.currentTimeMillis() + joinTimeout;
+                long remaining = joinTimeout;
+                try {
+                    while (inputs.size() < participants && remaining > 0) {
+                        SharedOSMImport.this.wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                pendingPasses.remove(key);
+                readers = new ArrayList<>(inputs);
+            }
+            if (LOGGER.isInfoEnabled())
+                LOGGER.info("Reading '%s' once for %d profile(s).".formatted(osmFile, readers.size()));
+
+            try (OSMInput in = new OSMInputFile(osmFile).setWorkerThreads(workerThreads).open()) {
+                ReaderElement item;
+                while ((item = in.getNext()) != null) {
+                    // hand out the copies first, the first reader may start modifying the original right away
+                    for (int i = 1; i < readers.size(); i++)
+                        readers.get(i).put(copy(item));
+                    readers.get(0).put(item);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Reading '%s' failed: %s".formatted(osmFile, e.getMessage()));
+                failure = e;
+            } finally {
+                for (SharedInput reader : readers)
+                    reader.put(END);
+            }
+        }
+    }
+
+    private static class SharedInput implements OSMInput {
+        private final Pass pass;
+        private final BlockingQueue<ReaderElement> queue;
+        private volatile boolean closed = false;
+        private boolean finished = false;
+
+        SharedInput(Pass pass, int queueCapacity) {
+            this.pass = pass;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        void put(ReaderElement item) {
+            try {
+                while (!closed) {
+                    if (queue.offer(item, 100, TimeUnit.MILLISECONDS))
+                        return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                closed = true;
+            }
+        }
+
+        @Override
+        public ReaderElement getNext() {
+            if (finished)
+                return null;
+            ReaderElement item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for OSM elements", e);
+            }
+            if (item == END) {
+                finished = true;
+                if (pass.failure != null)
+                    throw new IllegalStateException("Reading '" + pass.osmFile + "' failed", pass.failure);
+                return null;
+            }
+            return item;
+        }
+
+        @Override
+        public int getUnprocessedElements() {
+            return queue.size();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            queue.clear();
+        }
+    }
+
+    static ReaderElement copy(ReaderElement item) {
+        ReaderElement copy;
+        switch (item.getType()) {
+            case ReaderElement.NODE -> {
+                ReaderNode node = (ReaderNode) item;
+                copy = new ReaderNode(node.getId(), node.getLat(), node.getLon());
+            }
+            case ReaderElement.WAY -> {
+                ReaderWay way = new ReaderWay(item.getId());
+                way.getNodes().addAll(((ReaderWay) item).getNodes());
+                copy = way;
+            }
+            case ReaderElement.RELATION -> {
+                ReaderRelation relation = new ReaderRelation(item.getId());
+                // members are never modified by the readers and can be shared
+                for (ReaderRelation.Member member : ((ReaderRelation) item).getMembers())
+                    relation.add(member);
+                copy = relation;
+            }
+            default -> {
+                return item;
+            }
+        }
+        for (Map.Entry<String, Object> tag : item.getTags().entrySet())
+            copy.setTag(tag.getKey(), tag.getValue());
+        return copy;
+    }
+}
@@ -18,7 +18,7 @@ import com.graphhopper.storage.*;
 /**
  * Graph storage class for the Border Restriction routing
  */
-public class BordersGraphStorage implements GraphExtension {
+public class BordersGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     public enum Property {TYPE, START, END}
 
     /* pointer for no entry */
@@ -81,18 +81,22 @@ public class BordersGraphStorage implements GraphExtension {
      * @return The value of the requested property
      */
     public short getEdgeValue(int edgeId, Property prop) {
-        long edgePointer = (long) edgeId * edgeEntryBytes;
-        short border = orsEdges.getShort(edgePointer + EF_BORDER);
-        short start = orsEdges.getShort(edgePointer + EF_START);
-        short end = orsEdges.getShort(edgePointer + EF_END);
-
         return switch (prop) {
-            case TYPE -> border;
-            case START -> start;
-            case END -> end;
+            case TYPE -> getShort(edgeId, EF_BORDER);
+            case START -> getShort(edgeId, EF_START);
+            case END -> getShort(edgeId, EF_END);
             default -> 0;
         };
+    }
 
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
+    }
+
+    @Override
+    public short getShort(int edgeId, int field) {
+        return orsEdges.getShort((long) edgeId * edgeEntryBytes + field);
     }
 
     /**
@@ -20,7 +20,7 @@
 
     import java.util.Arrays;
 
-    public class CsvGraphStorage implements GraphExtension {
+    public class CsvGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
         /* pointer for no entry */
         private final int efCsvIndex; // TODO: what is this?
 
@@ -54,12 +54,16 @@
         }
 
         public int getEdgeValue(int edgeId, int columnIndex, byte[] buffer) {
-            long edgePointer = (long) edgeId * edgeEntryBytes;
-            // TODO: maybe we don't need to get the whole buffer, but just the
-            //       single element and can use a 1-element buffer at call-site
-            orsEdges.getBytes(edgePointer + efCsvIndex, buffer, numEntries);
+            return getEdgeValue(edgeId, columnIndex);
+        }
 
-            return buffer[columnIndex];
+        public int getEdgeValue(int edgeId, int columnIndex) {
+            return getByte(edgeId, efCsvIndex + columnIndex);
+        }
+
+        @Override
+        public byte getByte(int edgeId, int field) {
+            return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
         }
 
         public int columnIndex(String columnName) {
@@ -18,7 +18,7 @@ import com.graphhopper.storage.Directory;
 import com.graphhopper.storage.Graph;
 import com.graphhopper.storage.GraphExtension;
 
-public class GreenIndexGraphStorage implements GraphExtension {
+public class GreenIndexGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     /* pointer for no entry */
     protected static final int NO_ENTRY = -1;
     private static final int EF_GREENINDEX = 0;
@@ -51,11 +51,16 @@ public class GreenIndexGraphStorage implements GraphExtension {
     }
 
     public int getEdgeValue(int edgeId, byte[] buffer) {
-        // TODO Future improvement: this needs further checking when implementing the Weighting classes/functions
-        long edgePointer = (long) edgeId * edgeEntryBytes;
-        orsEdges.getBytes(edgePointer + EF_GREENINDEX, buffer, 1);
+        return getEdgeValue(edgeId);
+    }
 
-        return buffer[0];
+    public int getEdgeValue(int edgeId) {
+        return getByte(edgeId, EF_GREENINDEX);
+    }
+
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     /**
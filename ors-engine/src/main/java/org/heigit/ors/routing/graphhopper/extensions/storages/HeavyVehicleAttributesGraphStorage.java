@@ -20,7 +20,7 @@ import com.graphhopper.storage.GraphExtension;
 import com.graphhopper.util.BitUtil;
 import org.heigit.ors.routing.graphhopper.extensions.VehicleDimensionRestrictions;
 
-public class HeavyVehicleAttributesGraphStorage implements GraphExtension {
+public class HeavyVehicleAttributesGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     private static final int EF_RESTRICTION_BYTES = 2;
     private static final String MSG_EF_RESTRICTION_IS_NOT_SUPPORTED = "EF_RESTRICTION is not supported.";
 
@@ -117,58 +117,49 @@ public class HeavyVehicleAttributesGraphStorage implements GraphExtension {
     }
 
     public double getEdgeRestrictionValue(int edgeId, int valueIndex) {
-        long edgeBase = (long) edgeId * edgeEntryBytes;
-
         if (efRestrictions == -1)
             throw new IllegalStateException(MSG_EF_RESTRICTION_IS_NOT_SUPPORTED);
 
-        return getShort(edgeBase + efRestrictions + (long) valueIndex * EF_RESTRICTION_BYTES) / FACTOR;
+        return getShort(edgeId, efRestrictions + valueIndex * EF_RESTRICTION_BYTES) / FACTOR;
     }
 
     public boolean getEdgeRestrictionValues(int edgeId, double[] retValues) {
-        long edgeBase = (long) edgeId * edgeEntryBytes;
-
         if (efRestrictions == -1)
             throw new IllegalStateException(MSG_EF_RESTRICTION_IS_NOT_SUPPORTED);
 
         for (int i = 0; i < VehicleDimensionRestrictions.COUNT; i++)
-            retValues[i] = getShort(edgeBase + efRestrictions + i * EF_RESTRICTION_BYTES) / FACTOR;
+            retValues[i] = getShort(edgeId, efRestrictions + i * EF_RESTRICTION_BYTES) / FACTOR;
 
         return true;
     }
 
     public int getEdgeVehicleType(int edgeId, byte[] buffer) {
-        long edgeBase = (long) edgeId * edgeEntryBytes;
-        orsEdges.getBytes(edgeBase + efVehicleType, buffer, 2);
+        return getEdgeVehicleType(edgeId);
+    }
 
-        int result = buffer[0];
-        if (result < 0)
-            result = (byte) (result & 0xff);
+    public int getEdgeVehicleType(int edgeId) {
+        return getByte(edgeId, efVehicleType);
+    }
 
-        return result;
+    public int getEdgeVehicleDestination(int edgeId) {
+        return getByte(edgeId, efVehicleType + 1);
     }
 
     public boolean hasEdgeRestriction(int edgeId) {
-        long edgeBase = (long) edgeId * edgeEntryBytes;
-
-        byte[] buffer = new byte[2];
-        orsEdges.getBytes(edgeBase + efVehicleType, buffer, 2);
-
-        if (buffer[0] != 0 || buffer[1] != 0)
+        if (getByte(edgeId, efVehicleType) != 0 || getByte(edgeId, efVehicleType + 1) != 0)
             return true;
 
         if (efRestrictions > 0)
             for (int i = 0; i < VehicleDimensionRestrictions.COUNT; i++)
-                if (getShort(edgeBase + efRestrictions + i * EF_RESTRICTION_BYTES) != 0)
+                if (getShort(edgeId, efRestrictions + i * EF_RESTRICTION_BYTES) != 0)
                     return true;
 
         return false;
     }
 
-    private short getShort(long bytePos) {
-        byte[] buffer = new byte[2];
-        orsEdges.getBytes(bytePos, buffer, 2);
-        return BitUtil.LITTLE.toShort(buffer);
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     @Override
@@ -20,7 +20,7 @@ import com.graphhopper.storage.GraphExtension;
 
 import java.util.Map;
 
-public class HillIndexGraphStorage implements GraphExtension {
+public class HillIndexGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     private final int efHillIndex;
 
     private DataAccess orsEdges;
@@ -110,26 +110,27 @@ public class HillIndexGraphStorage implements GraphExtension {
     }
 
     public int getEdgeValue(int edgeId, boolean reverse, byte[] buffer) {
-        long edgePointer = (long) edgeId * edgeEntryBytes;
+        return getEdgeValue(edgeId, reverse);
+    }
 
+    public int getEdgeValue(int edgeId, boolean reverse) {
         if (maxHillIndex <= 15) {
-            orsEdges.getBytes(edgePointer + efHillIndex, buffer, 1);
-
-            int value = buffer[0];
-            if (value < 0)
-                value = 256 + value;
+            int value = getByte(edgeId, efHillIndex) & 0xFF;
 
             if (reverse)
                 return (value >> 4) & 0xF;
             else
                 return value & 0xF;
         } else {
-            orsEdges.getBytes(edgePointer + efHillIndex, buffer, 2);
-
-            return reverse ? buffer[1] : buffer[0];
+            return getByte(edgeId, efHillIndex + (reverse ? 1 : 0));
         }
     }
 
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
+    }
+
     @Override
     public boolean isClosed() {
         return false;
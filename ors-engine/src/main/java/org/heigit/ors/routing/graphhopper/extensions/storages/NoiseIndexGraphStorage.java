@@ -21,7 +21,7 @@ import com.graphhopper.storage.GraphExtension;
 /**
  * Created by ZWang on 13/06/2017.
  */
-public class NoiseIndexGraphStorage implements GraphExtension {
+public class NoiseIndexGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     /* pointer for no entry */
     private final int efNoiseindex;
 
@@ -55,11 +55,16 @@ public class NoiseIndexGraphStorage implements GraphExtension {
     }
 
     public int getEdgeValue(int edgeId, byte[] buffer) {
+        return getEdgeValue(edgeId);
+    }
 
-        long edgePointer = (long) edgeId * edgeEntryBytes;
-        orsEdges.getBytes(edgePointer + efNoiseindex, buffer, 1);
+    public int getEdgeValue(int edgeId) {
+        return getByte(edgeId, efNoiseindex);
+    }
 
-        return buffer[0];
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     /**
@@ -3,7 +3,7 @@ package org.heigit.ors.routing.graphhopper.extensions.storages;
 import com.graphhopper.storage.*;
 import org.heigit.ors.routing.graphhopper.extensions.util.EncodeUtils;
 
-public class OsmIdGraphStorage implements GraphExtension {
+public class OsmIdGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     /* pointer for no entry */
     protected final int efOsmid;
 
@@ -103,11 +103,16 @@ public class OsmIdGraphStorage implements GraphExtension {
      * @return The OSM ID that was stored for the edge (normally the OSM ID of the way the edge was created from)
      */
     public long getEdgeValue(int edgeId) {
-        byte[] buffer = new byte[4];
-        long edgePointer = (long) edgeId * edgeEntryBytes;
-        orsEdges.getBytes(edgePointer + efOsmid, buffer, 4);
+        // the lower four bytes of the id are stored in big endian order
+        long value = 0;
+        for (int i = 0; i < 4; i++)
+            value = (value << 8) | (getByte(edgeId, efOsmid + i) & 0xFF);
+        return value;
+    }
 
-        return EncodeUtils.byteArrayToLong(buffer);
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     @Override
@@ -0,0 +1,80 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.storages;
+
+import com.graphhopper.storage.GraphHopperStorage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Packs the green, noise, shadow and heat stress levels of an edge into a single int, so that weightings combining
+ * several of these factors need only one read per edge instead of one lookup in each of the extended storages.
+ * <p>
+ * Every level occupies one byte and is decoded to a value in [0, 255]. Green and noise levels are clamped to their
+ * ranges when packing, so that they always index the level factors of their weightings. Shadow and heat stress values
+ * are kept as stored bytes; their weightings provide factors for all 256 byte values. As the heat stress column of the
+ * CSV storage is chosen per request, one packed column is kept per CSV column name; the columns are built on first use.
+ */
+public class PackedEnvironmentalFactors {
+    public static final int GREEN_SHIFT = 0;
+    public static final int NOISE_SHIFT = 8;
+    public static final int SHADOW_SHIFT = 16;
+    public static final int HEAT_STRESS_SHIFT = 24;
+    public static final int GREEN_LEVELS = 64;
+    public static final int NOISE_LEVELS = 4;
+    public static final int BYTE_LEVELS = 256;
+    private static final String NO_CSV_COLUMN = "";
+
+    private final Map<String, int[]> packedLevels = new ConcurrentHashMap<>();
+
+    /**
+     * @param csvColumn name of the CSV column holding the heat stress levels, or null if they are not needed
+     * @return packed levels indexed by edge id
+     */
+    public int[] getPackedLevels(GraphHopperStorage graphStorage, String csvColumn) {
+        return packedLevels.computeIfAbsent(csvColumn == null ? NO_CSV_COLUMN : csvColumn, column -> pack(graphStorage, column));
+    }
+
+    public static int decode(int packed, int shift) {
+        return (packed >>> shift) & 0xFF;
+    }
+
+    static int[] pack(GraphHopperStorage graphStorage, String csvColumn) {
+        GreenIndexGraphStorage green = GraphStorageUtils.getGraphExtension(graphStorage, GreenIndexGraphStorage.class);
+        NoiseIndexGraphStorage noise = GraphStorageUtils.getGraphExtension(graphStorage, NoiseIndexGraphStorage.class);
+        ShadowIndexGraphStorage shadow = GraphStorageUtils.getGraphExtension(graphStorage, ShadowIndexGraphStorage.class);
+        CsvGraphStorage csv = GraphStorageUtils.getGraphExtension(graphStorage, CsvGraphStorage.class);
+        int csvColumnIndex = csv != null && !NO_CSV_COLUMN.equals(csvColumn) ? csv.columnIndex(csvColumn) : -1;
+
+        int[] packed = new int[graphStorage.getEdges()];
+        for (int edge = 0; edge < packed.length; edge++) {
+            int value = 0;
+            if (green != null)
+                value |= clamp(green.getEdgeValue(edge), GREEN_LEVELS) << GREEN_SHIFT;
+            if (noise != null)
+                value |= clamp(noise.getEdgeValue(edge), NOISE_LEVELS) << NOISE_SHIFT;
+            if (shadow != null)
+                value |= (shadow.getEdgeValue(edge) & 0xFF) << SHADOW_SHIFT;
+            if (csvColumnIndex >= 0)
+                value |= (csv.getEdgeValue(edge, csvColumnIndex) & 0xFF) << HEAT_STRESS_SHIFT;
+            packed[edge] = value;
+        }
+        return packed;
+    }
+
+    private static int clamp(int level, int levels) {
+        return Math.max(0, Math.min(levels - 1, level));
+    }
+}
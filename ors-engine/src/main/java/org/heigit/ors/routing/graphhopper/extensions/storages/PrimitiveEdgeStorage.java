@@ -0,0 +1,34 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.storages;
+
+/**
+ * Direct read access to the fixed size per-edge entries of an extended storage. A field is addressed by its byte
+ * offset within the entry of an edge.
+ * <p>
+ * Values are read straight from the underlying DataAccess without copying through a scratch buffer, so the accessors
+ * are safe to use from several threads at once. Multibyte values are composed from single bytes in little endian
+ * order, which also works for fields that are not aligned to their size or cross a segment boundary.
+ */
+public interface PrimitiveEdgeStorage {
+    byte getByte(int edgeId, int field);
+
+    default short getShort(int edgeId, int field) {
+        return (short) ((getByte(edgeId, field) & 0xFF) | (getByte(edgeId, field + 1) & 0xFF) << 8);
+    }
+
+    default int getInt(int edgeId, int field) {
+        return (getShort(edgeId, field) & 0xFFFF) | (getShort(edgeId, field + 2) & 0xFFFF) << 16;
+    }
+}
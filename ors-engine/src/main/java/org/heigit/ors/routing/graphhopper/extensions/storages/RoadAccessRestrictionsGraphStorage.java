@@ -24,7 +24,7 @@ import org.heigit.ors.routing.graphhopper.extensions.AccessRestrictionType;
 /**
  * The graph storage for road access restrictions.
  */
-public class RoadAccessRestrictionsGraphStorage implements GraphExtension, WarningGraphExtension {
+public class RoadAccessRestrictionsGraphStorage implements GraphExtension, WarningGraphExtension, PrimitiveEdgeStorage {
     private static final int NO_ENTRY = -1;
     private final int efRestrictions;
 
@@ -68,9 +68,16 @@ public class RoadAccessRestrictionsGraphStorage implements GraphExtension, Warni
     }
 
     public int getEdgeValue(int edgeId, byte[] buffer) {
-        long edgeBase = (long) edgeId * edgeEntryBytes;
-        edges.getBytes(edgeBase + efRestrictions, buffer, 1);
-        return buffer[0] & 0xFF;
+        return getEdgeValue(edgeId);
+    }
+
+    public int getEdgeValue(int edgeId) {
+        return getByte(edgeId, efRestrictions) & 0xFF;
+    }
+
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return edges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     protected final int nextBlockEntryIndex(int size) {
@@ -21,7 +21,7 @@ import com.graphhopper.storage.GraphExtension;
 /**
  * Created by ZWang on 13/06/2017.
  */
-public class ShadowIndexGraphStorage implements GraphExtension {
+public class ShadowIndexGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     /* pointer for no entry */
     protected final int NO_ENTRY = -1;
     private final int EF_shadowIndex;
@@ -56,11 +56,16 @@ public class ShadowIndexGraphStorage implements GraphExtension {
     }
 
     public int getEdgeValue(int edgeId, byte[] buffer) {
+        return getEdgeValue(edgeId);
+    }
 
-        long edgePointer = (long) edgeId * edgeEntryBytes;
-        orsEdges.getBytes(edgePointer + EF_shadowIndex, buffer, 1);
+    public int getEdgeValue(int edgeId) {
+        return getByte(edgeId, EF_shadowIndex);
+    }
 
-        return buffer[0];
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     /**
@@ -18,7 +18,7 @@ import com.graphhopper.storage.Directory;
 import com.graphhopper.storage.Graph;
 import com.graphhopper.storage.GraphExtension;
 
-public class TollwaysGraphStorage implements GraphExtension {
+public class TollwaysGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     /* pointer for no entry */
     protected final int efTollways;
 
@@ -98,8 +98,12 @@ public class TollwaysGraphStorage implements GraphExtension {
     }
 
     public int getEdgeValue(int edgeId) {
-        byte byteValue = edges.getByte((long) edgeId * edgeEntryBytes + efTollways);
-        return byteValue & 0xFF;
+        return getByte(edgeId, efTollways) & 0xFF;
+    }
+
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return edges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     public boolean isRequireNodeField() {
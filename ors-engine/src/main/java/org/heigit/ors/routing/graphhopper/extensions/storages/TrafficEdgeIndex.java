@@ -0,0 +1,184 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.storages;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only lookup of the TMC location of edges and of the edges belonging to an OSM way, stored in a versioned binary
+ * format which is memory mapped when loaded. Queries run directly on the buffer by binary search, no maps are built.
+ * <p>
+ * Layout (big endian): magic, version, the number of TMC edges followed by their sorted edge ids and their TMC values,
+ * the number of OSM ids followed by the sorted OSM ids, their offsets into the edge id array (one more than the number
+ * of OSM ids) and the edge ids of all OSM ids one after another.
+ */
+public class TrafficEdgeIndex {
+    private static final int MAGIC = 0x4F525445; // "ORTE"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int[] NO_EDGES = new int[0];
+
+    private final ByteBuffer buffer;
+    private final int tmcCount;
+    private final int tmcKeysPos;
+    private final int tmcValuesPos;
+    private final int osmCount;
+    private final int osmKeysPos;
+    private final int osmOffsetsPos;
+    private final int osmEdgesPos;
+
+    private TrafficEdgeIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES + 8 || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a traffic edge index.");
+        int version = buffer.getInt(4);
+        if (version != VERSION)
+            throw new IOException("Unsupported traffic edge index version " + version + ", expected " + VERSION + ".");
+        tmcCount = buffer.getInt(HEADER_BYTES);
+        tmcKeysPos = HEADER_BYTES + 4;
+        tmcValuesPos = tmcKeysPos + tmcCount * 4;
+        int osmCountPos = tmcValuesPos + tmcCount * 8;
+        osmCount = buffer.getInt(osmCountPos);
+        osmKeysPos = osmCountPos + 4;
+        osmOffsetsPos = osmKeysPos + osmCount * 8;
+        osmEdgesPos = osmOffsetsPos + (osmCount + 1) * 4;
+    }
+
+    /**
+     * @param tmcEdges      TMC value by edge id
+     * @param osmId2EdgeIds edge ids by OSM id; one OSM id can correspond to multiple edges
+     */
+    public static TrafficEdgeIndex create(Map<Integer, Long> tmcEdges, Map<Long, ? extends List<Integer>> osmId2EdgeIds) {
+        int[] edgeIds = tmcEdges.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        long[] osmIds = osmId2EdgeIds.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int edgeCount = osmId2EdgeIds.values().stream().mapToInt(List::size).sum();
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 + edgeIds.length * 12 + 4 + osmIds.length * 12 + 4 + edgeCount * 4);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putInt(edgeIds.length);
+        for (int edgeId : edgeIds)
+            buffer.putInt(edgeId);
+        for (int edgeId : edgeIds)
+            buffer.putLong(tmcEdges.get(edgeId));
+        buffer.putInt(osmIds.length);
+        for (long osmId : osmIds)
+            buffer.putLong(osmId);
+        int offset = 0;
+        for (long osmId : osmIds) {
+            buffer.putInt(offset);
+            offset += osmId2EdgeIds.get(osmId).size();
+        }
+        buffer.putInt(offset);
+        for (long osmId : osmIds) {
+            for (int edgeId : osmId2EdgeIds.get(osmId))
+                buffer.putInt(edgeId);
+        }
+        buffer.flip();
+        try {
+            return new TrafficEdgeIndex(buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Memory map an index written by {@link #write(Path)}.
+     *
+     * @throws IOException if the file cannot be read or has an unknown format or version
+     */
+    public static TrafficEdgeIndex load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new TrafficEdgeIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = buffer.duplicate();
+            data.clear();
+            while (data.hasRemaining())
+                channel.write(data);
+        }
+    }
+
+    /**
+     * @return whether the TMC values or the edges of the OSM ids are missing, so that the index cannot be used
+     */
+    public boolean isEmpty() {
+        return tmcCount == 0 || osmCount == 0;
+    }
+
+    public int getTmcEdgeCount() {
+        return tmcCount;
+    }
+
+    public int getOsmIdCount() {
+        return osmCount;
+    }
+
+    /**
+     * @return the TMC value of the edge, or {@code defaultValue} if the edge has none
+     */
+    public long getTmcValue(int edgeId, long defaultValue) {
+        int low = 0;
+        int high = tmcCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int key = buffer.getInt(tmcKeysPos + mid * 4);
+            if (key < edgeId)
+                low = mid + 1;
+            else if (key > edgeId)
+                high = mid - 1;
+            else
+                return buffer.getLong(tmcValuesPos + mid * 8);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @return the ids of the edges created from the OSM way, empty if there are none
+     */
+    public int[] getEdgeIds(long osmId) {
+        int low = 0;
+        int high = osmCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = buffer.getLong(osmKeysPos + mid * 8);
+            if (key < osmId) {
+                low = mid + 1;
+            } else if (key > osmId) {
+                high = mid - 1;
+            } else {
+                int from = buffer.getInt(osmOffsetsPos + mid * 4);
+                int to = buffer.getInt(osmOffsetsPos + (mid + 1) * 4);
+                int[] edgeIds = new int[to - from];
+                for (int i = 0; i < edgeIds.length; i++)
+                    edgeIds[i] = buffer.getInt(osmEdgesPos + (from + i) * 4);
+                return edgeIds;
+            }
+        }
+        return NO_EDGES;
+    }
+
+    @Override
+    public String toString() {
+        return "TrafficEdgeIndex{tmcEdges=" + tmcCount + ", osmIds=" + osmCount + ", bytes=" + buffer.capacity() + "}";
+    }
+}
@@ -18,7 +18,7 @@ import com.graphhopper.storage.Directory;
 import com.graphhopper.storage.Graph;
 import com.graphhopper.storage.GraphExtension;
 
-public class TrailDifficultyScaleGraphStorage implements GraphExtension {
+public class TrailDifficultyScaleGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     protected final int efDifficultyScale;
 
     protected DataAccess edges;
@@ -102,22 +102,29 @@ public class TrailDifficultyScaleGraphStorage implements GraphExtension {
     }
 
     public int getHikingScale(int edgeId, byte[] buffer) {
-        long edgeBase = (long) edgeId * edgeEntryBytes;
-
-        edges.getBytes(edgeBase + efDifficultyScale, buffer, 1);
+        return getHikingScale(edgeId);
+    }
 
-        return buffer[0];
+    public int getHikingScale(int edgeId) {
+        return getByte(edgeId, efDifficultyScale);
     }
 
     public int getMtbScale(int edgeId, byte[] buffer, boolean uphill) {
-        long edgeBase = (long) edgeId * edgeEntryBytes;
+        return getMtbScale(edgeId, uphill);
+    }
 
-        edges.getBytes(edgeBase + efDifficultyScale + 1, buffer, 1);
+    public int getMtbScale(int edgeId, boolean uphill) {
+        byte value = getByte(edgeId, efDifficultyScale + 1);
 
         if (uphill)
-            return (byte) (buffer[0] & 0x0F);
+            return (byte) (value & 0x0F);
         else
-            return (byte) ((buffer[0] >> 4) & (byte) 0x0F);
+            return (byte) ((value >> 4) & (byte) 0x0F);
+    }
+
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return edges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     @Override
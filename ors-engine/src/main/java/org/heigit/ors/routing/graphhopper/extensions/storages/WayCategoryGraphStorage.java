@@ -18,7 +18,11 @@ import com.graphhopper.storage.Directory;
 import com.graphhopper.storage.Graph;
 import com.graphhopper.storage.GraphExtension;
 
-public class WayCategoryGraphStorage implements GraphExtension {
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class WayCategoryGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     /* pointer for no entry */
     protected final int efWaytype;
 
@@ -27,6 +31,11 @@ public class WayCategoryGraphStorage implements GraphExtension {
     protected int edgeEntryBytes;
     protected int edgesCount; // number of edges with custom values
 
+    private Graph graph;
+    // lazily computed bit sets of edges having any of the way categories given by the key
+    private final Map<Integer, BitSet> wayCategoryEdges = new ConcurrentHashMap<>();
+    private volatile int wayCategoryEdgesCount;
+
     public WayCategoryGraphStorage() {
         efWaytype = 0;
 
@@ -38,6 +47,7 @@ public class WayCategoryGraphStorage implements GraphExtension {
         if (edgesCount > 0)
             throw new AssertionError("The ORS storage must be initialized only once.");
 
+        this.graph = graph;
         this.orsEdges = dir.find("ext_waycategory");
     }
 
@@ -93,16 +103,70 @@ public class WayCategoryGraphStorage implements GraphExtension {
     }
 
     public int getEdgeValue(int edgeId, byte[] buffer) {
-        long edgePointer = (long) edgeId * edgeEntryBytes;
-        byte byteValue = orsEdges.getByte(edgePointer + efWaytype);
+        return getEdgeValue(edgeId);
+    }
+
+    public int getEdgeValue(int edgeId) {
+        return getByte(edgeId, efWaytype) & 0xff;
+    }
 
-        int result = byteValue;
-        if (result < 0)
-            result = result & 0xff;
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
+    }
+
+    /**
+     * Get a bit set over all edges of the graph in which the bit of an edge is set if it has at least one of the
+     * given way categories. Bit sets for single categories are computed on first use; combinations are ORed from
+     * them. All of them are cached, as there are only few distinct combinations.
+     * <p>
+     * The returned bit set must not be modified. Edges with ids beyond {@link #getCoveredEdges()} (e.g. virtual
+     * edges) are not covered and need to be looked up with {@link #getEdgeValue(int)}.
+     */
+    public BitSet getEdgesWithWayCategories(int wayCategories) {
+        // bit sets requested before the graph has been fully built are outdated and have to be recomputed
+        if (wayCategoryEdgesCount != graph.getEdges()) {
+            synchronized (wayCategoryEdges) {
+                if (wayCategoryEdgesCount != graph.getEdges()) {
+                    wayCategoryEdges.clear();
+                    wayCategoryEdgesCount = graph.getEdges();
+                }
+            }
+        }
+        // no computeIfAbsent: bit sets of combinations are built from the cached bit sets of single categories
+        BitSet edges = wayCategoryEdges.get(wayCategories);
+        if (edges == null) {
+            BitSet created = createEdgesWithWayCategories(wayCategories);
+            edges = wayCategoryEdges.putIfAbsent(wayCategories, created);
+            if (edges == null)
+                edges = created;
+        }
+        return edges;
+    }
 
+    private BitSet createEdgesWithWayCategories(int wayCategories) {
+        if (Integer.bitCount(wayCategories) > 1) {
+            BitSet result = new BitSet(getEdgesWithWayCategories(Integer.lowestOneBit(wayCategories)).size());
+            for (int remaining = wayCategories; remaining != 0; remaining &= remaining - 1)
+                result.or(getEdgesWithWayCategories(Integer.lowestOneBit(remaining)));
+            return result;
+        }
+        int edges = wayCategoryEdgesCount;
+        BitSet result = new BitSet(edges);
+        for (int edge = 0; edge < edges; edge++) {
+            if ((getEdgeValue(edge) & wayCategories) != 0)
+                result.set(edge);
+        }
         return result;
     }
 
+    /**
+     * @return the number of edges covered by the bit sets last returned from {@link #getEdgesWithWayCategories(int)}
+     */
+    public int getCoveredEdges() {
+        return wayCategoryEdgesCount;
+    }
+
     @Override
     public boolean isClosed() {
         return false;
@@ -19,7 +19,7 @@ import com.graphhopper.storage.Graph;
 import com.graphhopper.storage.GraphExtension;
 import org.heigit.ors.routing.util.WaySurfaceDescription;
 
-public class WaySurfaceTypeGraphStorage implements GraphExtension {
+public class WaySurfaceTypeGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     /* pointer for no entry */
     protected final int efWaytype;
 
@@ -103,10 +103,11 @@ public class WaySurfaceTypeGraphStorage implements GraphExtension {
 
 
     public WaySurfaceDescription getEdgeValue(int edgeId, byte[] buffer) {
-        long edgePointer = (long) edgeId * edgeEntryBytes;
-        orsEdges.getBytes(edgePointer + efWaytype, buffer, 1);
+        return getEdgeValue(edgeId);
+    }
 
-        byte compValue = buffer[0];
+    public WaySurfaceDescription getEdgeValue(int edgeId) {
+        byte compValue = getByte(edgeId, efWaytype);
         WaySurfaceDescription res = new WaySurfaceDescription();
         res.setWayType((compValue & 0b11110000) >> 4);
         res.setSurfaceType(compValue & 0b00001111);
@@ -114,6 +115,11 @@ public class WaySurfaceTypeGraphStorage implements GraphExtension {
         return res;
     }
 
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
+    }
+
     @Override
     public boolean isClosed() {
         return false;
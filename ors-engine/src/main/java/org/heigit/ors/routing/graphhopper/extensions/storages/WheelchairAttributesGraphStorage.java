@@ -20,7 +20,7 @@ import com.graphhopper.storage.GraphExtension;
 import org.heigit.ors.routing.graphhopper.extensions.WheelchairAttributes;
 import org.heigit.ors.routing.graphhopper.extensions.flagencoders.EncodedValueOld;
 
-public class WheelchairAttributesGraphStorage implements GraphExtension {
+public class WheelchairAttributesGraphStorage implements GraphExtension, PrimitiveEdgeStorage {
     protected static final int WIDTH_MAX_VALUE = 300;
     protected static final int KERB_MAX_VALUE = 15;
     protected static final int INCLINE_MAX_VALUE = 30;
@@ -216,18 +216,12 @@ public class WheelchairAttributesGraphStorage implements GraphExtension {
         }
     }
 
-    private void decodeAttributes(WheelchairAttributes attrs, byte[] buffer) {
+    private void decodeAttributes(WheelchairAttributes attrs, long encodedValue) {
         attrs.reset();
 
-        if (buffer[0] == 0)
+        if ((encodedValue & 0xFF) == 0)
             return;
 
-        long encodedValue = (long) buffer[0] & 0xFF;
-        encodedValue |= (long) (buffer[1] & 0xFF) << 8;
-        encodedValue |= (long) (buffer[2] & 0xFF) << 16;
-        encodedValue |= (long) (buffer[3] & 0xFF) << 24;
-        encodedValue |= (long) (buffer[4] & 0xFF) << 32;
-
         if ((1 & encodedValue) != 0) {
             long iValue = surfaceEncoder.getValue(encodedValue);
             if (iValue != 0)
@@ -273,9 +267,24 @@ public class WheelchairAttributesGraphStorage implements GraphExtension {
     }
 
     public void getEdgeValues(int edgeId, WheelchairAttributes attrs, byte[] buffer) {
-        long edgePointer = (long) edgeId * (long) edgeEntryBytes;
-        orsEdges.getBytes(edgePointer + efWheelchairAttributes, buffer, BYTE_COUNT);
-        decodeAttributes(attrs, buffer);
+        getEdgeValues(edgeId, attrs);
+    }
+
+    public void getEdgeValues(int edgeId, WheelchairAttributes attrs) {
+        decodeAttributes(attrs, getEncodedEdgeValue(edgeId));
+    }
+
+    /**
+     * @return the attributes of the edge in the bit layout used when encoding them
+     */
+    public long getEncodedEdgeValue(int edgeId) {
+        long encodedValue = getInt(edgeId, efWheelchairAttributes) & 0xFFFFFFFFL;
+        return encodedValue | (long) (getByte(edgeId, efWheelchairAttributes + 4) & 0xFF) << 32;
+    }
+
+    @Override
+    public byte getByte(int edgeId, int field) {
+        return orsEdges.getByte((long) edgeId * edgeEntryBytes + field);
     }
 
     public boolean isRequireNodeField() {
@@ -20,17 +20,13 @@ import com.graphhopper.util.EdgeIteratorState;
 import org.apache.log4j.Logger;
 import org.heigit.ors.routing.graphhopper.extensions.storages.CsvGraphStorage;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 public class CsvGraphStorageBuilder extends AbstractGraphStorageBuilder {
     private static final Logger LOGGER = Logger.getLogger(CsvGraphStorageBuilder.class.getName());
     private CsvGraphStorage storage;
-    private final Map<Long, Integer[]> id2Value = new HashMap<>();
+    private OsmIdValues id2Value;
     private static final int MAX_VALUE = 100;
     private final byte defaultValue = 50; // TODO: make configurable
     private String[] columnNames;
@@ -49,23 +45,10 @@ public class CsvGraphStorageBuilder extends AbstractGraphStorageBuilder {
     }
 
     private void readFromCSV(String csvFile) throws IOException {
-        try (BufferedReader csvBuffer = new BufferedReader(new FileReader(csvFile))) {
-            // Header line
-            String row = csvBuffer.readLine();
-            columnNames = Arrays.stream(row.split(",")).skip(1).toArray(String[]::new);
+        try {
+            id2Value = OsmIdValues.read(csvFile, true, OsmIdValues.ValueFormat.FLOAT);
+            columnNames = Arrays.stream(id2Value.getHeader()).skip(1).toArray(String[]::new);
             LOGGER.info(columnNames.length + " CSV column names read: " + Arrays.toString(columnNames));
-            // Body
-            while ((row = csvBuffer.readLine()) != null) {
-                String[] idAndTail = row.split(",", 2);
-                if (idAndTail.length != 2) continue;
-
-                Long id = Long.parseLong(idAndTail[0].trim());
-                Integer[] values = Arrays.stream(idAndTail[1].split(","))
-                        .map(String::trim)
-                        .map(x -> (int) (Float.parseFloat(x) * 100))
-                        .toArray(Integer[]::new);
-                id2Value.put(id, values);
-            }
         } catch (IOException openFileEx) {
             LOGGER.error(openFileEx.getStackTrace());
             throw openFileEx;
@@ -84,22 +67,24 @@ public class CsvGraphStorageBuilder extends AbstractGraphStorageBuilder {
     }
 
     private byte[] getValues(long id) {
-        Integer[] gi = id2Value.get(id);
+        int row = id2Value.find(id);
 
         byte[] byteValues = new byte[columnNames.length];
 
         // if id not present, fill with default value
-        if (gi == null) {
+        if (row < 0) {
             Arrays.fill(byteValues, defaultValue);
         } else {
-            int index = 0;
-            for (Integer i : gi) {
+            int columns = Math.min(byteValues.length, id2Value.getColumnCount());
+            for (int index = 0; index < columns; index++) {
+                // the value is read as float, so this is the same as (int) (Float.parseFloat(x) * 100)
+                float value = (float) id2Value.get(row, index);
+                int i = (int) (value * 100);
                 if (i > MAX_VALUE) {
                     throw new AssertionError("Value too large (way id " + id
                             + " at index " + index + "):" + i + " > " + MAX_VALUE);
                 }
-                byteValues[index] = i.byteValue();
-                index++;
+                byteValues[index] = (byte) i;
             }
         }
         return byteValues;
@@ -17,14 +17,10 @@ import com.graphhopper.GraphHopper;
 import com.graphhopper.reader.ReaderWay;
 import com.graphhopper.storage.GraphExtension;
 import com.graphhopper.util.EdgeIteratorState;
-import com.graphhopper.util.Helper;
 import org.apache.log4j.Logger;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GreenIndexGraphStorage;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -35,7 +31,7 @@ public class GreenIndexGraphStorageBuilder extends AbstractGraphStorageBuilder {
     private static final Logger LOGGER = Logger.getLogger(GreenIndexGraphStorageBuilder.class.getName());
 
     private GreenIndexGraphStorage storage;
-    private final Map<Long, Double> greenIndices = new HashMap<>();
+    private OsmIdValues greenIndices;
     private static final int TOTAL_LEVEL = 64;
     private static final int DEFAULT_LEVEL = TOTAL_LEVEL - 1;
     private final Map<Byte, SlotRange> slots = new HashMap<>(TOTAL_LEVEL);
@@ -55,8 +51,8 @@ public class GreenIndexGraphStorageBuilder extends AbstractGraphStorageBuilder {
     }
 
     private void prepareGreenIndexSlots() {
-        double max = Collections.max(greenIndices.values());
-        double min = Collections.min(greenIndices.values());
+        double max = greenIndices.max(0);
+        double min = greenIndices.min(0);
         double step = (max - min) / TOTAL_LEVEL;
         // Divide the range of raw green index values into TOTAL_LEVEL,
         // then map the raw value to [0..TOTAL_LEVEL - 1]
@@ -66,39 +62,14 @@ public class GreenIndexGraphStorageBuilder extends AbstractGraphStorageBuilder {
     }
 
     private void readGreenIndicesFromCSV(String csvFile) throws IOException {
-        try (BufferedReader csvBuffer = new BufferedReader(new FileReader(csvFile))) {
-            String row;
-            // Jump the header line
-            row = csvBuffer.readLine();
-            char separator = row.contains(";") ? ';' : ',';
-            String[] rowValues = new String[2];
-
-            while ((row = csvBuffer.readLine()) != null) {
-                if (!parseCSVrow(row, separator, rowValues))
-                    continue;
-
-                greenIndices.put(Long.parseLong(rowValues[0]), Double.parseDouble(rowValues[1]));
-            }
+        try {
+            greenIndices = OsmIdValues.read(csvFile, true, OsmIdValues.ValueFormat.DOUBLE);
         } catch (IOException openFileEx) {
             LOGGER.error(openFileEx.getStackTrace());
             throw openFileEx;
         }
     }
 
-    private boolean parseCSVrow(String row, char separator, String[] rowValues) {
-        if (Helper.isEmpty(row))
-            return false;
-
-        int pos = row.indexOf(separator);
-        if (pos > 0) {
-            rowValues[0] = row.substring(0, pos).trim();
-            rowValues[1] = row.substring(pos + 1).trim();
-            // read, check and push "osm_id" and "ungreen_factor" values
-            return !Helper.isEmpty(rowValues[0]) && !Helper.isEmpty(rowValues[1]);
-        }
-        return false;
-    }
-
     @Override
     public void processWay(ReaderWay way) {
         // do nothing
@@ -125,14 +96,15 @@ public class GreenIndexGraphStorageBuilder extends AbstractGraphStorageBuilder {
     }
 
     private byte calcGreenIndex(long id) {
-        Double gi = greenIndices.get(id);
+        int row = greenIndices.find(id);
 
         // No such @id key in the _greenIndices, or the value of it is null
         // We set its green level to TOTAL_LEVEL/2 indicating the middle value for such cases
         // TODO Refactoring this DEFAULT_LEVEL should be put in the ors-config.json file and
         // injected back in the code
-        if (gi == null)
+        if (row < 0)
             return (byte) (DEFAULT_LEVEL);
+        double gi = greenIndices.get(row, 0);
 
         for (Map.Entry<Byte, SlotRange> s : slots.entrySet()) {
             if (s.getValue().within(gi))
@@ -56,6 +56,12 @@ import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder {
     static final Logger LOGGER = Logger.getLogger(HereTrafficGraphStorageBuilder.class.getName());
@@ -74,8 +80,12 @@ public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder
     private static final String PARAM_KEY_PATTERNS_15MINUTES = "pattern_15min";
     private static final String PARAM_KEY_REFERENCE_PATTERN = "ref_pattern";
     private static final String MATCHING_RADIUS = "radius";
+    private static final String PARAM_KEY_MATCHING_THREADS = "matching_threads";
+    // number of links queued per matching thread while the results of earlier links are written to the storage
+    private static final int MATCHING_QUEUE_SIZE = 64;
     private boolean enabled = true;
     private int matchingRadius = 200;
+    private int matchingThreads = Runtime.getRuntime().availableProcessors();
     String streetsFile = "";
     String patterns15MinutesFile = "";
     String refPatternIdsFile = "";
@@ -83,8 +93,8 @@ public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder
     private TrafficGraphStorage storage;
 
     private GraphHopper gh;
-    private MapMatcher mMapMatcher;
-    private TrafficEdgeFilter trafficEdgeFilter;
+    private String ghProfile;
+    private final ThreadLocal<LinkMatcher> linkMatchers = ThreadLocal.withInitial(LinkMatcher::new);
     private final IntHashSet matchedHereLinks = new IntHashSet();
     private final ArrayList<String> matchedOSMLinks = new ArrayList<>();
 
@@ -132,13 +142,16 @@ public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder
                 ErrorLoggingUtility.logMissingConfigParameter(HereTrafficGraphStorageBuilder.class, MATCHING_RADIUS);
                 LOGGER.info("The Here matching radius is not set. The default is applied!");
             }
+
+            if (parameters.containsKey(PARAM_KEY_MATCHING_THREADS))
+                matchingThreads = Math.max(1, Integer.parseInt(parameters.get(PARAM_KEY_MATCHING_THREADS)));
             storage = new TrafficGraphStorage();
         } else {
             LOGGER.info("Traffic not enabled.");
         }
 
         gh = graphhopper;
-        mMapMatcher = new GhMapMatcher(graphhopper, parameters.get("gh_profile"));
+        ghProfile = parameters.get("gh_profile");
         return storage;
     }
 
@@ -261,7 +274,7 @@ public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder
         matchedOSMLinks.add(osmGeometry);
     }
 
-    private RouteSegmentInfo[] matchLinkToSegments(ORSGraphHopper graphHopper, int trafficLinkFunctionalClass,
+    private RouteSegmentInfo[] matchLinkToSegments(int trafficLinkFunctionalClass,
                                                    double originalTrafficLinkLength, Geometry geometry, boolean bothDirections) {
         RouteSegmentInfo[] matchedSegments = new RouteSegmentInfo[0];
         if (geometry == null) {
@@ -316,54 +329,86 @@ public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder
         }
     }
 
+    /**
+     * Match the links on several threads, each with its own map matcher and edge filter. The matched patterns are
+     * written to the storage on the calling thread in the original order of the links, so that the priority based
+     * resolution of edges matched by several links gives the same result as a sequential run.
+     */
     private void processLinks(ORSGraphHopper graphHopper, IntObjectHashMap<TrafficLink> links) {
-        try (ProgressBar pb = new ProgressBarBuilder().setTaskName("Matching Here Links").setInitialMax(links.values().size()).setConsumer(new DelegatingProgressBarConsumer(LOGGER::debug)).build()) {
-            int counter = 0;
-            for (ObjectCursor<TrafficLink> trafficLink : links.values()) {
-                processLink(graphHopper, trafficLink.value);
-                counter += 1;
-                if (counter % 2000 == 0)
-                    pb.stepBy(2000);
-            }
+        try (ProgressBar pb = new ProgressBarBuilder().setTaskName("Matching Here Links").setInitialMax(links.size()).setUnit(" links", 1).showSpeed().setConsumer(new DelegatingProgressBarConsumer(LOGGER::debug)).build()) {
+            List<TrafficLink> trafficLinks = new ArrayList<>(links.size());
+            for (ObjectCursor<TrafficLink> trafficLink : links.values())
+                trafficLinks.add(trafficLink.value);
+            processInOrder(trafficLinks, hereTrafficLink -> processLink(graphHopper, hereTrafficLink), updates -> {
+                applyPatternUpdates(updates);
+                pb.step();
+            }, matchingThreads);
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while matching here traffic links.");
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.error("Error processing here traffic links with error: " + e.getCause());
         } catch (Exception e) {
             LOGGER.error("Error processing here traffic links with error: " + e);
         }
     }
 
-    private void processLink(ORSGraphHopper graphHopper, TrafficLink hereTrafficLink) {
+    /**
+     * Run the task for all items on the given number of threads and pass the results to the consumer on the calling
+     * thread in the order of the items, as a sequential run would.
+     */
+    static <T, R> void processInOrder(List<T> items, Function<T, R> task, Consumer<R> consumer, int threads) throws InterruptedException, ExecutionException {
+        ExecutorService threadPool = Executors.newFixedThreadPool(threads);
+        try {
+            Deque<Future<R>> pending = new ArrayDeque<>();
+            for (T item : items) {
+                pending.add(threadPool.submit(() -> task.apply(item)));
+                if (pending.size() >= threads * MATCHING_QUEUE_SIZE)
+                    consumer.accept(pending.poll().get());
+            }
+            while (!pending.isEmpty())
+                consumer.accept(pending.poll().get());
+        } finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    private List<PatternUpdate> processLink(ORSGraphHopper graphHopper, TrafficLink hereTrafficLink) {
+        List<PatternUpdate> updates = new ArrayList<>();
         if (hereTrafficLink == null || !hereTrafficLink.isPotentialTrafficSegment())
-            return;
+            return updates;
         RouteSegmentInfo[] matchedSegmentsFrom = new RouteSegmentInfo[]{};
         RouteSegmentInfo[] matchedSegmentsTo = new RouteSegmentInfo[]{};
 
         if (hereTrafficLink.isBothDirections()) {
             // Both Directions
             // Split
-            matchedSegmentsFrom = matchLinkToSegments(graphHopper, hereTrafficLink.getFunctionalClass(), hereTrafficLink.getLinkLength(), hereTrafficLink.getFromGeometry(), false);
-            matchedSegmentsTo = matchLinkToSegments(graphHopper, hereTrafficLink.getFunctionalClass(), hereTrafficLink.getLinkLength(), hereTrafficLink.getToGeometry(), false);
+            matchedSegmentsFrom = matchLinkToSegments(hereTrafficLink.getFunctionalClass(), hereTrafficLink.getLinkLength(), hereTrafficLink.getFromGeometry(), false);
+            matchedSegmentsTo = matchLinkToSegments(hereTrafficLink.getFunctionalClass(), hereTrafficLink.getLinkLength(), hereTrafficLink.getToGeometry(), false);
         } else if (hereTrafficLink.isOnlyFromDirection()) {
             // One Direction
-            matchedSegmentsFrom = matchLinkToSegments(graphHopper, hereTrafficLink.getFunctionalClass(), hereTrafficLink.getLinkLength(), hereTrafficLink.getFromGeometry(), false);
+            matchedSegmentsFrom = matchLinkToSegments(hereTrafficLink.getFunctionalClass(), hereTrafficLink.getLinkLength(), hereTrafficLink.getFromGeometry(), false);
         } else {
             // One Direction
-            matchedSegmentsTo = matchLinkToSegments(graphHopper, hereTrafficLink.getFunctionalClass(), hereTrafficLink.getLinkLength(), hereTrafficLink.getToGeometry(), false);
+            matchedSegmentsTo = matchLinkToSegments(hereTrafficLink.getFunctionalClass(), hereTrafficLink.getLinkLength(), hereTrafficLink.getToGeometry(), false);
         }
 
-        processSegments(graphHopper, hereTrafficLink.getLinkId(), hereTrafficLink.getTrafficPatternIds(TrafficEnums.TravelDirection.FROM), matchedSegmentsFrom);
-        processSegments(graphHopper, hereTrafficLink.getLinkId(), hereTrafficLink.getTrafficPatternIds(TrafficEnums.TravelDirection.TO), matchedSegmentsTo);
+        processSegments(graphHopper, hereTrafficLink.getLinkId(), hereTrafficLink.getTrafficPatternIds(TrafficEnums.TravelDirection.FROM), matchedSegmentsFrom, updates);
+        processSegments(graphHopper, hereTrafficLink.getLinkId(), hereTrafficLink.getTrafficPatternIds(TrafficEnums.TravelDirection.TO), matchedSegmentsTo, updates);
+        return updates;
     }
 
-    private void processSegments(GraphHopper gh, int linkId, Map<TrafficEnums.WeekDay, Integer> trafficPatternIds, RouteSegmentInfo[] matchedSegments) {
+    private void processSegments(GraphHopper gh, int linkId, Map<TrafficEnums.WeekDay, Integer> trafficPatternIds, RouteSegmentInfo[] matchedSegments, List<PatternUpdate> updates) {
         if (matchedSegments == null)
             return;
         for (RouteSegmentInfo routeSegment : matchedSegments) {
             if (routeSegment == null) continue;
-            processSegment(gh, trafficPatternIds, linkId, routeSegment);
+            processSegment(gh, trafficPatternIds, linkId, routeSegment, updates);
         }
     }
 
     private void processSegment(GraphHopper gh, Map<TrafficEnums.WeekDay, Integer> trafficPatternIds,
-                                int trafficLinkId, RouteSegmentInfo routeSegment) {
+                                int trafficLinkId, RouteSegmentInfo routeSegment, List<PatternUpdate> updates) {
         for (EdgeIteratorState edge : routeSegment.getEdgesStates()) {
             int originalEdgeKey;
             if (edge instanceof VirtualEdgeIteratorState iteratorState) {
@@ -372,11 +417,21 @@ public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder
                 originalEdgeKey = edge.getEdgeKey();
             }
             final int priority = (int) Math.round(edge.getDistance() / gh.getGraphHopperStorage().getEdgeIteratorStateForKey(originalEdgeKey).getDistance() * 255);
-            trafficPatternIds.forEach((weekDay, patternId) -> storage.setEdgeIdTrafficPatternLookup(originalEdgeKey, patternId, weekDay, priority));
+            String osmGeometry = null;
             if (outputLog) {
                 LineString lineString = edge.fetchWayGeometry(FetchMode.ALL).toLineString(false);
-                addOSMGeometryForLogging(lineString.toString());
-                addHereSegmentForLogging(trafficLinkId);
+                osmGeometry = lineString.toString();
+            }
+            updates.add(new PatternUpdate(originalEdgeKey, trafficPatternIds, priority, trafficLinkId, osmGeometry));
+        }
+    }
+
+    private void applyPatternUpdates(List<PatternUpdate> updates) {
+        for (PatternUpdate update : updates) {
+            update.trafficPatternIds.forEach((weekDay, patternId) -> storage.setEdgeIdTrafficPatternLookup(update.edgeKey, patternId, weekDay, update.priority));
+            if (update.osmGeometry != null) {
+                addOSMGeometryForLogging(update.osmGeometry);
+                addHereSegmentForLogging(update.trafficLinkId);
             }
         }
     }
@@ -386,62 +441,66 @@ public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder
                                                          int trafficLinkFunctionalClass,
                                                          boolean bothDirections,
                                                          int matchingRadius) {
+        return linkMatchers.get().match(geometry, originalTrafficLinkLength, trafficLinkFunctionalClass, bothDirections, matchingRadius);
+    }
+
+    /**
+     * Map matcher and edge filter used by a single matching thread.
+     */
+    private class LinkMatcher {
+        private final MapMatcher mMapMatcher = new GhMapMatcher(gh, ghProfile);
+        private final TrafficEdgeFilter trafficEdgeFilter = new TrafficEdgeFilter(gh.getGraphHopperStorage());
 
-        if (trafficEdgeFilter == null) {
-            trafficEdgeFilter = new TrafficEdgeFilter(gh.getGraphHopperStorage());
+        LinkMatcher() {
             mMapMatcher.setEdgeFilter(trafficEdgeFilter);
         }
-        trafficEdgeFilter.setHereFunctionalClass(trafficLinkFunctionalClass);
-
-        RouteSegmentInfo[] routeSegmentInfos;
-        mMapMatcher.setSearchRadius(matchingRadius);
-        routeSegmentInfos = matchInternalSegments(geometry, originalTrafficLinkLength, bothDirections);
-        for (RouteSegmentInfo routeSegmentInfo : routeSegmentInfos) {
-            if (routeSegmentInfo != null) {
-                return routeSegmentInfos;
-            }
+
+        RouteSegmentInfo[] match(Geometry geometry, double originalTrafficLinkLength, int trafficLinkFunctionalClass,
+                                 boolean bothDirections, int matchingRadius) {
+            trafficEdgeFilter.setHereFunctionalClass(trafficLinkFunctionalClass);
+            mMapMatcher.setSearchRadius(matchingRadius);
+            return matchInternalSegments(geometry, originalTrafficLinkLength, bothDirections);
         }
-        return routeSegmentInfos;
-    }
 
-    private RouteSegmentInfo[] matchInternalSegments(Geometry geometry, double originalTrafficLinkLength, boolean bothDirections) {
+        private RouteSegmentInfo[] matchInternalSegments(Geometry geometry, double originalTrafficLinkLength, boolean bothDirections) {
 
-        org.locationtech.jts.geom.Coordinate[] locations = geometry.getCoordinates();
-        int originalFunctionalClass = trafficEdgeFilter.getHereFunctionalClass();
-        RouteSegmentInfo[] match = mMapMatcher.match(locations, bothDirections);
-        match = validateRouteSegment(originalTrafficLinkLength, match);
+            org.locationtech.jts.geom.Coordinate[] locations = geometry.getCoordinates();
+            int originalFunctionalClass = trafficEdgeFilter.getHereFunctionalClass();
+            RouteSegmentInfo[] match = mMapMatcher.match(locations, bothDirections);
+            match = validateRouteSegment(originalTrafficLinkLength, match);
 
-        if (match.length <= 0 && (originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.CLASS1.value && originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.CLASS1LINK.value)) {
-            // Test a higher functional class based from the original class
+            if (match.length <= 0 && (originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.CLASS1.value && originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.CLASS1LINK.value)) {
+                // Test a higher functional class based from the original class
 //            ((TrafficEdgeFilter) edgeFilter).setHereFunctionalClass(originalFunctionalClass);
-            trafficEdgeFilter.higherFunctionalClass();
-            mMapMatcher.setEdgeFilter(trafficEdgeFilter);
-            match = mMapMatcher.match(locations, bothDirections);
-            match = validateRouteSegment(originalTrafficLinkLength, match);
-        }
-        if (match.length <= 0 && (originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.UNCLASSIFIED.value && originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.CLASS4LINK.value)) {
-            // Try matching in the next lower functional class.
-            trafficEdgeFilter.setHereFunctionalClass(originalFunctionalClass);
-            trafficEdgeFilter.lowerFunctionalClass();
-            mMapMatcher.setEdgeFilter(trafficEdgeFilter);
-            match = mMapMatcher.match(locations, bothDirections);
-            match = validateRouteSegment(originalTrafficLinkLength, match);
-        }
-        if (match.length <= 0 && (originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.UNCLASSIFIED.value && originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.CLASS4LINK.value)) {
-            // But always try UNCLASSIFIED before. CLASS5 hast way too many false-positives!
-            trafficEdgeFilter.setHereFunctionalClass(TrafficRelevantWayType.RelevantWayTypes.UNCLASSIFIED.value);
-            mMapMatcher.setEdgeFilter(trafficEdgeFilter);
-            match = mMapMatcher.match(locations, bothDirections);
-            match = validateRouteSegment(originalTrafficLinkLength, match);
-        }
-        if (match.length <= 0 && (originalFunctionalClass == TrafficRelevantWayType.RelevantWayTypes.UNCLASSIFIED.value || originalFunctionalClass == TrafficRelevantWayType.RelevantWayTypes.CLASS4LINK.value || originalFunctionalClass == TrafficRelevantWayType.RelevantWayTypes.CLASS1.value)) {
-            // If the first tested class was unclassified, try CLASS5. But always try UNCLASSIFIED before. CLASS5 hast way too many false-positives!
-            trafficEdgeFilter.setHereFunctionalClass(TrafficRelevantWayType.RelevantWayTypes.CLASS5.value);
-            mMapMatcher.setEdgeFilter(trafficEdgeFilter);
-            match = mMapMatcher.match(locations, bothDirections);
-            match = validateRouteSegment(originalTrafficLinkLength, match);
+                trafficEdgeFilter.higherFunctionalClass();
+                mMapMatcher.setEdgeFilter(trafficEdgeFilter);
+                match = mMapMatcher.match(locations, bothDirections);
+                match = validateRouteSegment(originalTrafficLinkLength, match);
+            }
+            if (match.length <= 0 && (originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.UNCLASSIFIED.value && originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.CLASS4LINK.value)) {
+                // Try matching in the next lower functional class.
+                trafficEdgeFilter.setHereFunctionalClass(originalFunctionalClass);
+                trafficEdgeFilter.lowerFunctionalClass();
+                mMapMatcher.setEdgeFilter(trafficEdgeFilter);
+                match = mMapMatcher.match(locations, bothDirections);
+                match = validateRouteSegment(originalTrafficLinkLength, match);
+            }
+            if (match.length <= 0 && (originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.UNCLASSIFIED.value && originalFunctionalClass != TrafficRelevantWayType.RelevantWayTypes.CLASS4LINK.value)) {
+                // But always try UNCLASSIFIED before. CLASS5 hast way too many false-positives!
+                trafficEdgeFilter.setHereFunctionalClass(TrafficRelevantWayType.RelevantWayTypes.UNCLASSIFIED.value);
+                mMapMatcher.setEdgeFilter(trafficEdgeFilter);
+                match = mMapMatcher.match(locations, bothDirections);
+                match = validateRouteSegment(originalTrafficLinkLength, match);
+            }
+            if (match.length <= 0 && (originalFunctionalClass == TrafficRelevantWayType.RelevantWayTypes.UNCLASSIFIED.value || originalFunctionalClass == TrafficRelevantWayType.RelevantWayTypes.CLASS4LINK.value || originalFunctionalClass == TrafficRelevantWayType.RelevantWayTypes.CLASS1.value)) {
+                // If the first tested class was unclassified, try CLASS5. But always try UNCLASSIFIED before. CLASS5 hast way too many false-positives!
+                trafficEdgeFilter.setHereFunctionalClass(TrafficRelevantWayType.RelevantWayTypes.CLASS5.value);
+                mMapMatcher.setEdgeFilter(trafficEdgeFilter);
+                match = mMapMatcher.match(locations, bothDirections);
+                match = validateRouteSegment(originalTrafficLinkLength, match);
+            }
+            return match;
         }
-        return match;
     }
 
     private RouteSegmentInfo[] validateRouteSegment(double originalTrafficLinkLength, RouteSegmentInfo[] routeSegmentInfo) {
@@ -468,8 +527,19 @@ public class HereTrafficGraphStorageBuilder extends AbstractGraphStorageBuilder
             return routeSegmentInfo;
     }
 
-    private static class setTaskName {
-        public setTaskName(String matchingHereLinks) {
+    private static class PatternUpdate {
+        private final int edgeKey;
+        private final Map<TrafficEnums.WeekDay, Integer> trafficPatternIds;
+        private final int priority;
+        private final int trafficLinkId;
+        private final String osmGeometry;
+
+        PatternUpdate(int edgeKey, Map<TrafficEnums.WeekDay, Integer> trafficPatternIds, int priority, int trafficLinkId, String osmGeometry) {
+            this.edgeKey = edgeKey;
+            this.trafficPatternIds = trafficPatternIds;
+            this.priority = priority;
+            this.trafficLinkId = trafficLinkId;
+            this.osmGeometry = osmGeometry;
         }
     }
 }
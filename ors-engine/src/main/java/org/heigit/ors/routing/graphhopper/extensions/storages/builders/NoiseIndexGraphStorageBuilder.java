@@ -17,15 +17,10 @@ import com.graphhopper.GraphHopper;
 import com.graphhopper.reader.ReaderWay;
 import com.graphhopper.storage.GraphExtension;
 import com.graphhopper.util.EdgeIteratorState;
-import com.graphhopper.util.Helper;
 import org.apache.log4j.Logger;
 import org.heigit.ors.routing.graphhopper.extensions.storages.NoiseIndexGraphStorage;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Created by ZWang on 13/06/2017.
@@ -34,7 +29,7 @@ public class NoiseIndexGraphStorageBuilder extends AbstractGraphStorageBuilder {
     private static final Logger LOGGER = Logger.getLogger(NoiseIndexGraphStorageBuilder.class.getName());
 
     private NoiseIndexGraphStorage storage;
-    private final Map<Long, Integer> osmId2noiseLevel = new HashMap<>();
+    private OsmIdValues osmId2noiseLevel;
     // currently noise level is only from 0 to 3
     private static final int MAX_LEVEL = 8;
 
@@ -52,36 +47,14 @@ public class NoiseIndexGraphStorageBuilder extends AbstractGraphStorageBuilder {
     }
 
     private void readNoiseIndicesFromCSV(String csvFile) throws IOException {
-        try (BufferedReader csvBuffer = new BufferedReader(new FileReader(csvFile))) {
-            // Jump the header line
-            String row = csvBuffer.readLine();
-            String[] rowValues = new String[2];
-            while ((row = csvBuffer.readLine()) != null) {
-                if (!parseCSVrow(row, rowValues))
-                    continue;
-
-                osmId2noiseLevel.put(Long.parseLong(rowValues[0]), Integer.parseInt(rowValues[1]));
-            }
+        try {
+            osmId2noiseLevel = OsmIdValues.read(csvFile, true, OsmIdValues.ValueFormat.INTEGER);
         } catch (IOException openFileEx) {
             LOGGER.error(openFileEx.getStackTrace());
             throw openFileEx;
         }
     }
 
-    private boolean parseCSVrow(String row, String[] rowValues) {
-        if (Helper.isEmpty(row))
-            return false;
-
-        int pos = row.indexOf(',');
-        if (pos > 0) {
-            rowValues[0] = row.substring(0, pos).trim();
-            rowValues[1] = row.substring(pos + 1).trim();
-            // read, check and push "osm_id" and "noise level" values
-            return !Helper.isEmpty(rowValues[0]) && !Helper.isEmpty(rowValues[1]);
-        }
-        return false;
-    }
-
     @Override
     public void processWay(ReaderWay way) {
         // do nothing
@@ -94,16 +67,17 @@ public class NoiseIndexGraphStorageBuilder extends AbstractGraphStorageBuilder {
     }
 
     private byte getNoiseLevel(long id) {
-        Integer gi = osmId2noiseLevel.get(id);
+        int row = osmId2noiseLevel.find(id);
 
         // No such @id key in the _noiseIndices, or the value of it is null
         // We set its noise level to zero (no noise)
-        if (gi == null)
+        if (row < 0)
             return (byte) (0);
+        int gi = (int) osmId2noiseLevel.get(row, 0);
         if (gi > MAX_LEVEL)
             throw new AssertionError("The noise level of osm way, id = " + id + " is " + gi + ", which is larger than than max level!");
 
-        return (byte) (gi.intValue());
+        return (byte) gi;
     }
 
     @Override
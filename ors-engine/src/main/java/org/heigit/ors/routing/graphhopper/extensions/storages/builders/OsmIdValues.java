@@ -0,0 +1,368 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.storages.builders;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.sorting.IndirectSort;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Values per OSM way id read from a CSV file with the id in the first column and one or more numeric columns.
+ * <p>
+ * The file is memory mapped and parsed in chunks in parallel directly from its bytes. The rows are kept in primitive
+ * arrays sorted by id, so a lookup is a binary search. If an id occurs more than once, its last row is kept.
+ * <p>
+ * Rows without an id or without values are skipped. Trailing empty values of a row are left out like
+ * {@link String#split(String)} does and read as 0. Any other value the {@link ValueFormat} does not accept fails the
+ * read with a {@link NumberFormatException}.
+ */
+public class OsmIdValues {
+    private static final Logger LOGGER = Logger.getLogger(OsmIdValues.class.getName());
+    private static final long CHUNK_SIZE = 16L * 1024 * 1024;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    /**
+     * How the values of a file are parsed. The values are stored as doubles, which hold floats and ints exactly.
+     */
+    public enum ValueFormat {
+        /**
+         * as {@link Double#parseDouble(String)}
+         */
+        DOUBLE,
+        /**
+         * as {@link Float#parseFloat(String)}
+         */
+        FLOAT,
+        /**
+         * as {@link Integer#parseInt(String)}
+         */
+        INTEGER
+    }
+
+    private final String[] header;
+    private final int columns;
+    private final long[] ids;
+    private final double[] values;
+
+    private OsmIdValues(String[] header, int columns, long[] ids, double[] values) {
+        this.header = header;
+        this.columns = columns;
+        this.ids = ids;
+        this.values = values;
+    }
+
+    /**
+     * @param csvFile   path of the CSV file; values are separated by commas or, if the first line contains one, by
+     *                  semicolons
+     * @param hasHeader whether the first line holds the column names
+     * @param format    how the values are parsed
+     */
+    public static OsmIdValues read(String csvFile, boolean hasHeader, ValueFormat format) throws IOException {
+        return read(csvFile, hasHeader, format, CHUNK_SIZE);
+    }
+
+    static OsmIdValues read(String csvFile, boolean hasHeader, ValueFormat format, long chunkSize) throws IOException {
+        long start = System.currentTimeMillis();
+        Path path = Paths.get(csvFile);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+            int firstLineEnd = 0;
+            while (firstLineEnd < head.limit() && head.get(firstLineEnd) != '\n')
+                firstLineEnd++;
+            String firstLine = text(head, 0, firstLineEnd).replace("\r", "");
+            byte separator = (byte) (firstLine.contains(";") ? ';' : ',');
+            String[] header = hasHeader ? firstLine.split(String.valueOf((char) separator)) : null;
+            int columns = Math.max(1, (int) firstLine.chars().filter(c -> c == separator).count());
+            long bodyStart = hasHeader ? Math.min(size, firstLineEnd + 1L) : 0;
+
+            int chunks = (int) Math.max(1, (size - bodyStart + chunkSize - 1) / chunkSize);
+            List<Chunk> parsed = IntStream.range(0, chunks).parallel().mapToObj(i -> {
+                long from = bodyStart + i * chunkSize;
+                long to = Math.min(size, from + chunkSize);
+                try {
+                    return parseChunk(channel, size, from, to, from > bodyStart, separator, format, columns);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+
+            OsmIdValues result = merge(header, columns, parsed);
+            long millis = System.currentTimeMillis() - start;
+            if (LOGGER.isInfoEnabled())
+                LOGGER.info("Read %d rows from '%s' in %d ms (%.1f MB/s).".formatted(result.size(), csvFile, millis, size / 1048.576 / Math.max(1, millis)));
+            return result;
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof IOException ioException)
+                throw ioException;
+            throw e;
+        }
+    }
+
+    /**
+     * @return the row of the id, or -1 if the file has no row for it
+     */
+    public int find(long osmId) {
+        int row = Arrays.binarySearch(ids, osmId);
+        return row < 0 ? -1 : row;
+    }
+
+    public double get(int row, int column) {
+        return values[row * columns + column];
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int getColumnCount() {
+        return columns;
+    }
+
+    /**
+     * @return the column names of the header line including the id column, or null if the file has no header
+     */
+    public String[] getHeader() {
+        return header;
+    }
+
+    public double min(int column) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int row = 0; row < ids.length; row++)
+            min = Math.min(min, get(row, column));
+        return min;
+    }
+
+    public double max(int column) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int row = 0; row < ids.length; row++)
+            max = Math.max(max, get(row, column));
+        return max;
+    }
+
+    private static class Chunk {
+        private final LongArrayList ids = new LongArrayList();
+        private final DoubleArrayList values = new DoubleArrayList();
+    }
+
+    /**
+     * Parse the rows starting within [from, to). A row started before {@code from} belongs to the previous chunk.
+     */
+    private static Chunk parseChunk(FileChannel channel, long size, long from, long to, boolean skipPartialRow, byte separator, ValueFormat format, int columns) throws IOException {
+        Chunk chunk = new Chunk();
+        long mapStart = skipPartialRow ? from - 1 : from;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, Math.min(size - mapStart, Integer.MAX_VALUE));
+        int end = (int) (to - mapStart);
+        int pos = 0;
+        if (skipPartialRow) {
+            while (pos < buffer.limit() && buffer.get(pos) != '\n')
+                pos++;
+            pos++;
+        }
+        double[] row = new double[columns];
+        while (pos < end) {
+            int lineEnd = pos;
+            while (lineEnd < buffer.limit() && buffer.get(lineEnd) != '\n')
+                lineEnd++;
+            if (parseRow(buffer, pos, lineEnd, separator, format, row)) {
+                chunk.ids.add(parseId(buffer, pos, lineEnd, separator));
+                chunk.values.add(row, 0, columns);
+            }
+            pos = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static long parseId(MappedByteBuffer buffer, int pos, int end, byte separator) {
+        while (pos < end && isBlank(buffer.get(pos)))
+            pos++;
+        boolean negative = pos < end && buffer.get(pos) == '-';
+        if (negative)
+            pos++;
+        long id = 0;
+        for (; pos < end && buffer.get(pos) != separator && !isBlank(buffer.get(pos)); pos++) {
+            byte b = buffer.get(pos);
+            if (b < '0' || b > '9')
+                throw new NumberFormatException("Invalid OSM id in CSV row: " + text(buffer, pos, end));
+            id = id * 10 + (b - '0');
+        }
+        return negative ? -id : id;
+    }
+
+    /**
+     * Parse the values of a row into {@code row}. Values missing at the end of the row are set to 0.
+     *
+     * @return false if the row has no id or no values and has to be skipped
+     */
+    private static boolean parseRow(MappedByteBuffer buffer, int pos, int end, byte separator, ValueFormat format, double[] row) {
+        while (end > pos && (isBlank(buffer.get(end - 1)) || buffer.get(end - 1) == separator))
+            end--;
+        int fieldStart = pos;
+        while (fieldStart < end && buffer.get(fieldStart) != separator)
+            fieldStart++;
+        if (fieldStart == end || isEmpty(buffer, pos, fieldStart))
+            return false;
+        for (int column = 0; column < row.length; column++) {
+            if (fieldStart >= end) {
+                row[column] = 0;
+                continue;
+            }
+            fieldStart++;
+            int fieldEnd = fieldStart;
+            while (fieldEnd < end && buffer.get(fieldEnd) != separator)
+                fieldEnd++;
+            row[column] = parseValue(buffer, fieldStart, fieldEnd, format);
+            fieldStart = fieldEnd;
+        }
+        if (fieldStart < end)
+            throw new NumberFormatException("More than " + row.length + " values in CSV row: " + text(buffer, pos, end));
+        return true;
+    }
+
+    private static boolean isEmpty(MappedByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isBlank(buffer.get(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parse plain decimal numbers directly, which gives the same result as the parse method of the format as long as
+     * the digits and the power of ten fit into the exactly representable range of the type. Anything else, including
+     * invalid values, is handed to the parse method.
+     */
+    private static double parseValue(MappedByteBuffer buffer, int from, int to, ValueFormat format) {
+        while (from < to && isBlank(buffer.get(from)))
+            from++;
+        while (to > from && isBlank(buffer.get(to - 1)))
+            to--;
+        int maxDigits = switch (format) {
+            case DOUBLE -> 15;
+            case FLOAT -> 7;
+            case INTEGER -> 9;
+        };
+        int maxFractionDigits = switch (format) {
+            case DOUBLE -> POWERS_OF_TEN.length - 1;
+            case FLOAT -> FLOAT_POWERS_OF_TEN.length - 1;
+            case INTEGER -> 0;
+        };
+        int pos = from;
+        boolean negative = pos < to && buffer.get(pos) == '-';
+        if (negative || pos < to && buffer.get(pos) == '+')
+            pos++;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean hasDigits = false;
+        for (; pos < to; pos++) {
+            byte b = buffer.get(pos);
+            if (b == '.' && fractionDigits < 0 && maxFractionDigits > 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9' && digits < maxDigits && fractionDigits < maxFractionDigits) {
+                mantissa = mantissa * 10 + (b - '0');
+                hasDigits = true;
+                if (mantissa > 0)
+                    digits++;
+                if (fractionDigits >= 0)
+                    fractionDigits++;
+            } else {
+                return parse(text(buffer, from, to), format);
+            }
+        }
+        if (!hasDigits)
+            return parse(text(buffer, from, to), format);
+        return switch (format) {
+            case DOUBLE -> {
+                double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+                yield negative ? -value : value;
+            }
+            case FLOAT -> {
+                float value = fractionDigits > 0 ? mantissa / FLOAT_POWERS_OF_TEN[fractionDigits] : mantissa;
+                yield negative ? -value : value;
+            }
+            case INTEGER -> negative ? -mantissa : mantissa;
+        };
+    }
+
+    private static double parse(String value, ValueFormat format) {
+        return switch (format) {
+            case DOUBLE -> Double.parseDouble(value);
+            case FLOAT -> Float.parseFloat(value);
+            case INTEGER -> Integer.parseInt(value);
+        };
+    }
+
+    private static String text(MappedByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static OsmIdValues merge(String[] header, int columns, List<Chunk> chunks) {
+        int rows = chunks.stream().mapToInt(chunk -> chunk.ids.size()).sum();
+        long[] ids = new long[rows];
+        double[] values = new double[rows * columns];
+        int offset = 0;
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.ids.buffer, 0, ids, offset, chunk.ids.size());
+            System.arraycopy(chunk.values.buffer, 0, values, offset * columns, chunk.values.size());
+            offset += chunk.ids.size();
+        }
+
+        boolean sorted = true;
+        for (int i = 1; i < rows && sorted; i++)
+            sorted = ids[i - 1] < ids[i];
+        if (sorted)
+            return new OsmIdValues(header, columns, ids, values);
+
+        // order the rows by id, the stable sort keeps rows of the same id in file order, then keep the last row of every id
+        int[] order = IndirectSort.mergesort(0, rows, (a, b) -> Long.compare(ids[a], ids[b]));
+        int unique = 0;
+        for (int i = 0; i < rows; i++) {
+            if (i + 1 < rows && ids[order[i + 1]] == ids[order[i]])
+                continue;
+            unique++;
+        }
+        long[] uniqueIds = new long[unique];
+        double[] uniqueValues = new double[unique * columns];
+        int row = 0;
+        for (int i = 0; i < rows; i++) {
+            if (i + 1 < rows && ids[order[i + 1]] == ids[order[i]])
+                continue;
+            uniqueIds[row] = ids[order[i]];
+            System.arraycopy(values, order[i] * columns, uniqueValues, row * columns, columns);
+            row++;
+        }
+        return new OsmIdValues(header, columns, uniqueIds, uniqueValues);
+    }
+}
@@ -18,15 +18,10 @@ import com.graphhopper.GraphHopper;
 import com.graphhopper.reader.ReaderWay;
 import com.graphhopper.storage.GraphExtension;
 import com.graphhopper.util.EdgeIteratorState;
-import com.graphhopper.util.Helper;
 import org.apache.log4j.Logger;
 import org.heigit.ors.routing.graphhopper.extensions.storages.ShadowIndexGraphStorage;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 
 /**
@@ -35,7 +30,7 @@ import java.util.Map;
 public class ShadowIndexGraphStorageBuilder extends AbstractGraphStorageBuilder {
     private static final Logger LOGGER = Logger.getLogger(ShadowIndexGraphStorageBuilder.class.getName());
     private ShadowIndexGraphStorage _storage;
-    private final Map<Long, Integer> osm_shadowindex_lookup = new HashMap<>();
+    private OsmIdValues osm_shadowindex_lookup;
     private final int max_level = 100;
     private final int no_data = 30;
 
@@ -58,15 +53,8 @@ public class ShadowIndexGraphStorageBuilder extends AbstractGraphStorageBuilder
     }
 
     private void readShadowIndicesFromCSV(String csvFile) throws IOException {
-        try (BufferedReader csvBuffer = new BufferedReader(new FileReader(csvFile))) {
-            String row;
-            String[] rowValues = new String[2];
-            while ((row = csvBuffer.readLine()) != null) {
-                if (!parseCSVrow(row, rowValues))
-                    continue;
-
-                osm_shadowindex_lookup.put(Long.parseLong(rowValues[0]), Integer.parseInt(rowValues[1]));
-            }
+        try {
+            osm_shadowindex_lookup = OsmIdValues.read(csvFile, false, OsmIdValues.ValueFormat.INTEGER);
         } catch (IOException openFileEx) {
             LOGGER.error(openFileEx.getStackTrace());
             throw openFileEx;
@@ -74,20 +62,6 @@ public class ShadowIndexGraphStorageBuilder extends AbstractGraphStorageBuilder
 
     }
 
-    private boolean parseCSVrow(String row, String[] rowValues) {
-        if (Helper.isEmpty(row))
-            return false;
-
-        int pos = row.indexOf(',');
-        if (pos > 0) {
-            rowValues[0] = row.substring(0, pos).trim();
-            rowValues[1] = row.substring(pos + 1).trim();
-            // read, check and push "osm_id" and "shadow level" values
-            return !Helper.isEmpty(rowValues[0]) && !Helper.isEmpty(rowValues[1]);
-        } else
-            return false;
-    }
-
     @Override
     public void processWay(ReaderWay way) {
 
@@ -101,18 +75,20 @@ public class ShadowIndexGraphStorageBuilder extends AbstractGraphStorageBuilder
     }
 
     private byte getShadowIndex(long id) {
-        Integer shadow_index = osm_shadowindex_lookup.get(id);
+        int row = osm_shadowindex_lookup.find(id);
 
-        if (shadow_index == null)
+        if (row < 0)
             return (byte) no_data;
 
+        int shadow_index = (int) osm_shadowindex_lookup.get(row, 0);
+
         if (shadow_index > max_level) {
             LOGGER.warn("\nThe shadow index value of osm way, id = " + id + " is " + shadow_index
                     + ", which is larger than than max level!");
             return (byte) max_level;
         }
 
-        return (byte) (shadow_index.intValue());
+        return (byte) shadow_index;
     }
 
     @Override
@@ -0,0 +1,57 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.util;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pulls the files of a memory mapped graph into the page cache, so that the first requests do not have to wait for
+ * the data to be read from disk. The page cache is shared, other processes serving the same graph files benefit as
+ * well.
+ */
+public class GraphPreloader {
+    private static final Logger LOGGER = Logger.getLogger(GraphPreloader.class.getName());
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    private GraphPreloader() {
+    }
+
+    /**
+     * @param graphDirectory directory holding the graph files
+     * @param percentage     share of every file to load, from the beginning of the file
+     * @return the number of bytes loaded
+     */
+    public static long preload(File graphDirectory, int percentage) {
+        File[] files = graphDirectory.listFiles(File::isFile);
+        if (files == null || percentage <= 0)
+            return 0;
+        long loaded = 0;
+        for (File file : files) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                long length = channel.size() * Math.min(percentage, 100) / 100;
+                for (long position = 0; position < length; position += CHUNK_SIZE)
+                    channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, length - position)).load();
+                loaded += length;
+            } catch (IOException e) {
+                LOGGER.warn("Unable to preload '%s': %s".formatted(file, e.getMessage()));
+            }
+        }
+        return loaded;
+    }
+}
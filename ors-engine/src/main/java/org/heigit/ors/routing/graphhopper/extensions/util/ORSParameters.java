@@ -37,6 +37,35 @@ public class ORSParameters {
     }
 
 
+    /**
+     * Parameters for flexible routing without CH or core speedup
+     */
+    public static final class Flex {
+        private Flex() {
+        }
+
+        /**
+         * This property name in HintsMap enables the array-based bidirectional ALT for a request.
+         */
+        public static final String BIDIRECTIONAL_ALT = "flex.bidirectional_alt";
+        /**
+         * This property name in HintsMap enables reading edge weights from a precomputed edge weight column.
+         */
+        public static final String EDGE_WEIGHT_COLUMN = "flex.edge_weight_column";
+        /**
+         * This property name configures at start how many edge weight columns are kept in memory, 0 disables them.
+         */
+        public static final String INIT_MAX_EDGE_WEIGHT_COLUMNS = ROUTING_INIT_PREFIX + "flex.max_edge_weight_columns";
+        /**
+         * This property name configures at start if green, noise, shadow and heat stress levels are read from a packed column.
+         */
+        public static final String INIT_ENVIRONMENTAL_FACTORS = ROUTING_INIT_PREFIX + "flex.environmental_factors";
+        /**
+         * This property name configures at start if fully flexible requests may use the array-based bidirectional ALT.
+         */
+        public static final String INIT_BIDIRECTIONAL_ALT = ROUTING_INIT_PREFIX + "flex.bidirectional_alt";
+    }
+
     /**
      * Properties for routing with contraction hierarchies speedup
      */
@@ -88,6 +117,10 @@ public class ORSParameters {
          * Specifies how many landmarks should be created
          */
         public static final String COUNT = PREPARE + "landmarks";
+        /**
+         * Specifies how many threads compute the landmark distances of a single landmark set
+         */
+        public static final String LANDMARK_THREADS = PREPARE + "landmark_threads";
         /**
          * This property name configures at start if the DISABLE parameter can have an effect.
          */
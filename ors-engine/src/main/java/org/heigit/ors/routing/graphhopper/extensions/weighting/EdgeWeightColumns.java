@@ -0,0 +1,154 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.weighting;
+
+import com.graphhopper.routing.util.AllEdgesIterator;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.Graph;
+import org.apache.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Keeps per-edge weight columns of a base graph, one column per distinct weighting configuration.
+ * <p>
+ * A column holds the fully evaluated weight of the weighting stack for both directions of every base graph edge, so
+ * that routing can read a single float per edge instead of decoding flags and storages in each sub-weighting. Columns
+ * are computed in the background on first use, requests use the plain weighting until the column is ready. The least
+ * recently used columns are dropped once more than the configured number of columns would be kept.
+ */
+public class EdgeWeightColumns {
+    private static final Logger LOGGER = Logger.getLogger(EdgeWeightColumns.class);
+
+    private final Map<String, Column> columns;
+    private final Executor executor;
+
+    public EdgeWeightColumns(int maxColumns) {
+        this(maxColumns, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ORS-edge-weight-columns");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * @param executor runs the computation of the columns
+     */
+    public EdgeWeightColumns(int maxColumns, Executor executor) {
+        if (maxColumns < 1)
+            throw new IllegalArgumentException("At least one edge weight column has to be allowed");
+        this.executor = executor;
+        columns = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Column> eldest) {
+                if (size() <= maxColumns)
+                    return false;
+                eldest.getValue().evicted = true;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Wrap the weighting so that it reads the weights of base graph edges from the column stored for the given key. If
+     * the column is not ready yet, its computation is started if necessary and the weighting is returned unchanged.
+     * The key has to identify all parameters which the edge weights of the weighting depend on.
+     *
+     * @param columnWeighting creates the weighting evaluated for the column; the column is computed on another thread,
+     *                        so it must not share the instance used by the request
+     */
+    public Weighting createWeighting(String key, Weighting weighting, Supplier<Weighting> columnWeighting, Graph baseGraph) {
+        Column column;
+        boolean created = false;
+        synchronized (columns) {
+            column = columns.get(key);
+            if (column == null) {
+                column = new Column();
+                columns.put(key, column);
+                created = true;
+            }
+        }
+        if (created) {
+            Column newColumn = column;
+            executor.execute(() -> compute(key, newColumn, columnWeighting, baseGraph));
+        }
+        float[] weights = column.weights;
+        return weights == null ? weighting : new PrecomputedEdgeWeighting(weighting, weights);
+    }
+
+    private void compute(String key, Column column, Supplier<Weighting> columnWeighting, Graph baseGraph) {
+        if (column.evicted)
+            return;
+        try {
+            long start = System.currentTimeMillis();
+            column.weights = computeWeights(baseGraph, columnWeighting.get());
+            if (LOGGER.isDebugEnabled())
+                LOGGER.debug("Computed edge weight column '%s' in %d ms".formatted(key, System.currentTimeMillis() - start));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to compute edge weight column '%s'".formatted(key), e);
+            // requests keep using the plain weighting, the next one with this key tries again
+            synchronized (columns) {
+                columns.remove(key, column);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (columns) {
+            return columns.size();
+        }
+    }
+
+    /**
+     * Stop computing columns, to be called before the graph is closed.
+     */
+    public void close() {
+        if (executor instanceof ExecutorService executorService)
+            executorService.shutdownNow();
+    }
+
+    /**
+     * Evaluate the weighting for both directions of all edges of the graph. Entry {@code 2 * edge} holds the weight in
+     * storage direction, entry {@code 2 * edge + 1} the one against it.
+     */
+    static float[] computeWeights(Graph graph, Weighting weighting) {
+        float[] weights = new float[graph.getEdges() * 2];
+        AllEdgesIterator iter = graph.getAllEdges();
+        while (iter.next()) {
+            int index = iter.getEdge() << 1;
+            weights[index] = roundUp(weighting.calcEdgeWeight(iter, false));
+            weights[index + 1] = roundUp(weighting.calcEdgeWeight(iter, true));
+        }
+        return weights;
+    }
+
+    /**
+     * Never store a weight smaller than the original one, so that lower bounds like landmark approximations remain
+     * valid for the column.
+     */
+    static float roundUp(double weight) {
+        float value = (float) weight;
+        return value < weight ? Math.nextUp(value) : value;
+    }
+
+    private static class Column {
+        private volatile float[] weights;
+        private volatile boolean evicted;
+    }
+}
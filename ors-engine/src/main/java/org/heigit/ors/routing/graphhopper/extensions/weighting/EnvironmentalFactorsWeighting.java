@@ -0,0 +1,107 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.weighting;
+
+import com.graphhopper.routing.querygraph.EdgeIteratorStateHelper;
+import com.graphhopper.routing.util.FlagEncoder;
+import com.graphhopper.routing.weighting.FastestWeighting;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.util.EdgeIteratorState;
+import com.graphhopper.util.PMap;
+import org.heigit.ors.routing.graphhopper.extensions.storages.PackedEnvironmentalFactors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates several of the green, quiet, shadow and heat stress soft weightings at once. Returns the sum of their
+ * factors, just like {@link AdditionWeighting} would, but decodes all levels from a single packed value per edge.
+ */
+public class EnvironmentalFactorsWeighting extends FastestWeighting {
+    private final int[] packedLevels;
+    private final int[] shifts;
+    private final double[][] levelFactors;
+
+    private EnvironmentalFactorsWeighting(FlagEncoder encoder, int[] packedLevels, int[] shifts, double[][] levelFactors) {
+        super(encoder, new PMap());
+        this.packedLevels = packedLevels;
+        this.shifts = shifts;
+        this.levelFactors = levelFactors;
+    }
+
+    /**
+     * Replace the environmental soft weightings whose storages are available by a single weighting reading packed
+     * levels. Nothing is changed if fewer than two of them would be combined.
+     */
+    public static List<Weighting> combine(List<Weighting> softWeightings, FlagEncoder encoder, PackedEnvironmentalFactors factors, GraphHopperStorage graphStorage) {
+        List<Weighting> others = new ArrayList<>();
+        List<Integer> shifts = new ArrayList<>();
+        List<double[]> levelFactors = new ArrayList<>();
+        String csvColumn = null;
+        for (Weighting weighting : softWeightings) {
+            if (weighting instanceof GreenWeighting green && green.isAvailable()) {
+                shifts.add(PackedEnvironmentalFactors.GREEN_SHIFT);
+                levelFactors.add(green.getLevelFactors());
+            } else if (weighting instanceof QuietWeighting quiet && quiet.isAvailable()) {
+                shifts.add(PackedEnvironmentalFactors.NOISE_SHIFT);
+                levelFactors.add(quiet.getLevelFactors());
+            } else if (weighting instanceof ShadowWeighting shadow && shadow.isAvailable()) {
+                shifts.add(PackedEnvironmentalFactors.SHADOW_SHIFT);
+                levelFactors.add(shadow.getLevelFactors());
+            } else if (weighting instanceof HeatStressWeighting heatStress && heatStress.isAvailable() && csvColumn == null) {
+                shifts.add(PackedEnvironmentalFactors.HEAT_STRESS_SHIFT);
+                levelFactors.add(heatStress.getLevelFactors());
+                csvColumn = heatStress.getColumnName();
+            } else {
+                others.add(weighting);
+            }
+        }
+        if (shifts.size() < 2)
+            return softWeightings;
+
+        int[] packedLevels = factors.getPackedLevels(graphStorage, csvColumn);
+        others.add(new EnvironmentalFactorsWeighting(encoder, packedLevels, shifts.stream().mapToInt(Integer::intValue).toArray(), levelFactors.toArray(new double[0][])));
+        return others;
+    }
+
+    @Override
+    public double calcEdgeWeight(EdgeIteratorState edgeState, boolean reverse) {
+        int packed = packedLevels[EdgeIteratorStateHelper.getOriginalEdge(edgeState)];
+        double sum = 0;
+        for (int i = 0; i < shifts.length; i++)
+            sum += levelFactors[i][PackedEnvironmentalFactors.decode(packed, shifts[i])];
+        return sum;
+    }
+
+    @Override
+    public String getName() {
+        return "environmental_factors";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        final EnvironmentalFactorsWeighting other = (EnvironmentalFactorsWeighting) obj;
+        return toString().equals(other.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return ("EnvironmentalFactorsWeighting" + this).hashCode();
+    }
+}
@@ -21,16 +21,16 @@ import com.graphhopper.util.EdgeIteratorState;
 import com.graphhopper.util.PMap;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GraphStorageUtils;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GreenIndexGraphStorage;
+import org.heigit.ors.routing.graphhopper.extensions.storages.PackedEnvironmentalFactors;
 
 /**
  * Created by lliu on 15/03/2017.
  */
 public class GreenWeighting extends FastestWeighting {
     private final GreenIndexGraphStorage gsGreenIndex;
-    private final byte[] buffer = new byte[1];
     private final double[] factors = new double[TOTAL_LEVEL];
 
-    private static final int TOTAL_LEVEL = 64;
+    private static final int TOTAL_LEVEL = PackedEnvironmentalFactors.GREEN_LEVELS;
 
     public GreenWeighting(FlagEncoder encoder, PMap map, GraphHopperStorage graphStorage) {
         super(encoder, map);
@@ -58,13 +58,21 @@ public class GreenWeighting extends FastestWeighting {
     @Override
     public double calcEdgeWeight(EdgeIteratorState edgeState, boolean reverse) {
         if (gsGreenIndex != null) {
-            int greenLevel = gsGreenIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState), buffer);
+            int greenLevel = gsGreenIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState));
             return factors[greenLevel];
         }
 
         return 1.0;
     }
 
+    boolean isAvailable() {
+        return gsGreenIndex != null;
+    }
+
+    double[] getLevelFactors() {
+        return factors.clone();
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null)
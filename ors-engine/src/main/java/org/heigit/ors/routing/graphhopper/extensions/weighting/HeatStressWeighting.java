@@ -8,11 +8,11 @@ import com.graphhopper.util.EdgeIteratorState;
 import com.graphhopper.util.PMap;
 import org.heigit.ors.routing.graphhopper.extensions.storages.CsvGraphStorage;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GraphStorageUtils;
+import org.heigit.ors.routing.graphhopper.extensions.storages.PackedEnvironmentalFactors;
 
 public class HeatStressWeighting extends FastestWeighting {
 
     private final CsvGraphStorage heatStressStorage;
-    private final byte[] buffer;
     private final double weightingFactor;
     private final String columnName;
     private final int columnIndex; // Caches index of columnName for performance reasons
@@ -20,7 +20,6 @@ public class HeatStressWeighting extends FastestWeighting {
     public HeatStressWeighting(FlagEncoder encoder, PMap map, GraphHopperStorage graphStorage) {
         super(encoder, map);
         heatStressStorage = GraphStorageUtils.getGraphExtension(graphStorage, CsvGraphStorage.class);
-        buffer = new byte[heatStressStorage.numEntries()];
 
         weightingFactor = map.getDouble("factor", 1);
         this.columnName = map.getString("column", "");
@@ -30,14 +29,34 @@ public class HeatStressWeighting extends FastestWeighting {
     @Override
     public double calcEdgeWeight(EdgeIteratorState edgeState, boolean reverse) {
         if (heatStressStorage != null) {
-            int stressLevel = heatStressStorage.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState), columnIndex, buffer);
-            // Convert value range from [0,100] to [1,2] to avoid large detours and multiply by user weighting in API request
-            return (stressLevel * 0.01 * weightingFactor) + 1;
+            int stressLevel = heatStressStorage.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState), columnIndex);
+            return calcHeatStressFactor(stressLevel);
         }
 
         return 1.0;
     }
 
+    private double calcHeatStressFactor(int stressLevel) {
+        // Convert value range from [0,100] to [1,2] to avoid large detours and multiply by user weighting in API request
+        return (stressLevel * 0.01 * weightingFactor) + 1;
+    }
+
+    boolean isAvailable() {
+        return heatStressStorage != null;
+    }
+
+    String getColumnName() {
+        return columnName;
+    }
+
+    double[] getLevelFactors() {
+        // indexed by the unsigned byte, while the storage returns the signed value
+        double[] factors = new double[PackedEnvironmentalFactors.BYTE_LEVELS];
+        for (int i = 0; i < factors.length; i++)
+            factors[i] = calcHeatStressFactor((byte) i);
+        return factors;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null)
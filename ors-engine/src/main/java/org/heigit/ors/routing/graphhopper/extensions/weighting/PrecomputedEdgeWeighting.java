@@ -0,0 +1,65 @@
+/*  This file is part of Openrouteservice.
+ *
+ *  Openrouteservice is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2.1
+ *  of the License, or (at your option) any later version.
+
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+
+ *  You should have received a copy of the GNU Lesser General Public License along with this library;
+ *  if not, see <https://www.gnu.org/licenses/>.
+ */
+package org.heigit.ors.routing.graphhopper.extensions.weighting;
+
+import com.graphhopper.routing.weighting.AbstractAdjustedWeighting;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.util.EdgeIteratorState;
+
+/**
+ * Reads the weights of base graph edges from a column precomputed by {@link EdgeWeightColumns}. Virtual edges
+ * created for a query are not part of the column and are passed on to the wrapped weighting.
+ */
+public class PrecomputedEdgeWeighting extends AbstractAdjustedWeighting {
+    private final float[] weights;
+    private final int baseEdges;
+
+    public PrecomputedEdgeWeighting(Weighting superWeighting, float[] weights) {
+        super(superWeighting);
+        this.weights = weights;
+        this.baseEdges = weights.length >> 1;
+    }
+
+    @Override
+    public double calcEdgeWeight(EdgeIteratorState edgeState, boolean reverse) {
+        int edge = edgeState.getEdge();
+        if (edge >= baseEdges)
+            return superWeighting.calcEdgeWeight(edgeState, reverse);
+        return weights[index(edge, edgeState, reverse)];
+    }
+
+    @Override
+    public double calcEdgeWeight(EdgeIteratorState edgeState, boolean reverse, long edgeEnterTime) {
+        int edge = edgeState.getEdge();
+        if (edge >= baseEdges)
+            return superWeighting.calcEdgeWeight(edgeState, reverse, edgeEnterTime);
+        return weights[index(edge, edgeState, reverse)];
+    }
+
+    private static int index(int edge, EdgeIteratorState edgeState, boolean reverse) {
+        // the column is laid out in storage direction of the edges
+        boolean againstStorageDirection = reverse != edgeState.get(EdgeIteratorState.REVERSE_STATE);
+        return (edge << 1) + (againstStorageDirection ? 1 : 0);
+    }
+
+    @Override
+    public String getName() {
+        return superWeighting.getName();
+    }
+
+    @Override
+    public String toString() {
+        return "precomputed|" + superWeighting.toString();
+    }
+}
@@ -21,15 +21,15 @@ import com.graphhopper.util.EdgeIteratorState;
 import com.graphhopper.util.PMap;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GraphStorageUtils;
 import org.heigit.ors.routing.graphhopper.extensions.storages.NoiseIndexGraphStorage;
+import org.heigit.ors.routing.graphhopper.extensions.storages.PackedEnvironmentalFactors;
 
 public class QuietWeighting extends FastestWeighting {
+    private static final int NOISE_LEVELS = PackedEnvironmentalFactors.NOISE_LEVELS;
     private final NoiseIndexGraphStorage gsNoiseIndex;
-    private final byte[] buffer;
     private double weightingFactor = 1;
 
     public QuietWeighting(FlagEncoder encoder, PMap map, GraphHopperStorage graphStorage) {
         super(encoder, map);
-        buffer = new byte[1];
         gsNoiseIndex = GraphStorageUtils.getGraphExtension(graphStorage, NoiseIndexGraphStorage.class);
         weightingFactor = map.getDouble("factor", 1);
     }
@@ -50,13 +50,24 @@ public class QuietWeighting extends FastestWeighting {
     @Override
     public double calcEdgeWeight(EdgeIteratorState edgeState, boolean reverse) {
         if (gsNoiseIndex != null) {
-            int noiseLevel = gsNoiseIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState), buffer);
+            int noiseLevel = gsNoiseIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState));
             return calcNoiseWeightFactor(noiseLevel);
         }
 
         return 1.0;
     }
 
+    boolean isAvailable() {
+        return gsNoiseIndex != null;
+    }
+
+    double[] getLevelFactors() {
+        double[] factors = new double[NOISE_LEVELS];
+        for (int i = 0; i < factors.length; i++)
+            factors[i] = calcNoiseWeightFactor(i);
+        return factors;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null)
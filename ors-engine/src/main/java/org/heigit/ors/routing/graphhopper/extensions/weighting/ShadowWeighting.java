@@ -21,13 +21,13 @@ import com.graphhopper.util.EdgeIteratorState;
 import com.graphhopper.util.PMap;
 import org.apache.log4j.Logger;
 import org.heigit.ors.routing.graphhopper.extensions.storages.GraphStorageUtils;
+import org.heigit.ors.routing.graphhopper.extensions.storages.PackedEnvironmentalFactors;
 import org.heigit.ors.routing.graphhopper.extensions.storages.ShadowIndexGraphStorage;
 
 public class ShadowWeighting extends FastestWeighting {
 
     private static final Logger LOGGER = Logger.getLogger(ShadowWeighting.class.getName());
     private final ShadowIndexGraphStorage _shadowIndexStorage;
-    private final byte[] _buffer = new byte[1];
     private final double _userWeighting;
 
     public ShadowWeighting(FlagEncoder encoder, PMap map, GraphHopperStorage graphStorage) {
@@ -47,10 +47,22 @@ public class ShadowWeighting extends FastestWeighting {
     @Override
     public double calcEdgeWeight(EdgeIteratorState edgeState, boolean reverse) {
         int shadowValue = _shadowIndexStorage
-                .getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState), _buffer);
+                .getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState));
         return calShadowWeighting(shadowValue);
     }
 
+    boolean isAvailable() {
+        return _shadowIndexStorage != null;
+    }
+
+    double[] getLevelFactors() {
+        // indexed by the unsigned byte, while the storage returns the signed value
+        double[] factors = new double[PackedEnvironmentalFactors.BYTE_LEVELS];
+        for (int i = 0; i < factors.length; i++)
+            factors[i] = calShadowWeighting((byte) i);
+        return factors;
+    }
+
     @Override
     public String getName() {
         return "shadow";
@@ -25,7 +25,6 @@ import org.heigit.ors.routing.graphhopper.extensions.storages.HillIndexGraphStor
 public class SteepnessDifficultyWeighting extends FastestWeighting {
 
     private final HillIndexGraphStorage gsHillIndex;
-    private final byte[] buffer;
     private double[] difficultyWeights;
 
     private static final double[][] BIKE_DIFFICULTY_MATRIX = { // [4][20]
@@ -37,7 +36,6 @@ public class SteepnessDifficultyWeighting extends FastestWeighting {
 
     public SteepnessDifficultyWeighting(FlagEncoder encoder, PMap map, GraphHopperStorage graphStorage) {
         super(encoder, map);
-        buffer = new byte[1];
         int difficultyLevel = map.getInt("level", -1);
         gsHillIndex = GraphStorageUtils.getGraphExtension(graphStorage, HillIndexGraphStorage.class);
         // TODO: Check for upper bound of difficultyLevel. What is the right behavior here?
@@ -51,7 +49,7 @@ public class SteepnessDifficultyWeighting extends FastestWeighting {
     public double calcEdgeWeight(EdgeIteratorState edgeState, boolean reverse) {
         if (gsHillIndex != null) {
             boolean revert = edgeState.getBaseNode() < edgeState.getAdjNode();
-            int hillIndex = gsHillIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState), revert, buffer);
+            int hillIndex = gsHillIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edgeState), revert);
 
             if (difficultyWeights != null) {
                 // TODO: Clarify whether hillIndex should be checked for out of bounds.
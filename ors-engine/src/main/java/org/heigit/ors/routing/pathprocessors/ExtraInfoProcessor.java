@@ -110,7 +110,6 @@ public class ExtraInfoProcessor implements PathProcessor {
     private int profileType = RoutingProfileType.UNKNOWN;
     private final FlagEncoder encoder;
     private final boolean encoderWithPriority;
-    private final byte[] buffer;
     private static final Logger LOGGER = Logger.getLogger(ExtraInfoProcessor.class.getName());
 
     private String skippedExtraInfo = "";
@@ -284,7 +283,6 @@ public class ExtraInfoProcessor implements PathProcessor {
         if (!skippedExtras.isEmpty()) {
             skippedExtraInfo = String.join(", ", skippedExtras);
         }
-        buffer = new byte[4];
     }
 
     /**
@@ -435,7 +433,7 @@ public class ExtraInfoProcessor implements PathProcessor {
         }
 
         if (extWaySurface != null && wayTypeInfo != null || surfaceInfo != null) {
-            WaySurfaceDescription wsd = extWaySurface.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer);
+            WaySurfaceDescription wsd = extWaySurface.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge));
 
             if (surfaceInfoBuilder != null)
                 surfaceInfoBuilder.addSegment(wsd.getSurfaceType(), wsd.getSurfaceType(), geom, dist);
@@ -445,7 +443,7 @@ public class ExtraInfoProcessor implements PathProcessor {
         }
 
         if (wayCategoryInfoBuilder != null) {
-            int value = extWayCategory.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer);
+            int value = extWayCategory.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge));
             wayCategoryInfoBuilder.addSegment(value, value, geom, dist);
         }
 
@@ -455,13 +453,13 @@ public class ExtraInfoProcessor implements PathProcessor {
                 boolean uphill = false;
                 if (extHillIndex != null) {
                     boolean revert = edge.getBaseNode() > edge.getAdjNode();
-                    int hillIndex = extHillIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), revert, buffer);
+                    int hillIndex = extHillIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), revert);
                     if (hillIndex > 0)
                         uphill = true;
                 }
-                value = extTrailDifficulty.getMtbScale(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer, uphill);
+                value = extTrailDifficulty.getMtbScale(EdgeIteratorStateHelper.getOriginalEdge(edge), uphill);
             } else if (RoutingProfileType.isWalking(profileType))
-                value = extTrailDifficulty.getHikingScale(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer);
+                value = extTrailDifficulty.getHikingScale(EdgeIteratorStateHelper.getOriginalEdge(edge));
 
             trailDifficultyInfoBuilder.addSegment(value, value, geom, dist);
         }
@@ -492,7 +490,7 @@ public class ExtraInfoProcessor implements PathProcessor {
         }
 
         if (greenInfoBuilder != null) {
-            int value = extGreenIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer);
+            int value = extGreenIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge));
             // This number is how many levels client can display in the stats bar
             // FIXME should be changed when the specific bar legend for green routing is finished
             int minClientVal = 3;
@@ -502,7 +500,7 @@ public class ExtraInfoProcessor implements PathProcessor {
         }
 
         if (noiseInfoBuilder != null) {
-            int noiseLevel = extNoiseIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer);
+            int noiseLevel = extNoiseIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge));
             // convert the noise level (from 0 to 3) to the values (from 7 to 10) for the client
             if (noiseLevel > 3)
                 noiseLevel = 3;
@@ -518,17 +516,17 @@ public class ExtraInfoProcessor implements PathProcessor {
         }
 
         if (roadAccessRestrictionsInfoBuilder != null) {
-            int value = extRoadAccessRestrictions.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer);
+            int value = extRoadAccessRestrictions.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge));
             roadAccessRestrictionsInfoBuilder.addSegment(value, value, geom, dist);
         }
 
         if (csvInfoBuilder != null) {
-            int value = extCsvData.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), csvColumn, buffer);
+            int value = extCsvData.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), csvColumn);
             csvInfoBuilder.addSegment(value, value, geom, dist);
         }
 
         if (shadowInfoBuilder != null) {
-            int shadowLevel = extShadowIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge), buffer);
+            int shadowLevel = extShadowIndex.getEdgeValue(EdgeIteratorStateHelper.getOriginalEdge(edge));
             shadowInfoBuilder.addSegment(shadowLevel, shadowLevel, geom, dist);
         }
     }
@@ -15,6 +15,15 @@ package org.heigit.ors.util;
 
 import org.locationtech.jts.geom.Coordinate;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoded polyline algorithm with an optional third value per point holding the elevation in centimeters.
+ * <p>
+ * Besides the {@link String} based encoding, the polyline can be written into a caller provided char array, which
+ * needs {@link #encodedLength(Coordinate[], boolean)} chars, without any intermediate objects.
+ */
 public class PolylineEncoder {
     private PolylineEncoder() {
     }
@@ -50,14 +59,122 @@ public class PolylineEncoder {
         return buffer.toString();
     }
 
+    /**
+     * @return the number of characters of the encoded polyline
+     */
+    public static int encodedLength(final Coordinate[] coords, boolean includeElevation) {
+        int length = 0;
+        long prevLat = 0;
+        long prevLon = 0;
+        long prevEle = 0;
+        for (final Coordinate c : coords) {
+            long lat = Math.round(c.y * 1e5);
+            long lon = Math.round(c.x * 1e5);
+            length += encodedLength(lat - prevLat) + encodedLength(lon - prevLon);
+            if (includeElevation) {
+                long elev = (long) Math.floor(c.z * 100);
+                length += encodedLength(elev - prevEle);
+                prevEle = elev;
+            }
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return length;
+    }
+
+    /**
+     * Write the encoded polyline into the buffer, which needs to have room for
+     * {@link #encodedLength(Coordinate[], boolean)} chars after the offset.
+     *
+     * @return the position after the last written char
+     */
+    public static int encode(final Coordinate[] coords, boolean includeElevation, char[] buffer, int offset) {
+        int pos = offset;
+        long prevLat = 0;
+        long prevLon = 0;
+        long prevEle = 0;
+        for (final Coordinate c : coords) {
+            long lat = Math.round(c.y * 1e5);
+            long lon = Math.round(c.x * 1e5);
+            pos = encode(lat - prevLat, buffer, pos);
+            pos = encode(lon - prevLon, buffer, pos);
+            if (includeElevation) {
+                long elev = (long) Math.floor(c.z * 100);
+                pos = encode(elev - prevEle, buffer, pos);
+                prevEle = elev;
+            }
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return pos;
+    }
+
+    /**
+     * Decode a polyline created by {@link #encode}. Coordinates are restored with the precision of the encoding,
+     * i.e. five decimals and elevations in centimeters.
+     *
+     * @throws IllegalArgumentException if the polyline is truncated or contains invalid characters
+     */
+    public static Coordinate[] decode(CharSequence encoded, boolean includeElevation) {
+        int valuesPerPoint = includeElevation ? 3 : 2;
+        long[] values = new long[valuesPerPoint];
+        List<Coordinate> coords = new ArrayList<>();
+        int pos = 0;
+        int length = encoded.length();
+        while (pos < length) {
+            for (int i = 0; i < valuesPerPoint; i++) {
+                long result = 0;
+                int shift = 0;
+                int b;
+                do {
+                    if (pos >= length)
+                        throw new IllegalArgumentException("Encoded polyline ends within a value at position " + pos);
+                    b = encoded.charAt(pos++) - 63;
+                    if (b < 0 || b > 0x3f || shift > 60)
+                        throw new IllegalArgumentException("Invalid character in encoded polyline at position " + (pos - 1));
+                    result |= (long) (b & 0x1f) << shift;
+                    shift += 5;
+                } while (b >= 0x20);
+                values[i] += (result & 1) != 0 ? ~(result >>> 1) : result >>> 1;
+            }
+            Coordinate c = new Coordinate(values[1] / 1e5, values[0] / 1e5);
+            if (includeElevation)
+                c.z = values[2] / 100.0;
+            coords.add(c);
+        }
+        return coords.toArray(new Coordinate[0]);
+    }
+
     private static void encode(long v, StringBuilder buffer) {
         v = v < 0 ? ~(v << 1) : v << 1;
 
         while (v >= 0x20) {
-            buffer.append(Character.toChars((int) ((0x20 | (v & 0x1f)) + 63)));
+            buffer.append((char) ((0x20 | (v & 0x1f)) + 63));
+            v >>= 5;
+        }
+
+        buffer.append((char) (v + 63));
+    }
+
+    private static int encode(long v, char[] buffer, int pos) {
+        v = v < 0 ? ~(v << 1) : v << 1;
+
+        while (v >= 0x20) {
+            buffer[pos++] = (char) ((0x20 | (v & 0x1f)) + 63);
             v >>= 5;
         }
 
-        buffer.append(Character.toChars((int) (v + 63)));
+        buffer[pos++] = (char) (v + 63);
+        return pos;
+    }
+
+    private static int encodedLength(long v) {
+        v = v < 0 ? ~(v << 1) : v << 1;
+        int length = 1;
+        while (v >= 0x20) {
+            length++;
+            v >>= 5;
+        }
+        return length;
     }
 }
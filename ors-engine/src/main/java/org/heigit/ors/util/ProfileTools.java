@@ -17,6 +17,7 @@ public class ProfileTools {
     public static final String KEY_METHODS_CH = "methods.ch";
     public static final String KEY_ENABLED = "enabled";
     public static final String KEY_THREADS = "threads";
+    public static final String KEY_LANDMARK_THREADS = "landmark_threads";
     public static final String KEY_WEIGHTINGS = "weightings";
     public static final String KEY_LMSETS = "lmsets";
     public static final String KEY_MAXCELLNODES = "maxcellnodes";
@@ -25,6 +26,10 @@ public class ProfileTools {
     public static final String KEY_METHODS_CORE = "methods.core";
     public static final String KEY_DISABLING_ALLOWED = "disabling_allowed";
     public static final String KEY_ACTIVE_LANDMARKS = "active_landmarks";
+    public static final String KEY_METHODS_FLEX = "methods.flex";
+    public static final String KEY_EDGE_WEIGHT_COLUMNS = "edge_weight_columns";
+    public static final String KEY_ENVIRONMENTAL_FACTORS = "environmental_factors";
+    public static final String KEY_BIDIRECTIONAL_ALT = "bidirectional_alt";
     public static final String KEY_TOTAL_POP = "total_pop";
     public static final String KEY_TOTAL_AREA_KM = "total_area_km";
     public static final int KEY_FLEX_STATIC = 0;
@@ -5,14 +5,22 @@ import com.graphhopper.routing.util.EncodingManager;
 import com.graphhopper.routing.weighting.FastestWeighting;
 import com.graphhopper.routing.weighting.ShortestWeighting;
 import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.DataAccess;
+import com.graphhopper.storage.Directory;
 import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.storage.RAMDirectory;
 import org.heigit.ors.fastisochrones.partitioning.storage.CellStorage;
 import org.heigit.ors.fastisochrones.partitioning.storage.IsochroneNodeStorage;
 import org.heigit.ors.fastisochrones.storage.BorderNodeDistanceSet;
+import org.heigit.ors.fastisochrones.storage.BorderNodeDistanceStorage;
 import org.heigit.ors.fastisochrones.storage.EccentricityStorage;
 import org.heigit.ors.routing.graphhopper.extensions.edgefilters.EdgeFilterSequence;
+import org.heigit.ors.util.FileUtility;
 import org.heigit.ors.util.ToyGraphCreationUtil;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +29,8 @@ class CellPropertiesTest {
     private final EncodingManager encodingManager = EncodingManager.create(carEncoder);
     private IsochroneNodeStorage ins;
     private CellStorage cs;
+    @TempDir
+    Path graphDirectory;
 
     private void createMockStorages(GraphHopperStorage ghStorage) {
         IsochroneNodeStorage isochroneNodeStorage = new IsochroneNodeStorage(6, ghStorage.getDirectory());
@@ -96,6 +106,81 @@ class CellPropertiesTest {
         assertEquals(2.0, borderNodeDistanceSet.getAdjBorderNodeDistances()[0], 1e-10);
     }
 
+    @Test
+    void testBorderNodeDistanceIterator() {
+        GraphHopperStorage graphHopperStorage = ToyGraphCreationUtil.createSimpleGraph(encodingManager);
+        createMockStorages(graphHopperStorage);
+        Eccentricity ecc = new Eccentricity(graphHopperStorage, null, ins, cs);
+        Weighting shortestWeighting = new ShortestWeighting(carEncoder);
+
+        ecc.loadExisting(shortestWeighting);
+        ecc.calcBorderNodeDistances(shortestWeighting, new EdgeFilterSequence(), carEncoder);
+        BorderNodeDistanceStorage.BorderNodeDistanceIterator iterator = ecc.getBorderNodeDistanceStorage(shortestWeighting).createBorderNodeDistanceIterator();
+        iterator.setBaseNode(0);
+        assertTrue(iterator.next());
+        assertEquals(2, iterator.getAdjBorderNode());
+        assertEquals(1.0, iterator.getDistance(), 1e-10);
+        assertFalse(iterator.next());
+
+        //The same iterator can be reused for another bordernode
+        iterator.setBaseNode(3);
+        assertTrue(iterator.next());
+        assertEquals(4, iterator.getAdjBorderNode());
+        assertEquals(2.0, iterator.getDistance(), 1e-10);
+        assertFalse(iterator.next());
+    }
+
+    @Test
+    void testBorderNodeDistanceStorageLoadExisting() {
+        GraphHopperStorage graphHopperStorage = ToyGraphCreationUtil.createSimpleGraph(encodingManager);
+        createMockStorages(graphHopperStorage);
+        Weighting shortestWeighting = new ShortestWeighting(carEncoder);
+        BorderNodeDistanceStorage storage = new BorderNodeDistanceStorage(createStoredDirectory(), shortestWeighting, ins, 6);
+        storage.init();
+        storage.storeBorderNodeDistanceSet(0, new BorderNodeDistanceSet(new int[]{2}, new double[]{1.0}));
+        storage.storeBorderNodeDistanceSet(2, new BorderNodeDistanceSet(new int[]{0}, new double[]{1.0}));
+        storage.storeBorderNodeDistanceSet(3, new BorderNodeDistanceSet(new int[]{4}, new double[]{2.5}));
+        storage.storeBorderNodeDistanceSet(4, new BorderNodeDistanceSet(new int[0], new double[0]));
+        storage.storeBorderNodeToPointerMap();
+        storage.flush();
+        storage.close();
+
+        BorderNodeDistanceStorage loaded = new BorderNodeDistanceStorage(createStoredDirectory(), shortestWeighting, ins, 6);
+        assertTrue(loaded.loadExisting());
+        BorderNodeDistanceSet borderNodeDistanceSet = loaded.getBorderNodeDistanceSet(3);
+        assertArrayEquals(new int[]{4}, borderNodeDistanceSet.getAdjBorderNodeIds());
+        assertArrayEquals(new double[]{2.5}, borderNodeDistanceSet.getAdjBorderNodeDistances(), 1e-10);
+        assertEquals(0, loaded.getBorderNodeDistanceSet(4).getAdjBorderNodeIds().length);
+        BorderNodeDistanceStorage.BorderNodeDistanceIterator iterator = loaded.createBorderNodeDistanceIterator();
+        iterator.setBaseNode(0);
+        assertTrue(iterator.next());
+        assertEquals(2, iterator.getAdjBorderNode());
+        assertEquals(1.0, iterator.getDistance(), 1e-10);
+        assertFalse(iterator.next());
+    }
+
+    @Test
+    void testBorderNodeDistanceStorageWithOtherLayoutIsRejected() {
+        GraphHopperStorage graphHopperStorage = ToyGraphCreationUtil.createSimpleGraph(encodingManager);
+        createMockStorages(graphHopperStorage);
+        Weighting shortestWeighting = new ShortestWeighting(carEncoder);
+        BorderNodeDistanceStorage storage = new BorderNodeDistanceStorage(createStoredDirectory(), shortestWeighting, ins, 6);
+        storage.init();
+        storage.storeBorderNodeToPointerMap();
+        storage.flush();
+        storage.close();
+
+        //Distances stored with the sentinel layout have no version in the header
+        DataAccess borderNodes = createStoredDirectory().find("bordernodes_" + FileUtility.weightingToFileName(shortestWeighting));
+        assertTrue(borderNodes.loadExisting());
+        borderNodes.setHeader(4, 0);
+        borderNodes.flush();
+        borderNodes.close();
+
+        BorderNodeDistanceStorage loaded = new BorderNodeDistanceStorage(createStoredDirectory(), shortestWeighting, ins, 6);
+        assertThrows(IllegalStateException.class, loaded::loadExisting);
+    }
+
     @Test
     void testGetEccentricityOfNonBorderNode() {
         GraphHopperStorage graphHopperStorage = ToyGraphCreationUtil.createSimpleGraph(encodingManager);
@@ -115,4 +200,8 @@ class CellPropertiesTest {
         double distance2 = Contour.distance(1, 1, 0.5, -0.5);
         assertEquals(111177.99068882648, distance2, 1e-10);
     }
+
+    private Directory createStoredDirectory() {
+        return new RAMDirectory(graphDirectory.toString(), true);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package org.heigit.ors.fastisochrones;
 import com.graphhopper.routing.util.CarFlagEncoder;
 import com.graphhopper.routing.util.EncodingManager;
 import com.graphhopper.storage.GraphHopperStorage;
+import org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters;
 import org.heigit.ors.fastisochrones.partitioning.storage.CellStorage;
 import org.heigit.ors.fastisochrones.partitioning.storage.IsochroneNodeStorage;
 import org.heigit.ors.util.ToyGraphCreationUtil;
@@ -46,6 +47,28 @@ class ContourTest {
         assertEquals(1.0002998858757293, coordinatesCell2.get(3), 1e-3);
     }
 
+    @Test
+    void testCalculateContourIndependentOfThreadCount() {
+        int maxThreadCount = FastIsochroneParameters.getMaxThreadCount();
+        try {
+            FastIsochroneParameters.setMaxThreadCount(1);
+            GraphHopperStorage singleThreadStorage = ToyGraphCreationUtil.createSimpleGraph(encodingManager);
+            createMockStorages(singleThreadStorage);
+            new Contour(singleThreadStorage, singleThreadStorage.getBaseGraph().getNodeAccess(), ins, cs).calculateContour();
+            CellStorage singleThreadCellStorage = cs;
+
+            FastIsochroneParameters.setMaxThreadCount(4);
+            GraphHopperStorage multiThreadStorage = ToyGraphCreationUtil.createSimpleGraph(encodingManager);
+            createMockStorages(multiThreadStorage);
+            new Contour(multiThreadStorage, multiThreadStorage.getBaseGraph().getNodeAccess(), ins, cs).calculateContour();
+
+            for (int cellId : new int[]{2, 3})
+                assertEquals(singleThreadCellStorage.getCellContourOrder(cellId), cs.getCellContourOrder(cellId));
+        } finally {
+            FastIsochroneParameters.setMaxThreadCount(maxThreadCount);
+        }
+    }
+
     @Test
     void testDistance() {
         double distance = Contour.distance(1, 1, 1, 2);
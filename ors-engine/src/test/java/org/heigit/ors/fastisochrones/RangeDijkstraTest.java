@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.heigit.ors.fastisochrones.partitioning.FastIsochroneParameters.getMaxCellNodesNumber;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class RangeDijkstraTest {
     private final CarFlagEncoder carEncoder = new CarFlagEncoder();
@@ -63,4 +64,26 @@ class RangeDijkstraTest {
         rangeDijkstra.setCellNodes(cellNodes);
         assertEquals(1.0, rangeDijkstra.calcMaxWeight(0, relevantNodes), 1e-10);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testResetAllowsReuse() {
+        GraphHopperStorage graphHopperStorage = createSimpleGraph();
+        RangeDijkstra rangeDijkstra = new RangeDijkstra(graphHopperStorage.getBaseGraph(), new ShortestWeighting(carEncoder));
+        rangeDijkstra.setMaxVisitedNodes(getMaxCellNodesNumber() * 10);
+        IntHashSet cellNodes = new IntHashSet();
+        IntHashSet relevantNodes = new IntHashSet();
+        cellNodes.addAll(0, 1, 2, 5);
+        relevantNodes.addAll(0, 1, 2);
+        rangeDijkstra.setCellNodes(cellNodes);
+        assertEquals(3.0, rangeDijkstra.calcMaxWeight(0, cellNodes), 1e-10);
+        assertEquals(4, rangeDijkstra.getFoundCellNodeSize());
+        assertThrows(IllegalStateException.class, () -> rangeDijkstra.calcMaxWeight(0, relevantNodes));
+
+        rangeDijkstra.reset();
+        assertEquals(1.0, rangeDijkstra.calcMaxWeight(0, relevantNodes), 1e-10);
+        assertEquals(4, rangeDijkstra.getFoundCellNodeSize());
+
+        rangeDijkstra.reset();
+        assertEquals(4.0, rangeDijkstra.calcMaxWeight(5, relevantNodes), 1e-10);
+    }
+}
@@ -0,0 +1,75 @@
+package org.heigit.ors.fastisochrones.partitioning;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.graphhopper.routing.util.CarFlagEncoder;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.storage.Graph;
+import org.heigit.ors.util.ToyGraphCreationUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ArrayEdmondsKarpAStarTest {
+    private final CarFlagEncoder carEncoder = new CarFlagEncoder();
+    private final EncodingManager encodingManager = EncodingManager.create(carEncoder);
+
+    @Test
+    void testGetMaxFlowGoodProjection() {
+        Graph graph = ToyGraphCreationUtil.createMediumGraph(encodingManager).getBaseGraph();
+        IntArrayList projection_p675 = new IntArrayList();
+        projection_p675.add(1, 2, 3, 0, 8, 6, 4, 7, 5);
+
+        ArrayEdmondsKarpAStar maxFlowMinCut = new ArrayEdmondsKarpAStar(new FlowGraph(graph, null, projection_p675), projection_p675);
+        assertEquals(2, maxFlowMinCut.getMaxFlow(() -> Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testGetMaxFlowBadProjection() {
+        Graph graph = ToyGraphCreationUtil.createMediumGraph(encodingManager).getBaseGraph();
+        IntArrayList projection_m45 = new IntArrayList();
+        projection_m45.add(8, 7, 5, 6, 0, 1, 4, 2, 3);
+
+        FlowGraph flowGraph = new FlowGraph(graph, null, projection_m45);
+        assertEquals(4, new ArrayEdmondsKarpAStar(flowGraph, projection_m45).getMaxFlow(() -> Integer.MAX_VALUE));
+        //Exceeding the limit aborts the computation
+        assertEquals(Integer.MAX_VALUE, new ArrayEdmondsKarpAStar(flowGraph, projection_m45).getMaxFlow(() -> 3));
+    }
+
+    @Test
+    void testSameCutAsEdmondsKarpAStar() {
+        Graph graph = ToyGraphCreationUtil.createMediumGraph(encodingManager).getBaseGraph();
+        IntArrayList projection_m00 = new IntArrayList();
+        projection_m00.add(1, 2, 3, 0, 4, 6, 8, 5, 7);
+        IntArrayList projection_p675 = new IntArrayList();
+        projection_p675.add(1, 2, 3, 0, 8, 6, 4, 7, 5);
+        //All projections of a cell share one flow graph
+        FlowGraph flowGraph = new FlowGraph(graph, null, projection_m00);
+
+        for (IntArrayList projection : new IntArrayList[]{projection_m00, projection_p675}) {
+            PartitioningData pData = new PartitioningData();
+            new PartitioningDataBuilder(graph, pData).run();
+            MaxFlowMinCut edmondsKarp = new EdmondsKarpAStar(graph, pData, null);
+            edmondsKarp.setOrderedNodes(projection);
+            edmondsKarp.setNodeOrder();
+            edmondsKarp.reset();
+            int expectedFlow = edmondsKarp.getMaxFlow();
+            BiPartition expected = edmondsKarp.calcNodePartition();
+
+            ArrayEdmondsKarpAStar maxFlowMinCut = new ArrayEdmondsKarpAStar(flowGraph, projection);
+            assertEquals(expectedFlow, maxFlowMinCut.getMaxFlow(() -> Integer.MAX_VALUE));
+            BiPartition actual = maxFlowMinCut.calcNodePartition();
+            assertEquals(expected.getPartition(0), actual.getPartition(0));
+            assertEquals(expected.getPartition(1), actual.getPartition(1));
+        }
+    }
+
+    @Test
+    void testSingleEdgeGraph() {
+        Graph graph = ToyGraphCreationUtil.createSingleEdgeGraph(encodingManager).getBaseGraph();
+        IntArrayList projection = new IntArrayList();
+        projection.add(0, 1);
+
+        ArrayEdmondsKarpAStar maxFlowMinCut = new ArrayEdmondsKarpAStar(new FlowGraph(graph, null, projection), projection);
+        assertEquals(1, maxFlowMinCut.getMaxFlow(() -> Integer.MAX_VALUE));
+    }
+}
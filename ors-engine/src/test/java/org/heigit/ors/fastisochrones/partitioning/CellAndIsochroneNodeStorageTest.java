@@ -1,19 +1,35 @@
 package org.heigit.ors.fastisochrones.partitioning;
 
+import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
 import com.graphhopper.routing.util.CarFlagEncoder;
 import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.storage.DataAccess;
+import com.graphhopper.storage.Directory;
 import com.graphhopper.storage.GraphBuilder;
 import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.storage.RAMDirectory;
+import org.heigit.ors.fastisochrones.partitioning.storage.CellHierarchy;
 import org.heigit.ors.fastisochrones.partitioning.storage.CellStorage;
 import org.heigit.ors.fastisochrones.partitioning.storage.IsochroneNodeStorage;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class CellAndIsochroneNodeStorageTest {
     private final CarFlagEncoder carEncoder = new CarFlagEncoder();
     private final EncodingManager encodingManager = EncodingManager.create(carEncoder);
+    @TempDir
+    Path graphDirectory;
 
     GraphHopperStorage createGHStorage() {
         return new GraphBuilder(encodingManager).create();
@@ -112,4 +128,154 @@ class CellAndIsochroneNodeStorageTest {
         assertEquals(nodesCell2, cs.getNodesOfCell(2));
         assertEquals(nodesCell3, cs.getNodesOfCell(3));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCellNodeCountAndIterator() {
+        GraphHopperStorage ghStorage = createGHStorage();
+        IsochroneNodeStorage isochroneNodeStorage = initIsochroneNodeStorage(ghStorage);
+        CellStorage cs = new CellStorage(5, ghStorage.getDirectory(), isochroneNodeStorage);
+        cs.init();
+        cs.calcCellNodesMap();
+        assertEquals(2, cs.getNodeCountOfCell(2));
+        assertEquals(3, cs.getNodeCountOfCell(3));
+        IntHashSet nodesCell3 = new IntHashSet();
+        cs.getNodesOfCellIterator(3).forEachRemaining((int node) -> nodesCell3.add(node));
+        assertEquals(cs.getNodesOfCell(3), nodesCell3);
+        assertThrows(IllegalArgumentException.class, () -> cs.getNodeCountOfCell(4));
+    }
+
+    @Test
+    void testCellContour() {
+        GraphHopperStorage ghStorage = createGHStorage();
+        IsochroneNodeStorage isochroneNodeStorage = initIsochroneNodeStorage(ghStorage);
+        CellStorage cs = new CellStorage(5, ghStorage.getDirectory(), isochroneNodeStorage);
+        cs.init();
+        cs.calcCellNodesMap();
+        cs.setCellContourOrder(2, List.of(1.0, 1.5), List.of(2.0, 2.5));
+        cs.setCellContourOrder(3, List.of(), List.of());
+        cs.storeContourPointerMap();
+
+        assertEquals(2, cs.getContourPointCount(2));
+        double[] contour = new double[4];
+        cs.fillCellContour(2, contour);
+        assertArrayEquals(new double[]{1.0, 2.0, 1.5, 2.5}, contour, 1e-6);
+        assertEquals(List.of(1.0, 2.0, 1.5, 2.5), cs.getCellContourOrder(2));
+        assertEquals(0, cs.getContourPointCount(3));
+        assertThrows(IllegalArgumentException.class, () -> cs.fillCellContour(2, new double[3]));
+    }
+
+    @Test
+    void testSuperCells() {
+        GraphHopperStorage ghStorage = createGHStorage();
+        IsochroneNodeStorage isochroneNodeStorage = initIsochroneNodeStorage(ghStorage);
+        CellStorage cs = new CellStorage(5, ghStorage.getDirectory(), isochroneNodeStorage);
+        cs.init();
+        cs.calcCellNodesMap();
+        IntObjectMap<IntHashSet> superCells = new IntObjectHashMap<>();
+        IntHashSet subCells = new IntHashSet();
+        subCells.addAll(2, 3);
+        superCells.put(1, subCells);
+        cs.storeCellHierarchy(List.of(superCells));
+
+        assertEquals(1, cs.getSuperCellOfCell(2));
+        assertEquals(1, cs.getSuperCellOfCell(3));
+        assertEquals(-1, cs.getSuperCellOfCell(1));
+        assertEquals(subCells, cs.getCellsOfSuperCell(1));
+        assertEquals(2, cs.getCellsOfSuperCellAsList(1).size());
+    }
+
+    @Test
+    void testCellStorageLoadExisting() {
+        GraphHopperStorage ghStorage = createGHStorage();
+        IsochroneNodeStorage isochroneNodeStorage = initIsochroneNodeStorage(ghStorage);
+        CellStorage cs = new CellStorage(5, createStoredDirectory(), isochroneNodeStorage);
+        cs.init();
+        cs.calcCellNodesMap();
+        cs.setCellContourOrder(2, List.of(1.0, 1.5), List.of(2.0, 2.5));
+        cs.setCellContourOrder(3, List.of(), List.of());
+        cs.storeContourPointerMap();
+        IntObjectMap<IntHashSet> superCells = new IntObjectHashMap<>();
+        IntHashSet subCells = new IntHashSet();
+        subCells.addAll(2, 3);
+        superCells.put(1, subCells);
+        cs.storeCellHierarchy(List.of(superCells));
+        cs.setContourPrepared(true);
+        cs.flush();
+        cs.close();
+
+        CellStorage loaded = new CellStorage(5, createStoredDirectory(), isochroneNodeStorage);
+        assertTrue(loaded.loadExisting());
+        assertTrue(loaded.isContourPrepared());
+        IntHashSet nodesCell3 = new IntHashSet();
+        nodesCell3.addAll(2, 3, 4);
+        assertEquals(nodesCell3, loaded.getNodesOfCell(3));
+        assertEquals(2, loaded.getNodeCountOfCell(2));
+        assertEquals(List.of(1.0, 2.0, 1.5, 2.5), loaded.getCellContourOrder(2));
+        assertEquals(0, loaded.getContourPointCount(3));
+        assertEquals(1, loaded.getSuperCellOfCell(2));
+        assertEquals(subCells, loaded.getCellsOfSuperCell(1));
+    }
+
+    @Test
+    void testCellStorageWithOtherLayoutIsRejected() {
+        GraphHopperStorage ghStorage = createGHStorage();
+        IsochroneNodeStorage isochroneNodeStorage = initIsochroneNodeStorage(ghStorage);
+        CellStorage cs = new CellStorage(5, createStoredDirectory(), isochroneNodeStorage);
+        cs.init();
+        cs.calcCellNodesMap();
+        cs.flush();
+        cs.close();
+
+        //Cells stored before the layout version was written have no version in the header
+        DataAccess cells = createStoredDirectory().find("cells");
+        assertTrue(cells.loadExisting());
+        cells.setHeader(20, 0);
+        cells.flush();
+        cells.close();
+
+        CellStorage loaded = new CellStorage(5, createStoredDirectory(), isochroneNodeStorage);
+        assertThrows(IllegalStateException.class, loaded::loadExisting);
+    }
+
+    private Directory createStoredDirectory() {
+        return new RAMDirectory(graphDirectory.toString(), true);
+    }
+
+    @Test
+    void testAggregateFullyReachableCells() {
+        //Super cell 1 of base cells 4, 5, super cell 2 of base cells 6, 7, super super cell 0 of super cells 1, 2
+        IntObjectMap<IntHashSet> superCells = new IntObjectHashMap<>();
+        IntHashSet subCells1 = new IntHashSet();
+        subCells1.addAll(4, 5);
+        superCells.put(1, subCells1);
+        IntHashSet subCells2 = new IntHashSet();
+        subCells2.addAll(6, 7);
+        superCells.put(2, subCells2);
+        IntObjectMap<IntHashSet> superSuperCells = new IntObjectHashMap<>();
+        IntHashSet subCells0 = new IntHashSet();
+        subCells0.addAll(1, 2);
+        superSuperCells.put(0, subCells0);
+        CellHierarchy cellHierarchy = CellHierarchy.create(List.of(superCells, superSuperCells));
+
+        assertEquals(3, cellHierarchy.getLevelCount());
+        assertEquals(1, cellHierarchy.getSuperCellOfCell(5));
+        assertEquals(0, cellHierarchy.getSuperCellOfCell(2));
+        assertEquals(-1, cellHierarchy.getSuperCellOfCell(0));
+        assertArrayEquals(new int[]{6, 7}, cellHierarchy.getCellsOfSuperCell(2));
+
+        //All base cells reachable: only the super super cell remains
+        assertEquals(Set.of(0), toSet(cellHierarchy.aggregateFullyReachableCells(Set.of(4, 5, 6, 7))));
+        //One super cell complete, the other one not. Cell 8 is not part of any super cell
+        assertEquals(Set.of(1, 6, 8), toSet(cellHierarchy.aggregateFullyReachableCells(Set.of(4, 5, 6, 8))));
+        assertEquals(Set.of(4, 7), toSet(cellHierarchy.aggregateFullyReachableCells(Set.of(4, 7))));
+        //Without super cells the cells are returned unchanged
+        assertEquals(Set.of(4, 5), toSet(new CellHierarchy().aggregateFullyReachableCells(Set.of(4, 5))));
+    }
+
+    private Set<Integer> toSet(IntArrayList cells) {
+        Set<Integer> cellSet = new HashSet<>();
+        for (IntCursor cell : cells)
+            assertTrue(cellSet.add(cell.value));
+        return cellSet;
+    }
+}
@@ -0,0 +1,157 @@
+package org.heigit.ors.routing;
+
+import com.graphhopper.storage.GraphHopperStorage;
+import org.heigit.ors.common.StatusCode;
+import org.heigit.ors.config.EngineConfig;
+import org.heigit.ors.exceptions.ProfileNotReadyException;
+import org.heigit.ors.matrix.MatrixErrorCodes;
+import org.heigit.ors.matrix.MatrixRequest;
+import org.heigit.ors.routing.configuration.RouteProfileConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingProfileManagerTest {
+    @TempDir
+    Path graphsRoot;
+    private EngineConfig engineConfig;
+    private RoutingProfile current;
+    private RoutingProfilesCollection profiles;
+    private RoutingProfileManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engineConfig = EngineConfig.EngineConfigBuilder.init()
+                .setSourceFile("src/test/files/preprocessed_osm_data.pbf")
+                .setGraphsRootPath(graphsRoot.toString())
+                .build();
+        current = loadProfile("car");
+        profiles = new RoutingProfilesCollection();
+        profiles.add(current);
+        manager = new RoutingProfileManager(engineConfig, profiles);
+        // the graph to switch to
+        loadProfile("car-rebuilt").close();
+    }
+
+    @Test
+    void replaceServesAllPreferencesFromReplacement() throws Exception {
+        RoutingProfile replacement = loadProfile("car-rebuilt");
+
+        profiles.replace(current, replacement);
+
+        assertSame(replacement, profiles.getRouteProfile(RoutingProfileType.DRIVING_CAR));
+        assertTrue(profiles.getUniqueProfiles().contains(replacement));
+        assertFalse(profiles.getUniqueProfiles().contains(current));
+        assertThrows(IllegalArgumentException.class, () -> profiles.replace(current, replacement));
+        current.close();
+        replacement.close();
+    }
+
+    @Test
+    void reloadServesNewGraphAndRetiresPreviousOne() throws Exception {
+        Future<RoutingProfile> reload = manager.reloadProfile("driving-car", "car-rebuilt");
+        RoutingProfile replacement = reload.get();
+
+        assertSame(replacement, profiles.getRouteProfile(RoutingProfileType.DRIVING_CAR));
+        assertSame(reload, manager.getReload("driving-car"));
+        assertEquals(graphsRoot.resolve("car-rebuilt").toFile().getCanonicalPath(), replacement.getConfiguration().getGraphPath());
+        assertFalse(replacement.isClosed());
+        // no request is using the previous graph
+        assertTrue(current.isClosed());
+        replacement.close();
+    }
+
+    @Test
+    void requestRunningDuringReloadKeepsPreviousGraphUntilItHasFinished() throws Exception {
+        RoutingProfile running = profiles.acquireRouteProfile(RoutingProfileType.DRIVING_CAR);
+        assertSame(current, running);
+
+        RoutingProfile replacement = manager.reloadProfile("driving-car", "car-rebuilt").get();
+
+        // new requests are served by the new graph, the running one keeps reading the previous graph
+        RoutingProfile next = profiles.acquireRouteProfile(RoutingProfileType.DRIVING_CAR);
+        assertSame(replacement, next);
+        next.release();
+        assertFalse(current.acquire());
+        assertFalse(current.isClosed());
+        GraphHopperStorage graph = running.getGraphhopper().getGraphHopperStorage();
+        for (int node = 0; node < graph.getNodes(); node++)
+            assertTrue(Double.isFinite(graph.getNodeAccess().getLat(node)));
+
+        running.release();
+        assertTrue(current.isClosed());
+        assertFalse(replacement.isClosed());
+        replacement.close();
+    }
+
+    @Test
+    void reloadOnlyAcceptsPreparedGraphsWithinGraphsRoot() throws Exception {
+        Files.createDirectories(graphsRoot.resolve("empty"));
+
+        assertThrows(IllegalArgumentException.class, () -> manager.reloadProfile("driving-car", "empty"));
+        assertThrows(IllegalArgumentException.class, () -> manager.reloadProfile("driving-car", "missing"));
+        assertThrows(IllegalArgumentException.class, () -> manager.reloadProfile("driving-car", "../car"));
+        assertThrows(IllegalArgumentException.class, () -> manager.reloadProfile("driving-car", graphsRoot.resolve("car").toString()));
+        assertThrows(IllegalArgumentException.class, () -> manager.reloadProfile("cycling-regular", "car-rebuilt"));
+        assertFalse(new File(graphsRoot.toFile(), "empty/properties").exists());
+        assertSame(current, profiles.getRouteProfile(RoutingProfileType.DRIVING_CAR));
+        assertNull(manager.getReload("driving-car"));
+        current.close();
+    }
+
+    @Test
+    void rollbackServesGraphFromBeforeLastReload() throws Exception {
+        assertThrows(IllegalStateException.class, () -> manager.rollbackProfile("driving-car"));
+
+        RoutingProfile replacement = manager.reloadProfile("driving-car", "car-rebuilt").get();
+        RoutingProfile rolledBack = manager.rollbackProfile("driving-car").get();
+
+        assertSame(rolledBack, profiles.getRouteProfile(RoutingProfileType.DRIVING_CAR));
+        assertEquals(current.getConfiguration().getGraphPath(), rolledBack.getConfiguration().getGraphPath());
+        assertNotSame(current, rolledBack);
+        assertTrue(replacement.isClosed());
+        rolledBack.close();
+    }
+
+    @Test
+    void requestsForLoadingProfilesAreRejectedWhileLoadedOnesAreServed() {
+        RoutingProfileManagerStatus.setProfileState("driving-car", RoutingProfileManagerStatus.ProfileState.READY);
+        RoutingProfileManagerStatus.setProfileState("driving-hgv", RoutingProfileManagerStatus.ProfileState.LOADING);
+        MatrixRequest hgvRequest = new MatrixRequest(350, 100000, 0);
+        hgvRequest.setProfileType(RoutingProfileType.DRIVING_HGV);
+
+        assertTrue(RoutingProfileManagerStatus.isAnyProfileReady());
+        assertSame(current, profiles.getRouteProfile(RoutingProfileType.DRIVING_CAR));
+        assertDoesNotThrow(() -> manager.checkProfileReady(RoutingProfileType.DRIVING_CAR, MatrixErrorCodes.UNKNOWN));
+        ProfileNotReadyException e = assertThrows(ProfileNotReadyException.class, () -> manager.computeMatrix(hgvRequest));
+        assertEquals(StatusCode.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertEquals(MatrixErrorCodes.UNKNOWN, e.getInternalCode());
+
+        RoutingProfileManagerStatus.setProfileState("driving-hgv", RoutingProfileManagerStatus.ProfileState.READY);
+        assertDoesNotThrow(() -> manager.checkProfileReady(RoutingProfileType.DRIVING_HGV, MatrixErrorCodes.UNKNOWN));
+        current.close();
+    }
+
+    @Test
+    void destroyClosesLoadedProfiles() {
+        manager.destroy();
+
+        assertTrue(current.isClosed());
+    }
+
+    private RoutingProfile loadProfile(String graphDir) throws Exception {
+        RouteProfileConfiguration rpc = new RouteProfileConfiguration();
+        rpc.setName("car");
+        rpc.setEnabled(true);
+        rpc.setProfiles("driving-car");
+        rpc.setGraphPath(graphsRoot.resolve(graphDir).toString());
+        return new RoutingProfile(engineConfig, rpc, new RoutingProfileLoadContext());
+    }
+}
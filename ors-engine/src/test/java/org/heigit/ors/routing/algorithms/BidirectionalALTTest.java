@@ -0,0 +1,165 @@
+package org.heigit.ors.routing.algorithms;
+
+import com.graphhopper.routing.AStarBidirection;
+import com.graphhopper.routing.DijkstraBidirectionRef;
+import com.graphhopper.routing.Path;
+import com.graphhopper.routing.util.CarFlagEncoder;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.util.TraversalMode;
+import com.graphhopper.routing.weighting.ShortestWeighting;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.GraphBuilder;
+import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.storage.NodeAccess;
+import com.graphhopper.util.DistanceCalcEarth;
+import com.graphhopper.util.GHUtility;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalALTTest {
+    private static final int GRID_SIZE = 80;
+    private static final int QUERIES = 200;
+
+    private final CarFlagEncoder carEncoder = new CarFlagEncoder();
+    private final EncodingManager encodingManager = EncodingManager.create(carEncoder);
+    private final Weighting weighting = new ShortestWeighting(carEncoder);
+
+    /**
+     * Fixed grid graph with randomly removed edges. Edge distances are at least the beeline distance between their
+     * end nodes, so that the beeline approximation is admissible.
+     */
+    private GraphHopperStorage createGridGraph(long seed) {
+        GraphHopperStorage g = new GraphBuilder(encodingManager).create();
+        NodeAccess nodeAccess = g.getNodeAccess();
+        Random random = new Random(seed);
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                nodeAccess.setNode(row * GRID_SIZE + col, 49.0 + row * 0.001, 8.6 + col * 0.001);
+            }
+        }
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                int node = row * GRID_SIZE + col;
+                if (col + 1 < GRID_SIZE && random.nextDouble() > 0.1)
+                    addEdge(g, node, node + 1, random);
+                if (row + 1 < GRID_SIZE && random.nextDouble() > 0.1)
+                    addEdge(g, node, node + GRID_SIZE, random);
+            }
+        }
+        g.freeze();
+        return g;
+    }
+
+    private void addEdge(GraphHopperStorage g, int from, int to, Random random) {
+        NodeAccess na = g.getNodeAccess();
+        double beeline = DistanceCalcEarth.DIST_EARTH.calcDist(na.getLat(from), na.getLon(from), na.getLat(to), na.getLon(to));
+        GHUtility.setSpeed(60, true, true, carEncoder, g.edge(from, to).setDistance(beeline * (1.1 + random.nextDouble())));
+    }
+
+    @Test
+    void testHeapOrder() {
+        Random random = new Random(42);
+        IndexedMinHeap heap = new IndexedMinHeap(10);
+        double[] keys = new double[100];
+        heap.ensureCapacity(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextDouble();
+            heap.update(i, keys[i]);
+        }
+        // decrease some keys and increase others
+        for (int i = 0; i < keys.length; i += 3) {
+            keys[i] = random.nextDouble() * (i % 2 == 0 ? 0.5 : 2);
+            heap.update(i, keys[i]);
+        }
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (double expected : sorted) {
+            assertEquals(expected, heap.peekKey(), 1e-12);
+            int element = heap.poll();
+            assertEquals(expected, keys[element], 1e-12);
+            assertFalse(heap.contains(element));
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testSameNode() {
+        GraphHopperStorage g = createGridGraph(1);
+        Path path = new BidirectionalALT(g, weighting).calcPath(5, 5);
+        assertTrue(path.isFound());
+        assertEquals(0, path.getWeight(), 1e-6);
+    }
+
+    @Test
+    void testDisconnected() {
+        GraphHopperStorage g = new GraphBuilder(encodingManager).create();
+        GHUtility.setSpeed(60, true, true, carEncoder, g.edge(0, 1).setDistance(1));
+        GHUtility.setSpeed(60, true, true, carEncoder, g.edge(2, 3).setDistance(1));
+        g.freeze();
+        Path path = new BidirectionalALT(g, weighting).calcPath(0, 3);
+        assertFalse(path.isFound());
+    }
+
+    /**
+     * Regression test against GraphHopper's bidirectional A* on a fixed test graph: both algorithms have to find paths
+     * of the same weight and distance. The labels are reused from a pool across the queries.
+     */
+    @Test
+    void compareWithAStarBidirection() {
+        GraphHopperStorage g = createGridGraph(7);
+        SearchLabelsPool pool = new SearchLabelsPool(1);
+        Random random = new Random(123);
+        int nodes = g.getNodes();
+        for (int i = 0; i < QUERIES; i++) {
+            int from = random.nextInt(nodes);
+            int to = random.nextInt(nodes);
+
+            Path expected = new AStarBidirection(g, weighting, TraversalMode.NODE_BASED).calcPath(from, to);
+            BidirectionalALT algo = new BidirectionalALT(g, weighting).setWorkspacePool(pool);
+            Path actual = algo.calcPath(from, to);
+
+            assertEquals(expected.isFound(), actual.isFound(), "found " + from + "->" + to);
+            if (expected.isFound()) {
+                assertEquals(expected.getWeight(), actual.getWeight(), 1e-3, "weight " + from + "->" + to);
+                assertEquals(expected.getDistance(), actual.getDistance(), 1e-3, "distance " + from + "->" + to);
+                assertTrue(algo.getVisitedNodes() > 0);
+            }
+        }
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void testPoolIsBounded() {
+        GraphHopperStorage g = createGridGraph(3);
+        SearchLabelsPool pool = new SearchLabelsPool(2);
+        SearchLabels[][] workspaces = new SearchLabels[3][];
+        for (int i = 0; i < workspaces.length; i++)
+            workspaces[i] = pool.acquire(g.getNodes());
+        for (SearchLabels[] workspace : workspaces)
+            pool.release(workspace);
+        assertEquals(2, pool.size());
+
+        Path path = new BidirectionalALT(g, weighting).setWorkspacePool(pool).calcPath(0, g.getNodes() - 1);
+        assertEquals(new DijkstraBidirectionRef(g, weighting, TraversalMode.NODE_BASED).calcPath(0, g.getNodes() - 1).getWeight(), path.getWeight(), 1e-3);
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void compareWithDijkstraBidirection() {
+        GraphHopperStorage g = createGridGraph(11);
+        Random random = new Random(321);
+        for (int i = 0; i < QUERIES; i++) {
+            int from = random.nextInt(g.getNodes());
+            int to = random.nextInt(g.getNodes());
+            Path expected = new DijkstraBidirectionRef(g, weighting, TraversalMode.NODE_BASED).calcPath(from, to);
+            Path actual = new BidirectionalALT(g, weighting).calcPath(from, to);
+            assertEquals(expected.isFound(), actual.isFound());
+            if (expected.isFound())
+                assertEquals(expected.getWeight(), actual.getWeight(), 1e-3);
+        }
+    }
+}
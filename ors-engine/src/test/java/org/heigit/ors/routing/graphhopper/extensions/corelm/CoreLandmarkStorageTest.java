@@ -38,6 +38,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 
 import static org.heigit.ors.routing.graphhopper.extensions.core.CoreLMPreparationHandler.createCoreNodeIdMap;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -134,11 +135,16 @@ class CoreLandmarkStorageTest {
     }
 
     private CoreLandmarkStorage createLandmarks(LMEdgeFilterSequence lmEdgeFilter) {
+        return createLandmarks(dir, lmEdgeFilter, 1);
+    }
+
+    private CoreLandmarkStorage createLandmarks(Directory dir, LMEdgeFilterSequence lmEdgeFilter, int landmarkThreads) {
         HashMap<Integer, Integer> coreNodeIdMap = createCoreNodeIdMap(routingCHGraph);
         CoreLMConfig coreLMConfig = new CoreLMConfig(encoder.toString(), weighting).setEdgeFilter(lmEdgeFilter);
         CoreLandmarkStorage storage = new CoreLandmarkStorage(dir, graph, routingCHGraph, coreLMConfig, 2);
         storage.setCoreNodeIdMap(coreNodeIdMap);
         storage.setMinimumNodes(2);
+        storage.setLandmarkThreads(landmarkThreads);
         storage.createLandmarks();
         return storage;
     }
@@ -201,4 +207,33 @@ class CoreLandmarkStorageTest {
         assertEquals("[3, 8]", Arrays.toString(storage.getLandmarks(1)));
         assertEquals("[7, 4]", Arrays.toString(storage.getLandmarks(2)));
     }
+
+    @Test
+    void testParallelLandmarkWeights() {
+        CoreTestEdgeFilter restrictedEdges = new CoreTestEdgeFilter();
+        for (int edge : new int[]{0, 1, 2, 3, 4, 5, 6, 8, 9, 10, 11})
+            restrictedEdges.add(edge);
+
+        CoreTestEdgeFilter passableEdges = new CoreTestEdgeFilter();
+        passableEdges.add(7);
+        passableEdges.add(12);
+
+        createMediumGraph();
+        contractGraph(restrictedEdges);
+
+        LMEdgeFilterSequence lmEdgeFilter = new LMEdgeFilterSequence();
+        lmEdgeFilter.add(passableEdges);
+        CoreLandmarkStorage sequential = createLandmarks(new GHDirectory("", DAType.RAM_INT), lmEdgeFilter, 1);
+        CoreLandmarkStorage parallel = createLandmarks(new GHDirectory("", DAType.RAM_INT), lmEdgeFilter, 4);
+
+        assertEquals(sequential.getSubnetworksWithLandmarks(), parallel.getSubnetworksWithLandmarks());
+        for (int subnetwork = 1; subnetwork < sequential.getSubnetworksWithLandmarks(); subnetwork++)
+            assertArrayEquals(sequential.getLandmarks(subnetwork), parallel.getLandmarks(subnetwork));
+        for (int node : createCoreNodeIdMap(routingCHGraph).keySet()) {
+            for (int lmIdx = 0; lmIdx < 2; lmIdx++) {
+                assertEquals(sequential.getFromWeight(lmIdx, node), parallel.getFromWeight(lmIdx, node));
+                assertEquals(sequential.getToWeight(lmIdx, node), parallel.getToWeight(lmIdx, node));
+            }
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package org.heigit.ors.routing.graphhopper.extensions.reader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeTagStoreTest {
+    @Test
+    void storesTagsOfNodes() {
+        NodeTagStore store = new NodeTagStore();
+        store.beginNode();
+        store.addTag("kerb", "lowered");
+        store.addTag("kerb:height", "0.03");
+        store.endNode(1L);
+        store.beginNode();
+        store.endNode(2L);
+        store.beginNode();
+        store.addTag("access", "no");
+        store.endNode(5_000_000_000L);
+        store.beginNode();
+        store.addTag("kerb", "lowered");
+        store.endNode(3L);
+
+        assertEquals(3, store.size());
+        assertEquals(Map.of("kerb", "lowered", "kerb:height", "0.03"), store.getTags(1L));
+        assertFalse(store.hasTags(2L));
+        assertNull(store.getTags(2L));
+        assertEquals(Map.of("access", "no"), store.getTags(5_000_000_000L));
+        assertEquals(Map.of("kerb", "lowered"), store.getTags(3L));
+        assertNull(store.getTags(4L));
+    }
+}
@@ -0,0 +1,86 @@
+package org.heigit.ors.routing.graphhopper.extensions.reader;
+
+import com.graphhopper.reader.ReaderElement;
+import com.graphhopper.reader.osm.OSMInput;
+import com.graphhopper.reader.osm.OSMInputFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedOSMImportTest {
+    private static final File OSM_FILE = new File("src/test/files/preprocessed_osm_data.pbf");
+
+    @Test
+    void allParticipantsReceiveAllElements() throws Exception {
+        List<String> expected = read(new OSMInputFile(OSM_FILE).open());
+
+        // a small queue makes the pass wait for the slower reader
+        SharedOSMImport sharedImport = new SharedOSMImport(2, 60_000, 16);
+        SharedOSMImport.Participant first = sharedImport.register();
+        SharedOSMImport.Participant second = sharedImport.register();
+        Map<ReaderElement, Boolean> seen = new IdentityHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int pass = 0; pass < 2; pass++) {
+                Future<List<String>> firstResult = executor.submit(() -> read(first.open(OSM_FILE), seen));
+                Future<List<String>> secondResult = executor.submit(() -> read(second.open(OSM_FILE), seen));
+                assertEquals(expected, firstResult.get());
+                assertEquals(expected, secondResult.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // every reader got its own instances of the nodes, ways and relations
+        long elements = expected.stream().filter(e -> !e.startsWith(ReaderElement.FILEHEADER + ":")).count();
+        assertEquals(2 * 2 * elements, seen.size());
+    }
+
+    @Test
+    void passesDoNotWaitForParticipantsThatLeft() throws Exception {
+        SharedOSMImport sharedImport = new SharedOSMImport(2, 60_000, SharedOSMImport.DEFAULT_QUEUE_CAPACITY);
+        SharedOSMImport.Participant reading = sharedImport.register();
+        sharedImport.register().leave();
+
+        long start = System.currentTimeMillis();
+        assertFalse(read(reading.open(OSM_FILE)).isEmpty());
+        assertTrue(System.currentTimeMillis() - start < 60_000);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SharedOSMImport(0, 60_000, 16));
+        assertThrows(IllegalArgumentException.class, () -> new SharedOSMImport(2, -1, 16));
+        assertThrows(IllegalArgumentException.class, () -> new SharedOSMImport(2, 60_000, 0));
+    }
+
+    private static List<String> read(OSMInput input) throws Exception {
+        return read(input, null);
+    }
+
+    private static List<String> read(OSMInput input, Map<ReaderElement, Boolean> seen) throws Exception {
+        List<String> elements = new ArrayList<>();
+        try (input) {
+            ReaderElement item;
+            while ((item = input.getNext()) != null) {
+                elements.add(item.getType() + ":" + item.getId() + ":" + new TreeMap<>(item.getTags()));
+                if (seen != null && item.getType() != ReaderElement.FILEHEADER) {
+                    synchronized (seen) {
+                        seen.put(item, Boolean.TRUE);
+                    }
+                }
+            }
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,112 @@
+package org.heigit.ors.routing.graphhopper.extensions.storages;
+
+import com.graphhopper.storage.RAMDirectory;
+import org.heigit.ors.routing.graphhopper.extensions.WheelchairAttributes;
+import org.heigit.ors.routing.util.WaySurfaceDescription;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrimitiveEdgeStorageTest {
+    // enough edges for 5 byte wheelchair entries to cross the boundary of the first 1MB segment
+    private static final int EDGES = 300_000;
+    private static final int ROUTE_EDGES = 100_000;
+    private static final int ROUTES = 20;
+
+    private final WayCategoryGraphStorage wayCategories = new WayCategoryGraphStorage();
+    private final WaySurfaceTypeGraphStorage waySurfaces = new WaySurfaceTypeGraphStorage();
+    private final HillIndexGraphStorage hillIndices = new HillIndexGraphStorage(Map.of());
+    private final TrailDifficultyScaleGraphStorage trailDifficulties = new TrailDifficultyScaleGraphStorage();
+    private final WheelchairAttributesGraphStorage wheelchairAttributes = new WheelchairAttributesGraphStorage();
+    private final int[] expectedWidths = new int[EDGES];
+
+    PrimitiveEdgeStorageTest() {
+        RAMDirectory dir = new RAMDirectory();
+        wayCategories.init(null, dir);
+        wayCategories.create(EDGES);
+        waySurfaces.init(null, dir);
+        waySurfaces.create(EDGES);
+        hillIndices.init(null, dir);
+        hillIndices.create(EDGES);
+        trailDifficulties.init(null, dir);
+        trailDifficulties.create(EDGES);
+        wheelchairAttributes.init(null, dir);
+        wheelchairAttributes.create(EDGES);
+
+        Random random = new Random(42);
+        WaySurfaceDescription wsd = new WaySurfaceDescription();
+        WheelchairAttributes attrs = new WheelchairAttributes();
+        for (int edge = 0; edge < EDGES; edge++) {
+            wayCategories.setEdgeValue(edge, random.nextInt(256));
+            wsd.setWayType(random.nextInt(16));
+            wsd.setSurfaceType(random.nextInt(16));
+            waySurfaces.setEdgeValue(edge, wsd);
+            hillIndices.setEdgeValue(edge, random.nextInt(16), random.nextInt(16));
+            trailDifficulties.setEdgeValue(edge, random.nextInt(7), random.nextInt(7), random.nextInt(7));
+            expectedWidths[edge] = 10 * (1 + random.nextInt(30));
+            attrs.reset();
+            attrs.setAttribute(WheelchairAttributes.Attribute.WIDTH, expectedWidths[edge], false);
+            attrs.setSuitable(true);
+            wheelchairAttributes.setEdgeValues(edge, attrs);
+        }
+    }
+
+    @Test
+    void entriesCrossingSegmentsAreReadCompletely() {
+        WheelchairAttributes attrs = new WheelchairAttributes();
+        for (int edge = 0; edge < EDGES; edge++) {
+            wheelchairAttributes.getEdgeValues(edge, attrs);
+            assertEquals(expectedWidths[edge], attrs.getWidth(), 0.0, "edge " + edge);
+        }
+    }
+
+    @Test
+    void multiByteValuesAreLittleEndian() {
+        OsmIdGraphStorage osmIds = new OsmIdGraphStorage();
+        osmIds.init();
+        osmIds.create(1);
+        osmIds.setEdgeValue(0, 0x01020304L);
+        assertEquals(0x01020304L, osmIds.getEdgeValue(0));
+        assertEquals((short) 0x0201, osmIds.getShort(0, 0));
+        assertEquals(0x04030201, osmIds.getInt(0, 0));
+    }
+
+    /**
+     * Reads the values needed for extra info generation along long routes, once sequentially and once from several
+     * threads at the same time without any shared buffers.
+     */
+    @Test
+    void concurrentExtraInfoReadsMatchSequentialReads() {
+        int[][] routes = new int[ROUTES][];
+        Random random = new Random(7);
+        for (int i = 0; i < ROUTES; i++)
+            routes[i] = random.ints(ROUTE_EDGES, 0, EDGES).toArray();
+
+        long[] sequential = new long[ROUTES];
+        for (int i = 0; i < ROUTES; i++)
+            sequential[i] = readExtraInfo(routes[i]);
+
+        long[] parallel = IntStream.range(0, ROUTES).parallel().mapToLong(i -> readExtraInfo(routes[i])).toArray();
+        assertArrayEquals(sequential, parallel);
+    }
+
+    private long readExtraInfo(int[] route) {
+        WheelchairAttributes attrs = new WheelchairAttributes();
+        long checksum = 0;
+        for (int edge : route) {
+            checksum = 31 * checksum + wayCategories.getEdgeValue(edge);
+            WaySurfaceDescription wsd = waySurfaces.getEdgeValue(edge);
+            checksum = 31 * checksum + wsd.getWayType() + wsd.getSurfaceType();
+            checksum = 31 * checksum + hillIndices.getEdgeValue(edge, false) + hillIndices.getEdgeValue(edge, true);
+            checksum = 31 * checksum + trailDifficulties.getHikingScale(edge) + trailDifficulties.getMtbScale(edge, true);
+            wheelchairAttributes.getEdgeValues(edge, attrs);
+            checksum = 31 * checksum + (long) attrs.getWidth();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,73 @@
+package org.heigit.ors.routing.graphhopper.extensions.storages;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficEdgeIndexTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lookupsAfterWriteAndLoad() throws IOException {
+        Map<Integer, Long> tmcEdges = new HashMap<>();
+        tmcEdges.put(7, 1234567890123L);
+        tmcEdges.put(2, -5L);
+        tmcEdges.put(40, 0L);
+        Map<Long, List<Integer>> osmId2EdgeIds = new HashMap<>();
+        osmId2EdgeIds.put(5000000000L, List.of(3, 1, 4));
+        osmId2EdgeIds.put(17L, List.of(9));
+        osmId2EdgeIds.put(-1L, List.of());
+
+        Path path = tempDir.resolve("edges_ors_traffic");
+        TrafficEdgeIndex.create(tmcEdges, osmId2EdgeIds).write(path);
+        TrafficEdgeIndex index = TrafficEdgeIndex.load(path);
+
+        assertEquals(3, index.getTmcEdgeCount());
+        assertEquals(1234567890123L, index.getTmcValue(7, -1));
+        assertEquals(-5L, index.getTmcValue(2, -1));
+        assertEquals(0L, index.getTmcValue(40, -1));
+        assertEquals(-1L, index.getTmcValue(8, -1));
+
+        assertEquals(3, index.getOsmIdCount());
+        assertArrayEquals(new int[]{3, 1, 4}, index.getEdgeIds(5000000000L));
+        assertArrayEquals(new int[]{9}, index.getEdgeIds(17L));
+        assertArrayEquals(new int[0], index.getEdgeIds(-1L));
+        assertArrayEquals(new int[0], index.getEdgeIds(18L));
+    }
+
+    @Test
+    void emptyIndex() throws IOException {
+        Path path = tempDir.resolve("empty");
+        TrafficEdgeIndex.create(Map.of(), Map.of()).write(path);
+        TrafficEdgeIndex index = TrafficEdgeIndex.load(path);
+        assertTrue(index.isEmpty());
+        assertEquals(-1L, index.getTmcValue(0, -1));
+        assertEquals(0, index.getEdgeIds(0L).length);
+    }
+
+    @Test
+    void indexWithoutTmcValuesOrOsmIdsIsEmpty() {
+        assertTrue(TrafficEdgeIndex.create(Map.of(), Map.of(17L, List.of(3))).isEmpty());
+        assertTrue(TrafficEdgeIndex.create(Map.of(3, 1L), Map.of()).isEmpty());
+        assertFalse(TrafficEdgeIndex.create(Map.of(3, 1L), Map.of(17L, List.of(3))).isEmpty());
+    }
+
+    @Test
+    void serializedMapsAreRejected() throws IOException {
+        Path path = tempDir.resolve("legacy");
+        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(path))) {
+            oos.writeObject(new HashMap<Integer, Long>(Map.of(1, 2L)));
+        }
+        assertThrows(IOException.class, () -> TrafficEdgeIndex.load(path));
+    }
+}
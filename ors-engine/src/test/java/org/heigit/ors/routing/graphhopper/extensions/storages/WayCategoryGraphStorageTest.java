@@ -0,0 +1,47 @@
+package org.heigit.ors.routing.graphhopper.extensions.storages;
+
+import com.graphhopper.routing.util.CarFlagEncoder;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.storage.GraphBuilder;
+import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.storage.RAMDirectory;
+import org.heigit.ors.routing.AvoidFeatureFlags;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WayCategoryGraphStorageTest {
+    private final CarFlagEncoder carEncoder = new CarFlagEncoder();
+    private final EncodingManager encodingManager = EncodingManager.create(carEncoder);
+
+    @Test
+    void TestEdgesWithWayCategories() {
+        GraphHopperStorage graph = new GraphBuilder(encodingManager).create();
+        graph.edge(0, 1).setDistance(1);
+        graph.edge(1, 2).setDistance(1);
+        graph.edge(2, 3).setDistance(1);
+        graph.edge(3, 0).setDistance(1);
+
+        WayCategoryGraphStorage storage = new WayCategoryGraphStorage();
+        storage.init(graph, new RAMDirectory());
+        storage.create(4);
+        storage.setEdgeValue(0, AvoidFeatureFlags.HIGHWAYS);
+        storage.setEdgeValue(1, AvoidFeatureFlags.FERRIES | AvoidFeatureFlags.TOLLWAYS);
+        storage.setEdgeValue(2, AvoidFeatureFlags.FORDS);
+
+        BitSet highways = storage.getEdgesWithWayCategories(AvoidFeatureFlags.HIGHWAYS);
+        assertEquals(4, storage.getCoveredEdges());
+        assertTrue(highways.get(0));
+        assertFalse(highways.get(1));
+
+        BitSet combined = storage.getEdgesWithWayCategories(AvoidFeatureFlags.FERRIES | AvoidFeatureFlags.FORDS);
+        assertFalse(combined.get(0));
+        assertTrue(combined.get(1));
+        assertTrue(combined.get(2));
+        assertFalse(combined.get(3));
+
+        assertSame(combined, storage.getEdgesWithWayCategories(AvoidFeatureFlags.FERRIES | AvoidFeatureFlags.FORDS));
+    }
+}
@@ -0,0 +1,62 @@
+package org.heigit.ors.routing.graphhopper.extensions.storages.builders;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HereTrafficGraphStorageBuilderTest {
+    private static final List<Integer> LINKS = IntStream.range(0, 2000).boxed().collect(Collectors.toList());
+
+    @Test
+    void parallelMatchingGivesTheSameResultsAsSequentialMatching() throws Exception {
+        List<List<Integer>> sequential = match(1);
+        assertEquals(LINKS.size(), sequential.size());
+        assertEquals(sequential, match(4));
+        assertEquals(sequential, match(16));
+    }
+
+    @Test
+    void resultsAreAppliedOnTheCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+        HereTrafficGraphStorageBuilder.processInOrder(LINKS, link -> link, link -> threads.add(Thread.currentThread()), 4);
+        assertEquals(LINKS.size(), threads.size());
+        assertTrue(threads.stream().allMatch(thread -> thread == caller));
+    }
+
+    @Test
+    void failedMatchingIsReported() {
+        Function<Integer, Integer> failing = link -> {
+            if (link == 1500)
+                throw new IllegalStateException("link " + link);
+            return link;
+        };
+        List<Integer> applied = new ArrayList<>();
+        Exception e = assertThrows(Exception.class, () -> HereTrafficGraphStorageBuilder.processInOrder(LINKS, failing, applied::add, 4));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(LINKS.subList(0, 1500), applied);
+    }
+
+    private List<List<Integer>> match(int threads) throws Exception {
+        List<List<Integer>> applied = new ArrayList<>();
+        // links take differently long to match, so that the results of a parallel run complete out of order
+        HereTrafficGraphStorageBuilder.processInOrder(LINKS, link -> {
+            Random random = new Random(link);
+            try {
+                TimeUnit.MICROSECONDS.sleep(random.nextInt(200));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(link, random.nextInt(), link % 7);
+        }, applied::add, threads);
+        return applied;
+    }
+}
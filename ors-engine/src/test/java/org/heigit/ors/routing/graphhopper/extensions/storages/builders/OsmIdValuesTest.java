@@ -0,0 +1,101 @@
+package org.heigit.ors.routing.graphhopper.extensions.storages.builders;
+
+import org.heigit.ors.routing.graphhopper.extensions.storages.builders.OsmIdValues.ValueFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OsmIdValuesTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsHeaderAndColumns() throws IOException {
+        Path file = tempDir.resolve("values.csv");
+        Files.writeString(file, "osm_id,heat,shade\r\n 30 , 0.25,1e-2\r\n10,0.5,\r\n\r\n20,\r\n10,0.75,0.125\r\n");
+
+        OsmIdValues values = OsmIdValues.read(file.toString(), true, ValueFormat.DOUBLE);
+        assertArrayEquals(new String[]{"osm_id", "heat", "shade"}, values.getHeader());
+        assertEquals(2, values.getColumnCount());
+        // the row of id 20 has no values, the second row of id 10 replaces the first one
+        assertEquals(2, values.size());
+        assertEquals(-1, values.find(20));
+        int row = values.find(30);
+        assertEquals(0.25, values.get(row, 0));
+        assertEquals(0.01, values.get(row, 1));
+        row = values.find(10);
+        assertEquals(0.75, values.get(row, 0));
+        assertEquals(0.125, values.get(row, 1));
+        assertEquals(0.25, values.min(0));
+        assertEquals(0.75, values.max(0));
+    }
+
+    @Test
+    void readsSemicolonSeparatedFilesWithoutHeader() throws IOException {
+        Path file = tempDir.resolve("values.csv");
+        Files.writeString(file, "5;-1.5\n-7;42\n");
+
+        OsmIdValues values = OsmIdValues.read(file.toString(), false, ValueFormat.DOUBLE);
+        assertNull(values.getHeader());
+        assertEquals(-1.5, values.get(values.find(5), 0));
+        assertEquals(42, values.get(values.find(-7), 0));
+    }
+
+    @Test
+    void rejectsInvalidValues() throws IOException {
+        assertThrows(NumberFormatException.class, () -> read("osm_id,value\n10,0.5\n11,abc\n", ValueFormat.DOUBLE));
+        assertThrows(NumberFormatException.class, () -> read("osm_id,heat,shade\n10,,0.5\n", ValueFormat.FLOAT));
+        assertThrows(NumberFormatException.class, () -> read("osm_id,heat\n10,0.5,0.25\n", ValueFormat.FLOAT));
+        assertThrows(NumberFormatException.class, () -> read("osm_id,level\n10,1.5\n", ValueFormat.INTEGER));
+        assertThrows(NumberFormatException.class, () -> read("osm_id,level\n10,3000000000\n", ValueFormat.INTEGER));
+        assertEquals(2, read("osm_id,level\n10, 2 \n", ValueFormat.INTEGER).get(0, 0));
+    }
+
+    @Test
+    void sameValuesAsParseMethodsAcrossChunks() throws IOException {
+        Random random = new Random(1);
+        for (ValueFormat format : ValueFormat.values()) {
+            Map<Long, Double> expected = new HashMap<>();
+            StringBuilder csv = new StringBuilder("osm_id,value\n");
+            // rows in random order, some ids repeated
+            for (int i = 0; i < 5000; i++) {
+                long id = random.nextInt(4000);
+                double number = random.nextDouble() * 1000 - 500;
+                // plain decimals are parsed directly, longer ones are handed to the parse methods
+                String value = switch (format) {
+                    case DOUBLE -> i % 2 == 0 ? String.format(Locale.ROOT, "%.4f", number) : Double.toString(number);
+                    case FLOAT -> i % 2 == 0 ? String.format(Locale.ROOT, "%.2f", number) : Float.toString((float) number);
+                    case INTEGER -> i % 2 == 0 ? Integer.toString((int) number) : Integer.toString(random.nextInt());
+                };
+                expected.put(id, switch (format) {
+                    case DOUBLE -> Double.parseDouble(value);
+                    case FLOAT -> (double) Float.parseFloat(value);
+                    case INTEGER -> (double) Integer.parseInt(value);
+                });
+                csv.append(id).append(',').append(value).append('\n');
+            }
+            Path file = tempDir.resolve(format + ".csv");
+            Files.writeString(file, csv);
+
+            OsmIdValues values = OsmIdValues.read(file.toString(), true, format, 1024);
+            assertEquals(expected.size(), values.size());
+            for (Map.Entry<Long, Double> entry : expected.entrySet())
+                assertEquals(entry.getValue(), values.get(values.find(entry.getKey()), 0), format + " id " + entry.getKey());
+        }
+    }
+
+    private OsmIdValues read(String content, ValueFormat format) throws IOException {
+        Path file = Files.createTempFile(tempDir, "values", ".csv");
+        Files.writeString(file, content);
+        return OsmIdValues.read(file.toString(), true, format);
+    }
+}
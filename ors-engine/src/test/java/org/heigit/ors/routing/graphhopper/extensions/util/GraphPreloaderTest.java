@@ -0,0 +1,26 @@
+package org.heigit.ors.routing.graphhopper.extensions.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GraphPreloaderTest {
+    @TempDir
+    Path graphDirectory;
+
+    @Test
+    void preloadsShareOfEveryFile() throws IOException {
+        Files.write(graphDirectory.resolve("nodes"), new byte[1000]);
+        Files.write(graphDirectory.resolve("edges"), new byte[2000]);
+        Files.createDirectory(graphDirectory.resolve("subdirectory"));
+
+        assertEquals(3000, GraphPreloader.preload(graphDirectory.toFile(), 100));
+        assertEquals(1500, GraphPreloader.preload(graphDirectory.toFile(), 50));
+        assertEquals(0, GraphPreloader.preload(graphDirectory.toFile(), 0));
+    }
+}
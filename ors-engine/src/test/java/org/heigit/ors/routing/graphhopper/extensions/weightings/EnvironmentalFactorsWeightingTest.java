@@ -0,0 +1,111 @@
+package org.heigit.ors.routing.graphhopper.extensions.weightings;
+
+import com.graphhopper.routing.util.CarFlagEncoder;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.ExtendedStorageSequence;
+import com.graphhopper.storage.GraphExtension;
+import com.graphhopper.storage.RAMDirectory;
+import com.graphhopper.util.AllEdgesIterator;
+import com.graphhopper.util.PMap;
+import org.heigit.ors.routing.graphhopper.extensions.ORSGraphHopperStorage;
+import org.heigit.ors.routing.graphhopper.extensions.storages.*;
+import org.heigit.ors.routing.graphhopper.extensions.weighting.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnvironmentalFactorsWeightingTest {
+    private static final int EDGES = 300;
+    private final CarFlagEncoder carEncoder = new CarFlagEncoder();
+    private final EncodingManager encodingManager = EncodingManager.create(carEncoder);
+    private ORSGraphHopperStorage graph;
+    private GreenIndexGraphStorage green;
+    private NoiseIndexGraphStorage noise;
+    private ShadowIndexGraphStorage shadow;
+    private CsvGraphStorage csv;
+
+    @BeforeEach
+    void setUp() {
+        graph = new ORSGraphHopperStorage(new RAMDirectory(), encodingManager, false, false, -1);
+        graph.create(1000);
+        for (int edge = 0; edge < EDGES; edge++)
+            graph.edge(edge, edge + 1).setDistance(10);
+        green = new GreenIndexGraphStorage();
+        noise = new NoiseIndexGraphStorage();
+        shadow = new ShadowIndexGraphStorage();
+        csv = new CsvGraphStorage(new String[]{"heat"});
+        ArrayList<GraphExtension> extensions = new ArrayList<>(List.of(green, noise, shadow, csv));
+        for (GraphExtension extension : extensions) {
+            extension.init(graph.getBaseGraph(), graph.getDirectory());
+            extension.create(EDGES);
+        }
+        graph.setExtendedStorages(new ExtendedStorageSequence(extensions));
+    }
+
+    @Test
+    void combinedWeightIsSumOfWeightings() {
+        // all values the single weightings accept, including negative shadow and heat stress bytes
+        for (int edge = 0; edge < EDGES; edge++) {
+            green.setEdgeValue(edge, (byte) (edge % PackedEnvironmentalFactors.GREEN_LEVELS));
+            noise.setEdgeValue(edge, (byte) (edge % PackedEnvironmentalFactors.NOISE_LEVELS));
+            shadow.setEdgeValue(edge, (byte) (edge * 7));
+            csv.setEdgeValue(edge, new byte[]{(byte) (edge * 13)});
+        }
+        List<Weighting> weightings = createWeightings();
+        Weighting combined = combine(weightings);
+
+        AllEdgesIterator edges = graph.getAllEdges();
+        while (edges.next()) {
+            double expected = 0;
+            for (Weighting weighting : weightings)
+                expected += weighting.calcEdgeWeight(edges, false);
+            assertEquals(expected, combined.calcEdgeWeight(edges, false), 1e-9);
+        }
+    }
+
+    @Test
+    void greenAndNoiseLevelsAreClampedWhenPacking() {
+        for (int edge = 0; edge < EDGES; edge++) {
+            green.setEdgeValue(edge, (byte) (edge % 2 == 0 ? 100 : -1));
+            noise.setEdgeValue(edge, (byte) (edge % 2 == 0 ? 200 : 7));
+            shadow.setEdgeValue(edge, (byte) 0);
+            csv.setEdgeValue(edge, new byte[]{0});
+        }
+        Weighting combined = combine(createWeightings());
+
+        // the same as the weightings would give for the highest and lowest levels
+        for (int edge = 0; edge < EDGES; edge++) {
+            green.setEdgeValue(edge, (byte) (edge % 2 == 0 ? PackedEnvironmentalFactors.GREEN_LEVELS - 1 : 0));
+            noise.setEdgeValue(edge, (byte) (edge % 2 == 0 ? 0 : PackedEnvironmentalFactors.NOISE_LEVELS - 1));
+        }
+        List<Weighting> weightings = createWeightings();
+        AllEdgesIterator edges = graph.getAllEdges();
+        while (edges.next()) {
+            double expected = 0;
+            for (Weighting weighting : weightings)
+                expected += weighting.calcEdgeWeight(edges, false);
+            assertEquals(expected, combined.calcEdgeWeight(edges, false), 1e-9);
+        }
+    }
+
+    private List<Weighting> createWeightings() {
+        PMap params = new PMap().putObject("factor", 0.7).putObject("column", "heat");
+        return List.of(
+                new GreenWeighting(carEncoder, params, graph),
+                new QuietWeighting(carEncoder, params, graph),
+                new ShadowWeighting(carEncoder, params, graph),
+                new HeatStressWeighting(carEncoder, params, graph));
+    }
+
+    private Weighting combine(List<Weighting> weightings) {
+        List<Weighting> combined = EnvironmentalFactorsWeighting.combine(weightings, carEncoder, new PackedEnvironmentalFactors(), graph);
+        assertEquals(1, combined.size());
+        assertInstanceOf(EnvironmentalFactorsWeighting.class, combined.get(0));
+        return combined.get(0);
+    }
+}
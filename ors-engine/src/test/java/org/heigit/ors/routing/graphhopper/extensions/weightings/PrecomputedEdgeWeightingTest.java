@@ -0,0 +1,106 @@
+package org.heigit.ors.routing.graphhopper.extensions.weightings;
+
+import com.graphhopper.routing.util.AccessFilter;
+import com.graphhopper.routing.util.CarFlagEncoder;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.weighting.FastestWeighting;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.GraphBuilder;
+import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.util.EdgeExplorer;
+import com.graphhopper.util.EdgeIterator;
+import com.graphhopper.util.GHUtility;
+import org.heigit.ors.routing.graphhopper.extensions.weighting.EdgeWeightColumns;
+import org.heigit.ors.routing.graphhopper.extensions.weighting.PrecomputedEdgeWeighting;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrecomputedEdgeWeightingTest {
+    private final CarFlagEncoder carEncoder = new CarFlagEncoder();
+    private final EncodingManager encodingManager = EncodingManager.create(carEncoder);
+
+    private GraphHopperStorage createGraph() {
+        GraphHopperStorage g = new GraphBuilder(encodingManager).create();
+        GHUtility.setSpeed(60, 30, carEncoder, g.edge(0, 1).setDistance(100));
+        GHUtility.setSpeed(50, true, false, carEncoder, g.edge(1, 2).setDistance(120.3));
+        GHUtility.setSpeed(20, true, true, carEncoder, g.edge(3, 2).setDistance(33.3));
+        GHUtility.setSpeed(90, false, true, carEncoder, g.edge(3, 0).setDistance(1000));
+        g.freeze();
+        return g;
+    }
+
+    @Test
+    void sameWeightsAsWrappedWeighting() {
+        GraphHopperStorage g = createGraph();
+        Weighting weighting = new FastestWeighting(carEncoder);
+        Weighting precomputed = new EdgeWeightColumns(1, Runnable::run).createWeighting("car", weighting, () -> new FastestWeighting(carEncoder), g.getBaseGraph());
+
+        EdgeExplorer explorer = g.createEdgeExplorer(AccessFilter.allEdges(carEncoder.getAccessEnc()));
+        for (int node = 0; node < g.getNodes(); node++) {
+            EdgeIterator iter = explorer.setBaseNode(node);
+            while (iter.next()) {
+                for (boolean reverse : new boolean[]{false, true}) {
+                    double expected = weighting.calcEdgeWeight(iter, reverse);
+                    double actual = precomputed.calcEdgeWeight(iter, reverse);
+                    if (Double.isInfinite(expected)) {
+                        assertTrue(Double.isInfinite(actual));
+                    } else {
+                        assertTrue(actual >= expected);
+                        assertEquals(expected, actual, expected * 1e-6);
+                    }
+                }
+            }
+        }
+        assertEquals(weighting.getName(), precomputed.getName());
+    }
+
+    @Test
+    void columnsAreReusedAndEvicted() {
+        GraphHopperStorage g = createGraph();
+        EdgeWeightColumns columns = new EdgeWeightColumns(2, Runnable::run);
+        columns.createWeighting("a", new FastestWeighting(carEncoder), () -> new FastestWeighting(carEncoder), g.getBaseGraph());
+        columns.createWeighting("b", new FastestWeighting(carEncoder), () -> new FastestWeighting(carEncoder), g.getBaseGraph());
+        columns.createWeighting("a", new FastestWeighting(carEncoder), () -> new FastestWeighting(carEncoder), g.getBaseGraph());
+        assertEquals(2, columns.size());
+        columns.createWeighting("c", new FastestWeighting(carEncoder), () -> new FastestWeighting(carEncoder), g.getBaseGraph());
+        assertEquals(2, columns.size());
+    }
+
+    @Test
+    void plainWeightingIsUsedUntilColumnIsComputed() {
+        GraphHopperStorage g = createGraph();
+        List<Runnable> tasks = new ArrayList<>();
+        EdgeWeightColumns columns = new EdgeWeightColumns(1, tasks::add);
+        Weighting weighting = new FastestWeighting(carEncoder);
+
+        assertSame(weighting, columns.createWeighting("car", weighting, () -> new FastestWeighting(carEncoder), g.getBaseGraph()));
+        assertSame(weighting, columns.createWeighting("car", weighting, () -> new FastestWeighting(carEncoder), g.getBaseGraph()));
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        assertInstanceOf(PrecomputedEdgeWeighting.class, columns.createWeighting("car", weighting, () -> new FastestWeighting(carEncoder), g.getBaseGraph()));
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void failedColumnIsComputedAgain() {
+        GraphHopperStorage g = createGraph();
+        List<Runnable> tasks = new ArrayList<>();
+        EdgeWeightColumns columns = new EdgeWeightColumns(1, tasks::add);
+        Weighting weighting = new FastestWeighting(carEncoder);
+
+        columns.createWeighting("car", weighting, () -> {
+            throw new IllegalStateException("graph closed");
+        }, g.getBaseGraph());
+        tasks.remove(0).run();
+        assertEquals(0, columns.size());
+
+        assertSame(weighting, columns.createWeighting("car", weighting, () -> new FastestWeighting(carEncoder), g.getBaseGraph()));
+        tasks.remove(0).run();
+        assertInstanceOf(PrecomputedEdgeWeighting.class, columns.createWeighting("car", weighting, () -> new FastestWeighting(carEncoder), g.getBaseGraph()));
+    }
+}
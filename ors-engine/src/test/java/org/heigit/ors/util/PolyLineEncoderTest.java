@@ -2,7 +2,9 @@ package org.heigit.ors.util;
 
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class PolyLineEncoderTest {
     @Test
@@ -24,4 +26,27 @@ public class PolyLineEncoderTest {
         String encodedPolyline = PolylineEncoder.encode(coords, true, new StringBuilder());
         assertEquals("_p~iF~ps|UonT_ulLnnqCo}@_mqNvxq`@~{B", encodedPolyline);
     }
+
+    @Test
+    void encodePolyLineToChars() {
+        Coordinate[] coords = {
+                new Coordinate(-120.2,38.5, 110),
+                new Coordinate(-120.95,40.7, 120),
+                new Coordinate(-126.453, 43.252, 100)};
+        char[] buffer = new char[PolylineEncoder.encodedLength(coords, true) + 1];
+        int end = PolylineEncoder.encode(coords, true, buffer, 1);
+        assertEquals(buffer.length, end);
+        assertEquals("_p~iF~ps|UonT_ulLnnqCo}@_mqNvxq`@~{B", new String(buffer, 1, end - 1));
+    }
+
+    @Test
+    void decodePolyLine() {
+        Coordinate[] coords = PolylineEncoder.decode("_p~iF~ps|UonT_ulLnnqCo}@_mqNvxq`@~{B", true);
+        assertEquals(3, coords.length);
+        assertEquals(-126.453, coords[2].x, 1e-9);
+        assertEquals(43.252, coords[2].y, 1e-9);
+        assertEquals(100, coords[2].z, 1e-9);
+        assertEquals(-120.95, PolylineEncoder.decode("_p~iF~ps|U_ulLnnqC_mqNvxq`@", false)[1].x, 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> PolylineEncoder.decode("_p~iF~ps|", false));
+    }
 }